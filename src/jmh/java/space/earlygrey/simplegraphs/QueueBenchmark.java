@@ -0,0 +1,135 @@
+/*
+MIT License
+
+Copyright (c) 2020 earlygrey
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package space.earlygrey.simplegraphs;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import space.earlygrey.simplegraphs.algorithms.QueueType;
+
+/**
+ * Compares the priority queues used by Dijkstra's algorithm and A* search. Run with {@code ./gradlew jmh}. A bucket queue is only
+ * used on graphs whose weights are known to be integers and for searches without a heuristic, and a binary heap is used in its
+ * place otherwise, so only its time on the compact grid measures the bucket queue itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueueBenchmark {
+
+    @Param({"BINARY_HEAP", "QUATERNARY_HEAP", "PAIRING_HEAP", "LAZY_HEAP", "BUCKET_QUEUE", "RADIX_HEAP"})
+    public QueueType queueType;
+
+    private static final int GRID_SIZE = 512, VERTEX_COUNT = 100_000, DEGREE = 4, QUERY_COUNT = 64;
+
+    private GridGraph grid;
+    private IntDirectedGraph randomGraph;
+    private CompactGraph<Integer> compactGrid;
+    private int[] starts, targets;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(3);
+        grid = new GridGraph(GRID_SIZE, GRID_SIZE, true);
+        for (int x = 0; x < GRID_SIZE; x++) {
+            for (int y = 0; y < GRID_SIZE; y++) {
+                grid.setCost(x, y, 1 + random.nextInt(8));
+            }
+        }
+        grid.algorithms().setQueueType(queueType);
+
+        randomGraph = new IntDirectedGraph();
+        for (int i = 0; i < VERTEX_COUNT; i++) {
+            randomGraph.addVertex(i);
+        }
+        for (int i = 0; i < VERTEX_COUNT; i++) {
+            for (int k = 0; k < DEGREE; k++) {
+                int j = random.nextInt(VERTEX_COUNT);
+                if (j != i && !randomGraph.edgeExists(i, j)) randomGraph.addEdge(i, j, 1 + random.nextInt(100));
+            }
+        }
+        randomGraph.algorithms().setQueueType(queueType);
+
+        // a 4-connected grid with integer weights
+        Graph<Integer> graph = new UndirectedGraph<>();
+        for (int i = 0; i < GRID_SIZE * GRID_SIZE; i++) {
+            graph.addVertex(i);
+        }
+        for (int x = 0; x < GRID_SIZE; x++) {
+            for (int y = 0; y < GRID_SIZE; y++) {
+                int cell = y * GRID_SIZE + x;
+                if (x < GRID_SIZE - 1) graph.addEdge(cell, cell + 1, 1 + random.nextInt(10));
+                if (y < GRID_SIZE - 1) graph.addEdge(cell, cell + GRID_SIZE, 1 + random.nextInt(10));
+            }
+        }
+        compactGrid = graph.freeze();
+        compactGrid.algorithms().setQueueType(queueType);
+
+        starts = new int[QUERY_COUNT];
+        targets = new int[QUERY_COUNT];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            starts[i] = random.nextInt(GRID_SIZE * GRID_SIZE);
+            targets[i] = random.nextInt(GRID_SIZE * GRID_SIZE);
+        }
+    }
+
+    @Benchmark
+    public float gridAStar() {
+        float sum = 0;
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            sum += grid.algorithms().findMinimumDistance(starts[i], targets[i], grid.getHeuristic());
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public float compactGridDijkstra() {
+        float sum = 0;
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            sum += compactGrid.algorithms().findMinimumDistance(starts[i], targets[i]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public void randomGraphDijkstra() {
+        randomGraph.algorithms().dijkstraSearch(starts[0] % VERTEX_COUNT, null);
+    }
+
+}
@@ -121,6 +121,22 @@ public class Array<T> extends AbstractCollection<T> {
     }
 
 
+    /**
+     * Removes the item at the given index by moving the last item into its place. This takes constant time,
+     * but does not preserve the order of the items.
+     * @param index the index of the item to remove
+     * @return the removed item
+     */
+    @SuppressWarnings("unchecked")
+    public T removeSwap(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
+        T item = (T) items[index];
+        size--;
+        items[index] = items[size];
+        items[size] = null;
+        return item;
+    }
+
     void resize(int newSize) {
         if (newSize > items.length) {
             strictResize(Math.max(2*items.length, newSize));
@@ -0,0 +1,409 @@
+/*
+MIT License
+
+Copyright (c) 2020 earlygrey
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package space.earlygrey.simplegraphs;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import space.earlygrey.simplegraphs.algorithms.CompactGraphAlgorithms;
+import space.earlygrey.simplegraphs.algorithms.IndexedGraph;
+import space.earlygrey.simplegraphs.utils.WeightFunction;
+
+/**
+ * <p>An immutable snapshot of a {@link Graph} in compressed sparse row form. Vertices are given dense ids in the range [0, {@link #size()}),
+ * in the iteration order of the original graph, and the outgoing edges of the vertex with id i are held in the index range
+ * [offsets[i], offsets[i+1]) of two flat arrays containing the head vertex id and weight of each edge. The incoming edges of
+ * a directed graph are held in the same way, so that searches can also run backwards from a target.</p>
+ *
+ * <p>This makes scanning edges cache friendly and uses a fraction of the memory of a {@link Graph}, so it is well suited
+ * to large graphs that are queried many times without being modified. Edge weights are evaluated once, when the snapshot is created,
+ * and later changes to the original graph are not reflected in the snapshot.</p>
+ *
+ * @param <V> the vertex type
+ */
+public class CompactGraph<V> implements IndexedGraph<V> {
+
+    //================================================================================
+    // Members
+    //================================================================================
+
+    final Object[] vertices;
+
+    // edges from vertex i are in [offsets[i], offsets[i+1])
+    final int[] offsets;
+    final int[] targets;
+    final float[] weights;
+
+    // edges into vertex i are in [inOffsets[i], inOffsets[i+1]). For undirected graphs these are the outgoing arrays.
+    final int[] inOffsets;
+    final int[] sources;
+    final float[] inWeights;
+
+    // open addressing hash table holding (id + 1) of each vertex, 0 marks an empty slot
+    private final int[] table;
+
+    private final boolean directed;
+    private final int edgeCount;
+    private final int integerWeightBound;
+
+    private final CompactGraphAlgorithms<V> algorithms;
+
+    //================================================================================
+    // Constructor
+    //================================================================================
+
+    /**
+     * Create a snapshot of the given graph. See {@link Graph#freeze()}.
+     * @param graph the graph to take a snapshot of
+     */
+    public CompactGraph(Graph<V> graph) {
+        int n = graph.size();
+        directed = graph.isDirected();
+        edgeCount = graph.getEdgeCount();
+
+        vertices = graph.getVertices().toArray();
+        table = new int[tableLength(n)];
+        for (int i = 0; i < n; i++) {
+            insert(i);
+        }
+
+        offsets = new int[n + 1];
+        int id = 0;
+        for (Node<V> node : graph.getNodes()) {
+            offsets[id + 1] = offsets[id] + node.getOutDegree();
+            id++;
+        }
+
+        targets = new int[offsets[n]];
+        weights = new float[offsets[n]];
+        int index = 0;
+        for (Node<V> node : graph.getNodes()) {
+            Array<Connection<V>> outEdges = node.getOutEdges();
+            for (int i = 0; i < outEdges.size; i++) {
+                Connection<V> e = outEdges.get(i);
+                targets[index] = getId(e.b.object);
+                weights[index] = e.getWeight();
+                index++;
+            }
+        }
+
+        integerWeightBound = findIntegerWeightBound(weights);
+
+        if (directed) {
+            inOffsets = new int[n + 1];
+            for (int target : targets) {
+                inOffsets[target + 1]++;
+            }
+            for (int i = 0; i < n; i++) {
+                inOffsets[i + 1] += inOffsets[i];
+            }
+            sources = new int[targets.length];
+            inWeights = new float[targets.length];
+            int[] next = Arrays.copyOf(inOffsets, n);
+            for (int i = 0; i < n; i++) {
+                for (int j = offsets[i]; j < offsets[i + 1]; j++) {
+                    int k = next[targets[j]]++;
+                    sources[k] = i;
+                    inWeights[k] = weights[j];
+                }
+            }
+        } else {
+            inOffsets = offsets;
+            sources = targets;
+            inWeights = weights;
+        }
+
+        algorithms = new CompactGraphAlgorithms<>(this);
+    }
+
+    //================================================================================
+    // Vertex ids
+    //================================================================================
+
+    private static int findIntegerWeightBound(float[] weights) {
+        int bound = 0;
+        for (float weight : weights) {
+            if (!(weight >= 0) || weight > Integer.MAX_VALUE || weight != (int) weight) return -1;
+            bound = Math.max(bound, (int) weight);
+        }
+        return bound;
+    }
+
+    private static int tableLength(int size) {
+        int length = 2;
+        while (length < 2 * size) length <<= 1;
+        return length;
+    }
+
+    private void insert(int id) {
+        int mask = table.length - 1;
+        int i = NodeMap.hash(vertices[id]) & mask;
+        while (table[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        table[i] = id + 1;
+    }
+
+    @Override
+    public int getId(V v) {
+        int mask = table.length - 1;
+        int i = NodeMap.hash(v) & mask;
+        int entry;
+        while ((entry = table[i]) != 0) {
+            if (v.equals(vertices[entry - 1])) return entry - 1;
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V getVertex(int id) {
+        return (V) vertices[id];
+    }
+
+    //================================================================================
+    // Edges
+    //================================================================================
+
+    @Override
+    public int getIdBound() {
+        return vertices.length;
+    }
+
+    @Override
+    public int getOutDegree(int id) {
+        return offsets[id + 1] - offsets[id];
+    }
+
+    @Override
+    public int getOutTarget(int id, int slot) {
+        return targets[offsets[id] + slot];
+    }
+
+    @Override
+    public float getOutWeight(int id, int slot) {
+        return weights[offsets[id] + slot];
+    }
+
+    @Override
+    public Edge<V> getOutEdge(int id, int slot) {
+        return new CompactEdge<>(this, id, offsets[id] + slot);
+    }
+
+    @Override
+    public int getInDegree(int id) {
+        return inOffsets[id + 1] - inOffsets[id];
+    }
+
+    @Override
+    public int getInSource(int id, int slot) {
+        return sources[inOffsets[id] + slot];
+    }
+
+    @Override
+    public float getInWeight(int id, int slot) {
+        return inWeights[inOffsets[id] + slot];
+    }
+
+    /**
+     * Retrieve the edge which is from v to w.
+     *
+     * @param v the tail vertex of the edge
+     * @param w the head vertex of the edge
+     * @return a read-only view of the edge if it is in the graph, otherwise null
+     */
+    public Edge<V> getEdge(V v, V w) {
+        int a = getId(v), b = getId(w);
+        if (a == -1 || b == -1) Errors.throwVertexNotInGraphVertexException(true);
+        for (int i = offsets[a]; i < offsets[a + 1]; i++) {
+            if (targets[i] == b) return new CompactEdge<>(this, a, i);
+        }
+        return null;
+    }
+
+    /**
+     * Check if the graph contains an edge from v to w.
+     *
+     * @param v the tail vertex of the edge
+     * @param w the head vertex of the edge
+     * @return true if the edge is in the graph, false otherwise
+     */
+    public boolean edgeExists(V v, V w) {
+        return getEdge(v, w) != null;
+    }
+
+    //================================================================================
+    // Getters
+    //================================================================================
+
+    /**
+     * Check if the graph contains a vertex.
+     *
+     * @param v the vertex with which to check
+     * @return true if the graph contains the vertex, false otherwise
+     */
+    public boolean contains(V v) {
+        return getId(v) != -1;
+    }
+
+    /**
+     * Get a list of all the vertices in the graph, where each vertex is at the index of its id.
+     *
+     * @return an unmodifiable list of all the vertices in the graph
+     */
+    @SuppressWarnings("unchecked")
+    public List<V> getVertices() {
+        return Collections.unmodifiableList(Arrays.asList((V[]) vertices));
+    }
+
+    @Override
+    public int getIntegerWeightBound() {
+        return integerWeightBound;
+    }
+
+    @Override
+    public boolean isDirected() {
+        return directed;
+    }
+
+    /**
+     * Get the number of vertices in the graph.
+     *
+     * @return the number of vertices
+     */
+    public int size() {
+        return vertices.length;
+    }
+
+    /**
+     * Get the number of edges in the graph.
+     *
+     * @return the number of edges
+     */
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    public CompactGraphAlgorithms<V> algorithms() {
+        return algorithms;
+    }
+
+    @Override
+    public String toString() {
+        return "Compact " + (isDirected() ? "directed" : "undirected") + " graph with " +
+                size() + " vertices and " + getEdgeCount() + " edges";
+    }
+
+    //================================================================================
+    // Edge view
+    //================================================================================
+
+    static class CompactEdge<V> extends Edge<V> {
+
+        final CompactGraph<V> graph;
+        final int a, index;
+
+        CompactEdge(CompactGraph<V> graph, int a, int index) {
+            this.graph = graph;
+            this.a = a;
+            this.index = index;
+        }
+
+        @Override
+        public V getA() {
+            return graph.getVertex(a);
+        }
+
+        @Override
+        public V getB() {
+            return graph.getVertex(graph.targets[index]);
+        }
+
+        @Override
+        public boolean hasEndpoints(V u, V v) {
+            if (graph.directed) return getA().equals(u) && getB().equals(v);
+            return hasEndpoint(u) && hasEndpoint(v);
+        }
+
+        @Override
+        public float getWeight() {
+            return graph.weights[index];
+        }
+
+        @Override
+        public void setWeight(float weight) {
+            Errors.throwImmutableGraphException();
+        }
+
+        @Override
+        public void setWeight(WeightFunction<V> weightFunction) {
+            Errors.throwImmutableGraphException();
+        }
+
+        @Override
+        WeightFunction<V> getWeightFunction() {
+            final float weight = getWeight();
+            return (a, b) -> weight;
+        }
+
+        @Override
+        Node<V> getInternalNodeA() {
+            return null;
+        }
+
+        @Override
+        Node<V> getInternalNodeB() {
+            return null;
+        }
+
+        @Override
+        void set(Node<V> a, Node<V> b, WeightFunction<V> weightFunction) {
+            Errors.throwImmutableGraphException();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            CompactEdge<?> edge = (CompactEdge<?>) o;
+            if (graph != edge.graph) return false;
+            int b = graph.targets[index], edgeB = graph.targets[edge.index];
+            return (a == edge.a && b == edgeB) || (!graph.directed && a == edgeB && b == edge.a);
+        }
+
+        @Override
+        public int hashCode() {
+            int b = graph.targets[index];
+            if (graph.directed) return 31 * a + b;
+            return Math.min(a, b) * 31 + Math.max(a, b);
+        }
+
+        @Override
+        public String toString() {
+            return "{" + getA() + (graph.directed ? " -> " : " <> ") + getB() + ", " + getWeight() + "}";
+        }
+    }
+}
@@ -31,16 +31,21 @@ public abstract class Connection<V> extends Edge<V> {
     // Fields and constants
     //================================================================================
 
+    final Graph<V> graph;
+
     Node<V> a, b;
 
     WeightFunction<V> weight;
 
+    // the index of this connection in the out edges of a, and in the in edges of b if they are tracked
+    int outIndex = -1, inIndex = -1;
+
     //================================================================================
     // Constructor
     //================================================================================
 
-    Connection() {
-
+    Connection(Graph<V> graph) {
+        this.graph = graph;
     }
 
     //================================================================================
@@ -91,6 +96,7 @@ public abstract class Connection<V> extends Edge<V> {
     @Override
     public void setWeight(WeightFunction<V> weight) {
         this.weight = weight;
+        graph.modCount++;
     }
 
     @Override
@@ -112,6 +118,10 @@ public abstract class Connection<V> extends Edge<V> {
 
     static class DirectedConnection<V> extends Connection<V> {
 
+        DirectedConnection(Graph<V> graph) {
+            super(graph);
+        }
+
         @Override
         public boolean hasEndpoints(V u, V v) {
             return getA().equals(u) && getB().equals(v);
@@ -142,6 +152,10 @@ public abstract class Connection<V> extends Edge<V> {
 
         private UndirectedConnection<V> linked;
 
+        UndirectedConnection(Graph<V> graph) {
+            super(graph);
+        }
+
         @Override
         public boolean hasEndpoints(V u, V v) {
             return hasEndpoint(u) && hasEndpoint(v);
@@ -163,6 +177,7 @@ public abstract class Connection<V> extends Edge<V> {
         public void setWeight(WeightFunction<V> weight) {
             this.weight = weight;
             linked.weight = this.weight;
+            graph.modCount++;
         }
 
         @Override
@@ -58,7 +58,7 @@ public class DirectedGraph<V> extends Graph<V> {
 
     @Override
     protected Connection<V> obtainEdge() {
-        return new DirectedConnection<>();
+        return new DirectedConnection<>(this);
     }
 
     @Override
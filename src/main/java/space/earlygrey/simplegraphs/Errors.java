@@ -42,9 +42,25 @@ public class Errors {
         else throw new IllegalArgumentException("Vertex is not in the graph");
     }
 
+    public static void throwEdgeNotInGraphException() {
+        throw new IllegalArgumentException("Edge is not in the graph");
+    }
+
     public static void throwModificationException() {
         throw new UnsupportedOperationException("You cannot modify this Collection - use the Graph object.");
     }
 
+    public static void throwImmutableGraphException() {
+        throw new UnsupportedOperationException("You cannot modify this graph.");
+    }
+
+    public static void throwInEdgesNotTrackedException() {
+        throw new UnsupportedOperationException("This graph does not track incoming edges.");
+    }
+
+    public static void throwCellNotInGridException() {
+        throw new IllegalArgumentException("Cell is not in the grid");
+    }
+
 
 }
@@ -56,6 +56,11 @@ public abstract class Graph<V> {
 
     private WeightFunction<V> defaultEdgeWeight = (a, b) -> 1;
 
+    boolean preserveEdgeOrder = false;
+
+    // incremented whenever a vertex or edge is added or removed, or an edge weight is set
+    int modCount = 0;
+
 
     //================================================================================
     // Constructors
@@ -75,6 +80,7 @@ public abstract class Graph<V> {
 
     Graph(Graph<V> graph) {
         this(graph.getVertices());
+        preserveEdgeOrder = graph.preserveEdgeOrder;
         graph.getEdges().forEach(this::addEdge);
     }
 
@@ -104,7 +110,9 @@ public abstract class Graph<V> {
      */
 
     public boolean addVertex(V v) {
-        return nodeMap.put(v) != null;
+        if (nodeMap.put(v) == null) return false;
+        modCount++;
+        return true;
     }
 
     /**
@@ -134,6 +142,7 @@ public abstract class Graph<V> {
         Node<V> existing = nodeMap.remove(v);
         if (existing == null) return false;
         disconnect(existing);
+        modCount++;
         return true;
     }
 
@@ -260,6 +269,7 @@ public abstract class Graph<V> {
             v.disconnect();
         }
         edgeMap.clear();
+        modCount++;
     }
 
     /**
@@ -268,6 +278,7 @@ public abstract class Graph<V> {
     public void removeAllVertices() {
         edgeMap.clear();
         nodeMap.clear();
+        modCount++;
     }
 
     /**
@@ -295,6 +306,17 @@ public abstract class Graph<V> {
         }
     }
 
+    /**
+     * Create an immutable snapshot of this graph in compressed sparse row form, which is faster to search and uses less memory.
+     * Edge weights are evaluated once when the snapshot is created, and later changes to this graph are not reflected in it.
+     * See {@link CompactGraph}.
+     *
+     * @return a compact snapshot of this graph
+     */
+    public CompactGraph<V> freeze() {
+        return new CompactGraph<>(this);
+    }
+
     //--------------------
     //  Internal Methods
     //--------------------
@@ -322,9 +344,10 @@ public abstract class Graph<V> {
     }
 
     boolean removeConnection(Node<V> a, Node<V> b, boolean removeFromMap) {
-        Connection<V> e = a.removeEdge(b);
+        Connection<V> e = a.removeEdge(b, preserveEdgeOrder);
         if (e == null) return false;
         if (removeFromMap) edgeMap.remove(e);
+        modCount++;
         return true;
     }
 
@@ -439,6 +462,16 @@ public abstract class Graph<V> {
     }
 
 
+    /**
+     * Get the number of modifications made to the graph, which is incremented whenever a vertex or edge is added or removed,
+     * or the weight of an edge is set. Changes to the values returned by a weight function are not counted.
+     *
+     * @return the modification count
+     */
+    public int getModificationCount() {
+        return modCount;
+    }
+
     public Internals<V> internals() {
         return internals;
     }
@@ -472,6 +505,25 @@ public abstract class Graph<V> {
         this.defaultEdgeWeight = (a, b) -> weight;
     }
 
+    /**
+     * @return whether removing an edge preserves the order of the remaining edges of its vertices
+     */
+    public boolean isPreserveEdgeOrder() {
+        return preserveEdgeOrder;
+    }
+
+    /**
+     * Set whether removing an edge preserves the order of the remaining edges of its vertices, as returned by {@link #getEdges(Object)}
+     * and followed by searches. By default it does not: the last edge of the vertex is moved into the place of the removed edge,
+     * so that removing an edge takes constant time. If the order is preserved, removing an edge takes time proportional to the
+     * degree of its vertices.
+     *
+     * @param preserveEdgeOrder whether to preserve the order of edges
+     */
+    public void setPreserveEdgeOrder(boolean preserveEdgeOrder) {
+        this.preserveEdgeOrder = preserveEdgeOrder;
+    }
+
     /**
      * @return whether the graph is connected
      */
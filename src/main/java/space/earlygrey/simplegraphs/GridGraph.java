@@ -0,0 +1,417 @@
+/*
+MIT License
+
+Copyright (c) 2020 earlygrey
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package space.earlygrey.simplegraphs;
+
+import java.util.Arrays;
+
+import space.earlygrey.simplegraphs.algorithms.IndexedIntGraph;
+import space.earlygrey.simplegraphs.algorithms.GridAlgorithms;
+import space.earlygrey.simplegraphs.algorithms.IntAlgorithms;
+import space.earlygrey.simplegraphs.utils.IntHeuristic;
+import space.earlygrey.simplegraphs.utils.WeightFunction;
+
+/**
+ * <p>An undirected graph of the cells of a rectangular grid, where each open cell is connected to its open neighbours.
+ * Neighbours are computed from the coordinates of a cell instead of being stored, so a grid uses a few bytes per cell rather
+ * than the objects a {@link Graph} needs for each vertex and edge.</p>
+ *
+ * <p>The vertices are the cell indices y * width + x, which are also their ids, so the grid runs through the {@link IntAlgorithms}
+ * API. Cells are 4-connected, or 8-connected if diagonal moves are allowed, in which case a diagonal move is only possible if both
+ * cells beside it are open, so paths do not cut corners.</p>
+ *
+ * <p>Each cell has a cost, which is 1 by default. The weight of an edge is the average cost of its two cells, multiplied by
+ * the square root of 2 for a diagonal move. Blocked cells are not in the graph.</p>
+ */
+public class GridGraph implements IndexedIntGraph {
+
+    //================================================================================
+    // Members
+    //================================================================================
+
+    static final float SQRT2 = (float) Math.sqrt(2);
+
+    // the offsets of the neighbouring cells in each direction. Orthogonal directions come first.
+    static final int[] DX = {1, 0, -1, 0, 1, -1, -1, 1};
+    static final int[] DY = {0, 1, 0, -1, 1, 1, -1, -1};
+
+    // the direction of the edge in each slot, for each mask of open directions
+    private static final byte[][] SLOT_DIRECTIONS = new byte[256][];
+
+    static {
+        for (int mask = 0; mask < 256; mask++) {
+            byte[] directions = new byte[Integer.bitCount(mask)];
+            int slot = 0;
+            for (int d = 0; d < 8; d++) {
+                if ((mask & (1 << d)) != 0) directions[slot++] = (byte) d;
+            }
+            SLOT_DIRECTIONS[mask] = directions;
+        }
+    }
+
+    final int width, height;
+    final boolean diagonal;
+
+    // one bit per cell
+    final long[] blocked;
+    // the directions in which each cell has an open neighbour, one bit per direction
+    final byte[] masks;
+    // the cost of each cell, or null if every cell has cost 1
+    float[] costs;
+    float minCost = 1;
+    int blockedCount = 0;
+
+    private final GridAlgorithms algorithms;
+
+    //================================================================================
+    // Constructors
+    //================================================================================
+
+    /**
+     * Create a grid in which every cell is open and has cost 1.
+     * @param width the number of columns
+     * @param height the number of rows
+     * @param diagonal whether cells are connected to their diagonal neighbours
+     */
+    public GridGraph(int width, int height, boolean diagonal) {
+        if (width < 1 || height < 1) throw new IllegalArgumentException("A grid must have at least one cell.");
+        if ((long) width * height > Integer.MAX_VALUE) throw new IllegalArgumentException("A grid can have at most " + Integer.MAX_VALUE + " cells.");
+        this.width = width;
+        this.height = height;
+        this.diagonal = diagonal;
+        int size = width * height;
+        blocked = new long[(size + 63) >>> 6];
+        masks = new byte[size];
+        for (int cell = 0; cell < size; cell++) {
+            updateMask(cell);
+        }
+        algorithms = new GridAlgorithms(this);
+    }
+
+    //================================================================================
+    // Cells
+    //================================================================================
+
+    /**
+     * @return the index of the cell at the given coordinates, which is the vertex representing it
+     */
+    public int getCell(int x, int y) {
+        if (!inBounds(x, y)) Errors.throwCellNotInGridException();
+        return y * width + x;
+    }
+
+    public int getX(int cell) {
+        return cell % width;
+    }
+
+    public int getY(int cell) {
+        return cell / width;
+    }
+
+    public boolean inBounds(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height;
+    }
+
+    public boolean isBlocked(int x, int y) {
+        return isBlocked(getCell(x, y));
+    }
+
+    boolean isBlocked(int cell) {
+        return (blocked[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    /**
+     * Block or open the cell at the given coordinates. A blocked cell is removed from the graph along with its edges.
+     */
+    public void setBlocked(int x, int y, boolean isBlocked) {
+        int cell = getCell(x, y);
+        if (isBlocked == isBlocked(cell)) return;
+        if (isBlocked) {
+            blocked[cell >>> 6] |= 1L << cell;
+            blockedCount++;
+        } else {
+            blocked[cell >>> 6] &= ~(1L << cell);
+            blockedCount--;
+        }
+        updateMask(cell);
+        for (int d = 0; d < 8; d++) {
+            int nx = x + DX[d], ny = y + DY[d];
+            if (inBounds(nx, ny)) updateMask(ny * width + nx);
+        }
+    }
+
+    /**
+     * @return whether the coordinates are in the grid and the cell there is not blocked
+     */
+    public boolean isOpen(int x, int y) {
+        return inBounds(x, y) && !isBlocked(y * width + x);
+    }
+
+    private void updateMask(int cell) {
+        int mask = 0;
+        if (!isBlocked(cell)) {
+            int x = getX(cell), y = getY(cell);
+            for (int d = 0; d < 4; d++) {
+                if (isOpen(x + DX[d], y + DY[d])) mask |= 1 << d;
+            }
+            if (diagonal) {
+                for (int d = 4; d < 8; d++) {
+                    int dx = DX[d], dy = DY[d];
+                    if (isOpen(x + dx, y + dy) && isOpen(x + dx, y) && isOpen(x, y + dy)) mask |= 1 << d;
+                }
+            }
+        }
+        masks[cell] = (byte) mask;
+    }
+
+    /**
+     * @return the cost of the cell at the given coordinates
+     */
+    public float getCost(int x, int y) {
+        int cell = getCell(x, y);
+        return costs != null ? costs[cell] : 1;
+    }
+
+    /**
+     * Set the cost of the cell at the given coordinates, which must be positive.
+     */
+    public void setCost(int x, int y, float cost) {
+        int cell = getCell(x, y);
+        if (!(cost > 0)) throw new IllegalArgumentException("The cost of a cell must be positive.");
+        if (costs == null) {
+            if (cost == 1) return;
+            costs = new float[width * height];
+            Arrays.fill(costs, 1);
+        }
+        costs[cell] = cost;
+        minCost = Math.min(minCost, cost);
+    }
+
+    //================================================================================
+    // Edges
+    //================================================================================
+
+    @Override
+    public int getIdBound() {
+        return width * height;
+    }
+
+    @Override
+    public int getId(Integer v) {
+        return getIntId(v);
+    }
+
+    @Override
+    public int getIntId(int v) {
+        return v >= 0 && v < width * height && !isBlocked(v) ? v : -1;
+    }
+
+    @Override
+    public Integer getVertex(int id) {
+        return isBlocked(id) ? null : id;
+    }
+
+    @Override
+    public int getIntVertex(int id) {
+        return id;
+    }
+
+    @Override
+    public int getOutDegree(int id) {
+        return SLOT_DIRECTIONS[masks[id] & 0xFF].length;
+    }
+
+    @Override
+    public int getOutTarget(int id, int slot) {
+        int d = SLOT_DIRECTIONS[masks[id] & 0xFF][slot];
+        return id + DY[d] * width + DX[d];
+    }
+
+    @Override
+    public float getOutWeight(int id, int slot) {
+        int d = SLOT_DIRECTIONS[masks[id] & 0xFF][slot];
+        float weight = d < 4 ? 1 : SQRT2;
+        if (costs != null) weight *= (costs[id] + costs[id + DY[d] * width + DX[d]]) / 2;
+        return weight;
+    }
+
+    @Override
+    public Edge<Integer> getOutEdge(int id, int slot) {
+        return new GridEdge(this, id, getOutTarget(id, slot), getOutWeight(id, slot));
+    }
+
+    @Override
+    public boolean isDirected() {
+        return false;
+    }
+
+    @Override
+    public int getIntegerWeightBound() {
+        // diagonal moves have irrational weights, and moves between cells of different costs can have half integer weights
+        return !diagonal && costs == null ? 1 : -1;
+    }
+
+    //================================================================================
+    // Getters
+    //================================================================================
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public boolean isDiagonal() {
+        return diagonal;
+    }
+
+    /**
+     * @return whether every cell has cost 1
+     */
+    public boolean hasUniformCost() {
+        return costs == null;
+    }
+
+    /**
+     * @return the number of open cells, which are the vertices of the graph
+     */
+    public int size() {
+        return width * height - blockedCount;
+    }
+
+    public boolean contains(int cell) {
+        return getIntId(cell) != -1;
+    }
+
+    /**
+     * Get a heuristic which estimates the distance between two cells from their coordinates: the Manhattan distance on a
+     * 4-connected grid, and the octile distance on an 8-connected grid, scaled by the lowest cost of any cell.
+     * @return an admissible and consistent heuristic for this grid
+     */
+    public IntHeuristic getHeuristic() {
+        return (u, v) -> {
+            int dx = Math.abs(getX(u) - getX(v)), dy = Math.abs(getY(u) - getY(v));
+            float distance = diagonal ? Math.max(dx, dy) + (SQRT2 - 1) * Math.min(dx, dy) : dx + dy;
+            return distance * minCost;
+        };
+    }
+
+    public GridAlgorithms algorithms() {
+        return algorithms;
+    }
+
+    @Override
+    public String toString() {
+        return width + "x" + height + " grid graph with " + size() + " open cells";
+    }
+
+    //================================================================================
+    // Edge view
+    //================================================================================
+
+    static class GridEdge extends Edge<Integer> {
+
+        final GridGraph graph;
+        final int a, b;
+        final float weight;
+
+        GridEdge(GridGraph graph, int a, int b, float weight) {
+            this.graph = graph;
+            this.a = a;
+            this.b = b;
+            this.weight = weight;
+        }
+
+        @Override
+        public Integer getA() {
+            return a;
+        }
+
+        @Override
+        public Integer getB() {
+            return b;
+        }
+
+        @Override
+        public boolean hasEndpoints(Integer u, Integer v) {
+            return hasEndpoint(u) && hasEndpoint(v);
+        }
+
+        @Override
+        public float getWeight() {
+            return weight;
+        }
+
+        @Override
+        public void setWeight(float weight) {
+            Errors.throwImmutableGraphException();
+        }
+
+        @Override
+        public void setWeight(WeightFunction<Integer> weightFunction) {
+            Errors.throwImmutableGraphException();
+        }
+
+        @Override
+        WeightFunction<Integer> getWeightFunction() {
+            final float weight = this.weight;
+            return (a, b) -> weight;
+        }
+
+        @Override
+        Node<Integer> getInternalNodeA() {
+            return null;
+        }
+
+        @Override
+        Node<Integer> getInternalNodeB() {
+            return null;
+        }
+
+        @Override
+        void set(Node<Integer> a, Node<Integer> b, WeightFunction<Integer> weightFunction) {
+            Errors.throwImmutableGraphException();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            GridEdge edge = (GridEdge) o;
+            return graph == edge.graph && ((a == edge.a && b == edge.b) || (a == edge.b && b == edge.a));
+        }
+
+        @Override
+        public int hashCode() {
+            return Math.min(a, b) * 31 + Math.max(a, b);
+        }
+
+        @Override
+        public String toString() {
+            return "{" + a + " <> " + b + ", " + weight + "}";
+        }
+    }
+
+}
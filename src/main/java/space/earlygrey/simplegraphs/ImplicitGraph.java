@@ -0,0 +1,375 @@
+/*
+MIT License
+
+Copyright (c) 2020 earlygrey
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package space.earlygrey.simplegraphs;
+
+import java.util.Arrays;
+
+import space.earlygrey.simplegraphs.algorithms.ImplicitGraphAlgorithms;
+import space.earlygrey.simplegraphs.algorithms.IndexedGraph;
+import space.earlygrey.simplegraphs.utils.NeighbourFunction;
+import space.earlygrey.simplegraphs.utils.WeightFunction;
+
+/**
+ * <p>A directed graph whose edges are generated on demand by a {@link NeighbourFunction}, for state spaces which are far too
+ * large to build with {@link Graph#addVertex(Object)} and {@link Graph#addEdge(Object, Object)}, such as the positions of a
+ * puzzle. Vertices are discovered as searches reach them, and are given ids in the order in which they are discovered. The
+ * outgoing edges of each vertex are generated the first time a search asks for them, and are kept in flat arrays, so the
+ * memory used, including the scratch state of searches (see {@link space.earlygrey.simplegraphs.algorithms.SearchContext}),
+ * grows with the number of vertices explored rather than the size of the whole graph.</p>
+ *
+ * <p>The number of vertices which can be discovered is bounded by a capacity. Once it is reached, edges to undiscovered vertices
+ * are left out, so searches see only the part of the graph discovered so far, and {@link #isCapacityReached()} returns true.
+ * Calling {@link #clear()} between searches forgets every discovered vertex, and should be done whenever the neighbour function
+ * changes.</p>
+ *
+ * <p>Since reading the graph modifies it, an implicit graph must not be searched by more than one thread at a time.</p>
+ *
+ * @param <V> the vertex type
+ */
+public class ImplicitGraph<V> implements IndexedGraph<V> {
+
+    public static final int DEFAULT_CAPACITY = 1 << 20;
+
+    //================================================================================
+    // Members
+    //================================================================================
+
+    private final NeighbourFunction<V> neighbourFunction;
+    private final int capacity;
+
+    private Object[] vertices = new Object[16];
+    private int size;
+
+    // open addressing hash table holding (id + 1) of each vertex, 0 marks an empty slot
+    private int[] table = new int[32];
+
+    // the edges from vertex i are in [offsets[i], offsets[i] + degrees[i]), or offsets[i] is -1 if they have not been generated
+    private int[] offsets = new int[16], degrees = new int[16];
+    private int[] targets = new int[64];
+    private float[] weights = new float[64];
+    private int edgeCount;
+
+    private boolean capacityReached;
+    private final Generator generator = new Generator();
+
+    private final ImplicitGraphAlgorithms<V> algorithms;
+
+    //================================================================================
+    // Constructors
+    //================================================================================
+
+    /**
+     * Create a graph which can discover up to {@link #DEFAULT_CAPACITY} vertices.
+     * @param neighbourFunction the function which generates the outgoing edges of each vertex
+     */
+    public ImplicitGraph(NeighbourFunction<V> neighbourFunction) {
+        this(neighbourFunction, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param neighbourFunction the function which generates the outgoing edges of each vertex
+     * @param capacity the maximum number of vertices which can be discovered before the graph is cleared
+     */
+    public ImplicitGraph(NeighbourFunction<V> neighbourFunction, int capacity) {
+        if (neighbourFunction == null) throw new IllegalArgumentException("Neighbour function cannot be null.");
+        if (capacity < 1) throw new IllegalArgumentException("The capacity of a graph must be at least 1.");
+        this.neighbourFunction = neighbourFunction;
+        this.capacity = capacity;
+        algorithms = new ImplicitGraphAlgorithms<>(this);
+    }
+
+    //================================================================================
+    // Vertex ids
+    //================================================================================
+
+    /**
+     * Get the id of the vertex, discovering it if it has not been seen before.
+     * @return the id of the vertex, or -1 if it has not been discovered and the capacity has been reached
+     */
+    @Override
+    public int getId(V v) {
+        if (v == null) Errors.throwNullVertexException();
+        int mask = table.length - 1;
+        int i = NodeMap.hash(v) & mask;
+        int entry;
+        while ((entry = table[i]) != 0) {
+            if (v.equals(vertices[entry - 1])) return entry - 1;
+            i = (i + 1) & mask;
+        }
+        if (size == capacity) {
+            capacityReached = true;
+            return -1;
+        }
+        int id = size++;
+        if (id == vertices.length) {
+            int length = (int) Math.min((long) id << 1, capacity);
+            vertices = Arrays.copyOf(vertices, length);
+            offsets = Arrays.copyOf(offsets, length);
+            degrees = Arrays.copyOf(degrees, length);
+        }
+        vertices[id] = v;
+        offsets[id] = -1;
+        degrees[id] = 0;
+        table[i] = id + 1;
+        if (2 * size > table.length) rehash();
+        return id;
+    }
+
+    private void rehash() {
+        table = new int[table.length << 1];
+        int mask = table.length - 1;
+        for (int id = 0; id < size; id++) {
+            int i = NodeMap.hash(vertices[id]) & mask;
+            while (table[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            table[i] = id + 1;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V getVertex(int id) {
+        return (V) vertices[id];
+    }
+
+    /**
+     * @return whether the vertex has been discovered
+     */
+    public boolean contains(V v) {
+        int mask = table.length - 1;
+        int i = NodeMap.hash(v) & mask;
+        int entry;
+        while ((entry = table[i]) != 0) {
+            if (v.equals(vertices[entry - 1])) return true;
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    //================================================================================
+    // Edges
+    //================================================================================
+
+    @Override
+    public int getIdBound() {
+        return size;
+    }
+
+    @Override
+    public int getOutDegree(int id) {
+        if (offsets[id] == -1) generate(id);
+        return degrees[id];
+    }
+
+    @Override
+    public int getOutTarget(int id, int slot) {
+        if (offsets[id] == -1) generate(id);
+        return targets[offsets[id] + slot];
+    }
+
+    @Override
+    public float getOutWeight(int id, int slot) {
+        if (offsets[id] == -1) generate(id);
+        return weights[offsets[id] + slot];
+    }
+
+    @Override
+    public Edge<V> getOutEdge(int id, int slot) {
+        return new ImplicitEdge<>(this, id, getOutTarget(id, slot), getOutWeight(id, slot));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void generate(int id) {
+        offsets[id] = edgeCount;
+        generator.id = id;
+        neighbourFunction.getNeighbours((V) vertices[id], generator);
+    }
+
+    private class Generator implements NeighbourFunction.Neighbours<V> {
+
+        int id;
+
+        @Override
+        public void add(V neighbour, float weight) {
+            int target = getId(neighbour);
+            if (target == -1) return;
+            if (edgeCount == targets.length) {
+                targets = Arrays.copyOf(targets, edgeCount << 1);
+                weights = Arrays.copyOf(weights, edgeCount << 1);
+            }
+            targets[edgeCount] = target;
+            weights[edgeCount] = weight;
+            edgeCount++;
+            degrees[id]++;
+        }
+    }
+
+    @Override
+    public boolean isDirected() {
+        return true;
+    }
+
+    //================================================================================
+    // Misc
+    //================================================================================
+
+    /**
+     * Forget every discovered vertex and generated edge. Ids are reused for the vertices discovered afterwards, so this must not
+     * be called while a search is running.
+     */
+    public void clear() {
+        Arrays.fill(vertices, 0, size, null);
+        Arrays.fill(table, 0);
+        size = 0;
+        edgeCount = 0;
+        capacityReached = false;
+    }
+
+    /**
+     * @return the number of vertices discovered so far
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the number of edges generated so far
+     */
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return whether a vertex has been left out since the graph was last cleared, because the capacity had been reached
+     */
+    public boolean isCapacityReached() {
+        return capacityReached;
+    }
+
+    public NeighbourFunction<V> getNeighbourFunction() {
+        return neighbourFunction;
+    }
+
+    public ImplicitGraphAlgorithms<V> algorithms() {
+        return algorithms;
+    }
+
+    @Override
+    public String toString() {
+        return "Implicit graph with " + size() + " discovered vertices and " + getEdgeCount() + " edges";
+    }
+
+    //================================================================================
+    // Edge view
+    //================================================================================
+
+    static class ImplicitEdge<V> extends Edge<V> {
+
+        final ImplicitGraph<V> graph;
+        final int a, b;
+        final float weight;
+
+        ImplicitEdge(ImplicitGraph<V> graph, int a, int b, float weight) {
+            this.graph = graph;
+            this.a = a;
+            this.b = b;
+            this.weight = weight;
+        }
+
+        @Override
+        public V getA() {
+            return graph.getVertex(a);
+        }
+
+        @Override
+        public V getB() {
+            return graph.getVertex(b);
+        }
+
+        @Override
+        public boolean hasEndpoints(V u, V v) {
+            return getA().equals(u) && getB().equals(v);
+        }
+
+        @Override
+        public float getWeight() {
+            return weight;
+        }
+
+        @Override
+        public void setWeight(float weight) {
+            Errors.throwImmutableGraphException();
+        }
+
+        @Override
+        public void setWeight(WeightFunction<V> weightFunction) {
+            Errors.throwImmutableGraphException();
+        }
+
+        @Override
+        WeightFunction<V> getWeightFunction() {
+            final float weight = this.weight;
+            return (a, b) -> weight;
+        }
+
+        @Override
+        Node<V> getInternalNodeA() {
+            return null;
+        }
+
+        @Override
+        Node<V> getInternalNodeB() {
+            return null;
+        }
+
+        @Override
+        void set(Node<V> a, Node<V> b, WeightFunction<V> weightFunction) {
+            Errors.throwImmutableGraphException();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            ImplicitEdge<?> edge = (ImplicitEdge<?>) o;
+            return graph == edge.graph && a == edge.a && b == edge.b;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * a + b;
+        }
+
+        @Override
+        public String toString() {
+            return "{" + getA() + " -> " + getB() + ", " + weight + "}";
+        }
+    }
+
+}
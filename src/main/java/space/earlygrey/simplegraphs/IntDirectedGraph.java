@@ -0,0 +1,92 @@
+/*
+MIT License
+
+Copyright (c) 2020 earlygrey
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package space.earlygrey.simplegraphs;
+
+/**
+ * A directed graph whose vertices are primitive ints. See {@link IntGraph}.
+ */
+public class IntDirectedGraph extends IntGraph {
+
+    //================================================================================
+    // Constructors
+    //================================================================================
+
+    public IntDirectedGraph() {
+        super(true);
+    }
+
+    public IntDirectedGraph(int... vertices) {
+        super(true);
+        addVertices(vertices);
+    }
+
+    public IntDirectedGraph(IntGraph graph) {
+        super(true, graph);
+    }
+
+    //================================================================================
+    // Superclass implementations
+    //================================================================================
+
+    @Override
+    public IntDirectedGraph createNew() {
+        return new IntDirectedGraph();
+    }
+
+    //================================================================================
+    // Misc
+    //================================================================================
+
+    /**
+     * @param v the vertex
+     * @return the out degree of this vertex, or the number of edges for which it is the tail vertex
+     */
+    public int getOutDegree(int v) {
+        return outDegree[getExistingId(v)];
+    }
+
+    /**
+     * @param v the vertex
+     * @return the in degree of this vertex, or the number of edges for which it is the head vertex
+     */
+    public int getInDegree(int v) {
+        return inDegree[getExistingId(v)];
+    }
+
+    /**
+     * Get all the vertices u for which there is an edge from u to v.
+     *
+     * @param v the head vertex of the edges
+     * @return a new array containing the vertices
+     */
+    public int[] getInNeighbours(int v) {
+        int id = getExistingId(v);
+        int[] array = new int[inDegree[id]];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = vertices[edgeA[inEdges[id][i]]];
+        }
+        return array;
+    }
+
+}
@@ -0,0 +1,714 @@
+/*
+MIT License
+
+Copyright (c) 2020 earlygrey
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package space.earlygrey.simplegraphs;
+
+import java.util.Arrays;
+
+import space.earlygrey.simplegraphs.algorithms.IndexedIntGraph;
+import space.earlygrey.simplegraphs.algorithms.IntAlgorithms;
+import space.earlygrey.simplegraphs.utils.IntWeightFunction;
+import space.earlygrey.simplegraphs.utils.WeightFunction;
+
+/**
+ * <p>A graph whose vertices are primitive ints. This avoids boxing vertices when adding and looking them up, and when
+ * running algorithms, at the cost of the generality of {@link Graph}.</p>
+ *
+ * <p>Internally each vertex is given an id, and vertices and edges are held in flat arrays indexed by id. Ids of removed
+ * vertices and edges are reused, so removing edges may change the order in which the neighbours of a vertex are iterated.</p>
+ */
+public abstract class IntGraph {
+
+    //================================================================================
+    // Members
+    //================================================================================
+
+    final boolean directed;
+
+    // vertices, indexed by vertex id
+    final LongIntMap vertexMap = new LongIntMap();
+    int[] vertices = new int[16];
+    boolean[] occupied = new boolean[16];
+    int idBound = 0;
+    int[] freeIds = new int[16];
+    int freeIdCount = 0;
+    int size = 0;
+
+    // edge ids adjacent to each vertex, indexed by vertex id.
+    // For undirected graphs every edge is in the out edges of both of its endpoints.
+    int[][] outEdges = new int[16][];
+    int[] outDegree = new int[16];
+    int[][] inEdges;
+    int[] inDegree;
+
+    // edges, indexed by edge id. slotA and slotB hold the position of the edge in the adjacency arrays of a and b.
+    final LongIntMap edgeMap = new LongIntMap();
+    int[] edgeA = new int[16], edgeB = new int[16];
+    int[] slotA = new int[16], slotB = new int[16];
+    float[] edgeWeight = new float[16];
+    IntWeightFunction[] edgeWeightFunction = new IntWeightFunction[16];
+    int edgeIdBound = 0;
+    int[] freeEdgeIds = new int[16];
+    int freeEdgeIdCount = 0;
+    int edgeCount = 0;
+
+    private float defaultEdgeWeight = 1;
+    private IntWeightFunction defaultEdgeWeightFunction;
+
+    final Indexed indexed = new Indexed();
+    final IntAlgorithms algorithms;
+
+    //================================================================================
+    // Constructors
+    //================================================================================
+
+    IntGraph(boolean directed) {
+        this.directed = directed;
+        if (directed) {
+            inEdges = new int[16][];
+            inDegree = new int[16];
+        }
+        algorithms = new IntAlgorithms(indexed);
+    }
+
+    IntGraph(boolean directed, IntGraph graph) {
+        this(directed);
+        for (int id = 0; id < graph.idBound; id++) {
+            if (graph.occupied[id]) addVertex(graph.vertices[id]);
+        }
+        for (int e = 0; e < graph.edgeIdBound; e++) {
+            if (!graph.isEdge(e)) continue;
+            int v = graph.vertices[graph.edgeA[e]], w = graph.vertices[graph.edgeB[e]];
+            if (graph.edgeWeightFunction[e] != null) addEdge(v, w, graph.edgeWeightFunction[e]);
+            else addEdge(v, w, graph.edgeWeight[e]);
+        }
+    }
+
+    //================================================================================
+    // Graph Builders
+    //================================================================================
+
+    public abstract IntGraph createNew();
+
+    /**
+     * Adds a vertex to the graph.
+     *
+     * @param v the vertex to be added
+     * @return true if the vertex was not already in the graph, false otherwise
+     */
+    public boolean addVertex(int v) {
+        if (vertexMap.get(v) != -1) return false;
+        int id = obtainVertexId();
+        vertices[id] = v;
+        occupied[id] = true;
+        outDegree[id] = 0;
+        if (directed) inDegree[id] = 0;
+        vertexMap.put(v, id);
+        size++;
+        return true;
+    }
+
+    public void addVertices(int... vertices) {
+        for (int v : vertices) {
+            addVertex(v);
+        }
+    }
+
+    /**
+     * Removes a vertex from the graph, and any adjacent edges.
+     *
+     * @param v the vertex to be removed
+     * @return true if the vertex was in the graph, false otherwise
+     */
+    public boolean removeVertex(int v) {
+        int id = vertexMap.remove(v);
+        if (id == -1) return false;
+        disconnectId(id);
+        occupied[id] = false;
+        if (freeIdCount == freeIds.length) freeIds = Arrays.copyOf(freeIds, freeIdCount << 1);
+        freeIds[freeIdCount++] = id;
+        size--;
+        return true;
+    }
+
+    /**
+     * Removes all edges adjacent to a vertex.
+     *
+     * @param v the vertex to be disconnected
+     */
+    public void disconnect(int v) {
+        disconnectId(getExistingId(v));
+    }
+
+    void disconnectId(int id) {
+        while (outDegree[id] > 0) {
+            removeEdgeById(outEdges[id][outDegree[id] - 1]);
+        }
+        if (directed) {
+            while (inDegree[id] > 0) {
+                removeEdgeById(inEdges[id][inDegree[id] - 1]);
+            }
+        }
+    }
+
+    /**
+     * Add an edge to the graph, from v to w, with the default edge weight.
+     * If there is already an edge between v and w, its weight will be set to the default edge weight.
+     *
+     * @param v the tail vertex of the edge
+     * @param w the head vertex of the edge
+     * @return true if the edge was not already in the graph, false otherwise
+     */
+    public boolean addEdge(int v, int w) {
+        if (defaultEdgeWeightFunction != null) return addEdge(v, w, defaultEdgeWeightFunction);
+        return addEdge(v, w, defaultEdgeWeight);
+    }
+
+    /**
+     * Add an edge to the graph, from v to w and with the specified weight.
+     * If there is already an edge between v and w, its weight will be set to the specified weight.
+     *
+     * @param v      the tail vertex of the edge
+     * @param w      the head vertex of the edge
+     * @param weight the weight of the edge
+     * @return true if the edge was not already in the graph, false otherwise
+     */
+    public boolean addEdge(int v, int w, float weight) {
+        int e = obtainEdge(v, w);
+        boolean added = e < 0;
+        if (added) e = -e - 1;
+        edgeWeight[e] = weight;
+        edgeWeightFunction[e] = null;
+        return added;
+    }
+
+    /**
+     * Add an edge to the graph, from v to w and with the specified weight.
+     * If there is already an edge between v and w, its weight will be set to the specified weight.
+     *
+     * @param v              the tail vertex of the edge
+     * @param w              the head vertex of the edge
+     * @param weightFunction a function which will return the weight of the edge
+     * @return true if the edge was not already in the graph, false otherwise
+     */
+    public boolean addEdge(int v, int w, IntWeightFunction weightFunction) {
+        if (weightFunction == null) Errors.throwNullItemException();
+        int e = obtainEdge(v, w);
+        boolean added = e < 0;
+        if (added) e = -e - 1;
+        edgeWeightFunction[e] = weightFunction;
+        return added;
+    }
+
+    /**
+     * Removes the edge from v to w from the graph.
+     *
+     * @param v the tail vertex of the edge
+     * @param w the head vertex of the edge
+     * @return true if there was an edge from v to w, false otherwise
+     */
+    public boolean removeEdge(int v, int w) {
+        int e = edgeMap.remove(edgeKey(getExistingId(v), getExistingId(w)));
+        if (e == -1) return false;
+        unlinkEdge(e);
+        return true;
+    }
+
+    /**
+     * Removes all edges from the graph.
+     */
+    public void removeAllEdges() {
+        for (int id = 0; id < idBound; id++) {
+            outDegree[id] = 0;
+            if (directed) inDegree[id] = 0;
+        }
+        Arrays.fill(edgeWeightFunction, null);
+        edgeMap.clear();
+        edgeIdBound = 0;
+        freeEdgeIdCount = 0;
+        edgeCount = 0;
+    }
+
+    /**
+     * Removes all vertices and edges from the graph.
+     */
+    public void removeAllVertices() {
+        removeAllEdges();
+        Arrays.fill(occupied, false);
+        vertexMap.clear();
+        idBound = 0;
+        freeIdCount = 0;
+        size = 0;
+    }
+
+    //--------------------
+    //  Internal Methods
+    //--------------------
+
+    private int obtainVertexId() {
+        if (freeIdCount > 0) return freeIds[--freeIdCount];
+        if (idBound == vertices.length) {
+            int length = idBound << 1;
+            vertices = Arrays.copyOf(vertices, length);
+            occupied = Arrays.copyOf(occupied, length);
+            outEdges = Arrays.copyOf(outEdges, length);
+            outDegree = Arrays.copyOf(outDegree, length);
+            if (directed) {
+                inEdges = Arrays.copyOf(inEdges, length);
+                inDegree = Arrays.copyOf(inDegree, length);
+            }
+        }
+        return idBound++;
+    }
+
+    private int obtainEdgeId() {
+        if (freeEdgeIdCount > 0) return freeEdgeIds[--freeEdgeIdCount];
+        if (edgeIdBound == edgeA.length) {
+            int length = edgeIdBound << 1;
+            edgeA = Arrays.copyOf(edgeA, length);
+            edgeB = Arrays.copyOf(edgeB, length);
+            slotA = Arrays.copyOf(slotA, length);
+            slotB = Arrays.copyOf(slotB, length);
+            edgeWeight = Arrays.copyOf(edgeWeight, length);
+            edgeWeightFunction = Arrays.copyOf(edgeWeightFunction, length);
+        }
+        return edgeIdBound++;
+    }
+
+    /**
+     * Get the id of the edge from v to w, creating it if it does not exist.
+     * @return the edge id if the edge already exists, otherwise -(id + 1) of the new edge
+     */
+    private int obtainEdge(int v, int w) {
+        if (v == w) Errors.throwSameVertexException();
+        int a = vertexMap.get(v), b = vertexMap.get(w);
+        if (a == -1 || b == -1) Errors.throwVertexNotInGraphVertexException(true);
+        long key = edgeKey(a, b);
+        int e = edgeMap.get(key);
+        if (e != -1) return e;
+
+        e = obtainEdgeId();
+        edgeA[e] = a;
+        edgeB[e] = b;
+        slotA[e] = addToAdjacency(outEdges, outDegree, a, e);
+        slotB[e] = directed ? addToAdjacency(inEdges, inDegree, b, e) : addToAdjacency(outEdges, outDegree, b, e);
+        edgeMap.put(key, e);
+        edgeCount++;
+        return -e - 1;
+    }
+
+    private static int addToAdjacency(int[][] adjacency, int[] degree, int id, int e) {
+        int[] edges = adjacency[id];
+        int slot = degree[id];
+        if (edges == null) {
+            edges = adjacency[id] = new int[4];
+        } else if (slot == edges.length) {
+            edges = adjacency[id] = Arrays.copyOf(edges, slot << 1);
+        }
+        edges[slot] = e;
+        degree[id]++;
+        return slot;
+    }
+
+    void removeEdgeById(int e) {
+        edgeMap.remove(edgeKey(edgeA[e], edgeB[e]));
+        unlinkEdge(e);
+    }
+
+    /**
+     * Remove the edge from the adjacency arrays of its endpoints, by moving the last edge of each array into its slot.
+     */
+    private void unlinkEdge(int e) {
+        removeOutSlot(edgeA[e], slotA[e]);
+        if (directed) removeInSlot(edgeB[e], slotB[e]);
+        else removeOutSlot(edgeB[e], slotB[e]);
+        edgeWeightFunction[e] = null;
+        edgeA[e] = -1;
+        if (freeEdgeIdCount == freeEdgeIds.length) freeEdgeIds = Arrays.copyOf(freeEdgeIds, freeEdgeIdCount << 1);
+        freeEdgeIds[freeEdgeIdCount++] = e;
+        edgeCount--;
+    }
+
+    private void removeOutSlot(int id, int slot) {
+        int moved = outEdges[id][--outDegree[id]];
+        outEdges[id][slot] = moved;
+        if (edgeA[moved] == id) slotA[moved] = slot;
+        else slotB[moved] = slot;
+    }
+
+    private void removeInSlot(int id, int slot) {
+        int moved = inEdges[id][--inDegree[id]];
+        inEdges[id][slot] = moved;
+        slotB[moved] = slot;
+    }
+
+    boolean isEdge(int e) {
+        return edgeA[e] != -1;
+    }
+
+    long edgeKey(int a, int b) {
+        if (!directed && a > b) {
+            int t = a;
+            a = b;
+            b = t;
+        }
+        return ((long) a << 32) | b;
+    }
+
+    int getExistingId(int v) {
+        int id = vertexMap.get(v);
+        if (id == -1) Errors.throwVertexNotInGraphVertexException(false);
+        return id;
+    }
+
+    int getTarget(int id, int e) {
+        return edgeA[e] == id ? edgeB[e] : edgeA[e];
+    }
+
+    float getWeight(int id, int e) {
+        IntWeightFunction weightFunction = edgeWeightFunction[e];
+        if (weightFunction == null) return edgeWeight[e];
+        return weightFunction.getWeight(vertices[id], vertices[getTarget(id, e)]);
+    }
+
+    int getEdgeId(int v, int w) {
+        int e = edgeMap.get(edgeKey(getExistingId(v), getExistingId(w)));
+        if (e == -1) Errors.throwEdgeNotInGraphException();
+        return e;
+    }
+
+    //================================================================================
+    // Getters
+    //================================================================================
+
+    /**
+     * Check if the graph contains a vertex.
+     *
+     * @param v the vertex with which to check
+     * @return true if the graph contains the vertex, false otherwise
+     */
+    public boolean contains(int v) {
+        return vertexMap.get(v) != -1;
+    }
+
+    /**
+     * Check if the graph contains an edge from v to w.
+     *
+     * @param v the tail vertex of the edge
+     * @param w the head vertex of the edge
+     * @return true if the edge is in the graph, false otherwise
+     */
+    public boolean edgeExists(int v, int w) {
+        return edgeMap.get(edgeKey(getExistingId(v), getExistingId(w))) != -1;
+    }
+
+    /**
+     * Get the weight of the edge from v to w. An exception is thrown if the edge is not in the graph.
+     *
+     * @param v the tail vertex of the edge
+     * @param w the head vertex of the edge
+     * @return the weight of the edge
+     */
+    public float getEdgeWeight(int v, int w) {
+        int e = getEdgeId(v, w);
+        return getWeight(edgeA[e] == vertexMap.get(v) ? edgeA[e] : edgeB[e], e);
+    }
+
+    /**
+     * Set the weight of the edge from v to w. An exception is thrown if the edge is not in the graph.
+     *
+     * @param v      the tail vertex of the edge
+     * @param w      the head vertex of the edge
+     * @param weight the weight of the edge
+     */
+    public void setEdgeWeight(int v, int w, float weight) {
+        int e = getEdgeId(v, w);
+        edgeWeight[e] = weight;
+        edgeWeightFunction[e] = null;
+    }
+
+    /**
+     * Set the weight function of the edge from v to w. An exception is thrown if the edge is not in the graph.
+     *
+     * @param v              the tail vertex of the edge
+     * @param w              the head vertex of the edge
+     * @param weightFunction a function which will return the weight of the edge
+     */
+    public void setEdgeWeight(int v, int w, IntWeightFunction weightFunction) {
+        if (weightFunction == null) Errors.throwNullItemException();
+        edgeWeightFunction[getEdgeId(v, w)] = weightFunction;
+    }
+
+    /**
+     * Get all the vertices in the graph. The order is consistent, but is not necessarily insertion order.
+     *
+     * @return a new array containing all the vertices in the graph
+     */
+    public int[] getVertices() {
+        int[] array = new int[size];
+        int index = 0;
+        for (int id = 0; id < idBound; id++) {
+            if (occupied[id]) array[index++] = vertices[id];
+        }
+        return array;
+    }
+
+    /**
+     * Get all the vertices u for which there is an edge from v to u.
+     *
+     * @param v the tail vertex of the edges
+     * @return a new array containing the vertices
+     */
+    public int[] getNeighbours(int v) {
+        int id = getExistingId(v);
+        int[] array = new int[outDegree[id]];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = vertices[getTarget(id, outEdges[id][i])];
+        }
+        return array;
+    }
+
+    /**
+     * Check if the graph is directed, that is whether the edges form an ordered pair or a set.
+     *
+     * @return whether the graph is directed
+     */
+    public boolean isDirected() {
+        return directed;
+    }
+
+    /**
+     * Get the number of vertices in the graph.
+     *
+     * @return the number of vertices
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the number of edges in the graph.
+     *
+     * @return the number of edges
+     */
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    public IntAlgorithms algorithms() {
+        return algorithms;
+    }
+
+    /**
+     * Sets the default edge weight, which will be given to every edge for which the edge weight is not specified.
+     *
+     * @param weight the fixed value of the edge weight
+     */
+    public void setDefaultEdgeWeight(float weight) {
+        defaultEdgeWeight = weight;
+        defaultEdgeWeightFunction = null;
+    }
+
+    /**
+     * Set the default edge weight function, which will be given to every edge for which the edge weight function is not specified.
+     *
+     * @param weightFunction the edge weight function
+     */
+    public void setDefaultEdgeWeight(IntWeightFunction weightFunction) {
+        defaultEdgeWeightFunction = weightFunction;
+    }
+
+    @Override
+    public String toString() {
+        return "Int " + (isDirected() ? "directed" : "undirected") + " graph with " +
+                size() + " vertices and " + getEdgeCount() + " edges";
+    }
+
+    //================================================================================
+    // Indexed view
+    //================================================================================
+
+    /**
+     * Exposes the vertex and edge arrays to algorithms by vertex id.
+     */
+    class Indexed implements IndexedIntGraph {
+
+        @Override
+        public int getIdBound() {
+            return idBound;
+        }
+
+        @Override
+        public int getId(Integer v) {
+            return vertexMap.get(v);
+        }
+
+        @Override
+        public Integer getVertex(int id) {
+            return occupied[id] ? vertices[id] : null;
+        }
+
+        @Override
+        public int getIntId(int v) {
+            return vertexMap.get(v);
+        }
+
+        @Override
+        public int getIntVertex(int id) {
+            return vertices[id];
+        }
+
+        @Override
+        public int getOutDegree(int id) {
+            return outDegree[id];
+        }
+
+        @Override
+        public int getOutTarget(int id, int slot) {
+            return getTarget(id, outEdges[id][slot]);
+        }
+
+        @Override
+        public float getOutWeight(int id, int slot) {
+            return getWeight(id, outEdges[id][slot]);
+        }
+
+        @Override
+        public Edge<Integer> getOutEdge(int id, int slot) {
+            return new IntEdge(IntGraph.this, id, outEdges[id][slot]);
+        }
+
+        @Override
+        public int getInDegree(int id) {
+            return directed ? inDegree[id] : outDegree[id];
+        }
+
+        @Override
+        public int getInSource(int id, int slot) {
+            return directed ? edgeA[inEdges[id][slot]] : getTarget(id, outEdges[id][slot]);
+        }
+
+        @Override
+        public float getInWeight(int id, int slot) {
+            if (!directed) return getWeight(id, outEdges[id][slot]);
+            int e = inEdges[id][slot];
+            return getWeight(edgeA[e], e);
+        }
+
+        @Override
+        public boolean isDirected() {
+            return directed;
+        }
+    }
+
+    /**
+     * A view of an edge of an {@link IntGraph}, in the direction from the vertex with id a. The view is only valid
+     * until the edge is removed.
+     */
+    static class IntEdge extends Edge<Integer> {
+
+        final IntGraph graph;
+        final int a, e;
+
+        IntEdge(IntGraph graph, int a, int e) {
+            this.graph = graph;
+            this.a = a;
+            this.e = e;
+        }
+
+        @Override
+        public Integer getA() {
+            return graph.vertices[a];
+        }
+
+        @Override
+        public Integer getB() {
+            return graph.vertices[graph.getTarget(a, e)];
+        }
+
+        @Override
+        public boolean hasEndpoints(Integer u, Integer v) {
+            if (graph.directed) return getA().equals(u) && getB().equals(v);
+            return hasEndpoint(u) && hasEndpoint(v);
+        }
+
+        @Override
+        public float getWeight() {
+            return graph.getWeight(a, e);
+        }
+
+        @Override
+        public void setWeight(float weight) {
+            graph.edgeWeight[e] = weight;
+            graph.edgeWeightFunction[e] = null;
+        }
+
+        @Override
+        public void setWeight(WeightFunction<Integer> weightFunction) {
+            graph.edgeWeightFunction[e] = weightFunction::getWeight;
+        }
+
+        @Override
+        WeightFunction<Integer> getWeightFunction() {
+            IntWeightFunction weightFunction = graph.edgeWeightFunction[e];
+            if (weightFunction == null) {
+                float weight = graph.edgeWeight[e];
+                return (u, v) -> weight;
+            }
+            return weightFunction::getWeight;
+        }
+
+        @Override
+        Node<Integer> getInternalNodeA() {
+            return null;
+        }
+
+        @Override
+        Node<Integer> getInternalNodeB() {
+            return null;
+        }
+
+        @Override
+        void set(Node<Integer> a, Node<Integer> b, WeightFunction<Integer> weightFunction) {
+            Errors.throwImmutableGraphException();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            IntEdge edge = (IntEdge) o;
+            return graph == edge.graph && e == edge.e;
+        }
+
+        @Override
+        public int hashCode() {
+            return e;
+        }
+
+        @Override
+        public String toString() {
+            return "{" + getA() + (graph.directed ? " -> " : " <> ") + getB() + ", " + getWeight() + "}";
+        }
+    }
+}
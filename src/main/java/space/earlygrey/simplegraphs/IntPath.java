@@ -0,0 +1,110 @@
+/*
+MIT License
+
+Copyright (c) 2020 earlygrey
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package space.earlygrey.simplegraphs;
+
+import java.util.Arrays;
+
+/**
+ * A {@link Path} through a graph whose vertices are primitive ints. Int paths cannot be modified.
+ */
+public class IntPath {
+
+    public static final IntPath EMPTY_PATH = new IntPath(new int[0], 0);
+
+    final int[] vertices;
+    final float length;
+
+    /**
+     * @param vertices the vertices of the path, in order. The array is not copied.
+     * @param length the sum of the edge weights of all edges contained in the path
+     */
+    public IntPath(int[] vertices, float length) {
+        this.vertices = vertices;
+        this.length = length;
+    }
+
+    /**
+     * @return the length of this path, that is, the sum of the edge weights of all edges contained in the path.
+     */
+    public float getLength() {
+        return length;
+    }
+
+    /**
+     * @return the number of vertices in this path
+     */
+    public int size() {
+        return vertices.length;
+    }
+
+    public boolean isEmpty() {
+        return vertices.length == 0;
+    }
+
+    public int get(int index) {
+        return vertices[index];
+    }
+
+    public int getFirst() {
+        if (isEmpty()) throw new IllegalStateException("Path has no vertices.");
+        return vertices[0];
+    }
+
+    public int getLast() {
+        if (isEmpty()) throw new IllegalStateException("Path has no vertices.");
+        return vertices[vertices.length - 1];
+    }
+
+    public boolean contains(int v) {
+        for (int vertex : vertices) {
+            if (vertex == v) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return a new array containing the vertices of this path
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(vertices, vertices.length);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        IntPath path = (IntPath) o;
+        return Float.compare(path.length, length) == 0 && Arrays.equals(vertices, path.vertices);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(vertices) + Float.floatToIntBits(length);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(vertices);
+    }
+}
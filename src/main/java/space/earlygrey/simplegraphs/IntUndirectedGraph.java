@@ -0,0 +1,69 @@
+/*
+MIT License
+
+Copyright (c) 2020 earlygrey
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package space.earlygrey.simplegraphs;
+
+/**
+ * An undirected graph whose vertices are primitive ints. See {@link IntGraph}.
+ */
+public class IntUndirectedGraph extends IntGraph {
+
+    //================================================================================
+    // Constructors
+    //================================================================================
+
+    public IntUndirectedGraph() {
+        super(false);
+    }
+
+    public IntUndirectedGraph(int... vertices) {
+        super(false);
+        addVertices(vertices);
+    }
+
+    public IntUndirectedGraph(IntGraph graph) {
+        super(false, graph);
+    }
+
+    //================================================================================
+    // Superclass implementations
+    //================================================================================
+
+    @Override
+    public IntUndirectedGraph createNew() {
+        return new IntUndirectedGraph();
+    }
+
+    //================================================================================
+    // Misc
+    //================================================================================
+
+    /**
+     * @param v the vertex
+     * @return the degree of this vertex, or the number of edges incident to it
+     */
+    public int getDegree(int v) {
+        return outDegree[getExistingId(v)];
+    }
+
+}
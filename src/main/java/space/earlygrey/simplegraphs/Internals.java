@@ -26,9 +26,16 @@ package space.earlygrey.simplegraphs;
 
 import java.util.Collection;
 
+import space.earlygrey.simplegraphs.algorithms.IndexedGraph;
 import space.earlygrey.simplegraphs.utils.WeightFunction;
 
-public class Internals<V> {
+/**
+ * Gives access to the internal structure of a {@link Graph}. Vertices are also addressed by the id of their node, so
+ * that algorithms can hold their state in arrays (see {@link IndexedGraph}). Ids of removed vertices are reused,
+ * and an unused id has no edges.
+ * @param <V> the vertex type
+ */
+public class Internals<V> implements IndexedGraph<V> {
 
     final Graph<V> graph;
 
@@ -51,4 +58,75 @@ public class Internals<V> {
     public void addConnection(Node<V> a, Node<V> b, WeightFunction<V> weightFunction) {
         graph.addConnection(a, b, weightFunction);
     }
+
+    //================================================================================
+    // Indexed graph
+    //================================================================================
+
+    @Override
+    public int getIdBound() {
+        return graph.nodeMap.idBound;
+    }
+
+    @Override
+    public int getId(V v) {
+        Node<V> node = graph.getNode(v);
+        return node == null ? -1 : node.id;
+    }
+
+    @Override
+    public V getVertex(int id) {
+        Node<V> node = graph.nodeMap.nodesById[id];
+        return node != null ? node.object : null;
+    }
+
+    public Node<V> getNode(int id) {
+        return graph.nodeMap.nodesById[id];
+    }
+
+    @Override
+    public int getOutDegree(int id) {
+        Node<V> node = graph.nodeMap.nodesById[id];
+        return node == null ? 0 : node.getOutDegree();
+    }
+
+    @Override
+    public int getOutTarget(int id, int slot) {
+        return graph.nodeMap.nodesById[id].getOutEdges().get(slot).b.id;
+    }
+
+    @Override
+    public float getOutWeight(int id, int slot) {
+        return graph.nodeMap.nodesById[id].getOutEdges().get(slot).getWeight();
+    }
+
+    @Override
+    public Connection<V> getOutEdge(int id, int slot) {
+        return graph.nodeMap.nodesById[id].getOutEdges().get(slot);
+    }
+
+    @Override
+    public int getInDegree(int id) {
+        Node<V> node = graph.nodeMap.nodesById[id];
+        return node == null ? 0 : node.getInDegree();
+    }
+
+    @Override
+    public int getInSource(int id, int slot) {
+        Node<V> node = graph.nodeMap.nodesById[id];
+        if (node.getInEdges() == null) return node.getOutEdges().get(slot).b.id;
+        return node.getInEdges().get(slot).a.id;
+    }
+
+    @Override
+    public float getInWeight(int id, int slot) {
+        Node<V> node = graph.nodeMap.nodesById[id];
+        if (node.getInEdges() == null) return node.getOutEdges().get(slot).getWeight();
+        return node.getInEdges().get(slot).getWeight();
+    }
+
+    @Override
+    public boolean isDirected() {
+        return graph.isDirected();
+    }
 }
@@ -0,0 +1,145 @@
+/*
+MIT License
+
+Copyright (c) 2020 earlygrey
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package space.earlygrey.simplegraphs;
+
+import java.util.Arrays;
+
+/**
+ * An open addressing hash map with primitive long keys and non-negative int values, using linear probing.
+ * Used to look up int vertices and edges in an {@link IntGraph} without boxing.
+ */
+class LongIntMap {
+
+    static final int MIN_TABLE_LENGTH = 32;
+    static final float RESIZE_THRESHOLD = 0.5f;
+
+    long[] keys;
+    // value + 1 of each entry, 0 marks an empty slot
+    int[] values;
+    int size;
+    int threshold;
+
+    LongIntMap() {
+        keys = new long[MIN_TABLE_LENGTH];
+        values = new int[MIN_TABLE_LENGTH];
+        threshold = (int) (RESIZE_THRESHOLD * MIN_TABLE_LENGTH);
+    }
+
+    /**
+     * @return the value associated with the key, or -1 if the key is not in the map
+     */
+    int get(long key) {
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        while (values[i] != 0) {
+            if (keys[i] == key) return values[i] - 1;
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Associate the key with the value, replacing any existing value.
+     */
+    void put(long key, int value) {
+        if (size + 1 > threshold) resize(2 * keys.length);
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        while (values[i] != 0) {
+            if (keys[i] == key) {
+                values[i] = value + 1;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value + 1;
+        size++;
+    }
+
+    /**
+     * Remove the key from the map.
+     * @return the value that was associated with the key, or -1 if the key is not in the map
+     */
+    int remove(long key) {
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        while (values[i] != 0) {
+            if (keys[i] == key) {
+                int value = values[i] - 1;
+                shiftBack(i);
+                size--;
+                return value;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Empty the slot at index i, then move back later entries of the same probe sequence so lookups never hit a gap.
+     */
+    private void shiftBack(int i) {
+        int mask = keys.length - 1;
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (values[j] == 0) break;
+            int ideal = hash(keys[j]) & mask;
+            // move the entry at j to i if i lies cyclically in [ideal, j)
+            if (((j - ideal) & mask) >= ((j - i) & mask)) {
+                keys[i] = keys[j];
+                values[i] = values[j];
+                i = j;
+            }
+        }
+        values[i] = 0;
+    }
+
+    private void resize(int length) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[length];
+        values = new int[length];
+        threshold = (int) (RESIZE_THRESHOLD * length);
+        int mask = length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldValues[j] == 0) continue;
+            int i = hash(oldKeys[j]) & mask;
+            while (values[i] != 0) i = (i + 1) & mask;
+            keys[i] = oldKeys[j];
+            values[i] = oldValues[j];
+        }
+    }
+
+    void clear() {
+        Arrays.fill(values, 0);
+        size = 0;
+    }
+
+    static int hash(long key) {
+        key *= 0x9E3779B97F4A7C15L;
+        return (int) (key ^ (key >>> 32));
+    }
+}
@@ -46,6 +46,8 @@ public class Node<V> {
 
     final int objectHash;
     int mapHash;
+    // a dense index assigned by the node map, which is reused once the node is removed
+    int id;
     Node<V> nextInOrder = null, prevInOrder = null;
     Node<V> nextInBucket = null;
 
@@ -71,18 +73,43 @@ public class Node<V> {
     void addEdge(Connection<V> edge) {
         Node<V> to = edge.getNodeB();
         neighbours.put(to, edge);
+        edge.outIndex = getOutEdges().size();
         getOutEdges().add(edge);
-        if (to.getInEdges() != null) to.getInEdges().add(edge);
+        if (to.getInEdges() != null) {
+            edge.inIndex = to.getInEdges().size();
+            to.getInEdges().add(edge);
+        }
     }
 
-    Connection<V> removeEdge(Node<V> v) {
+    /**
+     * Remove the edge to v. Each connection knows its index in the edge arrays, so by default the last edge is moved into
+     * its place, taking constant time. If preserveOrder is true, later edges are shifted down instead.
+     */
+    Connection<V> removeEdge(Node<V> v, boolean preserveOrder) {
         Connection<V> edge = neighbours.remove(v);
         if (edge == null) return null;
-        getOutEdges().remove(edge);
-        if (v.getInEdges() != null) v.getInEdges().remove(edge);
+        removeAt(getOutEdges(), edge.outIndex, true, preserveOrder);
+        if (v.getInEdges() != null) removeAt(v.getInEdges(), edge.inIndex, false, preserveOrder);
         return edge;
     }
 
+    private static <V> void removeAt(Array<Connection<V>> edges, int index, boolean out, boolean preserveOrder) {
+        if (preserveOrder) {
+            edges.remove(index);
+            for (int i = index; i < edges.size(); i++) {
+                setIndex(edges.get(i), i, out);
+            }
+        } else {
+            edges.removeSwap(index);
+            if (index < edges.size()) setIndex(edges.get(index), index, out);
+        }
+    }
+
+    private static <V> void setIndex(Connection<V> edge, int index, boolean out) {
+        if (out) edge.outIndex = index;
+        else edge.inIndex = index;
+    }
+
     void disconnect() {
         neighbours.clear();
         getOutEdges().clear();
@@ -109,105 +136,13 @@ public class Node<V> {
         return getOutEdges().size();
     }
 
-    //================================================================================
-    // Algorithm fields and methods
-    //================================================================================
-
-    // util fields for algorithms, don't store data in them
-    private boolean processed;
-    private boolean seen;
-    private float distance;
-    private float estimate;
-    private Node<V> prev;
-    private Connection<V> connection;
-    private int index;
-    private int lastRunID = -1;
-
-    public boolean resetAlgorithmAttribs(int runID) {
-        if (runID == this.getLastRunID()) return false;
-        setProcessed(false);
-        setPrev(null);
-        setConnection(null);
-        setDistance(Float.MAX_VALUE);
-        setEstimate(0);
-        setIndex(0);
-        setSeen(false);
-        this.setLastRunID(runID);
-        return true;
-    }
-
-    public boolean isProcessed() {
-        return processed;
-    }
-
-    public void setProcessed(boolean processed) {
-        this.processed = processed;
+    /**
+     * @return the id of this node, which is unique among the nodes currently in its graph. See {@link Internals}.
+     */
+    public int getId() {
+        return id;
     }
 
-    public boolean isSeen() {
-        return seen;
-    }
-
-    public void setSeen(boolean seen) {
-        this.seen = seen;
-    }
-
-    public float getDistance() {
-        return distance;
-    }
-
-    public void setDistance(float distance) {
-        this.distance = distance;
-    }
-
-    public float getEstimate() {
-        return estimate;
-    }
-
-    public void setEstimate(float estimate) {
-        this.estimate = estimate;
-    }
-
-    public Node<V> getPrev() {
-        return prev;
-    }
-
-    public void setPrev(Node<V> prev) {
-        this.prev = prev;
-    }
-
-    public Connection<V> getConnection() {
-        return connection;
-    }
-
-    public void setConnection(Connection<V> connection) {
-        this.connection = connection;
-    }
-
-    public int getIndex() {
-        return index;
-    }
-
-    public void setIndex(int index) {
-        this.index = index;
-    }
-
-    public int getLastRunID() {
-        return lastRunID;
-    }
-
-    public void setLastRunID(int lastRunID) {
-        this.lastRunID = lastRunID;
-    }
-
-
-    //================================================================================
-    // Heap fields
-    //================================================================================
-
-    int heapIndex;
-    float heapValue;
-
     //================================================================================
     // Misc
     //================================================================================
@@ -24,6 +24,7 @@ SOFTWARE.
 
 package space.earlygrey.simplegraphs;
 
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Iterator;
 
@@ -46,6 +47,13 @@ class NodeMap<V> {
 
     int size = 0;
     int occupiedBuckets = 0;
+
+    // nodes indexed by id, and the ids of removed nodes which are free to be reused
+    Node<V>[] nodesById;
+    int idBound = 0;
+    int[] freeIds = new int[16];
+    int freeIdCount = 0;
+
     static final int MIN_TABLE_LENGTH = 32;
     static final float RESIZE_THRESHOLD = 0.7f;
     int threshold = (int) (RESIZE_THRESHOLD * MIN_TABLE_LENGTH);
@@ -58,6 +66,7 @@ class NodeMap<V> {
     public NodeMap(Graph<V> graph) {
         this.graph = graph;
         table = (Node<V>[]) new Node[MIN_TABLE_LENGTH];
+        nodesById = (Node<V>[]) new Node[MIN_TABLE_LENGTH];
         vertexCollection = new VertexCollection<>(this);
         nodeCollection = new NodeCollection<>(this);
     }
@@ -104,6 +113,7 @@ class NodeMap<V> {
             size++;
             occupiedBuckets++;
             addToList(bucketHead);
+            assignId(bucketHead);
             return bucketHead;
         }
 
@@ -120,6 +130,7 @@ class NodeMap<V> {
         previousNode.nextInBucket = currentNode;
         size++;
         addToList(currentNode);
+        assignId(currentNode);
         return currentNode;
     }
 
@@ -176,6 +187,7 @@ class NodeMap<V> {
             table[i] = currentNode.nextInBucket;
             size--;
             removeFromList(currentNode);
+            freeId(currentNode);
             return currentNode;
         }
 
@@ -186,6 +198,7 @@ class NodeMap<V> {
                 if (previousNode != null) previousNode.nextInBucket = currentNode.nextInBucket;
                 size--;
                 removeFromList(currentNode);
+                freeId(currentNode);
                 return currentNode;
             }
             previousNode = currentNode;
@@ -195,6 +208,28 @@ class NodeMap<V> {
         return null;
     }
 
+    /**
+     * Give the node an id, reusing the id of a removed node if there is one.
+     */
+    @SuppressWarnings("unchecked")
+    void assignId(Node<V> node) {
+        int id;
+        if (freeIdCount > 0) {
+            id = freeIds[--freeIdCount];
+        } else {
+            id = idBound++;
+            if (id == nodesById.length) nodesById = Arrays.copyOf(nodesById, id << 1);
+        }
+        node.id = id;
+        nodesById[id] = node;
+    }
+
+    void freeId(Node<V> node) {
+        nodesById[node.id] = null;
+        if (freeIdCount == freeIds.length) freeIds = Arrays.copyOf(freeIds, freeIdCount << 1);
+        freeIds[freeIdCount++] = node.id;
+    }
+
     /**
      * Remove the node from the linked list.
      */
@@ -265,6 +300,9 @@ class NodeMap<V> {
     @SuppressWarnings("unchecked")
     void clear() {
         table = (Node<V>[]) new Node[table.length];
+        Arrays.fill(nodesById, null);
+        idBound = 0;
+        freeIdCount = 0;
         size = 0;
         occupiedBuckets = 0;
         head = null;
@@ -397,53 +435,42 @@ class NodeMap<V> {
     // Topological sorting
     //================================================================================
 
-    // Keep track of the current position in the linked list,
-    // We traverse the graph via DFS, and when we hit a terminal node we move that node
-    // to the current cursor position, then move the cursor along one.
-    Node<V> cursor;
-
+    // Kahn's algorithm: vertices are taken in order once every vertex with an edge to them has been taken, using a flat
+    // array as the queue, so it does not recurse and runs in linear time.
+    @SuppressWarnings("unchecked")
     boolean topologicalSort() {
         if (size < 2 || graph.getEdgeCount() < 1) return true;
 
-        // start the cursor at the tail and work towards the head,
-        // so the list is sorted from head to tail
-        cursor = tail;
-
-        boolean success = true;
-        while (success && cursor != null) {
-            success = recursiveTopologicalSort(cursor, graph.algorithms().requestRunID());
+        // indexed by node id: the number of incoming edges from vertices which have not been taken yet
+        int[] inDegree = new int[idBound];
+        for (Node<V> v = head; v != null; v = v.nextInOrder) {
+            Array<Connection<V>> outEdges = v.getOutEdges();
+            for (int i = 0; i < outEdges.size; i++) {
+                inDegree[outEdges.get(i).getNodeB().id]++;
+            }
         }
 
-        cursor = null;
-        return success;
-    }
-
-    private boolean recursiveTopologicalSort(Node<V> v, int runID) {
-
-        v.resetAlgorithmAttribs(runID);
-
-        if (v.isProcessed()) return true;
-        if (v.isSeen()) return false; // not a DAG
-
-        v.setSeen(true);
-
-        Array<Connection<V>> outEdges = v.getOutEdges();
-        for (Connection<V> e : outEdges) {
-            if (!recursiveTopologicalSort(e.getNodeB(), runID)) return false;
+        Node<V>[] order = new Node[size];
+        int count = 0;
+        for (Node<V> v = head; v != null; v = v.nextInOrder) {
+            if (inDegree[v.id] == 0) order[count++] = v;
         }
-
-        v.setSeen(false);
-        v.setProcessed(true);
-
-        if (cursor != v) {
-            // move v from its current position to just after the cursor
-            removeFromList(v);
-            insertIntoListAfter(v, cursor);
-        } else {
-            // v is already in the cursor position, just need to move the cursor along
-            cursor = cursor.prevInOrder;
+        for (int i = 0; i < count; i++) {
+            Array<Connection<V>> outEdges = order[i].getOutEdges();
+            for (int j = 0; j < outEdges.size; j++) {
+                Node<V> w = outEdges.get(j).getNodeB();
+                if (--inDegree[w.id] == 0) order[count++] = w;
+            }
+        }
+        // the vertices left over are on or after a cycle
+        if (count < size) return false;
+
+        head = order[0];
+        tail = order[size - 1];
+        for (int i = 0; i < size; i++) {
+            order[i].prevInOrder = i > 0 ? order[i - 1] : null;
+            order[i].nextInOrder = i < size - 1 ? order[i + 1] : null;
         }
-
         return true;
     }
 
@@ -59,7 +59,7 @@ public class UndirectedGraph<V> extends Graph<V> {
 
     @Override
     protected UndirectedConnection<V> obtainEdge() {
-        return new UndirectedConnection<>();
+        return new UndirectedConnection<>(this);
     }
 
     @Override
@@ -89,10 +89,11 @@ public class UndirectedGraph<V> extends Graph<V> {
 
     @Override
     boolean removeConnection(Node<V> a, Node<V> b) {
-        Connection<V> e = a.removeEdge(b);
+        Connection<V> e = a.removeEdge(b, preserveEdgeOrder);
         if (e == null) return false;
-        b.removeEdge(a);
+        b.removeEdge(a, preserveEdgeOrder);
         edgeMap.remove(e);
+        modCount++;
         return true;
     }
 
@@ -1,42 +1,88 @@
+/*
+MIT License
+
+Copyright (c) 2020 earlygrey
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
 package space.earlygrey.simplegraphs.algorithms;
 
-import space.earlygrey.simplegraphs.Array;
-import space.earlygrey.simplegraphs.BinaryHeap;
-import space.earlygrey.simplegraphs.Connection;
-import space.earlygrey.simplegraphs.Node;
 import space.earlygrey.simplegraphs.Path;
-import space.earlygrey.simplegraphs.utils.Heuristic;
+import space.earlygrey.simplegraphs.utils.IntHeuristic;
 import space.earlygrey.simplegraphs.utils.SearchProcessor;
 
+/**
+ * The A* search algorithm (or Dijkstra's algorithm if no heuristic is given), run over an {@link IndexedGraph}.
+ * @param <V> the vertex type
+ */
 public class AStarSearch<V> extends Algorithm<V> {
 
-    private Heuristic<V> heuristic;
-    private SearchProcessor<V> processor;
-    private SearchStep<V> step = new SearchStep<>();
-    private final BinaryHeap heap;
-    private Node<V> start, target, u, end;
+    private final IndexedGraph<V> graph;
+    private final SearchContext context;
+    // estimates the distance between two vertex ids
+    private final IntHeuristic heuristic;
+    private final SearchProcessor<V> processor;
+    private final SearchStep<V> step;
+    private final IdQueue heap;
+    private final int target;
+    private int end = -1;
     private Path<V> path;
+    private SearchLimits limits = SearchLimits.NONE;
+    private long deadline;
+    private int expansions;
+    private boolean limitReached;
+    private float heuristicWeight = 1;
+
+    AStarSearch(int id, IndexedGraph<V> graph, SearchContext context, int start, int target, IntHeuristic heuristic, SearchProcessor<V> processor) {
+        this(id, graph, context, start, target, heuristic, processor, QueueType.BINARY_HEAP);
+    }
 
-    protected AStarSearch(int id, final Node<V> start, final Node<V> target, final Heuristic<V> heuristic, final SearchProcessor<V> processor) {
+    AStarSearch(int id, IndexedGraph<V> graph, SearchContext context, int start, int target, IntHeuristic heuristic, SearchProcessor<V> processor,
+                QueueType queueType) {
         super(id);
-        this.start = start;
+        this.graph = graph;
+        this.context = context;
         this.target = target;
         this.heuristic = heuristic;
         this.processor = processor;
-        heap = new BinaryHeap();
-        start.resetAlgorithmAttribs(id);
-        start.setDistance(0);
-        heap.add(start);
+        step = SearchStep.create(graph, context, processor);
+        context.beginRun(graph.getIdBound());
+        heap = queueType.create(context, graph, heuristic != null);
+        context.reset(start);
+        context.distance[start] = 0;
+        heap.add(start, 0);
     }
 
     @Override
     public boolean update() {
         if (isFinished()) return true;
 
-        u = heap.pop();
+        SearchContext context = this.context;
+        int u = heap.pop();
 
-        if (!u.isProcessed()) {
-            if (processor != null && u.getIndex() > 0) {
+        if (!context.processed[u]) {
+            if (limits.isExceeded(expansions, deadline)) {
+                heap.clear();
+                limitReached = true;
+                return true;
+            }
+            if (processor != null && context.depth[u] > 0) {
                 step.prepare(u);
                 processor.accept(step);
                 if (step.terminate) {
@@ -47,34 +93,38 @@ public class AStarSearch<V> extends Algorithm<V> {
                     return isFinished();
                 }
             }
-            u.setProcessed(true);
+            context.processed[u] = true;
+            expansions++;
 
             if (u == target) {
                 heap.clear();
                 end = u;
                 return true;
             }
-
-            Array<Connection<V>> outEdges = u.getOutEdges();
-            for (Connection<V> e : outEdges) {
-                Node<V> v = e.getNodeB();
-                v.resetAlgorithmAttribs(id);
-                if (!v.isProcessed()) {
-                    float newDistance = u.getDistance() + e.getWeight();
-                    if (newDistance < v.getDistance()) {
-                        v.setDistance(newDistance);
-                        v.setPrev(u);
-                        v.setConnection(e);
-                        if (heuristic != null && !v.isSeen()) {
-                            v.setEstimate(heuristic.getEstimate(v.getObject(), target.getObject()));
+            if (context.depth[u] >= limits.maxDepth) return isFinished();
+
+            float distance = context.distance[u];
+            float maxDistance = limits.maxDistance;
+            int degree = graph.getOutDegree(u);
+            for (int i = 0; i < degree; i++) {
+                int v = graph.getOutTarget(u, i);
+                context.reset(v);
+                if (!context.processed[v]) {
+                    float newDistance = distance + graph.getOutWeight(u, i);
+                    if (newDistance < context.distance[v] && newDistance <= maxDistance) {
+                        context.distance[v] = newDistance;
+                        context.prev[v] = u;
+                        context.prevSlot[v] = i;
+                        if (heuristic != null && !context.seen[v]) {
+                            context.estimate[v] = heuristicWeight * heuristic.getEstimate(v, target);
                         }
-                        if (!v.isSeen()) {
-                            heap.add(v, v.getDistance() + v.getEstimate());
+                        if (!context.seen[v]) {
+                            heap.add(v, newDistance + context.estimate[v]);
                         } else {
-                            heap.setValue(v, v.getDistance() + v.getEstimate());
+                            heap.setValue(v, newDistance + context.estimate[v]);
                         }
-                        v.setIndex(u.getIndex() + 1);
-                        v.setSeen(true);
+                        context.depth[v] = context.depth[u] + 1;
+                        context.seen[v] = true;
                     }
                 }
             }
@@ -87,77 +137,66 @@ public class AStarSearch<V> extends Algorithm<V> {
         return heap.size == 0;
     }
 
+    /**
+     * Multiply the heuristic by the given weight, which makes the search weighted A*. A weight greater than 1 makes the search
+     * favour vertices closer to the target, so it usually expands far fewer vertices, but the path found may be up to that many
+     * times longer than a shortest path. This should be set before the search is run.
+     * @param heuristicWeight the weight, which must be at least 1 for the bound on the length of the path to hold
+     */
+    public void setHeuristicWeight(float heuristicWeight) {
+        this.heuristicWeight = heuristicWeight;
+    }
+
+    public float getHeuristicWeight() {
+        return heuristicWeight;
+    }
+
+    /**
+     * Limit how far the search may go. Any time budget is measured from this call. See {@link SearchLimits}.
+     */
+    public void setLimits(SearchLimits limits) {
+        this.limits = limits;
+        deadline = limits.getDeadline();
+    }
+
+    public SearchLimits getLimits() {
+        return limits;
+    }
+
+    /**
+     * @return whether the search was stopped by its limit on the number of expansions or on time
+     */
+    public boolean isLimitReached() {
+        return limitReached;
+    }
+
+    /**
+     * @return the number of vertices expanded so far
+     */
+    public int getExpansionCount() {
+        return expansions;
+    }
+
     public Path<V> getPath() {
         if (!isFinished()) return null;
         if (path == null) {
-            path = end != null ? new AlgorithmPath<>(end) : Path.EMPTY_PATH;
+            path = end != -1 ? new AlgorithmPath<>(graph, context, end) : Path.EMPTY_PATH;
         }
         return path;
     }
 
-    Node<V> getEnd() {
+    /**
+     * @return the id of the target vertex if it was reached, otherwise -1
+     */
+    int getEnd() {
         return end;
     }
 
     /**
-     *
-     * @param start
-     * @param target
-     * @param heuristic
-     * @return the target Node if reachable, otherwise null
+     * @return the length of the path found, or {@link Float#MAX_VALUE} if the target was not reached
      */
-    private Node<V> aStarSearch(final Node<V> start, final Node<V> target, final Heuristic<V> heuristic, final SearchProcessor<V> processor) {
-
-        start.resetAlgorithmAttribs(id);
-        start.setDistance(0);
-
-        heap.add(start);
-
-        final SearchStep<V> step = processor != null ? new SearchStep<>() : null;
-
-        while(heap.size != 0) {
-            Node<V> u = heap.pop();
-            if (u == target) {
-                heap.clear();
-                return u;
-            }
-            if (!u.isProcessed()) {
-                if (processor != null && u.getIndex() > 0) {
-                    step.prepare(u);
-                    processor.accept(step);
-                    if (step.terminate) {
-                        heap.clear();
-                        return null;
-                    }
-                    if (step.ignore) continue;
-                }
-                u.setProcessed(true);
-                Array<Connection<V>> outEdges = u.getOutEdges();
-                for (Connection<V> e : outEdges) {
-                    Node<V> v = e.getNodeB();
-                    v.resetAlgorithmAttribs(id);
-                    if (!v.isProcessed()) {
-                        float newDistance = u.getDistance() + e.getWeight();
-                        if (newDistance < v.getDistance()) {
-                            v.setDistance(newDistance);
-                            v.setPrev(u);
-                            v.setConnection(e);
-                            if (heuristic != null && !v.isSeen()) {
-                                v.setEstimate(heuristic.getEstimate(v.getObject(), target.getObject()));
-                            }
-                            if (!v.isSeen()) {
-                                heap.add(v, v.getDistance() + v.getEstimate());
-                            } else {
-                                heap.setValue(v, v.getDistance() + v.getEstimate());
-                            }
-                            v.setIndex(u.getIndex() + 1);
-                            v.setSeen(true);
-                        }
-                    }
-                }
-            }
-        }
-        heap.clear();
-        return null;
+    float getDistance() {
+        return end != -1 ? context.distance[end] : Float.MAX_VALUE;
     }
+
 }
@@ -1,6 +1,5 @@
 package space.earlygrey.simplegraphs.algorithms;
 
-import space.earlygrey.simplegraphs.Node;
 import space.earlygrey.simplegraphs.Path;
 
 class AlgorithmPath<V> extends Path<V> {
@@ -9,22 +8,50 @@ class AlgorithmPath<V> extends Path<V> {
         super(0, false);
     }
 
-    AlgorithmPath(Node<V> v) {
-        super(v.getIndex() + 1, true);
-        setByBacktracking(v);
+    /**
+     * Create an empty path with the given length, to which the vertices are added in order.
+     */
+    AlgorithmPath(float length) {
+        super(0, false);
+        setLength(length);
+    }
+
+    AlgorithmPath(IndexedGraph<V> graph, SearchContext context, int id) {
+        super(context.depth[id] + 1, true);
+        setByBacktracking(graph, context, id);
+    }
+
+    /**
+     * Create the path found by a bidirectional search, which passes from the forward search to the backward search at the given vertex.
+     */
+    AlgorithmPath(IndexedGraph<V> graph, SearchContext forward, SearchContext backward, int meet, float length) {
+        super(forward.depth[meet] + backward.depth[meet] + 1, true);
+        setByBacktracking(graph, forward, meet);
+        int index = forward.depth[meet] + 1;
+        for (int v = backward.prev[meet]; v != -1; v = backward.prev[v]) {
+            set(index++, graph.getVertex(v));
+        }
+        setLength(length);
+    }
+
+    /**
+     * Prevent the path from being modified, so that it can be shared between callers.
+     */
+    void makeFixed() {
+        setFixed(true);
     }
 
-    void setByBacktracking(Node<V> node) {
-        int nodeCount = node.getIndex() + 1;
+    void setByBacktracking(IndexedGraph<V> graph, SearchContext context, int id) {
+        int nodeCount = context.depth[id] + 1;
 
         if (items.length < nodeCount) strictResize(nodeCount);
 
-        Node<V> v = node;
-        while(v != null) {
-            set(v.getIndex(), v.getObject());
-            v = v.getPrev();
+        int v = id;
+        while (v != -1) {
+            set(context.depth[v], graph.getVertex(v));
+            v = context.prev[v];
         }
 
-        setLength(node.getDistance());
+        setLength(context.distance[id]);
     }
 }
@@ -0,0 +1,195 @@
+/*
+MIT License
+
+Copyright (c) 2020 earlygrey
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package space.earlygrey.simplegraphs.algorithms;
+
+import java.util.ArrayDeque;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * <p>Runs many {@link Algorithm}s a little at a time, within a time budget for each call to {@link #tick(long)}, for example to
+ * spread path requests over the frames of a game without any one frame taking too long.</p>
+ *
+ * <p>Each algorithm is given a priority. On each tick, algorithms with a higher priority are run before those with a lower one,
+ * and algorithms with the same priority take turns, each running for a slice of {@link #getSliceSize()} updates before the
+ * next one. When an algorithm finishes, it is removed and its callback is called.</p>
+ *
+ * <p>A scheduler is not thread safe, and is intended to be used from a single thread, such as a game loop. The graphs being
+ * searched should not be modified while their searches are scheduled.</p>
+ */
+public class AlgorithmScheduler {
+
+    private final TreeMap<Integer, ArrayDeque<Task<?>>> levels = new TreeMap<>();
+    private int sliceSize;
+    private int size;
+
+    public AlgorithmScheduler() {
+        this(32);
+    }
+
+    /**
+     * @param sliceSize the number of updates an algorithm runs for before the next one takes its turn
+     */
+    public AlgorithmScheduler(int sliceSize) {
+        setSliceSize(sliceSize);
+    }
+
+    /**
+     * Schedule an algorithm with priority 0.
+     * @param onFinished called with the algorithm when it has finished, or null
+     */
+    public <A extends Algorithm<?>> void add(A algorithm, Consumer<? super A> onFinished) {
+        add(algorithm, 0, onFinished);
+    }
+
+    /**
+     * Schedule an algorithm. An algorithm should only be scheduled once.
+     * @param priority algorithms with a higher priority run first
+     * @param onFinished called with the algorithm when it has finished, or null
+     */
+    public <A extends Algorithm<?>> void add(A algorithm, int priority, Consumer<? super A> onFinished) {
+        if (algorithm == null) throw new IllegalArgumentException("Algorithm cannot be null.");
+        levels.computeIfAbsent(priority, p -> new ArrayDeque<>()).addLast(new Task<>(algorithm, onFinished));
+        size++;
+    }
+
+    /**
+     * Remove an algorithm without finishing it. Its callback is not called.
+     * @return whether the algorithm was scheduled
+     */
+    public boolean remove(Algorithm<?> algorithm) {
+        for (ArrayDeque<Task<?>> tasks : levels.values()) {
+            for (Task<?> task : tasks) {
+                if (task.algorithm == algorithm) {
+                    tasks.remove(task);
+                    if (tasks.isEmpty()) levels.values().remove(tasks);
+                    size--;
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Run the scheduled algorithms until they have all finished or the time budget has been used. At least one slice is run on
+     * each tick, so the budget may be exceeded by up to one slice.
+     * <br>If an algorithm throws an exception, it is removed without its callback being called, and the exception is rethrown.
+     * @param budget the time to run for, in nanoseconds
+     * @return the number of algorithms which finished during the tick
+     */
+    public int tick(long budget) {
+        long deadline = System.nanoTime() + budget;
+        int finished = 0;
+        // keys are looked up afresh each time, since callbacks may schedule more algorithms
+        Integer priority = levels.isEmpty() ? null : levels.lastKey();
+        while (priority != null) {
+            ArrayDeque<Task<?>> tasks = levels.get(priority);
+            while (tasks != null && !tasks.isEmpty()) {
+                Task<?> task = tasks.pollFirst();
+                boolean done;
+                try {
+                    done = task.run(sliceSize);
+                } catch (RuntimeException | Error e) {
+                    // the task has already been polled, so it is dropped
+                    size--;
+                    if (tasks.isEmpty()) levels.remove(priority);
+                    throw e;
+                }
+                if (done) {
+                    size--;
+                    finished++;
+                    if (tasks.isEmpty()) levels.remove(priority);
+                    task.finish();
+                } else {
+                    tasks.addLast(task);
+                }
+                if (System.nanoTime() - deadline >= 0) return finished;
+                tasks = levels.get(priority);
+            }
+            priority = levels.lowerKey(priority);
+        }
+        return finished;
+    }
+
+    /**
+     * Run every scheduled algorithm to completion.
+     * @return the number of algorithms which finished
+     */
+    public int finishAll() {
+        return tick(Long.MAX_VALUE);
+    }
+
+    /**
+     * Remove every algorithm without finishing it.
+     */
+    public void clear() {
+        levels.clear();
+        size = 0;
+    }
+
+    /**
+     * @return the number of scheduled algorithms which have not finished
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int getSliceSize() {
+        return sliceSize;
+    }
+
+    public void setSliceSize(int sliceSize) {
+        if (sliceSize < 1) throw new IllegalArgumentException("The slice size must be at least 1.");
+        this.sliceSize = sliceSize;
+    }
+
+    private static class Task<A extends Algorithm<?>> {
+
+        final A algorithm;
+        final Consumer<? super A> onFinished;
+
+        Task(A algorithm, Consumer<? super A> onFinished) {
+            this.algorithm = algorithm;
+            this.onFinished = onFinished;
+        }
+
+        // returns whether the algorithm has finished
+        boolean run(int updates) {
+            for (int i = 0; i < updates; i++) {
+                if (algorithm.update()) return true;
+            }
+            return false;
+        }
+
+        void finish() {
+            if (onFinished != null) onFinished.accept(algorithm);
+        }
+    }
+
+}
@@ -23,26 +23,34 @@ SOFTWARE.
  */
 package space.earlygrey.simplegraphs.algorithms;
 
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
-import space.earlygrey.simplegraphs.Errors;
 import space.earlygrey.simplegraphs.Graph;
-import space.earlygrey.simplegraphs.Node;
+import space.earlygrey.simplegraphs.Internals;
 import space.earlygrey.simplegraphs.Path;
+import space.earlygrey.simplegraphs.utils.GwtIncompatible;
 import space.earlygrey.simplegraphs.utils.Heuristic;
+import space.earlygrey.simplegraphs.utils.Pair;
 import space.earlygrey.simplegraphs.utils.SearchProcessor;
 
-public abstract class Algorithms<V> {
+public abstract class Algorithms<V> extends ExplicitGraphAlgorithms<V> {
 
     protected final Graph<V> graph;
-    private AtomicInteger runID = new AtomicInteger();
+    final Internals<V> internals;
+    private PathCache<V> pathCache;
+    @GwtIncompatible
+    private Executor asyncExecutor;
 
     Algorithms(Graph<V> graph) {
+        super(graph.internals());
         this.graph = graph;
-    }
-
-    public int requestRunID() {
-        return runID.getAndIncrement();
+        internals = graph.internals();
     }
 
     //--------------------
@@ -50,163 +58,270 @@ public abstract class Algorithms<V> {
     //--------------------
 
     /**
-     * Find a shortest path from the start vertex to the target vertex, using Dijkstra's algorithm implemented with a priority queue.
+     * Find a shortest path from the start vertex to the target vertex, using the A* search algorithm with the provided heuristic, and implemented with a priority queue.
+     * <br>The heuristic is a function, which for any two vertices returns an estimate of the distance between them. Note: the heuristic h
+     * must be admissible, that is, for any two vertices x and y, h(x,y) &#8804; d(x,y), where d(x,y) is the actual distance of a shortest path from x to y.
      * @param start the starting vertex
      * @param target the target vertex
+     * @param heuristic a heuristic to guide the search
+     * @param processor a consumer which is called immediately before processing each vertex. See {@link SearchStep}.
      * @return a list of vertices from start to target containing the ordered vertices of a shortest path, including both the start and target vertices.
      * If there is no path from the start vertex to the target vertex, the returned path is empty.
      */
-    public Path<V> findShortestPath(V start, V target) {
-        return findShortestPath(start, target, null, null);
+    @Override
+    public Path<V> findShortestPath(V start, V target, Heuristic<V> heuristic, SearchProcessor<V> processor) {
+        PathCache<V> cache = processor == null && !searchLimits.isLimited() && heuristicWeight == 1 ? pathCache : null;
+        int modificationCount = graph.getModificationCount();
+        if (cache != null) {
+            Path<V> path = getCachedPath(cache, start, target, heuristic, modificationCount);
+            if (path != null) return path;
+        }
+        SearchContext context = contexts.obtain();
+        try {
+            AStarSearch<V> search = newAstarSeach(start, target, heuristic, processor, context);
+            search.finish();
+            Path<V> path = search.getPath();
+            if (cache != null) cache.put(start, target, heuristic, path, modificationCount);
+            return path;
+        } finally {
+            contexts.free(context);
+        }
     }
 
     /**
-     * Find a shortest path from the start vertex to the target vertex, using Dijkstra's algorithm implemented with a priority queue.
+     * Find a shortest path from the start vertex to the target vertex, using the A* search algorithm with the provided heuristic, and implemented with a priority queue.
+     * <br>For a bidirectional search the heuristic h must be consistent, that is, for any edge (x, y) and vertex z, h(x, z) &#8804; w(x, y) + h(y, z).
      * @param start the starting vertex
      * @param target the target vertex
-     * @param processor a consumer which is called immediately before processing each vertex. See {@link SearchStep}.
+     * @param mode whether to search only forwards from the start vertex, or also backwards from the target vertex. See {@link SearchMode}.
+     * @param heuristic a heuristic to guide the search, or null to use Dijkstra's algorithm
      * @return a list of vertices from start to target containing the ordered vertices of a shortest path, including both the start and target vertices.
      * If there is no path from the start vertex to the target vertex, the returned path is empty.
      */
-    public Path<V> findShortestPath(V start, V target, SearchProcessor<V> processor) {
-        return findShortestPath(start, target, null, processor);
+    @Override
+    public Path<V> findShortestPath(V start, V target, SearchMode mode, Heuristic<V> heuristic) {
+        if (mode == SearchMode.UNIDIRECTIONAL) return findShortestPath(start, target, heuristic);
+        PathCache<V> cache = pathCache;
+        int modificationCount = graph.getModificationCount();
+        if (cache != null) {
+            Path<V> path = getCachedPath(cache, start, target, heuristic, modificationCount);
+            if (path != null) return path;
+        }
+        SearchContext forward = contexts.obtain(), backward = contexts.obtain();
+        try {
+            BidirectionalSearch<V> search = newBidirectionalSearch(start, target, heuristic, forward, backward);
+            search.finish();
+            Path<V> path = search.getPath();
+            if (cache != null) cache.put(start, target, heuristic, path, modificationCount);
+            return path;
+        } finally {
+            contexts.free(forward);
+            contexts.free(backward);
+        }
+    }
+
+    private Path<V> getCachedPath(PathCache<V> cache, V start, V target, Heuristic<V> heuristic, int modificationCount) {
+        // check the vertices first, so that queries for vertices not in the graph fail the same way with or without a cache
+        getId(start);
+        getId(target);
+        return cache.get(start, target, heuristic, modificationCount);
     }
 
     /**
-     * Find a shortest path from the start vertex to the target vertex, using the A* search algorithm with the provided heuristic, and implemented with a priority queue.
-     * <br>The heuristic is a function, which for any two vertices returns an estimate of the distance between them. Note: the heuristic h
-     * must be admissible, that is, for any two vertices x and y, h(x,y) &#8804; d(x,y), where d(x,y) is the actual distance of a shortest path from x to y.
-     * @param start the starting vertex
-     * @param target the target vertex
-     * @param heuristic a heuristic to guide the search
-     * @return a list of vertices from start to target containing the ordered vertices of a shortest path, including both the start and target vertices.
-     * If there is no path from the start vertex to the target vertex, the returned path is empty.
+     * Enable caching of the paths found by {@link #findShortestPath(Object, Object, Heuristic)} and the other shortest path methods
+     * without a {@link SearchProcessor}. Paths are cached until the graph is modified. See {@link PathCache}.
+     * @param pathCache the cache to use, or null to disable caching
      */
-    public Path<V> findShortestPath(V start, V target, Heuristic<V> heuristic) {
-        return findShortestPath(start, target, heuristic, null);
+    public void setPathCache(PathCache<V> pathCache) {
+        this.pathCache = pathCache;
     }
 
     /**
-     * Find a shortest path from the start vertex to the target vertex, using the A* search algorithm with the provided heuristic, and implemented with a priority queue.
-     * <br>The heuristic is a function, which for any two vertices returns an estimate of the distance between them. Note: the heuristic h
-     * must be admissible, that is, for any two vertices x and y, h(x,y) &#8804; d(x,y), where d(x,y) is the actual distance of a shortest path from x to y.
-     * @param start the starting vertex
-     * @param target the target vertex
-     * @param heuristic a heuristic to guide the search
-     * @param processor a consumer which is called immediately before processing each vertex. See {@link SearchStep}.
-     * @return a list of vertices from start to target containing the ordered vertices of a shortest path, including both the start and target vertices.
-     * If there is no path from the start vertex to the target vertex, the returned path is empty.
+     * @return the cache of shortest paths, or null if caching is not enabled
      */
-    public Path<V> findShortestPath(V start, V target, Heuristic<V> heuristic, SearchProcessor<V> processor) {
-        AStarSearch<V> search = newAstarSeach(start, target, heuristic, processor);
-        search.finish();
-        return search.getPath();
+    public PathCache<V> getPathCache() {
+        return pathCache;
     }
 
+    //--------------------
+    //  Batches
+    //--------------------
+
     /**
-     * Find a shortest path from the start vertex to the target vertex, using the A* search algorithm with the provided heuristic, and implemented with a priority queue.
-     * <br>The heuristic is a function, which for any two vertices returns an estimate of the distance between them. Note: the heuristic h
-     * must be admissible, that is, for any two vertices x and y, h(x,y) &#8804; d(x,y), where d(x,y) is the actual distance of a shortest path from x to y.
-     * @param start the starting vertex
-     * @param target the target vertex
-     * @param heuristic a heuristic to guide the search
-     * @param processor a consumer which is called immediately before processing each vertex. See {@link SearchStep}.
-     * @return a list of vertices from start to target containing the ordered vertices of a shortest path, including both the start and target vertices.
-     * If there is no path from the start vertex to the target vertex, the returned path is empty.
+     * Find shortest paths for a batch of queries in parallel, using Dijkstra's algorithm. The queries are run on the
+     * {@link ForkJoinPool#commonPool() common pool}. See {@link #findShortestPaths(Collection, Heuristic, Executor)}.
+     * @param queries pairs of start and target vertices
+     * @return a list of paths, in the iteration order of the queries
      */
-    public AStarSearch<V> newAstarSeach(V start, V target, Heuristic<V> heuristic, SearchProcessor<V> processor) {
-        Node<V> startNode = graph.internals().getNode(start);
-        Node<V> targetNode = graph.internals().getNode(target);
-        if (startNode == null || targetNode == null) Errors.throwVertexNotInGraphVertexException(true);
-        return new AStarSearch<>(requestRunID(), startNode, targetNode, heuristic, processor);
+    @GwtIncompatible
+    public List<Path<V>> findShortestPaths(Collection<Pair<V, V>> queries) {
+        return findShortestPaths(queries, null, ForkJoinPool.commonPool());
     }
 
+    /**
+     * Find shortest paths for a batch of queries in parallel, using Dijkstra's algorithm. See {@link #findShortestPaths(Collection, Heuristic, Executor)}.
+     * @param queries pairs of start and target vertices
+     * @param executor the executor on which to run the queries
+     * @return a list of paths, in the iteration order of the queries
+     */
+    @GwtIncompatible
+    public List<Path<V>> findShortestPaths(Collection<Pair<V, V>> queries, Executor executor) {
+        return findShortestPaths(queries, null, executor);
+    }
 
     /**
-     * Find the length of a shortest path from the start vertex to the target vertex, using Dijkstra's algorithm implemented with a priority queue.
-     * @param start the starting vertex
-     * @param target the target vertex
-     * @return the sum of the weights in a shortest path from the starting vertex to the target vertex.
-     * If there is no path from the start vertex to the target vertex, {@link Float#MAX_VALUE} is returned.
+     * Find shortest paths for a batch of queries in parallel, using the A* search algorithm with the provided heuristic.
+     * Each worker reuses its search state for every query it runs, and the calling thread works through the batch too,
+     * returning once every query has been answered. The graph must not be modified while the batch is running.
+     * <br>If any query throws an exception, the remaining queries are skipped and the exception is rethrown.
+     * @param queries pairs of start and target vertices
+     * @param heuristic a heuristic to guide the search, or null to use Dijkstra's algorithm
+     * @param executor the executor on which to run the queries
+     * @return a list of paths, in the iteration order of the queries. If there is no path for a query, its path is empty.
      */
-    public float findMinimumDistance(V start, V target) {
-        return findMinimumDistance(start, target, null);
+    @GwtIncompatible
+    public List<Path<V>> findShortestPaths(Collection<Pair<V, V>> queries, Heuristic<V> heuristic, Executor executor) {
+        List<Pair<V, V>> list = new ArrayList<>(queries);
+        @SuppressWarnings("unchecked")
+        Path<V>[] paths = new Path[list.size()];
+        BatchSearch.run(paths.length, executor, contexts, (i, context) -> {
+            Pair<V, V> query = list.get(i);
+            AStarSearch<V> search = newAstarSeach(query.getFirst(), query.getSecond(), heuristic, null, context);
+            search.finish();
+            paths[i] = search.getPath();
+        });
+        return Arrays.asList(paths);
     }
 
     /**
-     * Find the length of a shortest path from the start vertex to the target vertex, using the A* search algorithm with the provided heuristic, and implemented with a priority queue.
-     * @param start the starting vertex
-     * @param target the target vertex
-     * @return the sum of the weights in a shortest path from the starting vertex to the target vertex.
-     * If there is no path from the start vertex to the target vertex, {@link Float#MAX_VALUE} is returned.
+     * Find the lengths of shortest paths for a batch of queries in parallel, using Dijkstra's algorithm. The queries are run on the
+     * {@link ForkJoinPool#commonPool() common pool}. See {@link #findShortestPaths(Collection, Heuristic, Executor)}.
+     * @param queries pairs of start and target vertices
+     * @return the distances, in the iteration order of the queries. If there is no path for a query, its distance is {@link Float#MAX_VALUE}.
      */
-    public float findMinimumDistance(V start, V target, Heuristic<V> heuristic) {
-        AStarSearch<V> search = newAstarSeach(start, target, heuristic, null);
-        search.finish();
-        if (search.getEnd() == null) return Float.MAX_VALUE;
-        else return search.getEnd().getDistance();
+    @GwtIncompatible
+    public float[] findMinimumDistances(Collection<Pair<V, V>> queries) {
+        return findMinimumDistances(queries, null, ForkJoinPool.commonPool());
     }
 
     /**
-     * Checks whether there exists a path from the start vertex to target vertex, using Dijkstra's algorithm implemented with a priority queue.
-     * @param start the starting vertex
-     * @param target the target vertex
-     * @return whether there exists a path from the start vertex to target vertex
+     * Find the lengths of shortest paths for a batch of queries in parallel, using Dijkstra's algorithm. See {@link #findShortestPaths(Collection, Heuristic, Executor)}.
+     * @param queries pairs of start and target vertices
+     * @param executor the executor on which to run the queries
+     * @return the distances, in the iteration order of the queries. If there is no path for a query, its distance is {@link Float#MAX_VALUE}.
      */
-    public boolean isConnected(V start, V target) {
-        return findMinimumDistance(start, target) < Float.MAX_VALUE;
+    @GwtIncompatible
+    public float[] findMinimumDistances(Collection<Pair<V, V>> queries, Executor executor) {
+        return findMinimumDistances(queries, null, executor);
+    }
+
+    /**
+     * Find the lengths of shortest paths for a batch of queries in parallel, using the A* search algorithm with the provided heuristic.
+     * See {@link #findShortestPaths(Collection, Heuristic, Executor)}.
+     * @param queries pairs of start and target vertices
+     * @param heuristic a heuristic to guide the search, or null to use Dijkstra's algorithm
+     * @param executor the executor on which to run the queries
+     * @return the distances, in the iteration order of the queries. If there is no path for a query, its distance is {@link Float#MAX_VALUE}.
+     */
+    @GwtIncompatible
+    public float[] findMinimumDistances(Collection<Pair<V, V>> queries, Heuristic<V> heuristic, Executor executor) {
+        List<Pair<V, V>> list = new ArrayList<>(queries);
+        float[] distances = new float[list.size()];
+        BatchSearch.run(distances.length, executor, contexts, (i, context) -> {
+            Pair<V, V> query = list.get(i);
+            AStarSearch<V> search = newAstarSeach(query.getFirst(), query.getSecond(), heuristic, null, context);
+            search.finish();
+            distances[i] = search.getDistance();
+        });
+        return distances;
     }
 
     //--------------------
-    // Graph Searching
+    //  Asynchronous
     //--------------------
 
     /**
-     * Perform a breadth first search starting from the specified vertex.
-     * @param v the vertex at which to start the search
-     * @param processor a consumer which is called immediately before processing each vertex. See {@link SearchStep}.
+     * Find a shortest path from the start vertex to the target vertex on the {@link #setAsyncExecutor(Executor) async executor},
+     * using Dijkstra's algorithm. See {@link #findShortestPathAsync(Object, Object, Heuristic)}.
+     * @param start the starting vertex
+     * @param target the target vertex
+     * @return a future which is completed with the path
      */
-    public void breadthFirstSearch(V v, SearchProcessor<V> processor) {
-        Node<V> node = graph.internals().getNode(v);
-        if (node == null) Errors.throwVertexNotInGraphVertexException(false);
-        new BreadthFirstSearch<>(requestRunID(), node, processor).finish();
+    @GwtIncompatible
+    public CompletableFuture<Path<V>> findShortestPathAsync(V start, V target) {
+        return findShortestPathAsync(start, target, null);
     }
 
-
     /**
-     * Perform a depth first search starting from the specified vertex.
-     * @param v the vertex at which to start the search
-     * @param processor a consumer which is called immediately before processing each vertex. See {@link SearchStep}.
+     * Find a shortest path from the start vertex to the target vertex on the {@link #setAsyncExecutor(Executor) async executor},
+     * using the A* search algorithm with the provided heuristic. The calling thread does not wait for the search.
+     * <br>Cancelling the future stops the search at its next step. If a vertex is not in the graph, the future is completed
+     * exceptionally. The graph must not be modified while the search is running.
+     * @param start the starting vertex
+     * @param target the target vertex
+     * @param heuristic a heuristic to guide the search, or null to use Dijkstra's algorithm
+     * @return a future which is completed with the path. If there is no path from the start vertex to the target vertex, the path is empty.
      */
-    public void depthFirstSearch(V v, SearchProcessor<V> processor) {
-        Node<V> node = graph.internals().getNode(v);
-        if (node == null) Errors.throwVertexNotInGraphVertexException(false);
-        new DepthFirstSearch<>(requestRunID(), node, processor).finish();
+    @GwtIncompatible
+    public CompletableFuture<Path<V>> findShortestPathAsync(V start, V target, Heuristic<V> heuristic) {
+        PathCache<V> cache = !searchLimits.isLimited() && heuristicWeight == 1 ? pathCache : null;
+        int modificationCount = graph.getModificationCount();
+        if (cache != null) {
+            Path<V> path = getCachedPath(cache, start, target, heuristic, modificationCount);
+            if (path != null) return CompletableFuture.completedFuture(path);
+        }
+        return AsyncSearch.run(getAsyncExecutor(), contexts,
+                context -> newAstarSeach(start, target, heuristic, null, context),
+                search -> {
+                    Path<V> path = search.getPath();
+                    if (cache != null) cache.put(start, target, heuristic, path, modificationCount);
+                    return path;
+                });
     }
 
-
     /**
-     * Perform a search using Dijkstra's algorithm starting from the specified vertex.
-     * @param v the vertex at which to start the search
-     * @param processor a consumer which is called immediately before processing each vertex. See {@link SearchStep}.
+     * Find the length of a shortest path from the start vertex to the target vertex on the {@link #setAsyncExecutor(Executor) async executor},
+     * using Dijkstra's algorithm. See {@link #findShortestPathAsync(Object, Object, Heuristic)}.
+     * @param start the starting vertex
+     * @param target the target vertex
+     * @return a future which is completed with the distance
      */
-    public void dijkstraSearch(V v, SearchProcessor<V> processor) {
-        Node<V> node = graph.internals().getNode(v);
-        if (node == null) Errors.throwVertexNotInGraphVertexException(false);
-        new AStarSearch<>(requestRunID(), node, null, null, processor).finish();
+    @GwtIncompatible
+    public CompletableFuture<Float> findMinimumDistanceAsync(V start, V target) {
+        return findMinimumDistanceAsync(start, target, null);
     }
 
+    /**
+     * Find the length of a shortest path from the start vertex to the target vertex on the {@link #setAsyncExecutor(Executor) async executor},
+     * using the A* search algorithm with the provided heuristic. See {@link #findShortestPathAsync(Object, Object, Heuristic)}.
+     * @param start the starting vertex
+     * @param target the target vertex
+     * @param heuristic a heuristic to guide the search, or null to use Dijkstra's algorithm
+     * @return a future which is completed with the distance. If there is no path from the start vertex to the target vertex, the distance is {@link Float#MAX_VALUE}.
+     */
+    @GwtIncompatible
+    public CompletableFuture<Float> findMinimumDistanceAsync(V start, V target, Heuristic<V> heuristic) {
+        return AsyncSearch.run(getAsyncExecutor(), contexts,
+                context -> newAstarSeach(start, target, heuristic, null, context),
+                AStarSearch::getDistance);
+    }
 
-    //--------------------
-    //  Structures
-    //--------------------
+    /**
+     * Set the executor on which asynchronous searches run. On Java 21 and later, an executor which starts a virtual thread for
+     * each task, such as {@code Executors.newVirtualThreadPerTaskExecutor()}, suits a large number of concurrent searches.
+     * @param executor the executor, or null to use the {@link ForkJoinPool#commonPool() common pool}
+     */
+    @GwtIncompatible
+    public void setAsyncExecutor(Executor executor) {
+        this.asyncExecutor = executor;
+    }
 
     /**
-     * Checks whether there are any cycles in the graph using depth first searches.
-     * @return true if the graph contains a cycle, false otherwise
+     * @return the executor on which asynchronous searches run
      */
-    public boolean containsCycle() {
-        return new CycleDetector<>(requestRunID(), graph).containsCycle();
+    @GwtIncompatible
+    public Executor getAsyncExecutor() {
+        return asyncExecutor != null ? asyncExecutor : ForkJoinPool.commonPool();
     }
 
 }
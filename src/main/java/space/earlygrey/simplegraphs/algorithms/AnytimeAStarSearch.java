@@ -0,0 +1,231 @@
+/*
+MIT License
+
+Copyright (c) 2020 earlygrey
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package space.earlygrey.simplegraphs.algorithms;
+
+import java.util.Arrays;
+
+import space.earlygrey.simplegraphs.Path;
+import space.earlygrey.simplegraphs.utils.IntHeuristic;
+
+/**
+ * <p>Anytime repairing A* (ARA*), run over an {@link IndexedGraph}. The search first runs A* with the heuristic multiplied by a
+ * weight greater than 1, which finds a path quickly whose length is at most that weight times the length of a shortest path.
+ * The weight is then lowered step by step and the path improved, reusing the work done so far, until the weight reaches 1 and
+ * the path is a shortest path.</p>
+ *
+ * <p>The search is run a step at a time with {@link #update()}, and the best path found so far can be read at any time with
+ * {@link #getPath()}, so the search can be stopped whenever the path is good enough or time runs out. The heuristic must be
+ * consistent for the bound on the length of the path to hold.</p>
+ *
+ * @param <V> the vertex type
+ */
+public class AnytimeAStarSearch<V> extends Algorithm<V> {
+
+    /**
+     * The amount by which the weight is lowered after each path is found, if not specified.
+     */
+    public static final float DEFAULT_WEIGHT_STEP = 0.2f;
+
+    private final IndexedGraph<V> graph;
+    private final SearchContext context;
+    private final IntHeuristic heuristic;
+    private final int target;
+    private final float weightStep;
+    private final BinaryHeap heap;
+
+    // vertices expanded since the weight was last lowered
+    private int[] closed = new int[16];
+    private int closedCount;
+    // expanded vertices whose distance has improved since, which are reopened when the weight is lowered
+    private int[] inconsistent = new int[16];
+    private int inconsistentCount;
+
+    private float weight;
+    private float pathWeight = Float.POSITIVE_INFINITY;
+    private Path<V> path = Path.EMPTY_PATH;
+    private int pathCount;
+    private boolean finished;
+
+    AnytimeAStarSearch(int id, IndexedGraph<V> graph, SearchContext context, int start, int target, IntHeuristic heuristic,
+                       float initialWeight, float weightStep) {
+        super(id);
+        if (!(initialWeight >= 1)) throw new IllegalArgumentException("The initial weight must be at least 1.");
+        if (!(weightStep > 0)) throw new IllegalArgumentException("The weight step must be positive.");
+        this.graph = graph;
+        this.context = context;
+        this.target = target;
+        this.heuristic = heuristic;
+        this.weightStep = weightStep;
+        weight = initialWeight;
+        context.beginRun(graph.getIdBound());
+        heap = new BinaryHeap(context);
+        reset(start);
+        context.distance[start] = 0;
+        context.seen[start] = true;
+        heap.add(start, getKey(start));
+    }
+
+    private void reset(int v) {
+        if (context.reset(v) && heuristic != null) context.estimate[v] = heuristic.getEstimate(v, target);
+    }
+
+    private float getKey(int v) {
+        return context.distance[v] + weight * context.estimate[v];
+    }
+
+    @Override
+    public boolean update() {
+        if (finished) return true;
+        SearchContext context = this.context;
+        reset(target);
+
+        if (heap.isEmpty() || context.heapValue[heap.peek()] >= context.distance[target]) {
+            // no vertex left to expand could improve the path at this weight
+            if (context.distance[target] != Float.MAX_VALUE) {
+                path = createPath();
+                pathWeight = weight;
+                pathCount++;
+            }
+            if (weight == 1 || context.distance[target] == Float.MAX_VALUE) {
+                finished = true;
+                heap.clear();
+                return true;
+            }
+            lowerWeight();
+            return false;
+        }
+
+        int u = heap.pop();
+        context.seen[u] = false;
+        context.processed[u] = true;
+        if (closedCount == closed.length) closed = Arrays.copyOf(closed, closedCount << 1);
+        closed[closedCount++] = u;
+
+        float distance = context.distance[u];
+        int degree = graph.getOutDegree(u);
+        for (int i = 0; i < degree; i++) {
+            int v = graph.getOutTarget(u, i);
+            reset(v);
+            float newDistance = distance + graph.getOutWeight(u, i);
+            if (newDistance < context.distance[v]) {
+                context.distance[v] = newDistance;
+                context.prev[v] = u;
+                context.prevSlot[v] = i;
+                if (!context.processed[v]) {
+                    if (context.seen[v]) {
+                        heap.setValue(v, getKey(v));
+                    } else {
+                        heap.add(v, getKey(v));
+                        context.seen[v] = true;
+                    }
+                } else {
+                    if (inconsistentCount == inconsistent.length) inconsistent = Arrays.copyOf(inconsistent, inconsistentCount << 1);
+                    inconsistent[inconsistentCount++] = v;
+                }
+            }
+        }
+        return false;
+    }
+
+    // lowers the weight, reopens the inconsistent vertices and reorders the open ones by their new keys
+    private void lowerWeight() {
+        weight = Math.max(1, weight - weightStep);
+        SearchContext context = this.context;
+        for (int i = 0; i < closedCount; i++) {
+            context.processed[closed[i]] = false;
+        }
+        closedCount = 0;
+        int[] open = new int[heap.size + inconsistentCount];
+        int count = 0;
+        while (heap.notEmpty()) {
+            open[count++] = heap.pop();
+        }
+        for (int i = 0; i < inconsistentCount; i++) {
+            int v = inconsistent[i];
+            // a vertex can be added more than once
+            if (!context.seen[v]) {
+                context.seen[v] = true;
+                open[count++] = v;
+            }
+        }
+        inconsistentCount = 0;
+        for (int i = 0; i < count; i++) {
+            heap.add(open[i], getKey(open[i]));
+        }
+    }
+
+    // follows the predecessors back from the target, which unlike the depths stay valid as distances improve
+    private Path<V> createPath() {
+        int count = 1;
+        for (int v = target; context.prev[v] != -1; v = context.prev[v]) {
+            count++;
+        }
+        int[] ids = new int[count];
+        float length = 0;
+        for (int v = target, i = count - 1; i >= 0; v = context.prev[v], i--) {
+            ids[i] = v;
+            if (i > 0) length += graph.getOutWeight(context.prev[v], context.prevSlot[v]);
+        }
+        AlgorithmPath<V> path = new AlgorithmPath<>(length);
+        for (int id : ids) {
+            path.add(graph.getVertex(id));
+        }
+        return path;
+    }
+
+    @Override
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * @return the best path found so far, which is empty if none has been found yet, or if there is no path
+     */
+    public Path<V> getPath() {
+        return path;
+    }
+
+    /**
+     * @return the weight with which the current path was found, which bounds its length as a multiple of the length of a
+     * shortest path. This is 1 once the search has finished if there is a path, and infinite if no path has been found yet.
+     */
+    public float getPathWeight() {
+        return pathWeight;
+    }
+
+    /**
+     * @return the number of times a path has been found, once for each weight the search has finished with
+     */
+    public int getPathCount() {
+        return pathCount;
+    }
+
+    /**
+     * @return the weight the search is currently trying to find a path with
+     */
+    public float getWeight() {
+        return weight;
+    }
+
+}
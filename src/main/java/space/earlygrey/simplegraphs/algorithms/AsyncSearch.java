@@ -0,0 +1,72 @@
+/*
+MIT License
+
+Copyright (c) 2020 earlygrey
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package space.earlygrey.simplegraphs.algorithms;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+import space.earlygrey.simplegraphs.utils.GwtIncompatible;
+
+/**
+ * Runs a single search on an executor, completing a future with its result. The search is run a step at a time, and stops
+ * between steps once the future is done, so cancelling the future, or completing it some other way, stops the search.
+ */
+@GwtIncompatible
+class AsyncSearch {
+
+    private AsyncSearch() {
+    }
+
+    /**
+     * @param create creates the search, holding its state in the given context
+     * @param result reads the result of the finished search
+     */
+    static <S extends Algorithm<?>, R> CompletableFuture<R> run(Executor executor, SearchContextPool contexts,
+                                                                Function<SearchContext, S> create, Function<S, R> result) {
+        CompletableFuture<R> future = new CompletableFuture<>();
+        Runnable task = () -> {
+            if (future.isDone()) return;
+            SearchContext context = contexts.obtain();
+            try {
+                S search = create.apply(context);
+                while (!search.update()) {
+                    if (future.isDone()) return;
+                }
+                future.complete(result.apply(search));
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            } finally {
+                contexts.free(context);
+            }
+        };
+        try {
+            executor.execute(task);
+        } catch (Throwable t) {
+            future.completeExceptionally(t);
+        }
+        return future;
+    }
+
+}
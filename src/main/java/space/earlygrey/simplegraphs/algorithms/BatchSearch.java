@@ -0,0 +1,96 @@
+/*
+MIT License
+
+Copyright (c) 2020 earlygrey
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package space.earlygrey.simplegraphs.algorithms;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import space.earlygrey.simplegraphs.utils.GwtIncompatible;
+
+/**
+ * Runs a batch of independent queries in parallel. Each worker takes a {@link SearchContext} from the pool once and
+ * reuses it for every query it runs, so per query allocation is limited to the result.
+ * <br>The calling thread also works through the batch, so the batch completes even if the executor is busy.
+ */
+@GwtIncompatible
+class BatchSearch {
+
+    interface Query {
+        void run(int index, SearchContext context);
+    }
+
+    private BatchSearch() {
+    }
+
+    static void run(int count, Executor executor, SearchContextPool contexts, Query query) {
+        if (count == 0) return;
+        AtomicInteger next = new AtomicInteger();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        CountDownLatch remaining = new CountDownLatch(count);
+
+        Runnable worker = () -> {
+            SearchContext context = contexts.obtain();
+            try {
+                int i;
+                while ((i = next.getAndIncrement()) < count) {
+                    try {
+                        // after a failure the remaining queries are skipped, but still counted down
+                        if (error.get() == null) query.run(i, context);
+                    } catch (Throwable t) {
+                        error.compareAndSet(null, t);
+                    } finally {
+                        remaining.countDown();
+                    }
+                }
+            } finally {
+                contexts.free(context);
+            }
+        };
+
+        int workers = Math.min(count, Runtime.getRuntime().availableProcessors()) - 1;
+        for (int i = 0; i < workers; i++) {
+            try {
+                executor.execute(worker);
+            } catch (RejectedExecutionException e) {
+                break;
+            }
+        }
+        worker.run();
+
+        try {
+            remaining.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a batch of searches", e);
+        }
+
+        Throwable t = error.get();
+        if (t instanceof RuntimeException) throw (RuntimeException) t;
+        if (t instanceof Error) throw (Error) t;
+    }
+
+}
@@ -0,0 +1,208 @@
+/*
+MIT License
+
+Copyright (c) 2020 earlygrey
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package space.earlygrey.simplegraphs.algorithms;
+
+import space.earlygrey.simplegraphs.Path;
+import space.earlygrey.simplegraphs.utils.IntHeuristic;
+
+/**
+ * A bidirectional version of {@link AStarSearch}, which runs a search forwards from the start vertex over outgoing edges,
+ * and backwards from the target vertex over incoming edges, each holding its state in its own {@link SearchContext}.
+ * Each step expands the search with the smaller queue, and the search ends once no path through the unsettled vertices
+ * can be shorter than the best path found where the two searches meet.
+ * <br>With a heuristic h, both searches use the average potential (h(v, target) - h(start, v)) / 2, which keeps the reduced
+ * edge weights consistent for both directions. This requires h to be consistent, not just admissible.
+ * @param <V> the vertex type
+ */
+public class BidirectionalSearch<V> extends Algorithm<V> {
+
+    private final IndexedGraph<V> graph;
+    private final SearchContext forward, backward;
+    private final BinaryHeap forwardHeap, backwardHeap;
+    private final int start, target;
+    private final IntHeuristic heuristic;
+    // the length of the shortest path found so far, and the vertex at which it passes from the forward to the backward search
+    private float best = Float.MAX_VALUE;
+    private int meet = -1;
+    private boolean finished;
+    private Path<V> path;
+
+    BidirectionalSearch(int id, IndexedGraph<V> graph, SearchContext forward, SearchContext backward, int start, int target, IntHeuristic heuristic) {
+        super(id);
+        this.graph = graph;
+        this.forward = forward;
+        this.backward = backward;
+        this.start = start;
+        this.target = target;
+        this.heuristic = heuristic;
+        forward.beginRun(graph.getIdBound());
+        backward.beginRun(graph.getIdBound());
+        forwardHeap = new BinaryHeap(forward);
+        backwardHeap = new BinaryHeap(backward);
+
+        forward.reset(start);
+        forward.distance[start] = 0;
+        forward.estimate[start] = potential(start);
+        forward.seen[start] = true;
+        forwardHeap.add(start, forward.estimate[start]);
+
+        backward.reset(target);
+        backward.distance[target] = 0;
+        backward.estimate[target] = -potential(target);
+        backward.seen[target] = true;
+        backwardHeap.add(target, backward.estimate[target]);
+
+        if (start == target) {
+            best = 0;
+            meet = start;
+            end();
+        }
+    }
+
+    /**
+     * @return the potential of the vertex for the forward search. The potential for the backward search is its negation.
+     */
+    private float potential(int v) {
+        if (heuristic == null) return 0;
+        return (heuristic.getEstimate(v, target) - heuristic.getEstimate(start, v)) / 2;
+    }
+
+    @Override
+    public boolean update() {
+        if (isFinished()) return true;
+        if (forwardHeap.isEmpty() || backwardHeap.isEmpty()) {
+            end();
+            return true;
+        }
+        float forwardMin = forward.heapValue[forwardHeap.peek()];
+        float backwardMin = backward.heapValue[backwardHeap.peek()];
+        if (best < Float.MAX_VALUE && forwardMin + backwardMin >= best) {
+            end();
+            return true;
+        }
+        if (forwardHeap.size <= backwardHeap.size) {
+            expandForward();
+        } else {
+            expandBackward();
+        }
+        return isFinished();
+    }
+
+    private void expandForward() {
+        SearchContext forward = this.forward;
+        int u = forwardHeap.pop();
+        forward.processed[u] = true;
+        float distance = forward.distance[u];
+        int degree = graph.getOutDegree(u);
+        for (int i = 0; i < degree; i++) {
+            int v = graph.getOutTarget(u, i);
+            if (forward.reset(v)) forward.estimate[v] = potential(v);
+            if (!forward.processed[v]) {
+                float newDistance = distance + graph.getOutWeight(u, i);
+                if (newDistance < forward.distance[v]) {
+                    forward.distance[v] = newDistance;
+                    forward.prev[v] = u;
+                    forward.prevSlot[v] = i;
+                    forward.depth[v] = forward.depth[u] + 1;
+                    if (!forward.seen[v]) {
+                        forwardHeap.add(v, newDistance + forward.estimate[v]);
+                        forward.seen[v] = true;
+                    } else {
+                        forwardHeap.setValue(v, newDistance + forward.estimate[v]);
+                    }
+                }
+            }
+            checkMeeting(v);
+        }
+    }
+
+    private void expandBackward() {
+        SearchContext backward = this.backward;
+        int u = backwardHeap.pop();
+        backward.processed[u] = true;
+        float distance = backward.distance[u];
+        int degree = graph.getInDegree(u);
+        for (int i = 0; i < degree; i++) {
+            int v = graph.getInSource(u, i);
+            if (backward.reset(v)) backward.estimate[v] = -potential(v);
+            if (!backward.processed[v]) {
+                float newDistance = distance + graph.getInWeight(u, i);
+                if (newDistance < backward.distance[v]) {
+                    backward.distance[v] = newDistance;
+                    backward.prev[v] = u;
+                    backward.prevSlot[v] = i;
+                    backward.depth[v] = backward.depth[u] + 1;
+                    if (!backward.seen[v]) {
+                        backwardHeap.add(v, newDistance + backward.estimate[v]);
+                        backward.seen[v] = true;
+                    } else {
+                        backwardHeap.setValue(v, newDistance + backward.estimate[v]);
+                    }
+                }
+            }
+            checkMeeting(v);
+        }
+    }
+
+    /**
+     * If both searches have reached the vertex, check whether the path through it is the shortest found so far.
+     */
+    private void checkMeeting(int v) {
+        if (!forward.isVisited(v) || !backward.isVisited(v)) return;
+        float forwardDistance = forward.distance[v], backwardDistance = backward.distance[v];
+        if (forwardDistance == Float.MAX_VALUE || backwardDistance == Float.MAX_VALUE) return;
+        float length = forwardDistance + backwardDistance;
+        if (length < best) {
+            best = length;
+            meet = v;
+        }
+    }
+
+    private void end() {
+        finished = true;
+        forwardHeap.clear();
+        backwardHeap.clear();
+    }
+
+    @Override
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public Path<V> getPath() {
+        if (!isFinished()) return null;
+        if (path == null) {
+            path = meet != -1 ? new AlgorithmPath<>(graph, forward, backward, meet, best) : Path.EMPTY_PATH;
+        }
+        return path;
+    }
+
+    /**
+     * @return the length of the path found, or {@link Float#MAX_VALUE} if the target was not reached
+     */
+    float getDistance() {
+        return meet != -1 ? best : Float.MAX_VALUE;
+    }
+
+}
@@ -0,0 +1,162 @@
+package space.earlygrey.simplegraphs.algorithms;
+
+/**
+ NOTE - This class was adapted from the original, which appears as the BinaryHeap class found in libgdx.
+ Original appears here: https://github.com/libgdx/libgdx/blob/master/gdx/src/com/badlogic/gdx/utils/BinaryHeap.java
+ Generics and the BinaryHeap.Node class have been removed and replaced with integer vertex ids, and the heap index and value
+ of each id are held in a SearchContext.
+ Safety checks and exceptions have been removed.
+ **/
+
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+/** A binary min heap of vertex ids, each of which has a float value.
+ * @author Nathan Sweet */
+class BinaryHeap extends IdQueue {
+
+    private int[] ids;
+    private final SearchContext context;
+
+    BinaryHeap(SearchContext context) {
+        this(context, 16);
+    }
+
+    BinaryHeap(SearchContext context, int capacity) {
+        this.context = context;
+        ids = new int[capacity];
+    }
+
+    /**
+     * Adds the id to the heap with the given value. The id should not already be in the heap.
+     */
+    @Override
+    void add(int id, float value) {
+        // Expand if necessary.
+        if (size == ids.length) {
+            int[] newIds = new int[size << 1];
+            System.arraycopy(ids, 0, newIds, 0, size);
+            ids = newIds;
+        }
+        // Insert at end and bubble up.
+        context.heapValue[id] = value;
+        context.heapIndex[id] = size;
+        ids[size] = id;
+        up(size++);
+    }
+
+    /**
+     * Returns the id with the lowest value.
+     */
+    @Override
+    int peek() {
+        return ids[0];
+    }
+
+    /**
+     * Removes the id with the lowest value and returns it.
+     */
+    @Override
+    int pop() {
+        int[] ids = this.ids;
+        int removed = ids[0];
+        ids[0] = ids[--size];
+        if (size > 0) down(0);
+        return removed;
+    }
+
+    /**
+     * Changes the value of the id, which should already be in the heap.
+     */
+    @Override
+    void setValue(int id, float value) {
+        float[] heapValue = context.heapValue;
+        float oldValue = heapValue[id];
+        heapValue[id] = value;
+        if (value < oldValue)
+            up(context.heapIndex[id]);
+        else
+            down(context.heapIndex[id]);
+    }
+
+    private void up(int index) {
+        int[] ids = this.ids;
+        int[] heapIndex = context.heapIndex;
+        float[] heapValue = context.heapValue;
+        int id = ids[index];
+        float value = heapValue[id];
+        while (index > 0) {
+            int parentIndex = (index - 1) >> 1;
+            int parent = ids[parentIndex];
+            if (value < heapValue[parent]) {
+                ids[index] = parent;
+                heapIndex[parent] = index;
+                index = parentIndex;
+            } else
+                break;
+        }
+        ids[index] = id;
+        heapIndex[id] = index;
+    }
+
+    private void down(int index) {
+        int[] ids = this.ids;
+        int[] heapIndex = context.heapIndex;
+        float[] heapValue = context.heapValue;
+        int size = this.size;
+
+        int id = ids[index];
+        float value = heapValue[id];
+
+        while (true) {
+            int leftIndex = 1 + (index << 1);
+            if (leftIndex >= size) break;
+            int rightIndex = leftIndex + 1;
+
+            // Always has a left child.
+            int left = ids[leftIndex];
+            float leftValue = heapValue[left];
+
+            // May have a right child.
+            int right;
+            float rightValue;
+            if (rightIndex >= size) {
+                right = -1;
+                rightValue = Float.MAX_VALUE;
+            } else {
+                right = ids[rightIndex];
+                rightValue = heapValue[right];
+            }
+
+            // The smallest of the three values is the parent.
+            if (leftValue < rightValue) {
+                if (leftValue == value || leftValue > value) break;
+                ids[index] = left;
+                heapIndex[left] = index;
+                index = leftIndex;
+            } else {
+                if (rightValue == value || rightValue > value) break;
+                ids[index] = right;
+                heapIndex[right] = index;
+                index = rightIndex;
+            }
+        }
+
+        ids[index] = id;
+        heapIndex[id] = index;
+    }
+
+}
@@ -1,52 +1,102 @@
+/*
+MIT License
+
+Copyright (c) 2020 earlygrey
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
 package space.earlygrey.simplegraphs.algorithms;
 
-import java.util.ArrayDeque;
+import java.util.Arrays;
 
-import space.earlygrey.simplegraphs.Array;
-import space.earlygrey.simplegraphs.Connection;
-import space.earlygrey.simplegraphs.Node;
 import space.earlygrey.simplegraphs.utils.SearchProcessor;
 
+/**
+ * A breadth first search run over an {@link IndexedGraph}.
+ * @param <V> the vertex type
+ */
 public class BreadthFirstSearch<V> extends Algorithm<V> {
 
-    private SearchProcessor<V> processor;
-    private SearchStep<V> step = new SearchStep<>();
+    private final IndexedGraph<V> graph;
+    private final SearchContext context;
+    private final SearchProcessor<V> processor;
+    private final SearchStep<V> step;
 
-    private final ArrayDeque<Node<V>> queue;
+    // every vertex is queued at most once, so the queue never needs to wrap around
+    private int[] queue;
+    private int head, tail;
+    private SearchLimits limits = SearchLimits.NONE;
+    private long deadline;
+    private int expansions;
+    private boolean limitReached;
 
-    public BreadthFirstSearch(int id, Node<V> start, SearchProcessor<V> processor) {
+    BreadthFirstSearch(int id, IndexedGraph<V> graph, SearchContext context, int start, SearchProcessor<V> processor) {
         super(id);
+        this.graph = graph;
+        this.context = context;
         this.processor = processor;
-        queue = new ArrayDeque<>();
-        start.resetAlgorithmAttribs(id);
-        queue.add(start);
-        start.setSeen(true);
+        step = SearchStep.create(graph, context, processor);
+        context.beginRun(graph.getIdBound());
+        queue = new int[16];
+        context.reset(start);
+        context.distance[start] = 0;
+        context.seen[start] = true;
+        queue[tail++] = start;
     }
 
     @Override
     public boolean update() {
         if (isFinished()) return true;
 
-        Node<V> v = queue.pollFirst();
+        SearchContext context = this.context;
+        int v = queue[head++];
+        if (limits.isExceeded(expansions, deadline)) {
+            head = tail;
+            limitReached = true;
+            return true;
+        }
         if (processor != null) {
             step.prepare(v);
             processor.accept(step);
             if (step.terminate) {
-                queue.clear();
+                head = tail;
                 return true;
             }
             if (step.ignore) return isFinished();
         }
-        Array<Connection<V>> outEdges = v.getOutEdges();
-        for (Connection<V> e : outEdges) {
-            Node<V> w = e.getNodeB();
-            w.resetAlgorithmAttribs(id);
-            if (!w.isSeen()) {
-                w.setIndex(v.getIndex() + 1);
-                w.setDistance(v.getDistance() + e.getWeight());
-                w.setConnection(e);
-                w.setSeen(true);
-                queue.addLast(w);
+        expansions++;
+        if (context.depth[v] >= limits.maxDepth) return isFinished();
+        float maxDistance = limits.maxDistance;
+        int degree = graph.getOutDegree(v);
+        for (int i = 0; i < degree; i++) {
+            int w = graph.getOutTarget(v, i);
+            context.reset(w);
+            if (!context.seen[w]) {
+                float distance = context.distance[v] + graph.getOutWeight(v, i);
+                if (distance > maxDistance) continue;
+                context.depth[w] = context.depth[v] + 1;
+                context.distance[w] = distance;
+                context.prev[w] = v;
+                context.prevSlot[w] = i;
+                context.seen[w] = true;
+                if (tail == queue.length) queue = Arrays.copyOf(queue, tail << 1);
+                queue[tail++] = w;
             }
         }
         return isFinished();
@@ -54,7 +104,33 @@ public class BreadthFirstSearch<V> extends Algorithm<V> {
 
     @Override
     public boolean isFinished() {
-        return queue.isEmpty();
+        return head == tail;
+    }
+
+    /**
+     * Limit how far the search may go. Any time budget is measured from this call. See {@link SearchLimits}.
+     */
+    public void setLimits(SearchLimits limits) {
+        this.limits = limits;
+        deadline = limits.getDeadline();
+    }
+
+    public SearchLimits getLimits() {
+        return limits;
+    }
+
+    /**
+     * @return whether the search was stopped by its limit on the number of expansions or on time
+     */
+    public boolean isLimitReached() {
+        return limitReached;
+    }
+
+    /**
+     * @return the number of vertices expanded so far
+     */
+    public int getExpansionCount() {
+        return expansions;
     }
 
 }
@@ -0,0 +1,169 @@
+/*
+MIT License
+
+Copyright (c) 2020 earlygrey
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package space.earlygrey.simplegraphs.algorithms;
+
+import java.util.Arrays;
+
+/**
+ * A bucket queue of vertex ids (Dial's algorithm), for values which are integers. Each bucket holds the ids with one value in a
+ * linked list, and the buckets form a ring which covers the range of values in the queue, so adding an id and changing its value
+ * take constant time, and removing the minimum only scans forward over empty buckets. Values are rounded down, so the order of
+ * values with a fractional part is only approximate, and {@link QueueType} only creates one for searches whose values are
+ * integers.
+ * <br>The ring grows if the range of values in the queue exceeds its size. When it is used for Dijkstra's algorithm on a graph
+ * whose weights are at most {@code c}, the range is never more than {@code c + 1}.
+ */
+class BucketQueue extends IdQueue {
+
+    private static final int NONE = -1;
+
+    private final SearchContext context;
+    // the first node in each bucket
+    private int[] heads;
+    private int mask;
+    // no bucket before this value is in use
+    private int current;
+    // no bucket after this value is in use
+    private int last;
+    private int[] nodeIds, keys, next, prev;
+    private int nodeCount;
+
+    BucketQueue(SearchContext context) {
+        this(context, 16);
+    }
+
+    /**
+     * @param range the expected range of values in the queue
+     */
+    BucketQueue(SearchContext context, int range) {
+        this.context = context;
+        int length = Integer.highestOneBit(Math.max(2, range) - 1) << 1;
+        heads = new int[length];
+        Arrays.fill(heads, NONE);
+        mask = length - 1;
+        nodeIds = new int[16];
+        keys = new int[16];
+        next = new int[16];
+        prev = new int[16];
+    }
+
+    @Override
+    void add(int id, float value) {
+        if (nodeCount == nodeIds.length) resize(nodeCount << 1);
+        int node = nodeCount++;
+        nodeIds[node] = id;
+        context.heapIndex[id] = node;
+        link(node, (int) value);
+        size++;
+    }
+
+    @Override
+    int peek() {
+        int[] heads = this.heads;
+        while (heads[current & mask] == NONE) {
+            current++;
+        }
+        return nodeIds[heads[current & mask]];
+    }
+
+    @Override
+    int pop() {
+        int id = peek();
+        unlink(heads[current & mask]);
+        size--;
+        return id;
+    }
+
+    @Override
+    void setValue(int id, float value) {
+        int node = context.heapIndex[id];
+        unlink(node);
+        link(node, (int) value);
+    }
+
+    @Override
+    void clear() {
+        super.clear();
+        Arrays.fill(heads, NONE);
+        nodeCount = 0;
+    }
+
+    private void link(int node, int key) {
+        if (size == 0) {
+            current = last = key;
+        } else {
+            if (key < current) current = key;
+            if (key > last) last = key;
+            if (last - current > mask) grow(last - current + 1);
+        }
+        keys[node] = key;
+        int bucket = key & mask;
+        int head = heads[bucket];
+        next[node] = head;
+        prev[node] = NONE;
+        if (head != NONE) prev[head] = node;
+        heads[bucket] = node;
+    }
+
+    private void unlink(int node) {
+        int before = prev[node], after = next[node];
+        if (before == NONE) heads[keys[node] & mask] = after;
+        else next[before] = after;
+        if (after != NONE) prev[after] = before;
+    }
+
+    // moves every node into a larger ring which covers the given range
+    private void grow(int range) {
+        int[] oldHeads = heads;
+        int length = Integer.highestOneBit(range - 1) << 2;
+        heads = new int[length];
+        Arrays.fill(heads, NONE);
+        mask = length - 1;
+        for (int head : oldHeads) {
+            for (int node = head; node != NONE; ) {
+                int after = next[node];
+                int bucket = keys[node] & mask;
+                next[node] = heads[bucket];
+                prev[node] = NONE;
+                if (heads[bucket] != NONE) prev[heads[bucket]] = node;
+                heads[bucket] = node;
+                node = after;
+            }
+        }
+    }
+
+    private void resize(int capacity) {
+        nodeIds = copy(nodeIds, capacity);
+        keys = copy(keys, capacity);
+        next = copy(next, capacity);
+        prev = copy(prev, capacity);
+    }
+
+    private int[] copy(int[] array, int capacity) {
+        int[] newArray = new int[capacity];
+        System.arraycopy(array, 0, newArray, 0, nodeCount);
+        return newArray;
+    }
+
+}
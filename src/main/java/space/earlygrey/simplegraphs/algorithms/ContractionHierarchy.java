@@ -0,0 +1,503 @@
+/*
+MIT License
+
+Copyright (c) 2020 earlygrey
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package space.earlygrey.simplegraphs.algorithms;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import space.earlygrey.simplegraphs.Errors;
+import space.earlygrey.simplegraphs.Graph;
+import space.earlygrey.simplegraphs.Path;
+import space.earlygrey.simplegraphs.utils.GwtIncompatible;
+
+/**
+ * <p>A contraction hierarchy of a graph, which answers shortest path queries between two vertices many times faster than
+ * {@link AStarSearch}, at the cost of a preprocessing step when it is created.</p>
+ *
+ * <p>Preprocessing contracts the vertices one at a time, in an order chosen by their edge difference (the number of shortcuts
+ * that contracting a vertex would add, minus the number of edges it would remove). When a vertex is contracted, a shortcut edge
+ * is added between each pair of its remaining neighbours unless a local witness search finds a path between them that is
+ * no longer than the one through the vertex. A query then runs a bidirectional Dijkstra search which only follows edges
+ * towards vertices contracted later, and shortcuts are unpacked into the original edges when the path is created.</p>
+ *
+ * <p>The hierarchy is a snapshot: later changes to the graph are not reflected in it, and edge weights must not be negative.
+ * It holds no reference to the graph, and is {@link Serializable} when the vertices are, so that preprocessing can be done once
+ * ahead of time. Queries do not modify the hierarchy, and can run concurrently.</p>
+ *
+ * @param <V> the vertex type
+ */
+public class ContractionHierarchy<V> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    // the maximum number of vertices a witness search settles before giving up, in which case a shortcut is added
+    private static final int WITNESS_SEARCH_LIMIT = 256;
+
+    private final Object[] vertices;
+    private final HashMap<Object, Integer> ids;
+
+    // edges from vertex i to vertices contracted after it are in [upOffsets[i], upOffsets[i+1])
+    private final int[] upOffsets, upTargets, upMiddles;
+    private final float[] upWeights;
+
+    // edges into vertex i from vertices contracted after it are in [downOffsets[i], downOffsets[i+1])
+    private final int[] downOffsets, downSources, downMiddles;
+    private final float[] downWeights;
+
+    private final int shortcutCount;
+
+    private transient SearchContextPool contexts = new SearchContextPool();
+
+    //================================================================================
+    // Preprocessing
+    //================================================================================
+
+    /**
+     * Build a contraction hierarchy of the given graph.
+     * @param graph the graph, which can be directed or undirected
+     */
+    public ContractionHierarchy(Graph<V> graph) {
+        this(graph.freeze());
+    }
+
+    /**
+     * Build a contraction hierarchy of the given graph. Ids which are not in use are skipped.
+     * @param graph the graph, which can be directed or undirected
+     */
+    public ContractionHierarchy(IndexedGraph<V> graph) {
+        int n = graph.getIdBound();
+        vertices = new Object[n];
+        ids = new HashMap<>();
+        ArcList[] out = new ArcList[n], in = new ArcList[n];
+        for (int i = 0; i < n; i++) {
+            vertices[i] = graph.getVertex(i);
+            if (vertices[i] != null) ids.put(vertices[i], i);
+            out[i] = new ArcList();
+            in[i] = new ArcList();
+        }
+        for (int u = 0; u < n; u++) {
+            int degree = graph.getOutDegree(u);
+            for (int i = 0; i < degree; i++) {
+                int v = graph.getOutTarget(u, i);
+                float weight = graph.getOutWeight(u, i);
+                out[u].set(v, weight, -1);
+                in[v].set(u, weight, -1);
+            }
+        }
+
+        Contraction contraction = new Contraction(out, in);
+        ArcList[] up = contraction.up, down = contraction.down;
+        shortcutCount = contraction.shortcutCount;
+
+        upOffsets = new int[n + 1];
+        downOffsets = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            upOffsets[i + 1] = upOffsets[i] + up[i].size;
+            downOffsets[i + 1] = downOffsets[i] + down[i].size;
+        }
+        upTargets = new int[upOffsets[n]];
+        upMiddles = new int[upOffsets[n]];
+        upWeights = new float[upOffsets[n]];
+        downSources = new int[downOffsets[n]];
+        downMiddles = new int[downOffsets[n]];
+        downWeights = new float[downOffsets[n]];
+        for (int i = 0; i < n; i++) {
+            up[i].copyTo(upTargets, upWeights, upMiddles, upOffsets[i]);
+            down[i].copyTo(downSources, downWeights, downMiddles, downOffsets[i]);
+        }
+    }
+
+    /**
+     * The state of the graph during preprocessing, where the edges of each vertex to vertices which have not yet been contracted
+     * are held in growable lists.
+     */
+    private static class Contraction {
+
+        final ArcList[] out, in;
+        // the edges of each vertex at the time it was contracted, which all lead to vertices contracted later
+        final ArcList[] up, down;
+        final int[] contractedNeighbours;
+        final SearchContext witnessContext = new SearchContext();
+        final BinaryHeap witnessHeap = new BinaryHeap(witnessContext);
+        int shortcutCount;
+
+        Contraction(ArcList[] out, ArcList[] in) {
+            int n = out.length;
+            this.out = out;
+            this.in = in;
+            up = new ArcList[n];
+            down = new ArcList[n];
+            contractedNeighbours = new int[n];
+
+            SearchContext orderContext = new SearchContext(n);
+            BinaryHeap order = new BinaryHeap(orderContext, Math.max(1, n));
+            for (int v = 0; v < n; v++) {
+                order.add(v, getPriority(v));
+            }
+            while (order.notEmpty()) {
+                int v = order.pop();
+                // priorities of the remaining vertices are updated lazily, when they reach the top of the queue
+                float priority = getPriority(v);
+                if (order.notEmpty() && priority > orderContext.heapValue[order.peek()]) {
+                    order.add(v, priority);
+                    continue;
+                }
+                contract(v);
+            }
+        }
+
+        private float getPriority(int v) {
+            int shortcuts = processShortcuts(v, false);
+            return shortcuts - out[v].size - in[v].size + contractedNeighbours[v];
+        }
+
+        private void contract(int v) {
+            processShortcuts(v, true);
+            up[v] = out[v];
+            down[v] = in[v];
+            ArcList outArcs = out[v], inArcs = in[v];
+            for (int i = 0; i < inArcs.size; i++) {
+                int u = inArcs.vertices[i];
+                out[u].remove(v);
+                contractedNeighbours[u]++;
+            }
+            for (int i = 0; i < outArcs.size; i++) {
+                int w = outArcs.vertices[i];
+                in[w].remove(v);
+                contractedNeighbours[w]++;
+            }
+            out[v] = null;
+            in[v] = null;
+        }
+
+        /**
+         * Find the shortcuts needed to contract the vertex, and add them to the graph if requested.
+         * @return the number of shortcuts needed
+         */
+        private int processShortcuts(int v, boolean add) {
+            ArcList inArcs = in[v], outArcs = out[v];
+            if (inArcs.size == 0 || outArcs.size == 0) return 0;
+            float maxOut = 0;
+            for (int j = 0; j < outArcs.size; j++) {
+                maxOut = Math.max(maxOut, outArcs.weights[j]);
+            }
+            int count = 0;
+            for (int i = 0; i < inArcs.size; i++) {
+                int u = inArcs.vertices[i];
+                float inWeight = inArcs.weights[i];
+                findWitnesses(u, v, inWeight + maxOut);
+                for (int j = 0; j < outArcs.size; j++) {
+                    int w = outArcs.vertices[j];
+                    if (w == u) continue;
+                    float length = inWeight + outArcs.weights[j];
+                    if (witnessContext.isVisited(w) && witnessContext.distance[w] <= length) continue;
+                    count++;
+                    if (add) {
+                        out[u].set(w, length, v);
+                        in[w].set(u, length, v);
+                        shortcutCount++;
+                    }
+                }
+            }
+            return count;
+        }
+
+        /**
+         * Run a limited Dijkstra search from u which avoids the excluded vertex, so that the distances it finds are witnesses
+         * for paths which do not need a shortcut.
+         */
+        private void findWitnesses(int u, int excluded, float maxDistance) {
+            SearchContext context = witnessContext;
+            BinaryHeap heap = witnessHeap;
+            context.beginRun(out.length);
+            heap.clear();
+            context.reset(u);
+            context.distance[u] = 0;
+            heap.add(u, 0);
+            int settled = 0;
+            while (heap.notEmpty() && settled++ < WITNESS_SEARCH_LIMIT) {
+                int x = heap.pop();
+                float distance = context.distance[x];
+                if (distance > maxDistance) break;
+                context.processed[x] = true;
+                ArcList arcs = out[x];
+                for (int i = 0; i < arcs.size; i++) {
+                    int y = arcs.vertices[i];
+                    if (y == excluded) continue;
+                    context.reset(y);
+                    if (context.processed[y]) continue;
+                    float newDistance = distance + arcs.weights[i];
+                    if (newDistance < context.distance[y]) {
+                        context.distance[y] = newDistance;
+                        if (!context.seen[y]) {
+                            heap.add(y, newDistance);
+                            context.seen[y] = true;
+                        } else {
+                            heap.setValue(y, newDistance);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * A growable list of edges from (or to) a vertex, holding at most one edge for each other vertex.
+     */
+    private static class ArcList {
+
+        int[] vertices = new int[4], middles = new int[4];
+        float[] weights = new float[4];
+        int size;
+
+        /**
+         * Add an edge to the given vertex, or lower the weight of the existing edge to it if the new edge is shorter.
+         * @param middle the vertex a shortcut passes through, or -1 for an original edge
+         */
+        void set(int vertex, float weight, int middle) {
+            for (int i = 0; i < size; i++) {
+                if (vertices[i] == vertex) {
+                    if (weight < weights[i]) {
+                        weights[i] = weight;
+                        middles[i] = middle;
+                    }
+                    return;
+                }
+            }
+            if (size == vertices.length) {
+                vertices = Arrays.copyOf(vertices, size << 1);
+                middles = Arrays.copyOf(middles, size << 1);
+                weights = Arrays.copyOf(weights, size << 1);
+            }
+            vertices[size] = vertex;
+            weights[size] = weight;
+            middles[size] = middle;
+            size++;
+        }
+
+        void remove(int vertex) {
+            for (int i = 0; i < size; i++) {
+                if (vertices[i] == vertex) {
+                    size--;
+                    vertices[i] = vertices[size];
+                    weights[i] = weights[size];
+                    middles[i] = middles[size];
+                    return;
+                }
+            }
+        }
+
+        void copyTo(int[] vertices, float[] weights, int[] middles, int offset) {
+            System.arraycopy(this.vertices, 0, vertices, offset, size);
+            System.arraycopy(this.weights, 0, weights, offset, size);
+            System.arraycopy(this.middles, 0, middles, offset, size);
+        }
+    }
+
+    //================================================================================
+    // Queries
+    //================================================================================
+
+    /**
+     * Find a shortest path from the start vertex to the target vertex.
+     * @param start the starting vertex
+     * @param target the target vertex
+     * @return a list of vertices from start to target containing the ordered vertices of a shortest path, including both the start and target vertices.
+     * If there is no path from the start vertex to the target vertex, the returned path is empty.
+     */
+    public Path<V> findShortestPath(V start, V target) {
+        int startID = getId(start), targetID = getId(target);
+        SearchContext forward = contexts.obtain(), backward = contexts.obtain();
+        try {
+            int meet = search(startID, targetID, forward, backward);
+            if (meet == -1) return Path.EMPTY_PATH;
+            AlgorithmPath<V> path = new AlgorithmPath<>(forward.distance[meet] + backward.distance[meet]);
+            path.add(getVertex(startID));
+            unpackForward(meet, forward, path);
+            for (int v = meet; v != targetID; v = backward.prev[v]) {
+                int w = backward.prev[v];
+                int index = downOffsets[w] + backward.prevSlot[v];
+                unpack(v, w, downMiddles[index], path);
+            }
+            return path;
+        } finally {
+            contexts.free(forward);
+            contexts.free(backward);
+        }
+    }
+
+    /**
+     * Find the length of a shortest path from the start vertex to the target vertex.
+     * @param start the starting vertex
+     * @param target the target vertex
+     * @return the sum of the weights in a shortest path from the starting vertex to the target vertex.
+     * If there is no path from the start vertex to the target vertex, {@link Float#MAX_VALUE} is returned.
+     */
+    public float findMinimumDistance(V start, V target) {
+        int startID = getId(start), targetID = getId(target);
+        SearchContext forward = contexts.obtain(), backward = contexts.obtain();
+        try {
+            int meet = search(startID, targetID, forward, backward);
+            return meet == -1 ? Float.MAX_VALUE : forward.distance[meet] + backward.distance[meet];
+        } finally {
+            contexts.free(forward);
+            contexts.free(backward);
+        }
+    }
+
+    /**
+     * Run the forward search from the start over upward edges and the backward search from the target over downward edges,
+     * each of which stops once its queue holds no vertex closer than the shortest path found so far.
+     * @return the id of the highest vertex of a shortest path, or -1 if there is no path
+     */
+    private int search(int start, int target, SearchContext forward, SearchContext backward) {
+        int n = vertices.length;
+        forward.beginRun(n);
+        backward.beginRun(n);
+        BinaryHeap forwardHeap = new BinaryHeap(forward), backwardHeap = new BinaryHeap(backward);
+        forward.reset(start);
+        forward.distance[start] = 0;
+        forward.seen[start] = true;
+        forwardHeap.add(start, 0);
+        backward.reset(target);
+        backward.distance[target] = 0;
+        backward.seen[target] = true;
+        backwardHeap.add(target, 0);
+
+        float best = start == target ? 0 : Float.MAX_VALUE;
+        int meet = start == target ? start : -1;
+
+        while (forwardHeap.notEmpty() || backwardHeap.notEmpty()) {
+            boolean expandForward = forwardHeap.notEmpty() && (backwardHeap.isEmpty()
+                    || forward.heapValue[forwardHeap.peek()] <= backward.heapValue[backwardHeap.peek()]);
+            SearchContext context = expandForward ? forward : backward, other = expandForward ? backward : forward;
+            BinaryHeap heap = expandForward ? forwardHeap : backwardHeap;
+            int[] offsets = expandForward ? upOffsets : downOffsets;
+            int[] heads = expandForward ? upTargets : downSources;
+            float[] weights = expandForward ? upWeights : downWeights;
+
+            int u = heap.pop();
+            float distance = context.distance[u];
+            if (distance >= best) {
+                heap.clear();
+                continue;
+            }
+            context.processed[u] = true;
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                int v = heads[i];
+                context.reset(v);
+                if (context.processed[v]) continue;
+                float newDistance = distance + weights[i];
+                if (newDistance < context.distance[v]) {
+                    context.distance[v] = newDistance;
+                    context.prev[v] = u;
+                    context.prevSlot[v] = i - offsets[u];
+                    if (!context.seen[v]) {
+                        heap.add(v, newDistance);
+                        context.seen[v] = true;
+                    } else {
+                        heap.setValue(v, newDistance);
+                    }
+                    if (other.isVisited(v) && other.distance[v] < Float.MAX_VALUE && newDistance + other.distance[v] < best) {
+                        best = newDistance + other.distance[v];
+                        meet = v;
+                    }
+                }
+            }
+        }
+        return meet;
+    }
+
+    /**
+     * Add the vertices of the forward search path from the start to the given vertex, excluding the start.
+     */
+    private void unpackForward(int v, SearchContext forward, AlgorithmPath<V> path) {
+        int u = forward.prev[v];
+        if (u == -1) return;
+        unpackForward(u, forward, path);
+        unpack(u, v, upMiddles[upOffsets[u] + forward.prevSlot[v]], path);
+    }
+
+    /**
+     * Add the vertices of the original edges which make up the edge from u to v, excluding u.
+     */
+    private void unpack(int u, int v, int middle, AlgorithmPath<V> path) {
+        if (middle == -1) {
+            path.add(getVertex(v));
+            return;
+        }
+        // the middle vertex was contracted before both endpoints, so both halves of the shortcut are stored with it
+        int first = -1, second = -1;
+        for (int i = downOffsets[middle]; i < downOffsets[middle + 1]; i++) {
+            if (downSources[i] == u) first = downMiddles[i];
+        }
+        for (int i = upOffsets[middle]; i < upOffsets[middle + 1]; i++) {
+            if (upTargets[i] == v) second = upMiddles[i];
+        }
+        unpack(u, middle, first, path);
+        unpack(middle, v, second, path);
+    }
+
+    //================================================================================
+    // Getters
+    //================================================================================
+
+    private int getId(V v) {
+        Integer id = ids.get(v);
+        if (id == null) Errors.throwVertexNotInGraphVertexException(false);
+        return id;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V getVertex(int id) {
+        return (V) vertices[id];
+    }
+
+    /**
+     * Check if the hierarchy contains a vertex.
+     *
+     * @param v the vertex with which to check
+     * @return true if the hierarchy contains the vertex, false otherwise
+     */
+    public boolean contains(V v) {
+        return ids.containsKey(v);
+    }
+
+    /**
+     * @return the number of shortcut edges added during preprocessing
+     */
+    public int getShortcutCount() {
+        return shortcutCount;
+    }
+
+    @GwtIncompatible
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        contexts = new SearchContextPool();
+    }
+
+}
@@ -1,20 +1,43 @@
-package space.earlygrey.simplegraphs.algorithms;
+/*
+MIT License
+
+Copyright (c) 2020 earlygrey
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
 
-import java.util.HashSet;
-import java.util.Set;
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
 
-import space.earlygrey.simplegraphs.Array;
-import space.earlygrey.simplegraphs.Connection;
-import space.earlygrey.simplegraphs.Graph;
-import space.earlygrey.simplegraphs.Node;
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package space.earlygrey.simplegraphs.algorithms;
+
+import java.util.Arrays;
 
+/**
+ * Detects cycles in an {@link IndexedGraph} using iterative depth first searches, so it does not
+ * overflow the call stack on long paths.
+ * @param <V> the vertex type
+ */
 public class CycleDetector<V> extends Algorithm<V> {
 
-    private boolean containsCycle;
+    private final boolean containsCycle;
 
-    protected CycleDetector(int id, Graph<V> graph) {
+    CycleDetector(int id, IndexedGraph<V> graph, SearchContext context) {
         super(id);
-        containsCycle = findCycle(graph);
+        context.beginRun(graph.getIdBound());
+        containsCycle = findCycle(graph, context);
     }
 
     @Override
@@ -27,34 +50,45 @@ public class CycleDetector<V> extends Algorithm<V> {
         return true;
     }
 
-    boolean findCycle(Graph<V> graph) {
-        if (graph.size() < 3 || graph.getEdgeCount() < 3) return false;
-        int runID = graph.algorithms().requestRunID();
-        for (Node<V> v : graph.internals().getNodes()) {
-            v.resetAlgorithmAttribs(runID);
-            if (detectCycleDFS(v, null, new HashSet<>(), runID, graph)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    private boolean detectCycleDFS(Node<V> v, Node<V> parent, Set<Node<V>> recursiveStack, int runID, Graph<V> graph) {
-        v.setProcessed(true);
-        recursiveStack.add(v);
-        Array<Connection<V>> outEdges = v.getOutEdges();
-        for (Connection<V> e : outEdges) {
-            Node<V> u = e.getNodeB();
-            if (!graph.isDirected() && u.equals(parent)) continue;
-            u.resetAlgorithmAttribs(runID);
-            if (recursiveStack.contains(u)) {
-                return true;
-            }
-            if (!u.isProcessed()) {
-                if (detectCycleDFS(u, v, recursiveStack, runID, graph)) return true;
+    private boolean findCycle(IndexedGraph<V> graph, SearchContext context) {
+        boolean directed = graph.isDirected();
+        // the vertices on the current search path, and the next edge slot to check for each
+        int[] stack = new int[16], slots = new int[16];
+        for (int root = 0, n = graph.getIdBound(); root < n; root++) {
+            context.reset(root);
+            if (context.processed[root]) continue;
+            context.seen[root] = true;
+            stack[0] = root;
+            slots[0] = 0;
+            int size = 1;
+            while (size > 0) {
+                int u = stack[size - 1];
+                int slot = slots[size - 1];
+                if (slot < graph.getOutDegree(u)) {
+                    slots[size - 1]++;
+                    int v = graph.getOutTarget(u, slot);
+                    if (!directed && v == context.prev[u]) continue;
+                    context.reset(v);
+                    // a vertex on the current search path has been reached again
+                    if (context.seen[v]) return true;
+                    if (!context.processed[v]) {
+                        if (size == stack.length) {
+                            stack = Arrays.copyOf(stack, size << 1);
+                            slots = Arrays.copyOf(slots, size << 1);
+                        }
+                        context.prev[v] = u;
+                        context.seen[v] = true;
+                        stack[size] = v;
+                        slots[size] = 0;
+                        size++;
+                    }
+                } else {
+                    context.seen[u] = false;
+                    context.processed[u] = true;
+                    size--;
+                }
             }
         }
-        recursiveStack.remove(v);
         return false;
     }
 
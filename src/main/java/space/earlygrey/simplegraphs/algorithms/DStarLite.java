@@ -0,0 +1,383 @@
+/*
+MIT License
+
+Copyright (c) 2020 earlygrey
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package space.earlygrey.simplegraphs.algorithms;
+
+import java.util.Arrays;
+
+import space.earlygrey.simplegraphs.Errors;
+import space.earlygrey.simplegraphs.Graph;
+import space.earlygrey.simplegraphs.Path;
+import space.earlygrey.simplegraphs.utils.Heuristic;
+import space.earlygrey.simplegraphs.utils.IntHeuristic;
+
+/**
+ * <p>An incremental planner using D* Lite, for repeatedly finding shortest paths to a goal while edges change and the start moves,
+ * such as for an agent replanning every tick. The search runs backwards from the goal and keeps its state between calls, so
+ * after a change only the part of the search affected by it is repaired, rather than searching again from scratch.
+ * If the start never moves, this is equivalent to Lifelong Planning A* (LPA*).</p>
+ *
+ * <p>The planner does not observe the graph, so every change must be reported to it: after adding or removing an edge or setting
+ * its weight, call {@link #edgeChanged(Object, Object)}, and when the agent moves, call {@link #moveStart(Object)}. Then call
+ * {@link #findPath()} to get the new path.</p>
+ *
+ * <p>A directed graph must track incoming edges. The heuristic, if there is one, must be consistent.</p>
+ *
+ * @param <V> the vertex type
+ */
+public class DStarLite<V> {
+
+    private static final float INFINITY = Float.POSITIVE_INFINITY;
+
+    private final IndexedGraph<V> graph;
+    private final IntHeuristic heuristic;
+    private final int goal;
+    private int start, lastStart;
+    // added to the keys of vertices queued before the start moved, so that their keys stay lower bounds
+    private float keyModifier = 0;
+
+    // per vertex id: the vertex the state belongs to, so that the state of a removed vertex is not given to one reusing its id
+    private Object[] owners = new Object[0];
+    private float[] g = new float[0], rhs = new float[0];
+    private final KeyHeap queue = new KeyHeap();
+    private int expansions = 0;
+
+    /**
+     * Create a planner for paths from the start vertex to the goal vertex. No search is done until {@link #findPath()} is called.
+     * @param graph the graph
+     * @param start the starting vertex
+     * @param goal the goal vertex
+     * @param heuristic a consistent heuristic to guide the search, or null
+     */
+    public DStarLite(Graph<V> graph, V start, V goal, Heuristic<V> heuristic) {
+        this(graph.internals(), start, goal, heuristic);
+    }
+
+    /**
+     * Create a planner for paths from the start vertex to the goal vertex. No search is done until {@link #findPath()} is called.
+     * @param graph the graph, which must track incoming edges if it is directed
+     * @param start the starting vertex
+     * @param goal the goal vertex
+     * @param heuristic a consistent heuristic to guide the search, or null
+     */
+    public DStarLite(IndexedGraph<V> graph, V start, V goal, Heuristic<V> heuristic) {
+        this.graph = graph;
+        this.heuristic = getIdHeuristic(graph, heuristic);
+        this.start = lastStart = getId(start);
+        this.goal = getId(goal);
+        touch(this.goal);
+        rhs[this.goal] = 0;
+        queue.set(this.goal, estimate(this.start, this.goal), 0);
+    }
+
+    private static <V> IntHeuristic getIdHeuristic(IndexedGraph<V> graph, Heuristic<V> heuristic) {
+        if (heuristic == null) return null;
+        if (heuristic instanceof LandmarkHeuristic) {
+            IntHeuristic idHeuristic = ((LandmarkHeuristic<V>) heuristic).getIdHeuristic(graph);
+            if (idHeuristic != null) return idHeuristic;
+        }
+        return (u, v) -> heuristic.getEstimate(graph.getVertex(u), graph.getVertex(v));
+    }
+
+    private int getId(V v) {
+        int id = graph.getId(v);
+        if (id == -1) Errors.throwVertexNotInGraphVertexException(false);
+        return id;
+    }
+
+    private float estimate(int u, int v) {
+        return heuristic != null ? heuristic.getEstimate(u, v) : 0;
+    }
+
+    //================================================================================
+    // Changes
+    //================================================================================
+
+    /**
+     * Report that the agent has moved to a new vertex, from which paths will now start.
+     * @param start the new starting vertex
+     */
+    public void moveStart(V start) {
+        int id = getId(start);
+        if (id == this.start) return;
+        this.start = id;
+        keyModifier += estimate(lastStart, id);
+        lastStart = id;
+    }
+
+    /**
+     * Report that the edge from u to v was added or removed, or that its weight changed. For an undirected graph this covers the
+     * edge in both directions. Either vertex may have been removed from the graph.
+     */
+    public void edgeChanged(V u, V v) {
+        int a = graph.getId(u), b = graph.getId(v);
+        if (a != -1) updateVertex(a);
+        if (b != -1 && !graph.isDirected()) updateVertex(b);
+    }
+
+    /**
+     * Report that any of the edges to or from the vertex changed, or that the vertex was added. This is slower than
+     * reporting each changed edge, since it updates every neighbour of the vertex.
+     */
+    public void vertexChanged(V v) {
+        int id = getId(v);
+        updateVertex(id);
+        int degree = getPredecessorCount(id);
+        for (int i = 0; i < degree; i++) {
+            updateVertex(getPredecessor(id, i));
+        }
+    }
+
+    //================================================================================
+    // Search
+    //================================================================================
+
+    /**
+     * Make sure the state of the vertex with the given id exists and belongs to the vertex which has the id now.
+     */
+    private void touch(int id) {
+        if (id >= g.length) {
+            int size = Math.max(id + 1, Math.max(16, g.length * 2));
+            int oldSize = g.length;
+            owners = Arrays.copyOf(owners, size);
+            g = Arrays.copyOf(g, size);
+            rhs = Arrays.copyOf(rhs, size);
+            Arrays.fill(g, oldSize, size, INFINITY);
+            Arrays.fill(rhs, oldSize, size, INFINITY);
+        }
+        V vertex = graph.getVertex(id);
+        if (vertex == null ? owners[id] != null : !vertex.equals(owners[id])) {
+            owners[id] = vertex;
+            g[id] = INFINITY;
+            rhs[id] = id == goal ? 0 : INFINITY;
+            queue.remove(id);
+        }
+    }
+
+    private int getPredecessorCount(int id) {
+        return graph.isDirected() ? graph.getInDegree(id) : graph.getOutDegree(id);
+    }
+
+    private int getPredecessor(int id, int slot) {
+        return graph.isDirected() ? graph.getInSource(id, slot) : graph.getOutTarget(id, slot);
+    }
+
+    private void updateVertex(int u) {
+        touch(u);
+        if (u != goal) {
+            float best = INFINITY;
+            int degree = graph.getOutDegree(u);
+            for (int i = 0; i < degree; i++) {
+                int v = graph.getOutTarget(u, i);
+                touch(v);
+                best = Math.min(best, graph.getOutWeight(u, i) + g[v]);
+            }
+            rhs[u] = best;
+        }
+        if (g[u] != rhs[u]) {
+            float min = Math.min(g[u], rhs[u]);
+            queue.set(u, min + estimate(start, u) + keyModifier, min);
+        } else {
+            queue.remove(u);
+        }
+    }
+
+    private void computeShortestPath() {
+        touch(start);
+        while (queue.size > 0) {
+            int u = queue.peek();
+            float k1 = queue.k1[u], k2 = queue.k2[u];
+            float startMin = Math.min(g[start], rhs[start]);
+            float startK1 = startMin + keyModifier;
+            if (!(k1 < startK1 || (k1 == startK1 && k2 < startMin)) && rhs[start] == g[start]) break;
+
+            touch(u);
+            float min = Math.min(g[u], rhs[u]);
+            float newK1 = min + estimate(start, u) + keyModifier;
+            if (k1 < newK1 || (k1 == newK1 && k2 < min)) {
+                queue.set(u, newK1, min);
+                continue;
+            }
+            queue.remove(u);
+            expansions++;
+            int degree = getPredecessorCount(u);
+            if (g[u] > rhs[u]) {
+                g[u] = rhs[u];
+                for (int i = 0; i < degree; i++) {
+                    updateVertex(getPredecessor(u, i));
+                }
+            } else {
+                g[u] = INFINITY;
+                updateVertex(u);
+                for (int i = 0; i < degree; i++) {
+                    updateVertex(getPredecessor(u, i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Bring the search up to date with the changes reported since the last call, and find a shortest path from the start to the goal.
+     * @return a list of vertices from start to goal containing the ordered vertices of a shortest path, including both the start and goal vertices.
+     * If there is no path from the start vertex to the goal vertex, the returned path is empty.
+     */
+    public Path<V> findPath() {
+        computeShortestPath();
+        if (g[start] == INFINITY) return Path.EMPTY_PATH;
+        AlgorithmPath<V> path = new AlgorithmPath<>(g[start]);
+        path.add(graph.getVertex(start));
+        int u = start, steps = 0, limit = graph.getIdBound();
+        while (u != goal) {
+            int next = -1;
+            float best = INFINITY;
+            int degree = graph.getOutDegree(u);
+            for (int i = 0; i < degree; i++) {
+                int v = graph.getOutTarget(u, i);
+                touch(v);
+                float cost = graph.getOutWeight(u, i) + g[v];
+                if (cost < best) {
+                    best = cost;
+                    next = v;
+                }
+            }
+            if (next == -1 || ++steps > limit) return Path.EMPTY_PATH;
+            path.add(graph.getVertex(next));
+            u = next;
+        }
+        return path;
+    }
+
+    /**
+     * Bring the search up to date with the changes reported since the last call, and find the length of a shortest path from the
+     * start to the goal.
+     * @return the length of a shortest path from the start vertex to the goal vertex,
+     * or {@link Float#MAX_VALUE} if there is no path from the start vertex to the goal vertex
+     */
+    public float findDistance() {
+        computeShortestPath();
+        return g[start] == INFINITY ? Float.MAX_VALUE : g[start];
+    }
+
+    /**
+     * @return the number of times a vertex has been expanded since the planner was created, which shows how much work replanning
+     * takes compared to a new search
+     */
+    public int getExpansionCount() {
+        return expansions;
+    }
+
+    //================================================================================
+    // Priority queue
+    //================================================================================
+
+    /**
+     * A binary heap of vertex ids, ordered by two keys compared lexicographically.
+     */
+    private static class KeyHeap {
+
+        int[] heap = new int[16];
+        int size = 0;
+        // per vertex id: the position in the heap, or -1 if not queued, and the keys
+        int[] index = new int[0];
+        float[] k1 = new float[0], k2 = new float[0];
+
+        private void ensureCapacity(int id) {
+            if (id < index.length) return;
+            int size = Math.max(id + 1, Math.max(16, index.length * 2)), oldSize = index.length;
+            index = Arrays.copyOf(index, size);
+            Arrays.fill(index, oldSize, size, -1);
+            k1 = Arrays.copyOf(k1, size);
+            k2 = Arrays.copyOf(k2, size);
+        }
+
+        void set(int id, float key1, float key2) {
+            ensureCapacity(id);
+            int i = index[id];
+            k1[id] = key1;
+            k2[id] = key2;
+            if (i == -1) {
+                if (size == heap.length) heap = Arrays.copyOf(heap, size * 2);
+                heap[size] = id;
+                index[id] = size;
+                up(size++);
+            } else {
+                up(i);
+                down(index[id]);
+            }
+        }
+
+        int peek() {
+            return heap[0];
+        }
+
+        void remove(int id) {
+            if (id >= index.length) return;
+            int i = index[id];
+            if (i == -1) return;
+            index[id] = -1;
+            size--;
+            if (i == size) return;
+            int last = heap[size];
+            heap[i] = last;
+            index[last] = i;
+            up(i);
+            down(index[last]);
+        }
+
+        private boolean less(int a, int b) {
+            return k1[a] < k1[b] || (k1[a] == k1[b] && k2[a] < k2[b]);
+        }
+
+        private void up(int i) {
+            int id = heap[i];
+            while (i > 0) {
+                int parent = (i - 1) >> 1;
+                int p = heap[parent];
+                if (!less(id, p)) break;
+                heap[i] = p;
+                index[p] = i;
+                i = parent;
+            }
+            heap[i] = id;
+            index[id] = i;
+        }
+
+        private void down(int i) {
+            int id = heap[i];
+            while (true) {
+                int left = 2 * i + 1;
+                if (left >= size) break;
+                int right = left + 1;
+                int child = right < size && less(heap[right], heap[left]) ? right : left;
+                int c = heap[child];
+                if (!less(c, id)) break;
+                heap[i] = c;
+                index[c] = i;
+                i = child;
+            }
+            heap[i] = id;
+            index[id] = i;
+        }
+    }
+
+}
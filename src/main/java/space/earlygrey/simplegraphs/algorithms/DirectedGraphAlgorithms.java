@@ -23,6 +23,9 @@ SOFTWARE.
  */
 package space.earlygrey.simplegraphs.algorithms;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import space.earlygrey.simplegraphs.DirectedGraph;
 import space.earlygrey.simplegraphs.Graph;
 
@@ -32,26 +35,106 @@ public class DirectedGraphAlgorithms<V> extends Algorithms<V> {
         super(graph);
     }
 
+    /**
+     * Find the strongly connected components of the graph using Tarjan's algorithm, so that each vertex can reach every other
+     * vertex in its component. This does not recurse, so it can be used on graphs with very long paths.
+     * @return the components, see {@link StronglyConnectedComponents}
+     */
+    public StronglyConnectedComponents<V> findStronglyConnectedComponents() {
+        return new StronglyConnectedComponents<>(internals);
+    }
+
     /**
      * Sort the vertices of this graph in topological order. That is, for every edge from vertex u to vertex v, u comes before v in the ordering.
      * This is reflected in the iteration order of the collection returned by {@link Graph#getVertices()}.
      * Note that the graph cannot contain any cycles for a topological order to exist. If a cycle exists, this method will do nothing.
+     * See {@link DirectedGraph#topologicalSort()}.
      * @return true if the sort was successful, false if the graph contains a cycle
      */
-    /*public boolean topologicalSort() {
-        return implementations.topologicalSort();
-    }*/
+    public boolean topologicalSort() {
+        return ((DirectedGraph<V>) graph).topologicalSort();
+    }
 
     /**
-     * Perform a topological sort on the graph, and puts the sorted vertices in the supplied list.
-     * That is, for every edge from vertex u to vertex v, u will come before v in the supplied list.
-     * Note that the graph cannot contain any cycles for a topological order to exist. If a cycle exists, the sorting procedure will
-     * terminate and the supplied list will only contain the vertices up until the point of termination.
+     * Perform a topological sort on the graph, and puts the sorted vertices in the supplied list, leaving the order of the
+     * vertices in the graph unchanged. That is, for every edge from vertex u to vertex v, u will come before v in the supplied list.
+     * Note that the graph cannot contain any cycles for a topological order to exist. If a cycle exists, the supplied list
+     * will only contain the vertices which are not on a cycle and can not be reached from one.
      * @return true if the sort was successful, false if the graph contains a cycle
      */
-   /* public boolean topologicalSort(List<V> sortedVertices) {
-        return implementations.topologicalSort(sortedVertices);
-    }*/
+    public boolean topologicalSort(List<V> sortedVertices) {
+        int[] order = new int[graph.size()];
+        int[] layerEnds = new int[graph.size()];
+        int layerCount = sortIds(order, layerEnds);
+        int count = layerCount > 0 ? layerEnds[layerCount - 1] : 0;
+        for (int i = 0; i < count; i++) {
+            sortedVertices.add(internals.getVertex(order[i]));
+        }
+        return count == graph.size();
+    }
 
+    /**
+     * Group the vertices into layers, such that every edge goes from a vertex in one layer to a vertex in a later layer. The
+     * first layer holds the vertices with no incoming edges, and each vertex is in the layer after the last of those with edges
+     * to it, so the vertices of each layer are independent of each other and can be processed in parallel once the earlier
+     * layers are done. The order of the vertices in the graph is unchanged.
+     * Note that the graph cannot contain any cycles for such layers to exist. If a cycle exists, the supplied list will only
+     * contain the vertices which are not on a cycle and can not be reached from one.
+     * @param layers the list to which a list of the vertices in each layer is added
+     * @return true if the sort was successful, false if the graph contains a cycle
+     */
+    public boolean topologicalLayers(List<List<V>> layers) {
+        int[] order = new int[graph.size()];
+        int[] layerEnds = new int[graph.size()];
+        int layerCount = sortIds(order, layerEnds);
+        for (int i = 0, start = 0; i < layerCount; i++) {
+            List<V> layer = new ArrayList<>(layerEnds[i] - start);
+            for (; start < layerEnds[i]; start++) {
+                layer.add(internals.getVertex(order[start]));
+            }
+            layers.add(layer);
+        }
+        int count = layerCount > 0 ? layerEnds[layerCount - 1] : 0;
+        return count == graph.size();
+    }
+
+    /**
+     * Sort the vertex ids with Kahn's algorithm, taking each vertex once every vertex with an edge to it has been taken. The
+     * vertices are taken in rounds, each of which is a layer of {@link #topologicalLayers(List)}. This does not recurse, and
+     * runs in time linear in the number of vertices and edges.
+     * @param order filled with the ids in topological order
+     * @param layerEnds filled with the index in the order after the last id of each layer
+     * @return the number of layers
+     */
+    private int sortIds(int[] order, int[] layerEnds) {
+        int n = internals.getIdBound();
+        // the number of incoming edges from vertices which have not been taken yet
+        int[] inDegree = new int[n];
+        for (int u = 0; u < n; u++) {
+            int degree = internals.getOutDegree(u);
+            for (int i = 0; i < degree; i++) {
+                inDegree[internals.getOutTarget(u, i)]++;
+            }
+        }
+        int count = 0;
+        for (int u = 0; u < n; u++) {
+            if (inDegree[u] == 0 && internals.getVertex(u) != null) order[count++] = u;
+        }
+        int layerCount = 0;
+        for (int start = 0; start < count; ) {
+            int end = count;
+            for (int j = start; j < end; j++) {
+                int u = order[j];
+                int degree = internals.getOutDegree(u);
+                for (int i = 0; i < degree; i++) {
+                    int v = internals.getOutTarget(u, i);
+                    if (--inDegree[v] == 0) order[count++] = v;
+                }
+            }
+            layerEnds[layerCount++] = end;
+            start = end;
+        }
+        return layerCount;
+    }
 
 }
@@ -0,0 +1,249 @@
+/*
+MIT License
+
+Copyright (c) 2020 earlygrey
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package space.earlygrey.simplegraphs.algorithms;
+
+import java.util.Collection;
+import java.util.List;
+
+import space.earlygrey.simplegraphs.Errors;
+import space.earlygrey.simplegraphs.Path;
+import space.earlygrey.simplegraphs.utils.Heuristic;
+
+/**
+ * The searches shared by the algorithm facades of graphs which store all of their edges, and so can also follow the incoming
+ * edges of each vertex.
+ * @param <V> the vertex type
+ */
+abstract class ExplicitGraphAlgorithms<V> extends VertexAlgorithms<V> {
+
+    ExplicitGraphAlgorithms(IndexedGraph<V> graph) {
+        super(graph);
+    }
+
+    //--------------------
+    //  Shortest Path
+    //--------------------
+
+    /**
+     * Find a shortest path from the start vertex to the target vertex, using Dijkstra's algorithm implemented with a priority queue.
+     * @param start the starting vertex
+     * @param target the target vertex
+     * @param mode whether to search only forwards from the start vertex, or also backwards from the target vertex. See {@link SearchMode}.
+     * @return a list of vertices from start to target containing the ordered vertices of a shortest path, including both the start and target vertices.
+     * If there is no path from the start vertex to the target vertex, the returned path is empty.
+     */
+    public Path<V> findShortestPath(V start, V target, SearchMode mode) {
+        return findShortestPath(start, target, mode, null);
+    }
+
+    /**
+     * Find a shortest path from the start vertex to the target vertex, using the A* search algorithm with the provided heuristic, and implemented with a priority queue.
+     * <br>For a bidirectional search the heuristic h must be consistent, that is, for any edge (x, y) and vertex z, h(x, z) &#8804; w(x, y) + h(y, z).
+     * @param start the starting vertex
+     * @param target the target vertex
+     * @param mode whether to search only forwards from the start vertex, or also backwards from the target vertex. See {@link SearchMode}.
+     * @param heuristic a heuristic to guide the search, or null to use Dijkstra's algorithm
+     * @return a list of vertices from start to target containing the ordered vertices of a shortest path, including both the start and target vertices.
+     * If there is no path from the start vertex to the target vertex, the returned path is empty.
+     */
+    public Path<V> findShortestPath(V start, V target, SearchMode mode, Heuristic<V> heuristic) {
+        if (mode == SearchMode.UNIDIRECTIONAL) return findShortestPath(start, target, heuristic);
+        SearchContext forward = contexts.obtain(), backward = contexts.obtain();
+        try {
+            BidirectionalSearch<V> search = newBidirectionalSearch(start, target, heuristic, forward, backward);
+            search.finish();
+            return search.getPath();
+        } finally {
+            contexts.free(forward);
+            contexts.free(backward);
+        }
+    }
+
+    /**
+     * Find the length of a shortest path from the start vertex to the target vertex, using the A* search algorithm with the provided heuristic, and implemented with a priority queue.
+     * @param start the starting vertex
+     * @param target the target vertex
+     * @param mode whether to search only forwards from the start vertex, or also backwards from the target vertex. See {@link SearchMode}.
+     * @param heuristic a heuristic to guide the search, or null to use Dijkstra's algorithm
+     * @return the sum of the weights in a shortest path from the starting vertex to the target vertex.
+     * If there is no path from the start vertex to the target vertex, {@link Float#MAX_VALUE} is returned.
+     */
+    public float findMinimumDistance(V start, V target, SearchMode mode, Heuristic<V> heuristic) {
+        if (mode == SearchMode.UNIDIRECTIONAL) return findMinimumDistance(start, target, heuristic);
+        SearchContext forward = contexts.obtain(), backward = contexts.obtain();
+        try {
+            BidirectionalSearch<V> search = newBidirectionalSearch(start, target, heuristic, forward, backward);
+            search.finish();
+            return search.getDistance();
+        } finally {
+            contexts.free(forward);
+            contexts.free(backward);
+        }
+    }
+
+    /**
+     * Create a bidirectional search from the start vertex to the target vertex, which can be run step by step via {@link Algorithm#update()}.
+     * @param start the starting vertex
+     * @param target the target vertex
+     * @param heuristic a consistent heuristic to guide the search, or null to use Dijkstra's algorithm
+     * @param forward the context in which to hold the state of the forward search
+     * @param backward the context in which to hold the state of the backward search
+     * @return the search
+     */
+    public BidirectionalSearch<V> newBidirectionalSearch(V start, V target, Heuristic<V> heuristic, SearchContext forward, SearchContext backward) {
+        int startID = indexedGraph.getId(start);
+        int targetID = indexedGraph.getId(target);
+        if (startID == -1 || targetID == -1) Errors.throwVertexNotInGraphVertexException(true);
+        return new BidirectionalSearch<>(requestRunID(), indexedGraph, forward, backward, startID, targetID, getIdHeuristic(heuristic));
+    }
+
+    /**
+     * Create an anytime repairing A* (ARA*) search from the start vertex to the target vertex, which can be run step by step via
+     * {@link Algorithm#update()}, and whose best path so far can be read at any time. See {@link AnytimeAStarSearch}.
+     * @param start the starting vertex
+     * @param target the target vertex
+     * @param heuristic a consistent heuristic to guide the search
+     * @param initialWeight the weight by which the heuristic is multiplied to find the first path, at least 1
+     * @param weightStep the amount by which the weight is lowered after each path is found
+     * @return the search
+     */
+    public AnytimeAStarSearch<V> newAnytimeSearch(V start, V target, Heuristic<V> heuristic, float initialWeight, float weightStep) {
+        return newAnytimeSearch(start, target, heuristic, initialWeight, weightStep, newSearchContext());
+    }
+
+    private AnytimeAStarSearch<V> newAnytimeSearch(V start, V target, Heuristic<V> heuristic, float initialWeight, float weightStep, SearchContext context) {
+        int startID = indexedGraph.getId(start);
+        int targetID = indexedGraph.getId(target);
+        if (startID == -1 || targetID == -1) Errors.throwVertexNotInGraphVertexException(true);
+        return new AnytimeAStarSearch<>(requestRunID(), indexedGraph, context, startID, targetID, getIdHeuristic(heuristic), initialWeight, weightStep);
+    }
+
+    /**
+     * Find a path from the start vertex to the target vertex within a time budget, using anytime repairing A* (ARA*). A first
+     * path at most {@code initialWeight} times longer than a shortest path is found quickly, and is then improved until it is a
+     * shortest path or the time runs out. If no path has been found when the time runs out, the search continues until the
+     * first one is found.
+     * @param start the starting vertex
+     * @param target the target vertex
+     * @param heuristic a consistent heuristic to guide the search
+     * @param initialWeight the weight by which the heuristic is multiplied to find the first path, at least 1
+     * @param timeBudget the time in nanoseconds to spend improving the path
+     * @return the best path found. If there is no path from the start vertex to the target vertex, the returned path is empty.
+     */
+    public Path<V> findAnytimePath(V start, V target, Heuristic<V> heuristic, float initialWeight, long timeBudget) {
+        long deadline = System.nanoTime() + timeBudget;
+        SearchContext context = contexts.obtain();
+        try {
+            AnytimeAStarSearch<V> search = newAnytimeSearch(start, target, heuristic, initialWeight, AnytimeAStarSearch.DEFAULT_WEIGHT_STEP, context);
+            int steps = 0;
+            while (!search.update()) {
+                // the clock is only read every few steps
+                if (++steps % 64 == 0 && search.getPathCount() > 0 && System.nanoTime() - deadline >= 0) break;
+            }
+            return search.getPath();
+        } finally {
+            contexts.free(context);
+        }
+    }
+
+    //--------------------
+    // Graph Searching
+    //--------------------
+
+    /**
+     * Find the shortest paths from the source vertex to every vertex, using Dijkstra's algorithm. This is much cheaper than
+     * searching for each target separately when the distances to many vertices are needed.
+     * @param source the vertex at which to start the search
+     * @return the tree of shortest paths from the source. See {@link ShortestPathTree}.
+     */
+    public ShortestPathTree<V> shortestPathTree(V source) {
+        return shortestPathTree(source, null);
+    }
+
+    /**
+     * Find the shortest paths from the source vertex to each of the target vertices, using Dijkstra's algorithm. The search stops
+     * as soon as every target has been settled, so the tree only holds the vertices settled before then.
+     * @param source the vertex at which to start the search
+     * @param targets the vertices to find shortest paths to, or null to search the whole graph
+     * @return the tree of shortest paths from the source. See {@link ShortestPathTree}.
+     */
+    public ShortestPathTree<V> shortestPathTree(V source, Collection<V> targets) {
+        int sourceID = getId(source);
+        int[] targetIDs = null;
+        if (targets != null) {
+            targetIDs = new int[targets.size()];
+            int i = 0;
+            for (V target : targets) {
+                targetIDs[i++] = getId(target);
+            }
+        }
+        SearchContext context = contexts.obtain();
+        try {
+            return new ShortestPathTree<>(indexedGraph, context, sourceID, targetIDs, queueType);
+        } finally {
+            contexts.free(context);
+        }
+    }
+
+    /**
+     * Find the distance from every vertex to the target vertex, and the next vertex on a shortest path to it, using a single run
+     * of Dijkstra's algorithm backwards from the target. The field can be repaired after edge weights change, see {@link FlowField}.
+     * @param target the vertex which the field leads to
+     * @return the flow field towards the target
+     */
+    public FlowField<V> buildFlowField(V target) {
+        return new FlowField<>(indexedGraph, contexts, getId(target));
+    }
+
+    /**
+     * Find the k shortest paths from start to target which do not visit any vertex twice, using Yen's algorithm. The graph is
+     * not modified.
+     * @param start the first vertex of each path
+     * @param target the last vertex of each path
+     * @param k the maximum number of paths to find
+     * @return a list of at most k paths in order of increasing length, the first being a shortest path. If there are fewer than k
+     * such paths, all of them are returned.
+     */
+    public List<Path<V>> findKShortestPaths(V start, V target, int k) {
+        return new KShortestPaths<>(indexedGraph, contexts, getId(start), getId(target)).find(k);
+    }
+
+    //--------------------
+    //  Structures
+    //--------------------
+
+    /**
+     * Checks whether there are any cycles in the graph using depth first searches.
+     * @return true if the graph contains a cycle, false otherwise
+     */
+    public boolean containsCycle() {
+        SearchContext context = contexts.obtain();
+        try {
+            return new CycleDetector<>(requestRunID(), indexedGraph, context).containsCycle();
+        } finally {
+            contexts.free(context);
+        }
+    }
+
+}
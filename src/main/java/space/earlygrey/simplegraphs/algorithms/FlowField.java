@@ -0,0 +1,339 @@
+/*
+MIT License
+
+Copyright (c) 2020 earlygrey
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package space.earlygrey.simplegraphs.algorithms;
+
+import java.util.Arrays;
+
+import space.earlygrey.simplegraphs.Errors;
+import space.earlygrey.simplegraphs.Path;
+
+/**
+ * <p>The distance from every vertex to a single target vertex, and the next vertex to move to from each vertex along a
+ * shortest path to the target, as found by one run of Dijkstra's algorithm backwards from the target (following incoming edges
+ * on a directed graph). Many agents heading to the same target can share a flow field instead of each searching for a path.
+ * The distances and next vertices are held in primitive arrays indexed by vertex id, which can be read directly via
+ * {@link #getDistances()} and {@link #getNextIds()}.</p>
+ *
+ * <p>When edge weights change, the field can be repaired instead of being rebuilt. Report each changed edge with
+ * {@link #edgeChanged(Object, Object)}, or each vertex whose edges have changed with {@link #vertexChanged(Object)}, then call
+ * {@link #refresh()}, which only recomputes the vertices whose distances are affected. Edges which have been added or removed
+ * can be reported the same way, but if vertices are added or removed the field must be rebuilt with {@link #rebuild()}.</p>
+ *
+ * @param <V> the vertex type
+ */
+public class FlowField<V> {
+
+    private final IndexedGraph<V> graph;
+    // the graph with its edges reversed, so that searching it outwards from the target finds distances to the target
+    private final IndexedGraph<V> reversed;
+    private final SearchContextPool contexts;
+    private final int target;
+    private float[] distances;
+    private int[] next;
+
+    // the tail and head of each edge which has changed since the last refresh
+    private int[] changes = new int[16];
+    private int changeCount;
+    // scratch space for refreshing
+    private int[] stack = new int[16], seeds = new int[16];
+
+    FlowField(IndexedGraph<V> graph, SearchContextPool contexts, int target) {
+        this.graph = graph;
+        this.contexts = contexts;
+        this.target = target;
+        reversed = graph.isDirected() ? new ReversedGraph<>(graph) : graph;
+        rebuild();
+    }
+
+    private int getId(V v) {
+        int id = graph.getId(v);
+        if (id == -1) Errors.throwVertexNotInGraphVertexException(false);
+        return id;
+    }
+
+    /**
+     * Recompute the whole field, discarding any reported changes.
+     */
+    public void rebuild() {
+        int n = graph.getIdBound();
+        distances = new float[n];
+        next = new int[n];
+        Arrays.fill(distances, Float.MAX_VALUE);
+        Arrays.fill(next, -1);
+        changeCount = 0;
+        if (target >= n || graph.getVertex(target) == null) return;
+        distances[target] = 0;
+        seeds[0] = target;
+        propagate(1);
+    }
+
+    /**
+     * Report that the weight of the edge from u to v has changed, or that the edge has been added or removed. On an undirected
+     * graph the order of the vertices does not matter. The field is not updated until {@link #refresh()} is called.
+     */
+    public void edgeChanged(V u, V v) {
+        int a = getId(u), b = getId(v);
+        addChange(a, b);
+        if (!graph.isDirected()) addChange(b, a);
+    }
+
+    /**
+     * Report that the weights of some of the edges to or from the vertex have changed. Edges which have been removed are not
+     * found this way, and must be reported with {@link #edgeChanged(Object, Object)}. The field is not updated until
+     * {@link #refresh()} is called.
+     */
+    public void vertexChanged(V v) {
+        int id = getId(v);
+        int degree = graph.getOutDegree(id);
+        for (int i = 0; i < degree; i++) {
+            addChange(id, graph.getOutTarget(id, i));
+        }
+        degree = reversed.getOutDegree(id);
+        for (int i = 0; i < degree; i++) {
+            addChange(reversed.getOutTarget(id, i), id);
+        }
+    }
+
+    private void addChange(int u, int v) {
+        if (changeCount + 2 > changes.length) changes = Arrays.copyOf(changes, changes.length << 1);
+        changes[changeCount++] = u;
+        changes[changeCount++] = v;
+    }
+
+    /**
+     * Update the field after the changes reported since the last refresh. Vertices whose shortest path used an edge whose
+     * weight increased lose their distance, along with every vertex whose path passed through them, and are recomputed from
+     * their neighbours. Decreases are then spread outwards from the edges which decreased.
+     */
+    public void refresh() {
+        if (changeCount == 0) return;
+        if (graph.getIdBound() != distances.length) {
+            rebuild();
+            return;
+        }
+        float[] distances = this.distances;
+        int[] next = this.next;
+        int seedCount = 0;
+        SearchContext context = contexts.obtain();
+        try {
+            context.beginRun(distances.length);
+            // vertices which are seen in this run have lost their distance
+            int invalidCount = 0;
+            for (int i = 0; i < changeCount; i += 2) {
+                int u = changes[i], v = changes[i + 1];
+                if (next[u] != v || getWeight(u, v) + distances[v] <= distances[u]) continue;
+                context.reset(u);
+                if (context.seen[u]) continue;
+                context.seen[u] = true;
+                invalidCount = collectInvalid(context, u, invalidCount);
+            }
+
+            for (int i = 0; i < invalidCount; i++) {
+                int v = stack[i];
+                distances[v] = Float.MAX_VALUE;
+                next[v] = -1;
+            }
+            // recompute the invalid vertices from their valid neighbours
+            for (int i = 0; i < invalidCount; i++) {
+                int v = stack[i];
+                int degree = graph.getOutDegree(v);
+                for (int j = 0; j < degree; j++) {
+                    int w = graph.getOutTarget(v, j);
+                    if (context.isVisited(w) && context.seen[w]) continue;
+                    float distance = distances[w] == Float.MAX_VALUE ? Float.MAX_VALUE : distances[w] + graph.getOutWeight(v, j);
+                    if (distance < distances[v]) {
+                        distances[v] = distance;
+                        next[v] = w;
+                    }
+                }
+                if (distances[v] != Float.MAX_VALUE) seedCount = addSeed(v, seedCount);
+            }
+            // then lower the distances of the vertices whose edges have become shorter
+            for (int i = 0; i < changeCount; i += 2) {
+                int u = changes[i], v = changes[i + 1];
+                if (distances[v] == Float.MAX_VALUE) continue;
+                float distance = distances[v] + getWeight(u, v);
+                if (distance < distances[u]) {
+                    distances[u] = distance;
+                    next[u] = v;
+                    seedCount = addSeed(u, seedCount);
+                }
+            }
+        } finally {
+            contexts.free(context);
+        }
+        changeCount = 0;
+        propagate(seedCount);
+    }
+
+    // adds the vertex and every vertex whose next vertex chain passes through it to the stack
+    private int collectInvalid(SearchContext context, int root, int count) {
+        int start = count;
+        count = push(root, count);
+        for (int i = start; i < count; i++) {
+            int v = stack[i];
+            int degree = reversed.getOutDegree(v);
+            for (int j = 0; j < degree; j++) {
+                int u = reversed.getOutTarget(v, j);
+                if (next[u] != v) continue;
+                context.reset(u);
+                if (context.seen[u]) continue;
+                context.seen[u] = true;
+                count = push(u, count);
+            }
+        }
+        return count;
+    }
+
+    private int push(int v, int count) {
+        if (count == stack.length) stack = Arrays.copyOf(stack, count << 1);
+        stack[count] = v;
+        return count + 1;
+    }
+
+    private int addSeed(int v, int count) {
+        if (count == seeds.length) seeds = Arrays.copyOf(seeds, count << 1);
+        seeds[count] = v;
+        return count + 1;
+    }
+
+    // the weight of the edge from u to v, or infinity if there is none
+    private float getWeight(int u, int v) {
+        int degree = graph.getOutDegree(u);
+        for (int i = 0; i < degree; i++) {
+            if (graph.getOutTarget(u, i) == v) return graph.getOutWeight(u, i);
+        }
+        return Float.POSITIVE_INFINITY;
+    }
+
+    // runs Dijkstra's algorithm backwards from the seeds, whose distances have been set, lowering the distances of other vertices
+    private void propagate(int seedCount) {
+        if (seedCount == 0) return;
+        float[] distances = this.distances;
+        int[] next = this.next;
+        SearchContext context = contexts.obtain();
+        try {
+            context.beginRun(distances.length);
+            BinaryHeap heap = new BinaryHeap(context);
+            for (int i = 0; i < seedCount; i++) {
+                int v = seeds[i];
+                context.reset(v);
+                if (context.seen[v]) {
+                    heap.setValue(v, distances[v]);
+                } else {
+                    heap.add(v, distances[v]);
+                    context.seen[v] = true;
+                }
+            }
+            while (heap.notEmpty()) {
+                int v = heap.pop();
+                context.processed[v] = true;
+                float distance = distances[v];
+                int degree = reversed.getOutDegree(v);
+                for (int i = 0; i < degree; i++) {
+                    int u = reversed.getOutTarget(v, i);
+                    context.reset(u);
+                    if (context.processed[u]) continue;
+                    float newDistance = distance + reversed.getOutWeight(v, i);
+                    if (newDistance < distances[u]) {
+                        distances[u] = newDistance;
+                        next[u] = v;
+                        if (context.seen[u]) {
+                            heap.setValue(u, newDistance);
+                        } else {
+                            heap.add(u, newDistance);
+                            context.seen[u] = true;
+                        }
+                    }
+                }
+            }
+        } finally {
+            contexts.free(context);
+        }
+    }
+
+    /**
+     * @return the target vertex of the field
+     */
+    public V getTarget() {
+        return graph.getVertex(target);
+    }
+
+    /**
+     * @return the length of a shortest path from the vertex to the target, or {@link Float#MAX_VALUE} if the target can not be reached
+     */
+    public float getDistance(V v) {
+        int id = getId(v);
+        return id < distances.length ? distances[id] : Float.MAX_VALUE;
+    }
+
+    /**
+     * @return whether the target can be reached from the vertex
+     */
+    public boolean isReachable(V v) {
+        return getDistance(v) != Float.MAX_VALUE;
+    }
+
+    /**
+     * @return the vertex after the given one on a shortest path to the target, or null if it is the target or can not reach it
+     */
+    public V getNext(V v) {
+        int id = getId(v);
+        return id < next.length && next[id] != -1 ? graph.getVertex(next[id]) : null;
+    }
+
+    /**
+     * Follow the field from the vertex to the target.
+     * @param v the starting vertex
+     * @return a list of vertices from the starting vertex to the target, including both. If the target can not be reached, the returned path is empty.
+     */
+    public Path<V> pathFrom(V v) {
+        int id = getId(v);
+        if (id >= distances.length || distances[id] == Float.MAX_VALUE) return Path.EMPTY_PATH;
+        AlgorithmPath<V> path = new AlgorithmPath<>(distances[id]);
+        for (int u = id; u != -1; u = next[u]) {
+            path.add(graph.getVertex(u));
+        }
+        return path;
+    }
+
+    /**
+     * @return the distance from each vertex to the target, indexed by vertex id (see {@link IndexedGraph#getId(Object)}). Vertices
+     * which can not reach the target have distance {@link Float#MAX_VALUE}. The array is owned by the field, is replaced when the
+     * field is rebuilt, and should not be modified.
+     */
+    public float[] getDistances() {
+        return distances;
+    }
+
+    /**
+     * @return the id of the next vertex on a shortest path to the target from each vertex, indexed by vertex id. The target and
+     * vertices which can not reach it have next id -1. The array is owned by the field, is replaced when the field is rebuilt,
+     * and should not be modified.
+     */
+    public int[] getNextIds() {
+        return next;
+    }
+
+}
@@ -0,0 +1,139 @@
+/*
+MIT License
+
+Copyright (c) 2020 earlygrey
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package space.earlygrey.simplegraphs.algorithms;
+
+import java.util.function.IntUnaryOperator;
+
+import space.earlygrey.simplegraphs.Errors;
+import space.earlygrey.simplegraphs.GridGraph;
+import space.earlygrey.simplegraphs.IntPath;
+
+/**
+ * The algorithms available on a {@link GridGraph}. In addition to those of {@link IntAlgorithms}, these include
+ * {@link JumpPointSearch} and a {@link HierarchicalPathfinder} over square chunks of the grid.
+ */
+public class GridAlgorithms extends IntAlgorithms {
+
+    private final GridGraph grid;
+
+    public GridAlgorithms(GridGraph grid) {
+        super(grid);
+        this.grid = grid;
+    }
+
+    /**
+     * Find a shortest path from the start cell to the target cell using jump point search. This is much faster than A* when
+     * obstacles such as dead ends and concave walls would make A* expand large areas, though on a mostly empty grid with a direct
+     * route to the target A* with the heuristic of the grid can be as fast. Jump point search requires an 8-connected grid in which
+     * every cell has the same cost, and otherwise this falls back to A* with the heuristic of the grid.
+     * <br>The search limits of this object apply to either search, see {@link #setSearchLimits(SearchLimits)}, but the heuristic
+     * weight does not, so the path found is always a shortest one.
+     * @param start the starting cell
+     * @param target the target cell
+     * @return a path from start to target containing every cell of a shortest path, including both the start and target cells.
+     * If there is no path from the start cell to the target cell, the returned path is empty.
+     */
+    public IntPath findJumpPointPath(int start, int target) {
+        SearchContext context = contexts.obtain();
+        try {
+            if (!canJump()) {
+                AStarSearch<Integer> search = newFallbackSearch(start, target, context);
+                search.finish();
+                return search.getEnd() != -1 ? createPath(grid, context, search.getEnd()) : IntPath.EMPTY_PATH;
+            }
+            JumpPointSearch search = newJumpPointSearch(start, target, context);
+            search.finish();
+            return search.getPath();
+        } finally {
+            contexts.free(context);
+        }
+    }
+
+    /**
+     * Find the length of a shortest path from the start cell to the target cell using jump point search. See {@link #findJumpPointPath(int, int)}.
+     * @param start the starting cell
+     * @param target the target cell
+     * @return the length of a shortest path from the start cell to the target cell.
+     * If there is no path from the start cell to the target cell, {@link Float#MAX_VALUE} is returned.
+     */
+    public float findJumpPointDistance(int start, int target) {
+        SearchContext context = contexts.obtain();
+        try {
+            if (!canJump()) {
+                AStarSearch<Integer> search = newFallbackSearch(start, target, context);
+                search.finish();
+                return search.getDistance();
+            }
+            JumpPointSearch search = newJumpPointSearch(start, target, context);
+            search.finish();
+            return search.getDistance();
+        } finally {
+            contexts.free(context);
+        }
+    }
+
+    /**
+     * Create a jump point search from the start cell to the target cell, which can be run step by step via {@link Algorithm#update()}.
+     * The search holds its state in the given context, which can be reused once the search is no longer needed, and is given the
+     * search limits of this object.
+     * @param start the starting cell
+     * @param target the target cell
+     * @param context the context in which to hold the state of the search
+     * @return the search
+     */
+    public JumpPointSearch newJumpPointSearch(int start, int target, SearchContext context) {
+        if (!canJump()) throw new UnsupportedOperationException("Jump point search requires an 8-connected grid with uniform costs.");
+        if (!grid.contains(start) || !grid.contains(target)) Errors.throwVertexNotInGraphVertexException(true);
+        JumpPointSearch search = new JumpPointSearch(requestRunID(), grid, context, start, target);
+        search.setLimits(searchLimits);
+        return search;
+    }
+
+    // A* in place of jump point search, which like it finds a shortest path whatever the heuristic weight
+    private AStarSearch<Integer> newFallbackSearch(int start, int target, SearchContext context) {
+        AStarSearch<Integer> search = newAstarSeach(start, target, grid.getHeuristic(), null, context);
+        search.setHeuristicWeight(1);
+        return search;
+    }
+
+    /**
+     * Create a hierarchical pathfinder which divides the grid into square chunks. After cells are blocked, opened, or change cost,
+     * update the chunks containing them with {@link HierarchicalPathfinder#updateCluster(int)}, using
+     * {@link HierarchicalPathfinder#getClusterOfId(int)} to find the chunk of a cell. Queries use the heuristic of the grid
+     * unless given another.
+     * @param chunkSize the width and height of each chunk, in cells
+     * @return the pathfinder
+     */
+    public HierarchicalPathfinder<Integer> newHierarchicalPathfinder(int chunkSize) {
+        if (chunkSize < 1) throw new IllegalArgumentException("Chunks must be at least one cell wide.");
+        int width = grid.getWidth(), chunksPerRow = (width + chunkSize - 1) / chunkSize;
+        return new HierarchicalPathfinder<>(grid, (IntUnaryOperator) cell -> (cell % width) / chunkSize + (cell / width) / chunkSize * chunksPerRow,
+                grid.getHeuristic());
+    }
+
+    private boolean canJump() {
+        return grid.isDiagonal() && grid.hasUniformCost();
+    }
+
+}
@@ -0,0 +1,653 @@
+/*
+MIT License
+
+Copyright (c) 2020 earlygrey
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package space.earlygrey.simplegraphs.algorithms;
+
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+import java.util.function.ToIntFunction;
+
+import space.earlygrey.simplegraphs.Errors;
+import space.earlygrey.simplegraphs.Graph;
+import space.earlygrey.simplegraphs.Path;
+import space.earlygrey.simplegraphs.utils.Heuristic;
+import space.earlygrey.simplegraphs.utils.IntHeuristic;
+
+/**
+ * <p>Hierarchical path finding (HPA*), which answers long distance queries by first searching a small abstract graph, and then
+ * refining the result with local searches. The vertices are partitioned into clusters, such as square chunks of a grid.
+ * The edges between two clusters are grouped into entrances, which are runs of edges whose endpoints are adjacent on both sides,
+ * and each entrance is crossed by one representative edge, or two at its ends if it is long. The endpoints of these edges are the
+ * vertices of the abstract graph, and the shortest distances between them within each cluster are precomputed.</p>
+ *
+ * <p>A query connects the start and target to the entrances of their clusters, finds a path over the abstract graph, and then fills
+ * in each step within a cluster with an A* search confined to that cluster. The work done is bounded by the sizes of the clusters
+ * and the abstract graph rather than by the distance between the vertices. Since paths can only pass between clusters at
+ * the representative edges, paths may be slightly longer than the shortest possible.</p>
+ *
+ * <p>When edges within or next to a cluster change, {@link #updateCluster(int)} recomputes only the parts of the abstract graph
+ * around it. If vertices are added or removed, call {@link #rebuild()} instead. Queries can run concurrently, but not while the
+ * abstract graph is being updated. Directed graphs must track incoming edges.</p>
+ *
+ * @param <V> the vertex type
+ */
+public class HierarchicalPathfinder<V> {
+
+    // entrances at least this long are crossed at both ends instead of in the middle
+    private static final int LONG_ENTRANCE = 6;
+
+    // marks a step of an abstract path which crosses an edge between clusters, rather than a path within a cluster
+    private static final int CROSSING = 1;
+
+    private final IndexedGraph<V> graph, reversed;
+    private final IntUnaryOperator clusterFunction;
+    private final IntHeuristic defaultHeuristic;
+    private final SearchContextPool contexts = new SearchContextPool();
+
+    // per vertex id
+    private int[] clusterOf;
+    private int[] entranceRefs;
+    private int[] entranceIndex;
+
+    // per cluster
+    private int[][] members;
+    private int[][] entrances;
+    // the distance within the cluster from entrance i to entrance j is at distances[i * entrances.length + j]
+    private float[][] distances;
+    // representative edges from the cluster to other clusters
+    private int[][] crossingTails, crossingHeads;
+    private float[][] crossingWeights;
+    // the representative edges from entrance i are at [crossingOffsets[i], crossingOffsets[i + 1]) of the crossing arrays
+    private int[][] crossingOffsets;
+
+    /**
+     * Partition the graph into clusters and build the abstract graph.
+     * @param graph the graph
+     * @param clusters a function giving the cluster of each vertex, which must be a non-negative integer. Cluster indices should be
+     *                 small and dense, since arrays are allocated up to the largest index.
+     */
+    public HierarchicalPathfinder(Graph<V> graph, ToIntFunction<V> clusters) {
+        this(graph.internals(), clusters);
+    }
+
+    /**
+     * Partition the graph into clusters and build the abstract graph.
+     * @param graph the graph
+     * @param clusters a function giving the cluster of each vertex, which must be a non-negative integer. Cluster indices should be
+     *                 small and dense, since arrays are allocated up to the largest index.
+     */
+    public HierarchicalPathfinder(IndexedGraph<V> graph, ToIntFunction<V> clusters) {
+        this(graph, getIdClusterFunction(graph, clusters), null);
+    }
+
+    /**
+     * @param clusterFunction gives the cluster of each vertex id, or -1 for an id which is not in use
+     * @param defaultHeuristic the heuristic to use when a query does not give one, or null
+     */
+    HierarchicalPathfinder(IndexedGraph<V> graph, IntUnaryOperator clusterFunction, IntHeuristic defaultHeuristic) {
+        this.graph = graph;
+        this.reversed = graph.isDirected() ? new ReversedGraph<>(graph) : graph;
+        this.clusterFunction = clusterFunction;
+        this.defaultHeuristic = defaultHeuristic;
+        rebuild();
+    }
+
+    private static <V> IntUnaryOperator getIdClusterFunction(IndexedGraph<V> graph, ToIntFunction<V> clusters) {
+        return id -> {
+            V v = graph.getVertex(id);
+            return v != null ? clusters.applyAsInt(v) : -1;
+        };
+    }
+
+    //================================================================================
+    // Preprocessing
+    //================================================================================
+
+    /**
+     * Assign every vertex to its cluster again and rebuild the whole abstract graph. This is needed after vertices are added
+     * to or removed from the graph.
+     */
+    public void rebuild() {
+        int n = graph.getIdBound();
+        clusterOf = new int[n];
+        int clusterCount = 0;
+        for (int id = 0; id < n; id++) {
+            int cluster = clusterFunction.applyAsInt(id);
+            if (cluster < -1) throw new IllegalArgumentException("Cluster indices must be non-negative.");
+            clusterOf[id] = cluster;
+            clusterCount = Math.max(clusterCount, cluster + 1);
+        }
+
+        int[] counts = new int[clusterCount];
+        for (int id = 0; id < n; id++) {
+            if (clusterOf[id] != -1) counts[clusterOf[id]]++;
+        }
+        members = new int[clusterCount][];
+        for (int c = 0; c < clusterCount; c++) {
+            members[c] = new int[counts[c]];
+            counts[c] = 0;
+        }
+        for (int id = 0; id < n; id++) {
+            int c = clusterOf[id];
+            if (c != -1) members[c][counts[c]++] = id;
+        }
+
+        entranceRefs = new int[n];
+        entranceIndex = new int[n];
+        Arrays.fill(entranceIndex, -1);
+        entrances = new int[clusterCount][0];
+        distances = new float[clusterCount][0];
+        crossingTails = new int[clusterCount][0];
+        crossingHeads = new int[clusterCount][0];
+        crossingWeights = new float[clusterCount][0];
+        crossingOffsets = new int[clusterCount][];
+
+        for (int c = 0; c < clusterCount; c++) {
+            findCrossings(c);
+        }
+        SearchContext context = contexts.obtain();
+        try {
+            for (int c = 0; c < clusterCount; c++) {
+                buildCluster(c, context);
+            }
+        } finally {
+            contexts.free(context);
+        }
+    }
+
+    /**
+     * Recompute the parts of the abstract graph affected by changes to the edges within or leaving a cluster, such as changes
+     * to edge weights or cells of a grid being blocked or opened.
+     * @param cluster the cluster which changed
+     */
+    public void updateCluster(int cluster) {
+        if (cluster < 0 || cluster >= members.length) throw new IllegalArgumentException("Cluster " + cluster + " does not exist.");
+        // the clusters whose crossings into or out of this cluster may have changed
+        boolean[] changed = new boolean[members.length];
+        changed[cluster] = true;
+        for (int u : members[cluster]) {
+            markNeighbourClusters(graph, u, changed);
+            if (graph.isDirected()) markNeighbourClusters(reversed, u, changed);
+        }
+        for (int c = 0; c < members.length; c++) {
+            for (int head : crossingHeads[c]) {
+                if (clusterOf[head] == cluster) changed[c] = true;
+            }
+        }
+
+        // the clusters whose entrances may have changed, which are those touched by the old or new crossings
+        boolean[] rebuild = Arrays.copyOf(changed, changed.length);
+        for (int c = 0; c < members.length; c++) {
+            if (!changed[c]) continue;
+            for (int head : crossingHeads[c]) {
+                rebuild[clusterOf[head]] = true;
+            }
+            findCrossings(c);
+            for (int head : crossingHeads[c]) {
+                rebuild[clusterOf[head]] = true;
+            }
+        }
+        SearchContext context = contexts.obtain();
+        try {
+            for (int c = 0; c < members.length; c++) {
+                if (rebuild[c]) buildCluster(c, context);
+            }
+        } finally {
+            contexts.free(context);
+        }
+    }
+
+    private void markNeighbourClusters(IndexedGraph<V> graph, int u, boolean[] clusters) {
+        int degree = graph.getOutDegree(u);
+        for (int i = 0; i < degree; i++) {
+            int cluster = getClusterOfId(graph.getOutTarget(u, i));
+            if (cluster != -1) clusters[cluster] = true;
+        }
+    }
+
+    /**
+     * Find the edges from the cluster to other clusters, group them into entrances, and choose the representative edges.
+     */
+    private void findCrossings(int cluster) {
+        for (int tail : crossingTails[cluster]) {
+            entranceRefs[tail]--;
+        }
+        for (int head : crossingHeads[cluster]) {
+            entranceRefs[head]--;
+        }
+
+        // members are in increasing order of id, so the crossing edges are sorted by their tails
+        int count = 0;
+        for (int u : members[cluster]) {
+            int degree = graph.getOutDegree(u);
+            for (int i = 0; i < degree; i++) {
+                int c = getClusterOfId(graph.getOutTarget(u, i));
+                if (c != -1 && c != cluster) count++;
+            }
+        }
+        int[] tails = new int[count], heads = new int[count];
+        float[] weights = new float[count];
+        int index = 0;
+        for (int u : members[cluster]) {
+            int degree = graph.getOutDegree(u);
+            for (int i = 0; i < degree; i++) {
+                int v = graph.getOutTarget(u, i);
+                int c = getClusterOfId(v);
+                if (c != -1 && c != cluster) {
+                    tails[index] = u;
+                    heads[index] = v;
+                    weights[index] = graph.getOutWeight(u, i);
+                    index++;
+                }
+            }
+        }
+
+        // group crossing edges into entrances with a union find
+        int[] parent = new int[count];
+        for (int i = 0; i < count; i++) {
+            parent[i] = i;
+        }
+        for (int i = 0; i < count; i++) {
+            int tail = tails[i], degree = graph.getOutDegree(tail);
+            for (int j = i + 1; j < count && tails[j] == tail; j++) {
+                join(parent, heads, i, j);
+            }
+            for (int s = 0; s < degree; s++) {
+                int otherTail = graph.getOutTarget(tail, s);
+                if (otherTail <= tail || clusterOf[otherTail] != cluster || !isAdjacent(tail, otherTail)) continue;
+                int j = Arrays.binarySearch(tails, otherTail);
+                if (j < 0) continue;
+                while (j > 0 && tails[j - 1] == otherTail) j--;
+                for (; j < count && tails[j] == otherTail; j++) {
+                    join(parent, heads, i, j);
+                }
+            }
+        }
+
+        // choose the middle edge of each entrance, or both end edges of a long entrance
+        int[] size = new int[count], seen = new int[count];
+        for (int i = 0; i < count; i++) {
+            size[find(parent, i)]++;
+        }
+        boolean[] chosen = new boolean[count];
+        int chosenCount = 0;
+        for (int i = 0; i < count; i++) {
+            int root = find(parent, i), position = seen[root]++, entranceSize = size[root];
+            boolean choose = entranceSize >= LONG_ENTRANCE ? position == 0 || position == entranceSize - 1 : position == entranceSize / 2;
+            if (choose) {
+                chosen[i] = true;
+                chosenCount++;
+            }
+        }
+
+        int[] chosenTails = new int[chosenCount], chosenHeads = new int[chosenCount];
+        float[] chosenWeights = new float[chosenCount];
+        index = 0;
+        for (int i = 0; i < count; i++) {
+            if (!chosen[i]) continue;
+            chosenTails[index] = tails[i];
+            chosenHeads[index] = heads[i];
+            chosenWeights[index] = weights[i];
+            entranceRefs[tails[i]]++;
+            entranceRefs[heads[i]]++;
+            index++;
+        }
+        crossingTails[cluster] = chosenTails;
+        crossingHeads[cluster] = chosenHeads;
+        crossingWeights[cluster] = chosenWeights;
+    }
+
+    /**
+     * Put two crossing edges in the same entrance if their tails are the same or adjacent, and likewise their heads.
+     */
+    private void join(int[] parent, int[] heads, int i, int j) {
+        int a = heads[i], b = heads[j];
+        if (clusterOf[a] != clusterOf[b] || (a != b && !isAdjacent(a, b))) return;
+        parent[find(parent, i)] = find(parent, j);
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    /**
+     * @return whether there are edges between the two vertices in both directions
+     */
+    private boolean isAdjacent(int u, int v) {
+        return hasEdge(u, v) && (!graph.isDirected() || hasEdge(v, u));
+    }
+
+    private boolean hasEdge(int u, int v) {
+        int degree = graph.getOutDegree(u);
+        for (int i = 0; i < degree; i++) {
+            if (graph.getOutTarget(u, i) == v) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Find the entrances of the cluster, the distances between them within the cluster, and index the crossings by entrance.
+     */
+    private void buildCluster(int cluster, SearchContext context) {
+        for (int entrance : entrances[cluster]) {
+            entranceIndex[entrance] = -1;
+        }
+        int k = 0;
+        for (int u : members[cluster]) {
+            if (entranceRefs[u] > 0) k++;
+        }
+        int[] clusterEntrances = new int[k];
+        k = 0;
+        for (int u : members[cluster]) {
+            if (entranceRefs[u] > 0) {
+                entranceIndex[u] = k;
+                clusterEntrances[k++] = u;
+            }
+        }
+        entrances[cluster] = clusterEntrances;
+
+        float[] clusterDistances = new float[k * k];
+        for (int i = 0; i < k; i++) {
+            searchCluster(graph, context, clusterEntrances[i], -1, null);
+            for (int j = 0; j < k; j++) {
+                clusterDistances[i * k + j] = getDistance(context, clusterEntrances[j]);
+            }
+        }
+        distances[cluster] = clusterDistances;
+
+        // sort the crossings by the index of their tail entrance
+        int[] tails = crossingTails[cluster], heads = crossingHeads[cluster];
+        float[] weights = crossingWeights[cluster];
+        int[] offsets = new int[k + 1];
+        for (int tail : tails) {
+            offsets[entranceIndex[tail] + 1]++;
+        }
+        for (int i = 0; i < k; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        int[] next = Arrays.copyOf(offsets, k);
+        int[] sortedTails = new int[tails.length], sortedHeads = new int[tails.length];
+        float[] sortedWeights = new float[tails.length];
+        for (int i = 0; i < tails.length; i++) {
+            int j = next[entranceIndex[tails[i]]]++;
+            sortedTails[j] = tails[i];
+            sortedHeads[j] = heads[i];
+            sortedWeights[j] = weights[i];
+        }
+        crossingTails[cluster] = sortedTails;
+        crossingHeads[cluster] = sortedHeads;
+        crossingWeights[cluster] = sortedWeights;
+        crossingOffsets[cluster] = offsets;
+    }
+
+    //================================================================================
+    // Searches
+    //================================================================================
+
+    /**
+     * Run a search from the source which does not leave its cluster. If there is no target, the search runs until every
+     * vertex in the cluster that can be reached has been processed.
+     */
+    private void searchCluster(IndexedGraph<V> graph, SearchContext context, int source, int target, IntHeuristic heuristic) {
+        int cluster = clusterOf[source];
+        context.beginRun(graph.getIdBound());
+        BinaryHeap heap = new BinaryHeap(context);
+        context.reset(source);
+        context.distance[source] = 0;
+        context.seen[source] = true;
+        heap.add(source, 0);
+        while (heap.notEmpty()) {
+            int u = heap.pop();
+            if (u == target) return;
+            context.processed[u] = true;
+            float distance = context.distance[u];
+            int degree = graph.getOutDegree(u);
+            for (int i = 0; i < degree; i++) {
+                int v = graph.getOutTarget(u, i);
+                if (getClusterOfId(v) != cluster) continue;
+                context.reset(v);
+                if (context.processed[v]) continue;
+                float newDistance = distance + graph.getOutWeight(u, i);
+                if (newDistance < context.distance[v]) {
+                    context.distance[v] = newDistance;
+                    context.prev[v] = u;
+                    context.depth[v] = context.depth[u] + 1;
+                    float estimate = heuristic != null ? heuristic.getEstimate(v, target) : 0;
+                    if (!context.seen[v]) {
+                        heap.add(v, newDistance + estimate);
+                        context.seen[v] = true;
+                    } else {
+                        heap.setValue(v, newDistance + estimate);
+                    }
+                }
+            }
+        }
+    }
+
+    private static float getDistance(SearchContext context, int id) {
+        return context.isVisited(id) ? context.distance[id] : Float.MAX_VALUE;
+    }
+
+    /**
+     * Search the abstract graph, with the start and target connected to the entrances of their clusters.
+     * @return whether the target was reached. The path is held in the abstract context, where prevSlot marks crossing edges.
+     */
+    private boolean searchAbstract(int start, int target, IntHeuristic heuristic, SearchContext local, SearchContext context) {
+        int startCluster = clusterOf[start], targetCluster = clusterOf[target];
+        int[] startEntrances = entrances[startCluster], targetEntrances = entrances[targetCluster];
+
+        searchCluster(graph, local, start, -1, null);
+        float[] fromStart = new float[startEntrances.length];
+        for (int i = 0; i < fromStart.length; i++) {
+            fromStart[i] = getDistance(local, startEntrances[i]);
+        }
+        float direct = startCluster == targetCluster ? getDistance(local, target) : Float.MAX_VALUE;
+        searchCluster(reversed, local, target, -1, null);
+        float[] toTarget = new float[targetEntrances.length];
+        for (int i = 0; i < toTarget.length; i++) {
+            toTarget[i] = getDistance(local, targetEntrances[i]);
+        }
+
+        context.beginRun(graph.getIdBound());
+        BinaryHeap heap = new BinaryHeap(context);
+        context.reset(start);
+        context.distance[start] = 0;
+        context.seen[start] = true;
+        heap.add(start, 0);
+        while (heap.notEmpty()) {
+            int u = heap.pop();
+            if (u == target) return true;
+            context.processed[u] = true;
+            if (u == start) {
+                for (int i = 0; i < startEntrances.length; i++) {
+                    relax(context, heap, heuristic, u, startEntrances[i], fromStart[i], 0, target);
+                }
+                relax(context, heap, heuristic, u, target, direct, 0, target);
+            }
+            int index = entranceIndex[u];
+            if (index == -1) continue;
+            int cluster = clusterOf[u];
+            int[] clusterEntrances = entrances[cluster];
+            float[] clusterDistances = distances[cluster];
+            int k = clusterEntrances.length;
+            for (int j = 0; j < k; j++) {
+                if (j != index) relax(context, heap, heuristic, u, clusterEntrances[j], clusterDistances[index * k + j], 0, target);
+            }
+            int[] offsets = crossingOffsets[cluster], heads = crossingHeads[cluster];
+            float[] weights = crossingWeights[cluster];
+            for (int i = offsets[index]; i < offsets[index + 1]; i++) {
+                relax(context, heap, heuristic, u, heads[i], weights[i], CROSSING, target);
+            }
+            if (cluster == targetCluster) relax(context, heap, heuristic, u, target, toTarget[index], 0, target);
+        }
+        return false;
+    }
+
+    private void relax(SearchContext context, BinaryHeap heap, IntHeuristic heuristic, int u, int v, float weight, int kind, int target) {
+        if (weight == Float.MAX_VALUE) return;
+        context.reset(v);
+        if (context.processed[v]) return;
+        float newDistance = context.distance[u] + weight;
+        if (newDistance < context.distance[v]) {
+            context.distance[v] = newDistance;
+            context.prev[v] = u;
+            context.prevSlot[v] = kind;
+            context.depth[v] = context.depth[u] + 1;
+            float estimate = heuristic != null ? heuristic.getEstimate(v, target) : 0;
+            if (!context.seen[v]) {
+                heap.add(v, newDistance + estimate);
+                context.seen[v] = true;
+            } else {
+                heap.setValue(v, newDistance + estimate);
+            }
+        }
+    }
+
+    //================================================================================
+    // Queries
+    //================================================================================
+
+    /**
+     * Find a path from the start vertex to the target vertex. See {@link #findShortestPath(Object, Object, Heuristic)}.
+     */
+    public Path<V> findShortestPath(V start, V target) {
+        return findShortestPath(start, target, null);
+    }
+
+    /**
+     * Find a path from the start vertex to the target vertex by searching the abstract graph and then refining each step within a
+     * cluster. The path may be slightly longer than a shortest path.
+     * @param start the starting vertex
+     * @param target the target vertex
+     * @param heuristic a heuristic to guide the searches, or null to use the default heuristic, which for a grid is the
+     *                  heuristic of the grid
+     * @return a list of vertices from start to target, including both the start and target vertices.
+     * If there is no path from the start vertex to the target vertex, the returned path is empty.
+     */
+    public Path<V> findShortestPath(V start, V target, Heuristic<V> heuristic) {
+        int startID = getId(start), targetID = getId(target);
+        IntHeuristic idHeuristic = getIdHeuristic(heuristic);
+        SearchContext local = contexts.obtain(), context = contexts.obtain();
+        try {
+            if (!searchAbstract(startID, targetID, idHeuristic, local, context)) return Path.EMPTY_PATH;
+
+            int[] steps = new int[context.depth[targetID] + 1];
+            for (int v = targetID, i = steps.length - 1; i >= 0; v = context.prev[v], i--) {
+                steps[i] = v;
+            }
+            AlgorithmPath<V> path = new AlgorithmPath<>(context.distance[targetID]);
+            path.add(graph.getVertex(startID));
+            for (int i = 1; i < steps.length; i++) {
+                int u = steps[i - 1], v = steps[i];
+                if (context.prevSlot[v] == CROSSING) {
+                    path.add(graph.getVertex(v));
+                    continue;
+                }
+                searchCluster(graph, local, u, v, idHeuristic);
+                int index = path.size() + local.depth[v] - 1;
+                for (int j = 0; j < local.depth[v]; j++) {
+                    path.add(null);
+                }
+                for (int w = v; w != u; w = local.prev[w]) {
+                    path.set(index--, graph.getVertex(w));
+                }
+            }
+            return path;
+        } finally {
+            contexts.free(local);
+            contexts.free(context);
+        }
+    }
+
+    /**
+     * Find the length of the path from the start vertex to the target vertex which {@link #findShortestPath(Object, Object, Heuristic)}
+     * would return, without refining it.
+     * @param start the starting vertex
+     * @param target the target vertex
+     * @param heuristic a heuristic to guide the searches, or null to use the default heuristic
+     * @return the length of the path, or {@link Float#MAX_VALUE} if there is no path from the start vertex to the target vertex
+     */
+    public float findDistance(V start, V target, Heuristic<V> heuristic) {
+        int startID = getId(start), targetID = getId(target);
+        SearchContext local = contexts.obtain(), context = contexts.obtain();
+        try {
+            return searchAbstract(startID, targetID, getIdHeuristic(heuristic), local, context) ? context.distance[targetID] : Float.MAX_VALUE;
+        } finally {
+            contexts.free(local);
+            contexts.free(context);
+        }
+    }
+
+    private int getId(V v) {
+        int id = graph.getId(v);
+        if (id == -1 || id >= clusterOf.length || clusterOf[id] == -1) Errors.throwVertexNotInGraphVertexException(false);
+        return id;
+    }
+
+    private IntHeuristic getIdHeuristic(Heuristic<V> heuristic) {
+        if (heuristic == null) return defaultHeuristic;
+        if (heuristic instanceof LandmarkHeuristic) {
+            IntHeuristic idHeuristic = ((LandmarkHeuristic<V>) heuristic).getIdHeuristic(graph);
+            if (idHeuristic != null) return idHeuristic;
+        }
+        return (u, v) -> heuristic.getEstimate(graph.getVertex(u), graph.getVertex(v));
+    }
+
+    //================================================================================
+    // Getters
+    //================================================================================
+
+    /**
+     * @return the cluster of the vertex, as given by the cluster function when the abstract graph was built
+     */
+    public int getCluster(V v) {
+        return clusterOf[getId(v)];
+    }
+
+    /**
+     * @return the cluster of the vertex with the given id, or -1 if the id was not in use when the abstract graph was built
+     */
+    public int getClusterOfId(int id) {
+        return id < clusterOf.length ? clusterOf[id] : -1;
+    }
+
+    public int getClusterCount() {
+        return members.length;
+    }
+
+    /**
+     * @return the number of vertices in the abstract graph
+     */
+    public int getEntranceCount() {
+        int count = 0;
+        for (int[] clusterEntrances : entrances) {
+            count += clusterEntrances.length;
+        }
+        return count;
+    }
+
+}
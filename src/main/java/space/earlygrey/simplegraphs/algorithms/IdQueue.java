@@ -0,0 +1,68 @@
+/*
+MIT License
+
+Copyright (c) 2020 earlygrey
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package space.earlygrey.simplegraphs.algorithms;
+
+/**
+ * A min priority queue of vertex ids, each of which has a float value, as used by the searches. Implementations keep whatever
+ * per vertex state they need, such as the position of an id in the queue, in the {@link SearchContext} of the search.
+ * See {@link QueueType}.
+ */
+abstract class IdQueue {
+
+    // the number of ids in the queue
+    int size;
+
+    /**
+     * Adds the id to the queue with the given value. The id should not already be in the queue.
+     */
+    abstract void add(int id, float value);
+
+    /**
+     * Returns the id with the lowest value.
+     */
+    abstract int peek();
+
+    /**
+     * Removes the id with the lowest value and returns it.
+     */
+    abstract int pop();
+
+    /**
+     * Changes the value of the id, which should already be in the queue.
+     */
+    abstract void setValue(int id, float value);
+
+    boolean notEmpty() {
+        return size > 0;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+}
@@ -0,0 +1,47 @@
+/*
+MIT License
+
+Copyright (c) 2020 earlygrey
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package space.earlygrey.simplegraphs.algorithms;
+
+import space.earlygrey.simplegraphs.ImplicitGraph;
+
+/**
+ * The algorithms available on an {@link ImplicitGraph}. These are the searches of {@link Algorithms} which only follow outgoing
+ * edges, and so can run while the graph is being discovered. Vertices passed to them are discovered if they have not been
+ * seen before. As a search for an unreachable vertex may discover the whole graph, searches should usually be run with
+ * limits, see {@link #setSearchLimits(SearchLimits)}.
+ * @param <V> the vertex type
+ */
+public class ImplicitGraphAlgorithms<V> extends VertexAlgorithms<V> {
+
+    public ImplicitGraphAlgorithms(ImplicitGraph<V> graph) {
+        super(graph);
+    }
+
+    @Override
+    SearchContext newSearchContext() {
+        // the id bound grows as vertices are discovered, so the context grows with it
+        return new SearchContext();
+    }
+
+}
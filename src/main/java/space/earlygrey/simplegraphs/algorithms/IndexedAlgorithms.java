@@ -0,0 +1,119 @@
+/*
+MIT License
+
+Copyright (c) 2020 earlygrey
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package space.earlygrey.simplegraphs.algorithms;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import space.earlygrey.simplegraphs.utils.IntHeuristic;
+import space.earlygrey.simplegraphs.utils.SearchProcessor;
+
+/**
+ * The state shared by the algorithm facades of each kind of graph: the pool of search contexts, the counter handing out run
+ * ids, and the settings applied to the searches they run.
+ * @param <V> the vertex type
+ */
+abstract class IndexedAlgorithms<V> {
+
+    final IndexedGraph<V> indexedGraph;
+    final SearchContextPool contexts = new SearchContextPool();
+    private final AtomicInteger runID = new AtomicInteger();
+    QueueType queueType = QueueType.AUTO;
+    SearchLimits searchLimits = SearchLimits.NONE;
+    float heuristicWeight = 1;
+
+    IndexedAlgorithms(IndexedGraph<V> graph) {
+        indexedGraph = graph;
+    }
+
+    public int requestRunID() {
+        return runID.getAndIncrement();
+    }
+
+    // searches should be created through these, so that they are given the settings of this object
+
+    AStarSearch<V> createAStarSearch(SearchContext context, int start, int target, IntHeuristic heuristic, SearchProcessor<V> processor, QueueType queueType) {
+        AStarSearch<V> search = new AStarSearch<>(requestRunID(), indexedGraph, context, start, target, heuristic, processor, queueType);
+        search.setLimits(searchLimits);
+        search.setHeuristicWeight(heuristicWeight);
+        return search;
+    }
+
+    BreadthFirstSearch<V> createBreadthFirstSearch(SearchContext context, int start, SearchProcessor<V> processor) {
+        BreadthFirstSearch<V> search = new BreadthFirstSearch<>(requestRunID(), indexedGraph, context, start, processor);
+        search.setLimits(searchLimits);
+        return search;
+    }
+
+    DepthFirstSearch<V> createDepthFirstSearch(SearchContext context, int start, SearchProcessor<V> processor) {
+        DepthFirstSearch<V> search = new DepthFirstSearch<>(requestRunID(), indexedGraph, context, start, processor);
+        search.setLimits(searchLimits);
+        return search;
+    }
+
+    /**
+     * Set the priority queue used by the searches run by this object, which is {@link QueueType#AUTO} by default.
+     * Searches already created are not affected.
+     * @param queueType the priority queue to order vertices with
+     */
+    public void setQueueType(QueueType queueType) {
+        if (queueType == null) throw new IllegalArgumentException("Queue type cannot be null.");
+        this.queueType = queueType;
+    }
+
+    public QueueType getQueueType() {
+        return queueType;
+    }
+
+    /**
+     * Set the limits given to the searches run by this object, which include the shortest path searches, jump point searches and
+     * the breadth first, depth first and Dijkstra searches, but not bidirectional searches. There are no limits by default.
+     * Searches which are cut short by a limit return an empty path, or {@link Float#MAX_VALUE} for a distance. See {@link SearchLimits}.
+     * @param searchLimits the limits, or {@link SearchLimits#NONE}
+     */
+    public void setSearchLimits(SearchLimits searchLimits) {
+        if (searchLimits == null) throw new IllegalArgumentException("Search limits cannot be null.");
+        this.searchLimits = searchLimits;
+    }
+
+    public SearchLimits getSearchLimits() {
+        return searchLimits;
+    }
+
+    /**
+     * Set the weight by which the heuristic is multiplied in the A* searches run by this object, which is 1 by default.
+     * A weight greater than 1 trades the length of paths for speed: the paths found are at most that many times longer than a
+     * shortest path, and are usually found much faster. Jump point searches always find shortest paths, so are not affected.
+     * See {@link AStarSearch#setHeuristicWeight(float)}.
+     * @param heuristicWeight the weight, at least 1
+     */
+    public void setHeuristicWeight(float heuristicWeight) {
+        if (!(heuristicWeight >= 1)) throw new IllegalArgumentException("The heuristic weight must be at least 1.");
+        this.heuristicWeight = heuristicWeight;
+    }
+
+    public float getHeuristicWeight() {
+        return heuristicWeight;
+    }
+
+}
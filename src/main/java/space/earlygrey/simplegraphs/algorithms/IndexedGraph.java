@@ -0,0 +1,114 @@
+/*
+MIT License
+
+Copyright (c) 2020 earlygrey
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package space.earlygrey.simplegraphs.algorithms;
+
+import space.earlygrey.simplegraphs.Edge;
+import space.earlygrey.simplegraphs.Errors;
+
+/**
+ * A graph whose vertices are identified by integer ids in the range [0, {@link #getIdBound()}). This gives search algorithms
+ * primitive, allocation free access to the structure of the graph, so their scratch state can be held in flat arrays
+ * (see {@link SearchContext}) instead of on vertex objects.
+ * <br>The outgoing edges of a vertex are addressed by a slot index in the range [0, {@link #getOutDegree(int)}).
+ * Ids in the range which are not in use have no outgoing edges.
+ * <br>Incoming edges are addressed in the same way by {@link #getInDegree(int)}. For an undirected graph they are the same as the
+ * outgoing edges, and a directed graph which does not track them throws an exception.
+ * @param <V> the vertex type
+ */
+public interface IndexedGraph<V> {
+
+    /**
+     * @return an upper bound (exclusive) on the ids of vertices in the graph
+     */
+    int getIdBound();
+
+    /**
+     * @return the id of the vertex, or -1 if it is not in the graph
+     */
+    int getId(V v);
+
+    /**
+     * @return the vertex with the given id, or null if the id is not in use
+     */
+    V getVertex(int id);
+
+    /**
+     * @return the number of outgoing edge slots of the vertex with the given id
+     */
+    int getOutDegree(int id);
+
+    /**
+     * @return the id of the head vertex of the edge in the given slot
+     */
+    int getOutTarget(int id, int slot);
+
+    /**
+     * @return the weight of the edge in the given slot
+     */
+    float getOutWeight(int id, int slot);
+
+    /**
+     * @return the edge in the given slot. This is only used to report edges to the user, and may create a new object.
+     */
+    Edge<V> getOutEdge(int id, int slot);
+
+    /**
+     * @return the number of incoming edge slots of the vertex with the given id
+     */
+    default int getInDegree(int id) {
+        if (isDirected()) Errors.throwInEdgesNotTrackedException();
+        return getOutDegree(id);
+    }
+
+    /**
+     * @return the id of the tail vertex of the incoming edge in the given slot
+     */
+    default int getInSource(int id, int slot) {
+        if (isDirected()) Errors.throwInEdgesNotTrackedException();
+        return getOutTarget(id, slot);
+    }
+
+    /**
+     * @return the weight of the incoming edge in the given slot
+     */
+    default float getInWeight(int id, int slot) {
+        if (isDirected()) Errors.throwInEdgesNotTrackedException();
+        return getOutWeight(id, slot);
+    }
+
+    /**
+     * @return whether the graph is directed
+     */
+    boolean isDirected();
+
+    /**
+     * Used to choose a priority queue for searches, see {@link QueueType#AUTO}. Graphs which can not cheaply tell whether their
+     * weights are integers, such as those with weight functions, return -1.
+     * @return if every edge weight is known to be a non-negative integer, the largest weight, otherwise -1
+     */
+    default int getIntegerWeightBound() {
+        return -1;
+    }
+
+}
@@ -0,0 +1,281 @@
+/*
+MIT License
+
+Copyright (c) 2020 earlygrey
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package space.earlygrey.simplegraphs.algorithms;
+
+import space.earlygrey.simplegraphs.Errors;
+import space.earlygrey.simplegraphs.IntGraph;
+import space.earlygrey.simplegraphs.IntPath;
+import space.earlygrey.simplegraphs.utils.IntHeuristic;
+import space.earlygrey.simplegraphs.utils.IntSearchProcessor;
+
+/**
+ * The algorithms available on an {@link IntGraph}. These mirror the methods of {@link Algorithms}, but take and return
+ * primitive int vertices.
+ */
+public class IntAlgorithms extends IndexedAlgorithms<Integer> {
+
+    private final IndexedIntGraph graph;
+
+    public IntAlgorithms(IndexedIntGraph graph) {
+        super(graph);
+        this.graph = graph;
+    }
+
+    private int getId(int v) {
+        int id = graph.getIntId(v);
+        if (id == -1) Errors.throwVertexNotInGraphVertexException(false);
+        return id;
+    }
+
+    private IntHeuristic getIdHeuristic(IntHeuristic heuristic) {
+        if (heuristic == null) return null;
+        return (u, v) -> heuristic.getEstimate(graph.getIntVertex(u), graph.getIntVertex(v));
+    }
+
+    /**
+     * Create a path from the start of a search to the vertex with the given id, by following the previous vertices stored in the context.
+     */
+    static IntPath createPath(IndexedIntGraph graph, SearchContext context, int id) {
+        int[] vertices = new int[context.depth[id] + 1];
+        float length = context.distance[id];
+        for (int i = vertices.length - 1; i >= 0; i--) {
+            vertices[i] = graph.getIntVertex(id);
+            id = context.prev[id];
+        }
+        return new IntPath(vertices, length);
+    }
+
+    //--------------------
+    //  Shortest Path
+    //--------------------
+
+    /**
+     * Find a shortest path from the start vertex to the target vertex, using Dijkstra's algorithm implemented with a priority queue.
+     * @param start the starting vertex
+     * @param target the target vertex
+     * @return a path from start to target containing the ordered vertices of a shortest path, including both the start and target vertices.
+     * If there is no path from the start vertex to the target vertex, the returned path is empty.
+     */
+    public IntPath findShortestPath(int start, int target) {
+        return findShortestPath(start, target, null, null);
+    }
+
+    /**
+     * Find a shortest path from the start vertex to the target vertex, using Dijkstra's algorithm implemented with a priority queue.
+     * @param start the starting vertex
+     * @param target the target vertex
+     * @param processor a consumer which is called immediately before processing each vertex. See {@link IntSearchStep}.
+     * @return a path from start to target containing the ordered vertices of a shortest path, including both the start and target vertices.
+     * If there is no path from the start vertex to the target vertex, the returned path is empty.
+     */
+    public IntPath findShortestPath(int start, int target, IntSearchProcessor processor) {
+        return findShortestPath(start, target, null, processor);
+    }
+
+    /**
+     * Find a shortest path from the start vertex to the target vertex, using the A* search algorithm with the provided heuristic, and implemented with a priority queue.
+     * <br>The heuristic is a function, which for any two vertices returns an estimate of the distance between them. Note: the heuristic h
+     * must be admissible, that is, for any two vertices x and y, h(x,y) &#8804; d(x,y), where d(x,y) is the actual distance of a shortest path from x to y.
+     * @param start the starting vertex
+     * @param target the target vertex
+     * @param heuristic a heuristic to guide the search
+     * @return a path from start to target containing the ordered vertices of a shortest path, including both the start and target vertices.
+     * If there is no path from the start vertex to the target vertex, the returned path is empty.
+     */
+    public IntPath findShortestPath(int start, int target, IntHeuristic heuristic) {
+        return findShortestPath(start, target, heuristic, null);
+    }
+
+    /**
+     * Find a shortest path from the start vertex to the target vertex, using the A* search algorithm with the provided heuristic, and implemented with a priority queue.
+     * <br>The heuristic is a function, which for any two vertices returns an estimate of the distance between them. Note: the heuristic h
+     * must be admissible, that is, for any two vertices x and y, h(x,y) &#8804; d(x,y), where d(x,y) is the actual distance of a shortest path from x to y.
+     * @param start the starting vertex
+     * @param target the target vertex
+     * @param heuristic a heuristic to guide the search
+     * @param processor a consumer which is called immediately before processing each vertex. See {@link IntSearchStep}.
+     * @return a path from start to target containing the ordered vertices of a shortest path, including both the start and target vertices.
+     * If there is no path from the start vertex to the target vertex, the returned path is empty.
+     */
+    public IntPath findShortestPath(int start, int target, IntHeuristic heuristic, IntSearchProcessor processor) {
+        SearchContext context = contexts.obtain();
+        try {
+            AStarSearch<Integer> search = newAstarSeach(start, target, heuristic, processor, context);
+            search.finish();
+            return search.getEnd() != -1 ? createPath(graph, context, search.getEnd()) : IntPath.EMPTY_PATH;
+        } finally {
+            contexts.free(context);
+        }
+    }
+
+    /**
+     * Create an A* search from the start vertex to the target vertex, which can be run step by step via {@link Algorithm#update()}.
+     * @param start the starting vertex
+     * @param target the target vertex
+     * @param heuristic a heuristic to guide the search, or null to use Dijkstra's algorithm
+     * @param processor a consumer which is called immediately before processing each vertex. See {@link IntSearchStep}.
+     * @return the search
+     */
+    public AStarSearch<Integer> newAstarSeach(int start, int target, IntHeuristic heuristic, IntSearchProcessor processor) {
+        return newAstarSeach(start, target, heuristic, processor, new SearchContext(graph.getIdBound()));
+    }
+
+    /**
+     * Create an A* search from the start vertex to the target vertex, which can be run step by step via {@link Algorithm#update()}.
+     * The search holds its state in the given context, which can be reused once the search is no longer needed.
+     * @param start the starting vertex
+     * @param target the target vertex
+     * @param heuristic a heuristic to guide the search, or null to use Dijkstra's algorithm
+     * @param processor a consumer which is called immediately before processing each vertex. See {@link IntSearchStep}.
+     * @param context the context in which to hold the state of the search
+     * @return the search
+     */
+    public AStarSearch<Integer> newAstarSeach(int start, int target, IntHeuristic heuristic, IntSearchProcessor processor, SearchContext context) {
+        return newAstarSeach(start, target, heuristic, processor, context, queueType);
+    }
+
+    /**
+     * Create an A* search from the start vertex to the target vertex, which can be run step by step via {@link Algorithm#update()}.
+     * The search holds its state in the given context, which can be reused once the search is no longer needed.
+     * @param start the starting vertex
+     * @param target the target vertex
+     * @param heuristic a heuristic to guide the search, or null to use Dijkstra's algorithm
+     * @param processor a consumer which is called immediately before processing each vertex. See {@link IntSearchStep}.
+     * @param context the context in which to hold the state of the search
+     * @param queueType the priority queue to order vertices with
+     * @return the search
+     */
+    public AStarSearch<Integer> newAstarSeach(int start, int target, IntHeuristic heuristic, IntSearchProcessor processor, SearchContext context, QueueType queueType) {
+        int startID = graph.getIntId(start);
+        int targetID = graph.getIntId(target);
+        if (startID == -1 || targetID == -1) Errors.throwVertexNotInGraphVertexException(true);
+        return createAStarSearch(context, startID, targetID, getIdHeuristic(heuristic), processor, queueType);
+    }
+
+    /**
+     * Find the length of a shortest path from the start vertex to the target vertex, using Dijkstra's algorithm implemented with a priority queue.
+     * @param start the starting vertex
+     * @param target the target vertex
+     * @return the sum of the weights in a shortest path from the starting vertex to the target vertex.
+     * If there is no path from the start vertex to the target vertex, {@link Float#MAX_VALUE} is returned.
+     */
+    public float findMinimumDistance(int start, int target) {
+        return findMinimumDistance(start, target, null);
+    }
+
+    /**
+     * Find the length of a shortest path from the start vertex to the target vertex, using the A* search algorithm with the provided heuristic, and implemented with a priority queue.
+     * @param start the starting vertex
+     * @param target the target vertex
+     * @return the sum of the weights in a shortest path from the starting vertex to the target vertex.
+     * If there is no path from the start vertex to the target vertex, {@link Float#MAX_VALUE} is returned.
+     */
+    public float findMinimumDistance(int start, int target, IntHeuristic heuristic) {
+        SearchContext context = contexts.obtain();
+        try {
+            AStarSearch<Integer> search = newAstarSeach(start, target, heuristic, null, context);
+            search.finish();
+            return search.getDistance();
+        } finally {
+            contexts.free(context);
+        }
+    }
+
+    /**
+     * Checks whether there exists a path from the start vertex to target vertex, using Dijkstra's algorithm implemented with a priority queue.
+     * @param start the starting vertex
+     * @param target the target vertex
+     * @return whether there exists a path from the start vertex to target vertex
+     */
+    public boolean isConnected(int start, int target) {
+        return findMinimumDistance(start, target) < Float.MAX_VALUE;
+    }
+
+    //--------------------
+    // Graph Searching
+    //--------------------
+
+    /**
+     * Perform a breadth first search starting from the specified vertex.
+     * @param v the vertex at which to start the search
+     * @param processor a consumer which is called immediately before processing each vertex. See {@link IntSearchStep}.
+     */
+    public void breadthFirstSearch(int v, IntSearchProcessor processor) {
+        SearchContext context = contexts.obtain();
+        try {
+            BreadthFirstSearch<Integer> search = createBreadthFirstSearch(context, getId(v), processor);
+            search.finish();
+        } finally {
+            contexts.free(context);
+        }
+    }
+
+    /**
+     * Perform a depth first search starting from the specified vertex.
+     * @param v the vertex at which to start the search
+     * @param processor a consumer which is called immediately before processing each vertex. See {@link IntSearchStep}.
+     */
+    public void depthFirstSearch(int v, IntSearchProcessor processor) {
+        SearchContext context = contexts.obtain();
+        try {
+            DepthFirstSearch<Integer> search = createDepthFirstSearch(context, getId(v), processor);
+            search.finish();
+        } finally {
+            contexts.free(context);
+        }
+    }
+
+    /**
+     * Perform a search using Dijkstra's algorithm starting from the specified vertex.
+     * @param v the vertex at which to start the search
+     * @param processor a consumer which is called immediately before processing each vertex. See {@link IntSearchStep}.
+     */
+    public void dijkstraSearch(int v, IntSearchProcessor processor) {
+        SearchContext context = contexts.obtain();
+        try {
+            AStarSearch<Integer> search = createAStarSearch(context, getId(v), -1, null, processor, queueType);
+            search.finish();
+        } finally {
+            contexts.free(context);
+        }
+    }
+
+    //--------------------
+    //  Structures
+    //--------------------
+
+    /**
+     * Checks whether there are any cycles in the graph using depth first searches.
+     * @return true if the graph contains a cycle, false otherwise
+     */
+    public boolean containsCycle() {
+        SearchContext context = contexts.obtain();
+        try {
+            return new CycleDetector<>(requestRunID(), graph, context).containsCycle();
+        } finally {
+            contexts.free(context);
+        }
+    }
+
+}
@@ -0,0 +1,60 @@
+/*
+MIT License
+
+Copyright (c) 2020 earlygrey
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package space.earlygrey.simplegraphs.algorithms;
+
+import space.earlygrey.simplegraphs.IntPath;
+
+/**
+ * A {@link SearchStep} for graphs whose vertices are primitive ints, which gives access to vertices without boxing.
+ */
+public class IntSearchStep extends SearchStep<Integer> {
+
+    IntSearchStep(IndexedIntGraph graph, SearchContext context) {
+        super(graph, context);
+    }
+
+    /**
+     * @return the vertex being currently processed.
+     */
+    public int vertexAsInt() {
+        return ((IndexedIntGraph) graph).getIntVertex(id);
+    }
+
+    /**
+     * @return the vertex from which the current vertex was found.
+     */
+    public int previousAsInt() {
+        return ((IndexedIntGraph) graph).getIntVertex(context.prev[id]);
+    }
+
+    /**
+     * Reconstruct the path from the initial vertex to the current vertex that the search algorithm took.
+     * For a shortest path search this is an actual shortest path from the initial vertex to the current in the graph,
+     * for a breadth or depth first search this is not necessarily true.
+     * @return a path from the initial vertex to the current
+     */
+    public IntPath createIntPath() {
+        return IntAlgorithms.createPath((IndexedIntGraph) graph, context, id);
+    }
+}
@@ -0,0 +1,249 @@
+/*
+MIT License
+
+Copyright (c) 2020 earlygrey
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package space.earlygrey.simplegraphs.algorithms;
+
+import space.earlygrey.simplegraphs.GridGraph;
+import space.earlygrey.simplegraphs.IntPath;
+
+/**
+ * Jump point search over an 8-connected {@link GridGraph} in which every cell has the same cost. It finds the same path
+ * lengths as {@link AStarSearch}, but only adds a cell to the queue if an optimal path could turn there (a jump point),
+ * and otherwise skips along straight and diagonal lines without expanding the cells in between.
+ * <br>This follows the same movement rules as the grid, so a diagonal move is only possible if both cells beside it are open.
+ * <br>The search can be limited in the same way as A*, see {@link #setLimits(SearchLimits)}. As the cells between jump points are
+ * skipped, the limit on the number of expansions counts jump points.
+ */
+public class JumpPointSearch extends Algorithm<Integer> {
+
+    private static final float SQRT2 = (float) Math.sqrt(2);
+
+    private final GridGraph grid;
+    private final SearchContext context;
+    private final BinaryHeap heap;
+    private final int width;
+    private final int target, targetX, targetY;
+    private int end = -1;
+    private IntPath path;
+    private SearchLimits limits = SearchLimits.NONE;
+    private long deadline;
+    private int expansions;
+    private boolean limitReached;
+
+    JumpPointSearch(int id, GridGraph grid, SearchContext context, int start, int target) {
+        super(id);
+        this.grid = grid;
+        this.context = context;
+        this.target = target;
+        width = grid.getWidth();
+        targetX = grid.getX(target);
+        targetY = grid.getY(target);
+        context.beginRun(grid.getIdBound());
+        heap = new BinaryHeap(context);
+        context.reset(start);
+        context.distance[start] = 0;
+        context.seen[start] = true;
+        heap.add(start, estimate(start));
+    }
+
+    @Override
+    public boolean update() {
+        if (isFinished()) return true;
+
+        SearchContext context = this.context;
+        if (limits.isExceeded(expansions, deadline)) {
+            heap.clear();
+            limitReached = true;
+            return true;
+        }
+        int u = heap.pop();
+        expansions++;
+        if (u == target) {
+            end = u;
+            heap.clear();
+            return true;
+        }
+        context.processed[u] = true;
+        if (context.depth[u] >= limits.maxDepth) return isFinished();
+
+        int x = u % width, y = u / width;
+        int parent = context.prev[u];
+        if (parent == -1) {
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dy = -1; dy <= 1; dy++) {
+                    if (dx != 0 || dy != 0) addJumpPoint(u, x, y, dx, dy);
+                }
+            }
+        } else {
+            int dx = Integer.signum(x - parent % width), dy = Integer.signum(y - parent / width);
+            if (dx != 0 && dy != 0) {
+                // only the directions of the diagonal move can lead to cells which have no better path around u
+                addJumpPoint(u, x, y, dx, 0);
+                addJumpPoint(u, x, y, 0, dy);
+                addJumpPoint(u, x, y, dx, dy);
+            } else if (dx != 0) {
+                addJumpPoint(u, x, y, dx, 0);
+                addJumpPoint(u, x, y, dx, 1);
+                addJumpPoint(u, x, y, dx, -1);
+                addJumpPoint(u, x, y, 0, 1);
+                addJumpPoint(u, x, y, 0, -1);
+            } else {
+                addJumpPoint(u, x, y, 0, dy);
+                addJumpPoint(u, x, y, 1, dy);
+                addJumpPoint(u, x, y, -1, dy);
+                addJumpPoint(u, x, y, 1, 0);
+                addJumpPoint(u, x, y, -1, 0);
+            }
+        }
+        return isFinished();
+    }
+
+    private void addJumpPoint(int u, int x, int y, int dx, int dy) {
+        int v = jump(x, y, dx, dy);
+        if (v == -1) return;
+        SearchContext context = this.context;
+        context.reset(v);
+        if (context.processed[v]) return;
+        int distanceX = Math.abs(v % width - x), distanceY = Math.abs(v / width - y);
+        float newDistance = context.distance[u] + octile(distanceX, distanceY);
+        // every cell along the jump is an edge of the path
+        int depth = context.depth[u] + Math.max(distanceX, distanceY);
+        if (newDistance < context.distance[v] && newDistance <= limits.maxDistance && depth <= limits.maxDepth) {
+            context.distance[v] = newDistance;
+            context.prev[v] = u;
+            context.depth[v] = depth;
+            if (!context.seen[v]) {
+                heap.add(v, newDistance + estimate(v));
+                context.seen[v] = true;
+            } else {
+                heap.setValue(v, newDistance + estimate(v));
+            }
+        }
+    }
+
+    /**
+     * Move from the cell in the given direction until reaching a jump point, which is the target or a cell with a neighbour
+     * that can only be reached optimally through it.
+     * @return the jump point, or -1 if the move is blocked before reaching one
+     */
+    private int jump(int x, int y, int dx, int dy) {
+        GridGraph grid = this.grid;
+        boolean diagonal = dx != 0 && dy != 0;
+        while (true) {
+            if (!grid.isOpen(x + dx, y + dy)) return -1;
+            if (diagonal && (!grid.isOpen(x + dx, y) || !grid.isOpen(x, y + dy))) return -1;
+            x += dx;
+            y += dy;
+            if (x == targetX && y == targetY) return target;
+            if (diagonal) {
+                if (jump(x, y, dx, 0) != -1 || jump(x, y, 0, dy) != -1) return y * width + x;
+            } else if (dx != 0) {
+                if ((grid.isOpen(x, y - 1) && !grid.isOpen(x - dx, y - 1)) || (grid.isOpen(x, y + 1) && !grid.isOpen(x - dx, y + 1))) {
+                    return y * width + x;
+                }
+            } else {
+                if ((grid.isOpen(x - 1, y) && !grid.isOpen(x - 1, y - dy)) || (grid.isOpen(x + 1, y) && !grid.isOpen(x + 1, y - dy))) {
+                    return y * width + x;
+                }
+            }
+        }
+    }
+
+    private static float octile(int dx, int dy) {
+        return Math.max(dx, dy) + (SQRT2 - 1) * Math.min(dx, dy);
+    }
+
+    private float estimate(int v) {
+        return octile(Math.abs(v % width - targetX), Math.abs(v / width - targetY));
+    }
+
+    @Override
+    public boolean isFinished() {
+        return heap.isEmpty();
+    }
+
+    /**
+     * Limit how far the search may go. Any time budget is measured from this call. See {@link SearchLimits}.
+     */
+    public void setLimits(SearchLimits limits) {
+        this.limits = limits;
+        deadline = limits.getDeadline();
+    }
+
+    public SearchLimits getLimits() {
+        return limits;
+    }
+
+    /**
+     * @return whether the search was stopped by its limit on the number of expansions or on time
+     */
+    public boolean isLimitReached() {
+        return limitReached;
+    }
+
+    /**
+     * @return the number of jump points expanded so far
+     */
+    public int getExpansionCount() {
+        return expansions;
+    }
+
+    /**
+     * @return the path found, with the cells between consecutive jump points filled in, or an empty path if the target was not reached
+     */
+    public IntPath getPath() {
+        if (!isFinished()) return null;
+        if (path == null) {
+            path = end != -1 ? createPath() : IntPath.EMPTY_PATH;
+        }
+        return path;
+    }
+
+    private IntPath createPath() {
+        int count = 1;
+        for (int v = end; context.prev[v] != -1; v = context.prev[v]) {
+            int u = context.prev[v];
+            count += Math.max(Math.abs(v % width - u % width), Math.abs(v / width - u / width));
+        }
+        int[] cells = new int[count];
+        int index = count - 1;
+        cells[index] = end;
+        for (int v = end; context.prev[v] != -1; v = context.prev[v]) {
+            int u = context.prev[v];
+            int step = Integer.signum(u / width - v / width) * width + Integer.signum(u % width - v % width);
+            for (int cell = v + step; cell != u; cell += step) {
+                cells[--index] = cell;
+            }
+            cells[--index] = u;
+        }
+        return new IntPath(cells, context.distance[end]);
+    }
+
+    /**
+     * @return the length of the path found, or {@link Float#MAX_VALUE} if the target was not reached
+     */
+    float getDistance() {
+        return end != -1 ? context.distance[end] : Float.MAX_VALUE;
+    }
+
+}
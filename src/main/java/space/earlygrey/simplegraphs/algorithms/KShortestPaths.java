@@ -0,0 +1,239 @@
+/*
+MIT License
+
+Copyright (c) 2020 earlygrey
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package space.earlygrey.simplegraphs.algorithms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import space.earlygrey.simplegraphs.Path;
+
+/**
+ * Finds the k shortest loopless paths between two vertices using Yen's algorithm, with Lawler's improvement of only branching
+ * from each path after the point where it left the path it was branched from.
+ *
+ * Each branch is searched for without modifying the graph: the vertices of the path up to the branch are skipped, as are the
+ * edges out of the branch vertex taken by earlier paths which share the same root. The distance from every vertex to the
+ * target is found once with a backwards search. Skipping vertices and edges can only make paths longer, so these distances are
+ * an admissible heuristic for every branch search, and lead it almost straight to the target.
+ */
+class KShortestPaths<V> {
+
+    private final IndexedGraph<V> graph;
+    private final SearchContextPool contexts;
+    private final int start, target;
+
+    private float[] distances;
+    private boolean[] blocked;
+    private int[] blockedNext = new int[4];
+    private int blockedNextCount;
+    private float spurCost;
+
+    KShortestPaths(IndexedGraph<V> graph, SearchContextPool contexts, int start, int target) {
+        this.graph = graph;
+        this.contexts = contexts;
+        this.start = start;
+        this.target = target;
+    }
+
+    List<Path<V>> find(int k) {
+        if (k < 1) throw new IllegalArgumentException("The number of paths must be at least 1.");
+        List<Path<V>> paths = new ArrayList<>();
+        FlowField<V> field = new FlowField<>(graph, contexts, target);
+        distances = field.getDistances();
+        if (distances[start] == Float.MAX_VALUE) return paths;
+
+        List<Candidate> accepted = new ArrayList<>();
+        PriorityQueue<Candidate> candidates = new PriorityQueue<>();
+        Set<Candidate> found = new HashSet<>();
+        int[] next = field.getNextIds();
+        int length = 1;
+        for (int u = start; u != target; u = next[u]) {
+            length++;
+        }
+        int[] first = new int[length];
+        for (int u = start, i = 0; i < length; u = next[u], i++) {
+            first[i] = u;
+        }
+        Candidate shortest = new Candidate(first, distances[start], 0);
+        candidates.add(shortest);
+        found.add(shortest);
+
+        blocked = new boolean[distances.length];
+        SearchContext context = contexts.obtain();
+        try {
+            while (!candidates.isEmpty()) {
+                Candidate path = candidates.poll();
+                accepted.add(path);
+                paths.add(createPath(path));
+                if (accepted.size() == k) break;
+
+                int[] ids = path.ids;
+                float rootCost = 0;
+                for (int i = 0; i < ids.length - 1; i++) {
+                    int spur = ids[i];
+                    if (i >= path.deviation) {
+                        // skip the edges taken by earlier paths which share this root
+                        blockedNextCount = 0;
+                        for (Candidate other : accepted) {
+                            if (other.ids.length > i + 1 && sharesRoot(other.ids, ids, i)) blockNext(other.ids[i + 1]);
+                        }
+                        int[] spurPath = findSpurPath(context, spur);
+                        if (spurPath != null) {
+                            int[] candidateIds = Arrays.copyOf(ids, i + spurPath.length);
+                            System.arraycopy(spurPath, 0, candidateIds, i, spurPath.length);
+                            Candidate candidate = new Candidate(candidateIds, rootCost + spurCost, i);
+                            if (found.add(candidate)) candidates.add(candidate);
+                        }
+                    }
+                    blocked[spur] = true;
+                    rootCost += getWeight(spur, ids[i + 1]);
+                }
+                for (int id : ids) {
+                    blocked[id] = false;
+                }
+            }
+        } finally {
+            contexts.free(context);
+        }
+        return paths;
+    }
+
+    private static boolean sharesRoot(int[] a, int[] b, int end) {
+        for (int i = 0; i <= end; i++) {
+            if (a[i] != b[i]) return false;
+        }
+        return true;
+    }
+
+    private void blockNext(int id) {
+        if (blockedNextCount == blockedNext.length) blockedNext = Arrays.copyOf(blockedNext, blockedNextCount << 1);
+        blockedNext[blockedNextCount++] = id;
+    }
+
+    private boolean isBlockedNext(int id) {
+        for (int i = 0; i < blockedNextCount; i++) {
+            if (blockedNext[i] == id) return true;
+        }
+        return false;
+    }
+
+    // the lowest weight of an edge from u to v
+    private float getWeight(int u, int v) {
+        float weight = Float.MAX_VALUE;
+        int degree = graph.getOutDegree(u);
+        for (int i = 0; i < degree; i++) {
+            if (graph.getOutTarget(u, i) == v) weight = Math.min(weight, graph.getOutWeight(u, i));
+        }
+        return weight;
+    }
+
+    // A* from the spur vertex to the target avoiding the blocked vertices and edges, returning the ids along the path and setting spurCost
+    private int[] findSpurPath(SearchContext context, int spur) {
+        float[] distances = this.distances;
+        context.beginRun(distances.length);
+        BinaryHeap heap = new BinaryHeap(context);
+        context.reset(spur);
+        context.distance[spur] = 0;
+        context.seen[spur] = true;
+        heap.add(spur, distances[spur]);
+        while (heap.notEmpty()) {
+            int u = heap.pop();
+            if (u == target) break;
+            context.processed[u] = true;
+            float distance = context.distance[u];
+            int degree = graph.getOutDegree(u);
+            for (int i = 0; i < degree; i++) {
+                int v = graph.getOutTarget(u, i);
+                if (blocked[v] || distances[v] == Float.MAX_VALUE || (u == spur && isBlockedNext(v))) continue;
+                context.reset(v);
+                if (context.processed[v]) continue;
+                float newDistance = distance + graph.getOutWeight(u, i);
+                if (newDistance < context.distance[v]) {
+                    context.distance[v] = newDistance;
+                    context.prev[v] = u;
+                    if (!context.seen[v]) {
+                        heap.add(v, newDistance + distances[v]);
+                        context.seen[v] = true;
+                    } else {
+                        heap.setValue(v, newDistance + distances[v]);
+                    }
+                }
+            }
+        }
+        if (!context.isVisited(target) || context.distance[target] == Float.MAX_VALUE) return null;
+        spurCost = context.distance[target];
+        int length = 1;
+        for (int u = target; u != spur; u = context.prev[u]) {
+            length++;
+        }
+        int[] ids = new int[length];
+        for (int u = target, i = length - 1; i >= 0; u = context.prev[u], i--) {
+            ids[i] = u;
+        }
+        return ids;
+    }
+
+    private Path<V> createPath(Candidate candidate) {
+        AlgorithmPath<V> path = new AlgorithmPath<>(candidate.cost);
+        for (int id : candidate.ids) {
+            path.add(graph.getVertex(id));
+        }
+        return path;
+    }
+
+    private static class Candidate implements Comparable<Candidate> {
+
+        final int[] ids;
+        final float cost;
+        // the index of the vertex at which this path left the path it was branched from
+        final int deviation;
+
+        Candidate(int[] ids, float cost, int deviation) {
+            this.ids = ids;
+            this.cost = cost;
+            this.deviation = deviation;
+        }
+
+        @Override
+        public int compareTo(Candidate o) {
+            int c = Float.compare(cost, o.cost);
+            return c != 0 ? c : Integer.compare(ids.length, o.ids.length);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Candidate && Arrays.equals(ids, ((Candidate) o).ids);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(ids);
+        }
+    }
+
+}
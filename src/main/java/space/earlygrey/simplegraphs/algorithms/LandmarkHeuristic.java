@@ -0,0 +1,198 @@
+/*
+MIT License
+
+Copyright (c) 2020 earlygrey
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package space.earlygrey.simplegraphs.algorithms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import space.earlygrey.simplegraphs.Graph;
+import space.earlygrey.simplegraphs.utils.Heuristic;
+import space.earlygrey.simplegraphs.utils.IntHeuristic;
+
+/**
+ * <p>A {@link Heuristic} which needs no knowledge of the vertices, such as coordinates, computed from the distances between
+ * every vertex and a small set of landmark vertices (the ALT technique). For a landmark L, the triangle inequality gives
+ * d(u, v) &#8805; d(L, v) - d(L, u) and d(u, v) &#8805; d(u, L) - d(v, L), and the estimate is the largest of these bounds.</p>
+ *
+ * <p>Landmarks are chosen by farthest selection: each new landmark is the vertex farthest from those already chosen, so that
+ * they end up spread around the edges of the graph, where they give the tightest bounds. Vertices in other connected components
+ * are chosen first, so every component gets a landmark if there are enough.</p>
+ *
+ * <p>The heuristic is admissible and consistent, so it can also be used with a bidirectional search. It is computed for the graph
+ * as it is when the heuristic is created, and should be created again after the graph is modified. As the ids of removed vertices
+ * are given to vertices added later, the distances computed before a modification may overestimate those after it, so once a
+ * {@link Graph} is modified every estimate is 0, which keeps searches correct but no longer guides them. A heuristic created
+ * for an {@link IndexedGraph} can not tell when it is modified, so must not be used after that.</p>
+ *
+ * @param <V> the vertex type
+ */
+public class LandmarkHeuristic<V> implements Heuristic<V> {
+
+    private final IndexedGraph<V> graph;
+    // the graph whose modifications make the distances stale, and its modification count when they were computed
+    private final Graph<V> source;
+    private final int modificationCount;
+    private final int[] landmarks;
+    private final int idBound;
+    // the distance from landmark i to the vertex with id v is at fromLandmark[v * landmarks.length + i], and likewise for toLandmark
+    private final float[] fromLandmark, toLandmark;
+    private final IntHeuristic idHeuristic = this::getEstimate;
+
+    /**
+     * Choose landmarks in the graph and compute the distances between them and every vertex.
+     * @param graph the graph
+     * @param landmarkCount the maximum number of landmarks to choose. More landmarks give better estimates, but use more memory
+     *                      and make each estimate slower.
+     */
+    public LandmarkHeuristic(Graph<V> graph, int landmarkCount) {
+        this(graph.internals(), graph, landmarkCount);
+    }
+
+    /**
+     * Choose landmarks in the graph and compute the distances between them and every vertex.
+     * @param graph the graph, which must track incoming edges if it is directed, and must not be modified while the heuristic is used
+     * @param landmarkCount the maximum number of landmarks to choose. More landmarks give better estimates, but use more memory
+     *                      and make each estimate slower.
+     */
+    public LandmarkHeuristic(IndexedGraph<V> graph, int landmarkCount) {
+        this(graph, null, landmarkCount);
+    }
+
+    private LandmarkHeuristic(IndexedGraph<V> graph, Graph<V> source, int landmarkCount) {
+        if (landmarkCount < 1) throw new IllegalArgumentException("At least one landmark is needed.");
+        this.graph = graph;
+        this.source = source;
+        modificationCount = source != null ? source.getModificationCount() : 0;
+        idBound = graph.getIdBound();
+
+        int[] chosen = new int[landmarkCount];
+        int count = 0;
+        // the distance from the nearest landmark chosen so far, used to pick the next landmark
+        float[] nearest = new float[idBound];
+        Arrays.fill(nearest, Float.MAX_VALUE);
+        float[][] from = new float[landmarkCount][], to = new float[landmarkCount][];
+
+        SearchContext context = new SearchContext(idBound);
+        IndexedGraph<V> reversed = graph.isDirected() ? new ReversedGraph<>(graph) : graph;
+        int landmark = firstVertex(graph);
+        while (landmark != -1 && count < landmarkCount) {
+            from[count] = findDistances(graph, context, landmark);
+            to[count] = graph.isDirected() ? findDistances(reversed, context, landmark) : from[count];
+            chosen[count++] = landmark;
+
+            landmark = -1;
+            float farthest = -1;
+            for (int v = 0; v < idBound; v++) {
+                if (graph.getVertex(v) == null) continue;
+                nearest[v] = Math.min(nearest[v], from[count - 1][v]);
+                if (nearest[v] > farthest && nearest[v] > 0) {
+                    farthest = nearest[v];
+                    landmark = v;
+                }
+            }
+        }
+
+        landmarks = Arrays.copyOf(chosen, count);
+        fromLandmark = new float[idBound * count];
+        toLandmark = new float[idBound * count];
+        for (int i = 0; i < count; i++) {
+            for (int v = 0; v < idBound; v++) {
+                fromLandmark[v * count + i] = from[i][v];
+                toLandmark[v * count + i] = to[i][v];
+            }
+        }
+    }
+
+    private static <V> int firstVertex(IndexedGraph<V> graph) {
+        for (int v = 0; v < graph.getIdBound(); v++) {
+            if (graph.getVertex(v) != null) return v;
+        }
+        return -1;
+    }
+
+    /**
+     * Run Dijkstra's algorithm from the vertex over the whole graph.
+     * @return the distance to every vertex id, which is {@link Float#MAX_VALUE} for vertices which can not be reached
+     */
+    private static <V> float[] findDistances(IndexedGraph<V> graph, SearchContext context, int start) {
+        new AStarSearch<>(0, graph, context, start, -1, null, null).finish();
+        float[] distances = new float[graph.getIdBound()];
+        for (int v = 0; v < distances.length; v++) {
+            distances[v] = context.isVisited(v) ? context.distance[v] : Float.MAX_VALUE;
+        }
+        return distances;
+    }
+
+    @Override
+    public float getEstimate(V u, V v) {
+        int a = graph.getId(u), b = graph.getId(v);
+        if (a == -1 || b == -1) return 0;
+        return getEstimate(a, b);
+    }
+
+    /**
+     * @return an estimate of the distance between the vertices with the given ids
+     */
+    float getEstimate(int a, int b) {
+        if (a >= idBound || b >= idBound || isStale()) return 0;
+        int count = landmarks.length;
+        float[] fromLandmark = this.fromLandmark, toLandmark = this.toLandmark;
+        float estimate = 0;
+        for (int i = a * count, j = b * count, end = i + count; i < end; i++, j++) {
+            float fromA = fromLandmark[i], fromB = fromLandmark[j];
+            if (fromA != Float.MAX_VALUE && fromB != Float.MAX_VALUE) estimate = Math.max(estimate, fromB - fromA);
+            float toA = toLandmark[i], toB = toLandmark[j];
+            if (toA != Float.MAX_VALUE && toB != Float.MAX_VALUE) estimate = Math.max(estimate, toA - toB);
+        }
+        return estimate;
+    }
+
+    /**
+     * @return whether the graph has been modified since the distances were computed
+     */
+    private boolean isStale() {
+        return source != null && source.getModificationCount() != modificationCount;
+    }
+
+    /**
+     * @return a heuristic over the ids of the given graph which skips looking up the ids of the vertices, or null if this
+     * heuristic was computed for another graph. Once the graph is modified the estimates are 0, as for {@link #getEstimate(Object, Object)}.
+     */
+    IntHeuristic getIdHeuristic(IndexedGraph<V> graph) {
+        return graph == this.graph ? idHeuristic : null;
+    }
+
+    /**
+     * @return the landmarks which were chosen
+     */
+    public List<V> getLandmarks() {
+        List<V> vertices = new ArrayList<>(landmarks.length);
+        for (int landmark : landmarks) {
+            vertices.add(graph.getVertex(landmark));
+        }
+        return vertices;
+    }
+
+}
@@ -0,0 +1,136 @@
+/*
+MIT License
+
+Copyright (c) 2020 earlygrey
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package space.earlygrey.simplegraphs.algorithms;
+
+/**
+ * A binary min heap of (value, id) entries which never moves an existing entry when a value changes. Instead a new entry is
+ * added, and the current value of each id is held in {@link SearchContext#heapValue}, so that entries whose value no longer
+ * matches are stale and are discarded when they reach the top. This avoids tracking the position of each id at the cost of a
+ * larger heap, which can be faster when values change rarely.
+ */
+class LazyHeap extends IdQueue {
+
+    private final SearchContext context;
+    private int[] ids;
+    private float[] values;
+    // the number of entries, including stale ones
+    private int entryCount;
+
+    LazyHeap(SearchContext context) {
+        this(context, 16);
+    }
+
+    LazyHeap(SearchContext context, int capacity) {
+        this.context = context;
+        ids = new int[capacity];
+        values = new float[capacity];
+    }
+
+    @Override
+    void add(int id, float value) {
+        push(id, value);
+        size++;
+    }
+
+    @Override
+    int peek() {
+        removeStale();
+        return ids[0];
+    }
+
+    @Override
+    int pop() {
+        removeStale();
+        int removed = ids[0];
+        removeTop();
+        // marks any remaining entries for this id as stale
+        context.heapValue[removed] = Float.NaN;
+        size--;
+        return removed;
+    }
+
+    @Override
+    void setValue(int id, float value) {
+        push(id, value);
+    }
+
+    @Override
+    void clear() {
+        super.clear();
+        entryCount = 0;
+    }
+
+    private void push(int id, float value) {
+        if (entryCount == ids.length) {
+            int[] newIds = new int[entryCount << 1];
+            float[] newValues = new float[entryCount << 1];
+            System.arraycopy(ids, 0, newIds, 0, entryCount);
+            System.arraycopy(values, 0, newValues, 0, entryCount);
+            ids = newIds;
+            values = newValues;
+        }
+        context.heapValue[id] = value;
+        int[] ids = this.ids;
+        float[] values = this.values;
+        int index = entryCount++;
+        while (index > 0) {
+            int parentIndex = (index - 1) >> 1;
+            if (value >= values[parentIndex]) break;
+            ids[index] = ids[parentIndex];
+            values[index] = values[parentIndex];
+            index = parentIndex;
+        }
+        ids[index] = id;
+        values[index] = value;
+    }
+
+    private void removeStale() {
+        float[] heapValue = context.heapValue;
+        while (values[0] != heapValue[ids[0]]) {
+            removeTop();
+        }
+    }
+
+    private void removeTop() {
+        int[] ids = this.ids;
+        float[] values = this.values;
+        int count = --entryCount;
+        if (count == 0) return;
+        int id = ids[count];
+        float value = values[count];
+        int index = 0;
+        while (true) {
+            int childIndex = (index << 1) + 1;
+            if (childIndex >= count) break;
+            if (childIndex + 1 < count && values[childIndex + 1] < values[childIndex]) childIndex++;
+            if (values[childIndex] >= value) break;
+            ids[index] = ids[childIndex];
+            values[index] = values[childIndex];
+            index = childIndex;
+        }
+        ids[index] = id;
+        values[index] = value;
+    }
+
+}
@@ -15,6 +15,8 @@ public class MinimumWeightSpanningTree<V> extends Algorithm<V>{
     private UndirectedGraph<V> spanningTree;
     private Queue<Connection<V>> edgeQueue;
     private int finishAt;
+    // union-find state, indexed by node id
+    private final int[] parent, rank;
 
     // adapted from https://www.baeldung.com/java-spanning-trees-kruskal
 
@@ -30,6 +32,13 @@ public class MinimumWeightSpanningTree<V> extends Algorithm<V>{
                 .collect(Collectors.toCollection(ArrayDeque::new));
 
         finishAt = graph.isConnected() ? graph.size() - 1 : -1;
+
+        int n = graph.internals().getIdBound();
+        parent = new int[n];
+        rank = new int[n];
+        for (int i = 0; i < n; i++) {
+            parent[i] = i;
+        }
     }
 
     @Override
@@ -38,7 +47,7 @@ public class MinimumWeightSpanningTree<V> extends Algorithm<V>{
 
         Connection<V> edge = edgeQueue.poll();
 
-        if (doesEdgeCreateCycle(edge.getNodeA(), edge.getNodeB(), id)) {
+        if (doesEdgeCreateCycle(edge.getNodeA(), edge.getNodeB())) {
             return false;
         }
         spanningTree.addEdge(edge.getA(), edge.getB(), edge.getWeightFunction());
@@ -46,38 +55,36 @@ public class MinimumWeightSpanningTree<V> extends Algorithm<V>{
         return isFinished();
     }
 
-    private void unionByRank(Node<V> rootU, Node<V> rootV) {
-        if (rootU.getIndex() < rootV.getIndex()) {
-            rootU.setPrev(rootV);
+    private void unionByRank(int rootU, int rootV) {
+        if (rank[rootU] < rank[rootV]) {
+            parent[rootU] = rootV;
         } else {
-            rootV.setPrev(rootU);
-            if (rootU.getIndex() == rootV.getIndex()) rootU.setIndex(rootU.getIndex() + 1);
+            parent[rootV] = rootU;
+            if (rank[rootU] == rank[rootV]) rank[rootU]++;
         }
     }
 
-    private Node<V> find(Node<V> node) {
-        if (node.equals(node.getPrev())) {
-            return node;
-        } else {
-            return find(node.getPrev());
+    private int find(int id) {
+        while (parent[id] != id) {
+            id = parent[id];
         }
+        return id;
     }
-    private Node<V> pathCompressionFind(Node<V> node) {
-        if (node.equals(node.getPrev())) {
-            return node;
+
+    private int pathCompressionFind(int id) {
+        if (parent[id] == id) {
+            return id;
         } else {
-            Node<V> parentNode = find(node.getPrev());
-            node.setPrev(parentNode);
-            return parentNode;
+            int root = find(parent[id]);
+            parent[id] = root;
+            return root;
         }
     }
 
-    private boolean doesEdgeCreateCycle(Node<V> u, Node<V> v, int runID) {
-        if (u.resetAlgorithmAttribs(runID)) u.setPrev(u);
-        if (v.resetAlgorithmAttribs(runID)) v.setPrev(v);
-        Node<V> rootU = pathCompressionFind(u);
-        Node<V> rootV = pathCompressionFind(v);
-        if (rootU.equals(rootV)) {
+    private boolean doesEdgeCreateCycle(Node<V> u, Node<V> v) {
+        int rootU = pathCompressionFind(u.getId());
+        int rootV = pathCompressionFind(v.getId());
+        if (rootU == rootV) {
             return true;
         }
         unionByRank(rootU, rootV);
@@ -0,0 +1,176 @@
+/*
+MIT License
+
+Copyright (c) 2020 earlygrey
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package space.earlygrey.simplegraphs.algorithms;
+
+/**
+ * A pairing heap of vertex ids. Nodes are held in parallel arrays and allocated in the order ids are added, and the node of
+ * each id is held in {@link SearchContext#heapIndex}. Adding an id and decreasing its value take constant time, and the work of
+ * restructuring the heap is deferred until the minimum is removed, which suits searches that decrease many values.
+ */
+class PairingHeap extends IdQueue {
+
+    private static final int NONE = -1;
+
+    private final SearchContext context;
+    private int[] nodeIds;
+    private float[] values;
+    // the leftmost child, the next sibling, and either the previous sibling or the parent if the node is the leftmost child
+    private int[] child, sibling, prev;
+    private int[] pairs = new int[16];
+    private int root = NONE;
+    private int nodeCount;
+
+    PairingHeap(SearchContext context) {
+        this(context, 16);
+    }
+
+    PairingHeap(SearchContext context, int capacity) {
+        this.context = context;
+        nodeIds = new int[capacity];
+        values = new float[capacity];
+        child = new int[capacity];
+        sibling = new int[capacity];
+        prev = new int[capacity];
+    }
+
+    @Override
+    void add(int id, float value) {
+        if (nodeCount == nodeIds.length) resize(nodeCount << 1);
+        int node = nodeCount++;
+        nodeIds[node] = id;
+        values[node] = value;
+        child[node] = sibling[node] = prev[node] = NONE;
+        context.heapIndex[id] = node;
+        root = meld(root, node);
+        size++;
+    }
+
+    @Override
+    int peek() {
+        return nodeIds[root];
+    }
+
+    @Override
+    int pop() {
+        int node = root;
+        root = mergePairs(child[node]);
+        size--;
+        return nodeIds[node];
+    }
+
+    @Override
+    void setValue(int id, float value) {
+        int node = context.heapIndex[id];
+        float oldValue = values[node];
+        values[node] = value;
+        if (value < oldValue) {
+            if (node == root) return;
+            cut(node);
+            root = meld(root, node);
+        } else {
+            int children = child[node];
+            child[node] = NONE;
+            if (node != root) {
+                cut(node);
+                root = meld(root, meld(node, mergePairs(children)));
+            } else {
+                root = meld(node, mergePairs(children));
+            }
+        }
+    }
+
+    @Override
+    void clear() {
+        super.clear();
+        root = NONE;
+        nodeCount = 0;
+    }
+
+    // makes the root with the larger value the leftmost child of the other, and returns the new root
+    private int meld(int a, int b) {
+        if (a == NONE) return b;
+        if (b == NONE) return a;
+        if (values[b] < values[a]) {
+            int t = a;
+            a = b;
+            b = t;
+        }
+        int first = child[a];
+        sibling[b] = first;
+        if (first != NONE) prev[first] = b;
+        prev[b] = a;
+        child[a] = b;
+        return a;
+    }
+
+    // removes the node, along with its subtree, from its parent's list of children
+    private void cut(int node) {
+        int previous = prev[node], next = sibling[node];
+        if (child[previous] == node) child[previous] = next;
+        else sibling[previous] = next;
+        if (next != NONE) prev[next] = previous;
+        sibling[node] = prev[node] = NONE;
+    }
+
+    // melds a list of siblings into one tree, first in pairs from left to right, then those from right to left
+    private int mergePairs(int first) {
+        if (first == NONE) return NONE;
+        int count = 0;
+        int node = first;
+        while (node != NONE) {
+            int a = node, b = sibling[a];
+            node = b == NONE ? NONE : sibling[b];
+            sibling[a] = prev[a] = NONE;
+            if (b != NONE) sibling[b] = prev[b] = NONE;
+            if (count == pairs.length) {
+                int[] newPairs = new int[count << 1];
+                System.arraycopy(pairs, 0, newPairs, 0, count);
+                pairs = newPairs;
+            }
+            pairs[count++] = meld(a, b);
+        }
+        int result = pairs[--count];
+        while (count > 0) {
+            result = meld(pairs[--count], result);
+        }
+        return result;
+    }
+
+    private void resize(int capacity) {
+        nodeIds = copy(nodeIds, capacity);
+        child = copy(child, capacity);
+        sibling = copy(sibling, capacity);
+        prev = copy(prev, capacity);
+        float[] newValues = new float[capacity];
+        System.arraycopy(values, 0, newValues, 0, nodeCount);
+        values = newValues;
+    }
+
+    private int[] copy(int[] array, int capacity) {
+        int[] newArray = new int[capacity];
+        System.arraycopy(array, 0, newArray, 0, nodeCount);
+        return newArray;
+    }
+
+}
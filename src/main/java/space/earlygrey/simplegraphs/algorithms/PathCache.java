@@ -0,0 +1,189 @@
+/*
+MIT License
+
+Copyright (c) 2020 earlygrey
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package space.earlygrey.simplegraphs.algorithms;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import space.earlygrey.simplegraphs.Graph;
+import space.earlygrey.simplegraphs.Path;
+import space.earlygrey.simplegraphs.utils.Heuristic;
+
+/**
+ * <p>A least recently used cache of shortest paths, keyed by start vertex, target vertex and heuristic. A cache is enabled on a
+ * graph with {@link Algorithms#setPathCache(PathCache)}, after which repeated calls to
+ * {@link Algorithms#findShortestPath(Object, Object, Heuristic) findShortestPath} return the cached path instead of searching again.
+ * Searches with a {@link space.earlygrey.simplegraphs.utils.SearchProcessor SearchProcessor} are not cached.</p>
+ *
+ * <p>The whole cache is invalidated whenever the graph is modified, as given by {@link Graph#getModificationCount()}. Changes
+ * to the values returned by an edge's weight function are not detected, so if weights depend on outside state, call
+ * {@link #clear()} when that state changes. Heuristics are compared by identity, so the same heuristic instance should be reused
+ * for each query.</p>
+ *
+ * <p>Cached paths are shared between callers, and can not be modified. A cache should only be used by one graph.</p>
+ *
+ * @param <V> the vertex type
+ */
+public class PathCache<V> {
+
+    private final int capacity;
+    private final LinkedHashMap<Key<V>, Path<V>> paths;
+    private int modificationCount;
+    private long hits, misses, evictions, invalidations;
+
+    /**
+     * @param capacity the maximum number of paths to hold, after which the least recently used path is evicted
+     */
+    public PathCache(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("The capacity of a cache must be at least 1.");
+        this.capacity = capacity;
+        paths = new LinkedHashMap<Key<V>, Path<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key<V>, Path<V>> eldest) {
+                if (size() <= PathCache.this.capacity) return false;
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+    /**
+     * @return the cached path, or null if there is none or the graph has been modified since it was cached
+     */
+    synchronized Path<V> get(V start, V target, Heuristic<V> heuristic, int modificationCount) {
+        validate(modificationCount);
+        Path<V> path = paths.get(new Key<>(start, target, heuristic));
+        if (path != null) hits++;
+        else misses++;
+        return path;
+    }
+
+    synchronized void put(V start, V target, Heuristic<V> heuristic, Path<V> path, int modificationCount) {
+        validate(modificationCount);
+        if (path instanceof AlgorithmPath) ((AlgorithmPath<V>) path).makeFixed();
+        paths.put(new Key<>(start, target, heuristic), path);
+    }
+
+    private void validate(int modificationCount) {
+        if (modificationCount == this.modificationCount) return;
+        if (!paths.isEmpty()) {
+            paths.clear();
+            invalidations++;
+        }
+        this.modificationCount = modificationCount;
+    }
+
+    /**
+     * Remove every path from the cache. The statistics are not reset.
+     */
+    public synchronized void clear() {
+        paths.clear();
+    }
+
+    /**
+     * Reset the hit, miss, eviction and invalidation counts to 0.
+     */
+    public synchronized void resetStatistics() {
+        hits = misses = evictions = invalidations = 0;
+    }
+
+    /**
+     * @return the number of paths in the cache
+     */
+    public synchronized int size() {
+        return paths.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return the number of queries answered from the cache
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return the number of queries which were not in the cache, and needed a search
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return the number of paths removed to make room for newer ones
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return the number of times the cache was emptied because the graph was modified
+     */
+    public synchronized long getInvalidations() {
+        return invalidations;
+    }
+
+    /**
+     * @return the fraction of queries answered from the cache, or 0 if there have been none
+     */
+    public synchronized float getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (float) hits / total;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "PathCache{size=" + paths.size() + ", capacity=" + capacity + ", hits=" + hits + ", misses=" + misses
+                + ", evictions=" + evictions + ", invalidations=" + invalidations + "}";
+    }
+
+    private static class Key<V> {
+
+        final V start, target;
+        final Heuristic<V> heuristic;
+
+        Key(V start, V target, Heuristic<V> heuristic) {
+            this.start = start;
+            this.target = target;
+            this.heuristic = heuristic;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key<?> key = (Key<?>) o;
+            return start.equals(key.start) && target.equals(key.target) && heuristic == key.heuristic;
+        }
+
+        @Override
+        public int hashCode() {
+            return (start.hashCode() * 31 + target.hashCode()) * 31 + System.identityHashCode(heuristic);
+        }
+    }
+
+}
@@ -0,0 +1,131 @@
+/*
+MIT License
+
+Copyright (c) 2020 earlygrey
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package space.earlygrey.simplegraphs.algorithms;
+
+/**
+ * A 4-ary min heap of vertex ids. The values are held in an array parallel to the ids rather than looked up by id, so that
+ * comparing the children of a node reads adjacent memory. The heap is shallower than a binary heap, which makes adding and
+ * decreasing values cheaper, at the cost of comparing more children when removing the minimum.
+ */
+class QuaternaryHeap extends IdQueue {
+
+    private int[] ids;
+    private float[] values;
+    private final SearchContext context;
+
+    QuaternaryHeap(SearchContext context) {
+        this(context, 16);
+    }
+
+    QuaternaryHeap(SearchContext context, int capacity) {
+        this.context = context;
+        ids = new int[capacity];
+        values = new float[capacity];
+    }
+
+    @Override
+    void add(int id, float value) {
+        if (size == ids.length) {
+            int[] newIds = new int[size << 1];
+            float[] newValues = new float[size << 1];
+            System.arraycopy(ids, 0, newIds, 0, size);
+            System.arraycopy(values, 0, newValues, 0, size);
+            ids = newIds;
+            values = newValues;
+        }
+        up(size++, id, value);
+    }
+
+    @Override
+    int peek() {
+        return ids[0];
+    }
+
+    @Override
+    int pop() {
+        int removed = ids[0];
+        if (--size > 0) down(0, ids[size], values[size]);
+        return removed;
+    }
+
+    @Override
+    void setValue(int id, float value) {
+        int index = context.heapIndex[id];
+        if (value < values[index])
+            up(index, id, value);
+        else
+            down(index, id, value);
+    }
+
+    // moves the hole at index towards the root until the id can be placed in it
+    private void up(int index, int id, float value) {
+        int[] ids = this.ids;
+        float[] values = this.values;
+        int[] heapIndex = context.heapIndex;
+        while (index > 0) {
+            int parentIndex = (index - 1) >> 2;
+            float parentValue = values[parentIndex];
+            if (value >= parentValue) break;
+            int parent = ids[parentIndex];
+            ids[index] = parent;
+            values[index] = parentValue;
+            heapIndex[parent] = index;
+            index = parentIndex;
+        }
+        ids[index] = id;
+        values[index] = value;
+        heapIndex[id] = index;
+    }
+
+    // moves the hole at index towards the leaves until the id can be placed in it
+    private void down(int index, int id, float value) {
+        int[] ids = this.ids;
+        float[] values = this.values;
+        int[] heapIndex = context.heapIndex;
+        int size = this.size;
+        while (true) {
+            int first = (index << 2) + 1;
+            if (first >= size) break;
+            int last = Math.min(first + 4, size);
+            int minIndex = first;
+            float minValue = values[first];
+            for (int i = first + 1; i < last; i++) {
+                if (values[i] < minValue) {
+                    minValue = values[i];
+                    minIndex = i;
+                }
+            }
+            if (minValue >= value) break;
+            int child = ids[minIndex];
+            ids[index] = child;
+            values[index] = minValue;
+            heapIndex[child] = index;
+            index = minIndex;
+        }
+        ids[index] = id;
+        values[index] = value;
+        heapIndex[id] = index;
+    }
+
+}
@@ -0,0 +1,139 @@
+/*
+MIT License
+
+Copyright (c) 2020 earlygrey
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package space.earlygrey.simplegraphs.algorithms;
+
+/**
+ * The priority queue used to order vertices in Dijkstra's algorithm and A* search. Which is fastest depends on the graph and
+ * heuristic, so it is worth measuring on real data. The default is {@link #AUTO}, which uses a binary heap unless a bucket queue
+ * applies.
+ */
+public enum QueueType {
+
+    /**
+     * A binary heap, which is a good all-rounder, and is what {@link #AUTO}, the default, uses unless a bucket queue applies.
+     */
+    BINARY_HEAP {
+        @Override
+        IdQueue create(SearchContext context) {
+            return new BinaryHeap(context);
+        }
+    },
+
+    /**
+     * A 4-ary heap which holds its values in a flat array. It is shallower than a binary heap, and usually a little faster on
+     * large graphs.
+     */
+    QUATERNARY_HEAP {
+        @Override
+        IdQueue create(SearchContext context) {
+            return new QuaternaryHeap(context);
+        }
+    },
+
+    /**
+     * A pairing heap, which can decrease a value in constant time, and can be faster on dense graphs where values are decreased
+     * often.
+     */
+    PAIRING_HEAP {
+        @Override
+        IdQueue create(SearchContext context) {
+            return new PairingHeap(context);
+        }
+    },
+
+    /**
+     * A binary heap which adds a new entry when a value is decreased and skips outdated entries when they are removed, rather
+     * than tracking the position of each vertex. It can be faster on sparse graphs where values are rarely decreased.
+     */
+    LAZY_HEAP {
+        @Override
+        IdQueue create(SearchContext context) {
+            return new LazyHeap(context);
+        }
+    },
+
+    /**
+     * A bucket queue (Dial's algorithm), which keeps one bucket for each integer value. It is fastest when the weights are small.
+     * Values can only be ordered correctly if they are integers, so it is only used for searches without a heuristic on graphs
+     * whose edge weights are known to be integers (see {@link IndexedGraph#getIntegerWeightBound()}). Other searches use a
+     * {@link #BINARY_HEAP binary heap} instead, as rounding their values would give paths which are not shortest.
+     */
+    BUCKET_QUEUE {
+        @Override
+        IdQueue create(SearchContext context) {
+            return new BucketQueue(context);
+        }
+
+        @Override
+        IdQueue create(SearchContext context, IndexedGraph<?> graph, boolean hasHeuristic) {
+            int bound = graph.getIntegerWeightBound();
+            if (hasHeuristic || bound < 0) return BINARY_HEAP.create(context);
+            return bound <= MAX_BUCKETS ? new BucketQueue(context, bound + 1) : create(context);
+        }
+    },
+
+    /**
+     * A radix heap, which can be used for Dijkstra's algorithm on any graph, or for A* search with a consistent heuristic. It
+     * relies on the vertices being removed in order of increasing value, so it does not find shortest paths with a heuristic
+     * which is admissible but not consistent.
+     */
+    RADIX_HEAP {
+        @Override
+        IdQueue create(SearchContext context) {
+            return new RadixHeap(context);
+        }
+    },
+
+    /**
+     * Use a {@link #BUCKET_QUEUE bucket queue} for searches without a heuristic on graphs whose edge weights are known to be
+     * small integers (see {@link IndexedGraph#getIntegerWeightBound()}), such as a {@link space.earlygrey.simplegraphs.CompactGraph}
+     * with integer weights, and a {@link #BINARY_HEAP binary heap} otherwise. This is the default.
+     */
+    AUTO {
+        @Override
+        IdQueue create(SearchContext context) {
+            return new BinaryHeap(context);
+        }
+
+        @Override
+        IdQueue create(SearchContext context, IndexedGraph<?> graph, boolean hasHeuristic) {
+            int bound = graph.getIntegerWeightBound();
+            if (!hasHeuristic && bound >= 0 && bound <= MAX_BUCKETS) return new BucketQueue(context, bound + 1);
+            return create(context);
+        }
+    };
+
+    // the largest weight bound for which a bucket queue is chosen automatically, or sized to the weights up front
+    static final int MAX_BUCKETS = 1 << 16;
+
+    abstract IdQueue create(SearchContext context);
+
+    /**
+     * Create a queue for a search over the given graph.
+     */
+    IdQueue create(SearchContext context, IndexedGraph<?> graph, boolean hasHeuristic) {
+        return create(context);
+    }
+
+}
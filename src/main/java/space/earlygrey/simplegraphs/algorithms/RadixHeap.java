@@ -0,0 +1,159 @@
+/*
+MIT License
+
+Copyright (c) 2020 earlygrey
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package space.earlygrey.simplegraphs.algorithms;
+
+import java.util.Arrays;
+
+/**
+ * A radix heap of vertex ids, for searches in which the value of each id removed is at least that of the one removed before it,
+ * as in Dijkstra's algorithm, or A* search with a consistent heuristic. Values are compared by the bits of their float
+ * representation, which for non-negative floats are ordered the same way as the values. Each id is placed in the bucket given by
+ * the highest bit in which its value differs from the last value removed, and a bucket is only sorted into lower buckets when
+ * everything below it has been removed, so each id is moved at most 32 times, and adding an id and changing its value take
+ * constant time.
+ * <br>A value lower than the last value removed is treated as equal to it.
+ */
+class RadixHeap extends IdQueue {
+
+    private static final int NONE = -1, BUCKETS = 32;
+
+    private final SearchContext context;
+    // the first node in each bucket
+    private final int[] heads = new int[BUCKETS];
+    // the bits of the last value removed
+    private int last;
+    private int[] nodeIds, keys, buckets, next, prev;
+    private int nodeCount;
+
+    RadixHeap(SearchContext context) {
+        this(context, 16);
+    }
+
+    RadixHeap(SearchContext context, int capacity) {
+        this.context = context;
+        Arrays.fill(heads, NONE);
+        nodeIds = new int[capacity];
+        keys = new int[capacity];
+        buckets = new int[capacity];
+        next = new int[capacity];
+        prev = new int[capacity];
+    }
+
+    @Override
+    void add(int id, float value) {
+        if (size == 0) last = 0;
+        if (nodeCount == nodeIds.length) resize(nodeCount << 1);
+        int node = nodeCount++;
+        nodeIds[node] = id;
+        context.heapIndex[id] = node;
+        keys[node] = Math.max(last, getKey(value));
+        link(node);
+        size++;
+    }
+
+    @Override
+    int peek() {
+        int[] heads = this.heads;
+        if (heads[0] == NONE) {
+            int bucket = 1;
+            while (heads[bucket] == NONE) {
+                bucket++;
+            }
+            int first = heads[bucket];
+            heads[bucket] = NONE;
+            int min = keys[first];
+            for (int node = next[first]; node != NONE; node = next[node]) {
+                if (keys[node] < min) min = keys[node];
+            }
+            last = min;
+            for (int node = first; node != NONE; ) {
+                int after = next[node];
+                link(node);
+                node = after;
+            }
+        }
+        return nodeIds[heads[0]];
+    }
+
+    @Override
+    int pop() {
+        int id = peek();
+        unlink(heads[0]);
+        size--;
+        return id;
+    }
+
+    @Override
+    void setValue(int id, float value) {
+        int node = context.heapIndex[id];
+        unlink(node);
+        keys[node] = Math.max(last, getKey(value));
+        link(node);
+    }
+
+    @Override
+    void clear() {
+        super.clear();
+        Arrays.fill(heads, NONE);
+        nodeCount = 0;
+        last = 0;
+    }
+
+    private static int getKey(float value) {
+        return value > 0 ? Float.floatToRawIntBits(value) : 0;
+    }
+
+    private void link(int node) {
+        int key = keys[node];
+        int bucket = key == last ? 0 : 32 - Integer.numberOfLeadingZeros(key ^ last);
+        buckets[node] = bucket;
+        int head = heads[bucket];
+        next[node] = head;
+        prev[node] = NONE;
+        if (head != NONE) prev[head] = node;
+        heads[bucket] = node;
+    }
+
+    private void unlink(int node) {
+        int before = prev[node], after = next[node];
+        if (before == NONE) heads[buckets[node]] = after;
+        else next[before] = after;
+        if (after != NONE) prev[after] = before;
+    }
+
+    private void resize(int capacity) {
+        nodeIds = copy(nodeIds, capacity);
+        keys = copy(keys, capacity);
+        buckets = copy(buckets, capacity);
+        next = copy(next, capacity);
+        prev = copy(prev, capacity);
+    }
+
+    private int[] copy(int[] array, int capacity) {
+        int[] newArray = new int[capacity];
+        System.arraycopy(array, 0, newArray, 0, nodeCount);
+        return newArray;
+    }
+
+}
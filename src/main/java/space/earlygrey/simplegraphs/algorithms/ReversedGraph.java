@@ -0,0 +1,100 @@
+/*
+MIT License
+
+Copyright (c) 2020 earlygrey
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package space.earlygrey.simplegraphs.algorithms;
+
+import space.earlygrey.simplegraphs.Edge;
+
+/**
+ * A view of an {@link IndexedGraph} with the direction of every edge reversed, so that a search over the view finds
+ * distances to a vertex rather than from it. The graph must track incoming edges.
+ * @param <V> the vertex type
+ */
+class ReversedGraph<V> implements IndexedGraph<V> {
+
+    private final IndexedGraph<V> graph;
+
+    ReversedGraph(IndexedGraph<V> graph) {
+        this.graph = graph;
+    }
+
+    @Override
+    public int getIdBound() {
+        return graph.getIdBound();
+    }
+
+    @Override
+    public int getId(V v) {
+        return graph.getId(v);
+    }
+
+    @Override
+    public V getVertex(int id) {
+        return graph.getVertex(id);
+    }
+
+    @Override
+    public int getOutDegree(int id) {
+        return graph.getInDegree(id);
+    }
+
+    @Override
+    public int getOutTarget(int id, int slot) {
+        return graph.getInSource(id, slot);
+    }
+
+    @Override
+    public float getOutWeight(int id, int slot) {
+        return graph.getInWeight(id, slot);
+    }
+
+    /**
+     * Edges of the underlying graph can not be addressed by their incoming slot, so this view does not report edges.
+     * @return null
+     */
+    @Override
+    public Edge<V> getOutEdge(int id, int slot) {
+        return null;
+    }
+
+    @Override
+    public int getInDegree(int id) {
+        return graph.getOutDegree(id);
+    }
+
+    @Override
+    public int getInSource(int id, int slot) {
+        return graph.getOutTarget(id, slot);
+    }
+
+    @Override
+    public float getInWeight(int id, int slot) {
+        return graph.getOutWeight(id, slot);
+    }
+
+    @Override
+    public boolean isDirected() {
+        return graph.isDirected();
+    }
+
+}
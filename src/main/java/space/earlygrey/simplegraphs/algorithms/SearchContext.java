@@ -0,0 +1,125 @@
+/*
+MIT License
+
+Copyright (c) 2020 earlygrey
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package space.earlygrey.simplegraphs.algorithms;
+
+import java.util.Arrays;
+
+/**
+ * Holds the per vertex scratch state of a search in flat arrays indexed by the vertex id of an {@link IndexedGraph}.
+ * A context is reused between searches: the state of a vertex is lazily reset the first time it is visited in a new run,
+ * so starting a search does not need to touch every vertex.
+ * <br>Since no search state is stored on the graph itself, any number of searches can run concurrently on a graph
+ * which is not being modified, as long as each uses its own context. A context can only be used by one search at a time.
+ */
+public class SearchContext {
+
+    int[] lastRunID;
+    int runID = -1;
+    boolean[] processed, seen;
+    float[] distance, estimate;
+    int[] prev, prevSlot, depth;
+
+    // heap fields
+    int[] heapIndex;
+    float[] heapValue;
+
+    public SearchContext() {
+        this(0);
+    }
+
+    public SearchContext(int capacity) {
+        lastRunID = new int[0];
+        processed = new boolean[0];
+        seen = new boolean[0];
+        distance = new float[0];
+        estimate = new float[0];
+        prev = new int[0];
+        prevSlot = new int[0];
+        depth = new int[0];
+        heapIndex = new int[0];
+        heapValue = new float[0];
+        ensureCapacity(capacity);
+    }
+
+    /**
+     * Make sure every id less than the given capacity can be indexed.
+     */
+    void ensureCapacity(int capacity) {
+        int length = lastRunID.length;
+        if (capacity <= length) return;
+        capacity = Math.max(capacity, 2 * length);
+        lastRunID = Arrays.copyOf(lastRunID, capacity);
+        Arrays.fill(lastRunID, length, capacity, -1);
+        processed = Arrays.copyOf(processed, capacity);
+        seen = Arrays.copyOf(seen, capacity);
+        distance = Arrays.copyOf(distance, capacity);
+        estimate = Arrays.copyOf(estimate, capacity);
+        prev = Arrays.copyOf(prev, capacity);
+        prevSlot = Arrays.copyOf(prevSlot, capacity);
+        depth = Arrays.copyOf(depth, capacity);
+        heapIndex = Arrays.copyOf(heapIndex, capacity);
+        heapValue = Arrays.copyOf(heapValue, capacity);
+    }
+
+    /**
+     * Start a new run, after which the state of every vertex will be reset when it is first visited.
+     * @param capacity the id bound of the graph to be searched
+     */
+    void beginRun(int capacity) {
+        ensureCapacity(capacity);
+        if (++runID < 0) {
+            // the run counter has overflowed, so old stamps could be mistaken for the current run
+            Arrays.fill(lastRunID, -1);
+            runID = 0;
+        }
+    }
+
+    /**
+     * @return whether the vertex with the given id has been visited during this run
+     */
+    boolean isVisited(int id) {
+        return lastRunID[id] == runID;
+    }
+
+    /**
+     * Reset the state of the vertex with the given id, if it has not already been reset during this run. The context grows if
+     * the id is beyond its capacity, as happens when the graph discovers vertices during a search (see
+     * {@link space.earlygrey.simplegraphs.ImplicitGraph ImplicitGraph}).
+     * @return true if the state was reset, false if the vertex has already been visited during this run
+     */
+    boolean reset(int id) {
+        if (id >= lastRunID.length) ensureCapacity(id + 1);
+        if (lastRunID[id] == runID) return false;
+        processed[id] = false;
+        seen[id] = false;
+        distance[id] = Float.MAX_VALUE;
+        estimate[id] = 0;
+        prev[id] = -1;
+        prevSlot[id] = -1;
+        depth[id] = 0;
+        lastRunID[id] = runID;
+        return true;
+    }
+
+}
@@ -0,0 +1,147 @@
+/*
+MIT License
+
+Copyright (c) 2020 earlygrey
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package space.earlygrey.simplegraphs.algorithms;
+
+/**
+ * <p>Limits on how far a search may go, which are checked directly by the search, so that limiting it does not need a
+ * {@link space.earlygrey.simplegraphs.utils.SearchProcessor SearchProcessor}. A search can be limited by:</p>
+ * <ul>
+ *     <li>distance, in which case vertices further than the maximum distance from the start are not reached</li>
+ *     <li>depth, in which case vertices more than the maximum number of edges from the start are not reached</li>
+ *     <li>the number of vertices expanded, after which the search stops</li>
+ *     <li>time, after which the search stops. The clock is started when the limits are given to the search.</li>
+ * </ul>
+ *
+ * <p>Whether a search was stopped by the number of expansions or by time can be checked with
+ * {@link AStarSearch#isLimitReached()}. The distance and depth limits only prune the search, so do not count as having been
+ * reached.</p>
+ *
+ * <p>Limits are immutable, so the same instance can be shared between searches, and each of the {@code with} methods returns
+ * a copy.</p>
+ */
+public class SearchLimits {
+
+    /**
+     * No limits.
+     */
+    public static final SearchLimits NONE = new SearchLimits(Float.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, 0);
+
+    // the time is only checked once in this many expansions, since reading the clock is relatively slow
+    private static final int TIME_CHECK_INTERVAL = 64;
+
+    final float maxDistance;
+    final int maxDepth;
+    final int maxExpansions;
+    final long timeBudget;
+
+    private SearchLimits(float maxDistance, int maxDepth, int maxExpansions, long timeBudget) {
+        this.maxDistance = maxDistance;
+        this.maxDepth = maxDepth;
+        this.maxExpansions = maxExpansions;
+        this.timeBudget = timeBudget;
+    }
+
+    /**
+     * @param maxDistance the largest distance from the start at which a vertex can be reached
+     */
+    public SearchLimits withMaxDistance(float maxDistance) {
+        if (!(maxDistance >= 0)) throw new IllegalArgumentException("The maximum distance must be non-negative.");
+        return new SearchLimits(maxDistance, maxDepth, maxExpansions, timeBudget);
+    }
+
+    /**
+     * @param maxDepth the largest number of edges from the start at which a vertex can be reached
+     */
+    public SearchLimits withMaxDepth(int maxDepth) {
+        if (maxDepth < 0) throw new IllegalArgumentException("The maximum depth must be non-negative.");
+        return new SearchLimits(maxDistance, maxDepth, maxExpansions, timeBudget);
+    }
+
+    /**
+     * @param maxExpansions the number of vertices the search may expand before it stops
+     */
+    public SearchLimits withMaxExpansions(int maxExpansions) {
+        if (maxExpansions < 0) throw new IllegalArgumentException("The maximum number of expansions must be non-negative.");
+        return new SearchLimits(maxDistance, maxDepth, maxExpansions, timeBudget);
+    }
+
+    /**
+     * @param nanos the time in nanoseconds the search may run for, measured from when the limits are given to it, or 0 for no limit.
+     *              The clock is only read every few expansions, so the search may run slightly over.
+     */
+    public SearchLimits withTimeBudget(long nanos) {
+        if (nanos < 0) throw new IllegalArgumentException("The time budget must be non-negative.");
+        return new SearchLimits(maxDistance, maxDepth, maxExpansions, nanos);
+    }
+
+    public float getMaxDistance() {
+        return maxDistance;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public int getMaxExpansions() {
+        return maxExpansions;
+    }
+
+    /**
+     * @return the time budget in nanoseconds, or 0 if there is none
+     */
+    public long getTimeBudget() {
+        return timeBudget;
+    }
+
+    /**
+     * @return whether a search given these limits may be cut short
+     */
+    boolean isLimited() {
+        return this != NONE && (maxDistance != Float.MAX_VALUE || maxDepth != Integer.MAX_VALUE
+                || maxExpansions != Integer.MAX_VALUE || timeBudget != 0);
+    }
+
+    /**
+     * @return the time at which a search starting now should stop, as given by {@link System#nanoTime()}
+     */
+    long getDeadline() {
+        return timeBudget != 0 ? System.nanoTime() + timeBudget : 0;
+    }
+
+    /**
+     * @param expansions the number of vertices expanded so far
+     * @return whether a search should stop before expanding another vertex
+     */
+    boolean isExceeded(int expansions, long deadline) {
+        if (expansions >= maxExpansions) return true;
+        return timeBudget != 0 && expansions % TIME_CHECK_INTERVAL == 0 && System.nanoTime() - deadline >= 0;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchLimits{maxDistance=" + maxDistance + ", maxDepth=" + maxDepth + ", maxExpansions=" + maxExpansions
+                + ", timeBudget=" + timeBudget + "}";
+    }
+
+}
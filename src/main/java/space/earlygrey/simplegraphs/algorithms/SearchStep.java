@@ -1,26 +1,43 @@
 package space.earlygrey.simplegraphs.algorithms;
 
 import space.earlygrey.simplegraphs.Edge;
-import space.earlygrey.simplegraphs.Node;
 import space.earlygrey.simplegraphs.Path;
+import space.earlygrey.simplegraphs.utils.IntSearchProcessor;
+import space.earlygrey.simplegraphs.utils.SearchProcessor;
 
 /**
  * An object representing a "step" in a search algorithm. Usually this corresponds to visiting or processing a vertex.
+ * The state of the current vertex is read from the {@link SearchContext} of the search.
  * @param <V>
  */
 
 public class SearchStep<V> {
 
+    final IndexedGraph<V> graph;
+    final SearchContext context;
     boolean terminate, ignore;
-    Node<V> node;
+    int id;
     int count = -1;
 
-    SearchStep() {
+    SearchStep(IndexedGraph<V> graph, SearchContext context) {
+        this.graph = graph;
+        this.context = context;
+    }
 
+    /**
+     * Create a step to pass to the given processor, or null if there is no processor.
+     */
+    @SuppressWarnings("unchecked")
+    static <V> SearchStep<V> create(IndexedGraph<V> graph, SearchContext context, SearchProcessor<V> processor) {
+        if (processor == null) return null;
+        if (processor instanceof IntSearchProcessor) {
+            return (SearchStep<V>) new IntSearchStep((IndexedIntGraph) graph, context);
+        }
+        return new SearchStep<>(graph, context);
     }
 
-    void prepare(Node<V> node) {
-        this.node = node;
+    void prepare(int id) {
+        this.id = id;
         terminate = false;
         ignore = false;
         count++;
@@ -44,14 +61,14 @@ public class SearchStep<V> {
      * @return the vertex being currently processed.
      */
     public V vertex() {
-        return node.getObject();
+        return graph.getVertex(id);
     }
 
     /**
      * @return the edge from which the current vertex was found. {@link Edge#getB()} is equal to the current vertex.
      */
     public Edge<V> edge() {
-        return node.getConnection();
+        return graph.getOutEdge(context.prev[id], context.prevSlot[id]);
     }
 
     /**
@@ -59,14 +76,14 @@ public class SearchStep<V> {
      *
      */
     public V previous() {
-        return node.getConnection().getA();
+        return graph.getVertex(context.prev[id]);
     }
 
     /**
      * @return the number of vertices traversed in order to find the current vertex, not including the initial vertex.
      */
     public int depth() {
-        return node.getIndex();
+        return context.depth[id];
     }
 
     /**
@@ -75,7 +92,7 @@ public class SearchStep<V> {
      * for a breadth or depth first search this is not necessarily true.
      */
     public float distance() {
-        return node.getDistance();
+        return context.distance[id];
     }
 
     /**
@@ -92,7 +109,7 @@ public class SearchStep<V> {
      * @return a path from the initial vertex to the current
      */
     public Path<V> createPath() {
-        return new AlgorithmPath<>(node);
+        return new AlgorithmPath<>(graph, context, id);
     }
 
 }
@@ -0,0 +1,185 @@
+/*
+MIT License
+
+Copyright (c) 2020 earlygrey
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package space.earlygrey.simplegraphs.algorithms;
+
+import java.util.Arrays;
+
+import space.earlygrey.simplegraphs.Errors;
+import space.earlygrey.simplegraphs.Path;
+
+/**
+ * <p>The shortest paths from a source vertex to every other vertex, as found by a single run of Dijkstra's algorithm. The distance to
+ * each vertex and its predecessor on a shortest path are held in primitive arrays indexed by vertex id, which can be read directly
+ * via {@link #getDistances()} and {@link #getPredecessors()}, or per vertex with {@link #getDistance(Object)} and {@link #pathTo(Object)}.</p>
+ *
+ * <p>If the tree was built with a set of targets, the search stopped once all of them were settled, and vertices which had not
+ * been settled by then are treated as unreached.</p>
+ *
+ * <p>The tree is a snapshot: it is not updated when the graph is modified.</p>
+ *
+ * @param <V> the vertex type
+ */
+public class ShortestPathTree<V> {
+
+    private final IndexedGraph<V> graph;
+    private final int source;
+    private final float[] distances;
+    private final int[] predecessors;
+
+    /**
+     * Run Dijkstra's algorithm from the source.
+     * @param targets the ids of the vertices after which the search can stop once all are settled, or null to search the whole graph
+     */
+    ShortestPathTree(IndexedGraph<V> graph, SearchContext context, int source, int[] targets, QueueType queueType) {
+        this.graph = graph;
+        this.source = source;
+        int n = graph.getIdBound();
+        distances = new float[n];
+        predecessors = new int[n];
+        Arrays.fill(distances, Float.MAX_VALUE);
+        Arrays.fill(predecessors, -1);
+
+        boolean[] isTarget = null;
+        int remaining = 0;
+        if (targets != null) {
+            isTarget = new boolean[n];
+            for (int target : targets) {
+                if (!isTarget[target]) remaining++;
+                isTarget[target] = true;
+            }
+            if (remaining == 0) {
+                // there is nothing to search for, but the source is still settled
+                distances[source] = 0;
+                return;
+            }
+        }
+
+        context.beginRun(n);
+        IdQueue heap = queueType.create(context, graph, false);
+        context.reset(source);
+        context.distance[source] = 0;
+        context.seen[source] = true;
+        heap.add(source, 0);
+        while (heap.notEmpty()) {
+            int u = heap.pop();
+            context.processed[u] = true;
+            float distance = context.distance[u];
+            distances[u] = distance;
+            predecessors[u] = context.prev[u];
+            if (isTarget != null && isTarget[u] && --remaining == 0) return;
+            int degree = graph.getOutDegree(u);
+            for (int i = 0; i < degree; i++) {
+                int v = graph.getOutTarget(u, i);
+                context.reset(v);
+                if (context.processed[v]) continue;
+                float newDistance = distance + graph.getOutWeight(u, i);
+                if (newDistance < context.distance[v]) {
+                    context.distance[v] = newDistance;
+                    context.prev[v] = u;
+                    if (!context.seen[v]) {
+                        heap.add(v, newDistance);
+                        context.seen[v] = true;
+                    } else {
+                        heap.setValue(v, newDistance);
+                    }
+                }
+            }
+        }
+    }
+
+    private int getId(V v) {
+        int id = graph.getId(v);
+        if (id == -1) Errors.throwVertexNotInGraphVertexException(false);
+        return id;
+    }
+
+    /**
+     * @return the source vertex of the tree
+     */
+    public V getSource() {
+        return graph.getVertex(source);
+    }
+
+    /**
+     * @return the length of a shortest path from the source to the vertex, or {@link Float#MAX_VALUE} if the vertex was not reached
+     */
+    public float getDistance(V v) {
+        int id = getId(v);
+        return id < distances.length ? distances[id] : Float.MAX_VALUE;
+    }
+
+    /**
+     * @return whether a path from the source to the vertex was found
+     */
+    public boolean isReached(V v) {
+        return getDistance(v) != Float.MAX_VALUE;
+    }
+
+    /**
+     * @return the vertex before the given one on a shortest path from the source, or null if it is the source or was not reached
+     */
+    public V getPredecessor(V v) {
+        int id = getId(v);
+        return id < predecessors.length && predecessors[id] != -1 ? graph.getVertex(predecessors[id]) : null;
+    }
+
+    /**
+     * Reconstruct a shortest path from the source to the vertex.
+     * @param v the target vertex
+     * @return a list of vertices from the source to the target, including both. If the target was not reached, the returned path is empty.
+     */
+    public Path<V> pathTo(V v) {
+        int id = getId(v);
+        if (id >= distances.length || distances[id] == Float.MAX_VALUE) return Path.EMPTY_PATH;
+        int count = 1;
+        for (int u = id; u != source; u = predecessors[u]) {
+            count++;
+        }
+        AlgorithmPath<V> path = new AlgorithmPath<>(distances[id]);
+        for (int i = 0; i < count; i++) {
+            path.add(null);
+        }
+        for (int u = id, i = count - 1; i >= 0; u = predecessors[u], i--) {
+            path.set(i, graph.getVertex(u));
+        }
+        return path;
+    }
+
+    /**
+     * @return the distance from the source to each vertex, indexed by vertex id (see {@link IndexedGraph#getId(Object)}). Vertices
+     * which were not reached have distance {@link Float#MAX_VALUE}. The array is owned by the tree and should not be modified.
+     */
+    public float[] getDistances() {
+        return distances;
+    }
+
+    /**
+     * @return the id of the predecessor of each vertex on a shortest path from the source, indexed by vertex id. The source and
+     * vertices which were not reached have predecessor -1. The array is owned by the tree and should not be modified.
+     */
+    public int[] getPredecessors() {
+        return predecessors;
+    }
+
+}
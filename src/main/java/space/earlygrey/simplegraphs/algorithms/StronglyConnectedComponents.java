@@ -0,0 +1,213 @@
+/*
+MIT License
+
+Copyright (c) 2020 earlygrey
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package space.earlygrey.simplegraphs.algorithms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import space.earlygrey.simplegraphs.Errors;
+import space.earlygrey.simplegraphs.IntDirectedGraph;
+
+/**
+ * <p>The strongly connected components of a graph, as found by Tarjan's algorithm. Two vertices are in the same component if
+ * each can be reached from the other. The depth first search is run with an explicit stack, so it does not overflow the call
+ * stack on long paths, and the whole computation takes time linear in the number of vertices and edges.</p>
+ *
+ * <p>Components are numbered in topological order: every edge between two components goes from the one with the lower id to
+ * the one with the higher id. The component of each vertex is held in a primitive array indexed by vertex id, which can be
+ * read directly via {@link #getComponentIds()}.</p>
+ *
+ * <p>The components are a snapshot: they are not updated when the graph is modified.</p>
+ *
+ * @param <V> the vertex type
+ */
+public class StronglyConnectedComponents<V> {
+
+    private final IndexedGraph<V> graph;
+    private final int[] components;
+    private final int componentCount;
+
+    StronglyConnectedComponents(IndexedGraph<V> graph) {
+        this.graph = graph;
+        int n = graph.getIdBound();
+        components = new int[n];
+        Arrays.fill(components, -1);
+
+        // the order in which each vertex was first reached, starting at 1, and the lowest such order reachable from it
+        int[] index = new int[n], low = new int[n];
+        // the vertices which have been reached but not yet assigned a component
+        int[] stack = new int[16];
+        int stackSize = 0;
+        // the vertices on the current search path, and the next edge slot to check for each
+        int[] path = new int[16], slots = new int[16];
+        int counter = 0, count = 0;
+
+        for (int root = 0; root < n; root++) {
+            if (index[root] != 0 || graph.getVertex(root) == null) continue;
+            index[root] = low[root] = ++counter;
+            stack[stackSize++] = root;
+            path[0] = root;
+            slots[0] = 0;
+            int size = 1;
+            while (size > 0) {
+                int u = path[size - 1];
+                int slot = slots[size - 1];
+                if (slot < graph.getOutDegree(u)) {
+                    slots[size - 1]++;
+                    int v = graph.getOutTarget(u, slot);
+                    if (index[v] == 0) {
+                        index[v] = low[v] = ++counter;
+                        if (stackSize == stack.length) stack = Arrays.copyOf(stack, stackSize << 1);
+                        stack[stackSize++] = v;
+                        if (size == path.length) {
+                            path = Arrays.copyOf(path, size << 1);
+                            slots = Arrays.copyOf(slots, size << 1);
+                        }
+                        path[size] = v;
+                        slots[size] = 0;
+                        size++;
+                    } else if (components[v] == -1) {
+                        // v is still on the stack, so it is in the same component as u
+                        low[u] = Math.min(low[u], index[v]);
+                    }
+                } else {
+                    size--;
+                    if (size > 0) {
+                        int parent = path[size - 1];
+                        low[parent] = Math.min(low[parent], low[u]);
+                    }
+                    if (low[u] == index[u]) {
+                        // u is the first vertex reached in its component, and the rest of the component is above it on the stack
+                        int v;
+                        do {
+                            v = stack[--stackSize];
+                            components[v] = count;
+                        } while (v != u);
+                        count++;
+                    }
+                }
+            }
+        }
+
+        // components are found in reverse topological order
+        for (int i = 0; i < n; i++) {
+            if (components[i] != -1) components[i] = count - 1 - components[i];
+        }
+        componentCount = count;
+    }
+
+    private int getId(V v) {
+        int id = graph.getId(v);
+        if (id == -1) Errors.throwVertexNotInGraphVertexException(false);
+        return id;
+    }
+
+    /**
+     * @return the number of strongly connected components
+     */
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    /**
+     * @return the id of the component containing the vertex, in the range [0, {@link #getComponentCount()})
+     */
+    public int getComponent(V v) {
+        int id = getId(v);
+        return id < components.length ? components[id] : -1;
+    }
+
+    /**
+     * @return whether the two vertices are in the same component, that is, whether each can be reached from the other
+     */
+    public boolean isStronglyConnected(V u, V v) {
+        int a = getComponent(u);
+        return a != -1 && a == getComponent(v);
+    }
+
+    /**
+     * @return the component of each vertex, indexed by vertex id (see {@link IndexedGraph#getId(Object)}). Ids which are not in
+     * use have component -1. The array is owned by this object and should not be modified.
+     */
+    public int[] getComponentIds() {
+        return components;
+    }
+
+    /**
+     * @return a list of the vertices in each component, indexed by component id
+     */
+    public List<List<V>> getComponents() {
+        List<List<V>> list = new ArrayList<>(componentCount);
+        for (int i = 0; i < componentCount; i++) {
+            list.add(new ArrayList<>());
+        }
+        for (int id = 0; id < components.length; id++) {
+            if (components[id] != -1) list.get(components[id]).add(graph.getVertex(id));
+        }
+        return list;
+    }
+
+    /**
+     * Build the condensation of the graph, which has a vertex for each component, and an edge from one component to another
+     * if there is an edge from a vertex of the first to a vertex of the second. The condensation contains no cycles, and its
+     * vertices are the component ids, so each of its edges goes from a lower id to a higher one.
+     * @return the condensation, whose edges have the default weight
+     */
+    public IntDirectedGraph buildCondensation() {
+        int n = components.length;
+        IntDirectedGraph condensation = new IntDirectedGraph();
+        for (int i = 0; i < componentCount; i++) {
+            condensation.addVertex(i);
+        }
+        // group the vertex ids by component, so that duplicate edges can be skipped with a marker per component
+        int[] start = new int[componentCount + 1];
+        for (int id = 0; id < n; id++) {
+            if (components[id] != -1) start[components[id] + 1]++;
+        }
+        for (int i = 0; i < componentCount; i++) {
+            start[i + 1] += start[i];
+        }
+        int[] members = new int[start[componentCount]], fill = Arrays.copyOf(start, componentCount);
+        for (int id = 0; id < n; id++) {
+            if (components[id] != -1) members[fill[components[id]]++] = id;
+        }
+        int[] lastSource = new int[componentCount];
+        Arrays.fill(lastSource, -1);
+        for (int c = 0; c < componentCount; c++) {
+            for (int i = start[c]; i < start[c + 1]; i++) {
+                int u = members[i];
+                int degree = graph.getOutDegree(u);
+                for (int slot = 0; slot < degree; slot++) {
+                    int d = components[graph.getOutTarget(u, slot)];
+                    if (d == c || lastSource[d] == c) continue;
+                    lastSource[d] = c;
+                    condensation.addEdge(c, d);
+                }
+            }
+        }
+        return condensation;
+    }
+
+}
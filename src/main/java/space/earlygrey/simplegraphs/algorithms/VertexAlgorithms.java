@@ -0,0 +1,260 @@
+/*
+MIT License
+
+Copyright (c) 2020 earlygrey
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package space.earlygrey.simplegraphs.algorithms;
+
+import space.earlygrey.simplegraphs.Errors;
+import space.earlygrey.simplegraphs.Path;
+import space.earlygrey.simplegraphs.utils.Heuristic;
+import space.earlygrey.simplegraphs.utils.IntHeuristic;
+import space.earlygrey.simplegraphs.utils.SearchProcessor;
+
+/**
+ * The searches shared by the algorithm facades of graphs whose vertices are objects, which only need to follow the outgoing
+ * edges of each vertex.
+ * @param <V> the vertex type
+ */
+abstract class VertexAlgorithms<V> extends IndexedAlgorithms<V> {
+
+    VertexAlgorithms(IndexedGraph<V> graph) {
+        super(graph);
+    }
+
+    int getId(V v) {
+        int id = indexedGraph.getId(v);
+        if (id == -1) Errors.throwVertexNotInGraphVertexException(false);
+        return id;
+    }
+
+    IntHeuristic getIdHeuristic(Heuristic<V> heuristic) {
+        if (heuristic == null) return null;
+        if (heuristic instanceof LandmarkHeuristic) {
+            IntHeuristic idHeuristic = ((LandmarkHeuristic<V>) heuristic).getIdHeuristic(indexedGraph);
+            if (idHeuristic != null) return idHeuristic;
+        }
+        return (u, v) -> heuristic.getEstimate(indexedGraph.getVertex(u), indexedGraph.getVertex(v));
+    }
+
+    /**
+     * @return a new context large enough for the searches over the graph, used by searches which are not given one
+     */
+    SearchContext newSearchContext() {
+        return new SearchContext(indexedGraph.getIdBound());
+    }
+
+    //--------------------
+    //  Shortest Path
+    //--------------------
+
+    /**
+     * Find a shortest path from the start vertex to the target vertex, using Dijkstra's algorithm implemented with a priority queue.
+     * @param start the starting vertex
+     * @param target the target vertex
+     * @return a list of vertices from start to target containing the ordered vertices of a shortest path, including both the start and target vertices.
+     * If there is no path from the start vertex to the target vertex, the returned path is empty.
+     */
+    public Path<V> findShortestPath(V start, V target) {
+        return findShortestPath(start, target, null, (SearchProcessor<V>) null);
+    }
+
+    /**
+     * Find a shortest path from the start vertex to the target vertex, using Dijkstra's algorithm implemented with a priority queue.
+     * @param start the starting vertex
+     * @param target the target vertex
+     * @param processor a consumer which is called immediately before processing each vertex. See {@link SearchStep}.
+     * @return a list of vertices from start to target containing the ordered vertices of a shortest path, including both the start and target vertices.
+     * If there is no path from the start vertex to the target vertex, the returned path is empty.
+     */
+    public Path<V> findShortestPath(V start, V target, SearchProcessor<V> processor) {
+        return findShortestPath(start, target, null, processor);
+    }
+
+    /**
+     * Find a shortest path from the start vertex to the target vertex, using the A* search algorithm with the provided heuristic, and implemented with a priority queue.
+     * <br>The heuristic is a function, which for any two vertices returns an estimate of the distance between them. Note: the heuristic h
+     * must be admissible, that is, for any two vertices x and y, h(x,y) &#8804; d(x,y), where d(x,y) is the actual distance of a shortest path from x to y.
+     * @param start the starting vertex
+     * @param target the target vertex
+     * @param heuristic a heuristic to guide the search
+     * @return a list of vertices from start to target containing the ordered vertices of a shortest path, including both the start and target vertices.
+     * If there is no path from the start vertex to the target vertex, the returned path is empty.
+     */
+    public Path<V> findShortestPath(V start, V target, Heuristic<V> heuristic) {
+        return findShortestPath(start, target, heuristic, null);
+    }
+
+    /**
+     * Find a shortest path from the start vertex to the target vertex, using the A* search algorithm with the provided heuristic, and implemented with a priority queue.
+     * <br>The heuristic is a function, which for any two vertices returns an estimate of the distance between them. Note: the heuristic h
+     * must be admissible, that is, for any two vertices x and y, h(x,y) &#8804; d(x,y), where d(x,y) is the actual distance of a shortest path from x to y.
+     * @param start the starting vertex
+     * @param target the target vertex
+     * @param heuristic a heuristic to guide the search
+     * @param processor a consumer which is called immediately before processing each vertex. See {@link SearchStep}.
+     * @return a list of vertices from start to target containing the ordered vertices of a shortest path, including both the start and target vertices.
+     * If there is no path from the start vertex to the target vertex, the returned path is empty.
+     */
+    public Path<V> findShortestPath(V start, V target, Heuristic<V> heuristic, SearchProcessor<V> processor) {
+        SearchContext context = contexts.obtain();
+        try {
+            AStarSearch<V> search = newAstarSeach(start, target, heuristic, processor, context);
+            search.finish();
+            return search.getPath();
+        } finally {
+            contexts.free(context);
+        }
+    }
+
+    /**
+     * Find the length of a shortest path from the start vertex to the target vertex, using Dijkstra's algorithm implemented with a priority queue.
+     * @param start the starting vertex
+     * @param target the target vertex
+     * @return the sum of the weights in a shortest path from the starting vertex to the target vertex.
+     * If there is no path from the start vertex to the target vertex, {@link Float#MAX_VALUE} is returned.
+     */
+    public float findMinimumDistance(V start, V target) {
+        return findMinimumDistance(start, target, null);
+    }
+
+    /**
+     * Find the length of a shortest path from the start vertex to the target vertex, using the A* search algorithm with the provided heuristic, and implemented with a priority queue.
+     * @param start the starting vertex
+     * @param target the target vertex
+     * @return the sum of the weights in a shortest path from the starting vertex to the target vertex.
+     * If there is no path from the start vertex to the target vertex, {@link Float#MAX_VALUE} is returned.
+     */
+    public float findMinimumDistance(V start, V target, Heuristic<V> heuristic) {
+        SearchContext context = contexts.obtain();
+        try {
+            AStarSearch<V> search = newAstarSeach(start, target, heuristic, null, context);
+            search.finish();
+            return search.getDistance();
+        } finally {
+            contexts.free(context);
+        }
+    }
+
+    /**
+     * Checks whether there exists a path from the start vertex to target vertex, using Dijkstra's algorithm implemented with a priority queue.
+     * @param start the starting vertex
+     * @param target the target vertex
+     * @return whether there exists a path from the start vertex to target vertex
+     */
+    public boolean isConnected(V start, V target) {
+        return findMinimumDistance(start, target) < Float.MAX_VALUE;
+    }
+
+    /**
+     * Create an A* search from the start vertex to the target vertex, which can be run step by step via {@link Algorithm#update()}.
+     * @param start the starting vertex
+     * @param target the target vertex
+     * @param heuristic a heuristic to guide the search, or null to use Dijkstra's algorithm
+     * @param processor a consumer which is called immediately before processing each vertex. See {@link SearchStep}.
+     * @return the search
+     */
+    public AStarSearch<V> newAstarSeach(V start, V target, Heuristic<V> heuristic, SearchProcessor<V> processor) {
+        return newAstarSeach(start, target, heuristic, processor, newSearchContext());
+    }
+
+    /**
+     * Create an A* search from the start vertex to the target vertex, which can be run step by step via {@link Algorithm#update()}.
+     * The search holds its state in the given context, which can be reused once the search is no longer needed.
+     * @param start the starting vertex
+     * @param target the target vertex
+     * @param heuristic a heuristic to guide the search, or null to use Dijkstra's algorithm
+     * @param processor a consumer which is called immediately before processing each vertex. See {@link SearchStep}.
+     * @param context the context in which to hold the state of the search
+     * @return the search
+     */
+    public AStarSearch<V> newAstarSeach(V start, V target, Heuristic<V> heuristic, SearchProcessor<V> processor, SearchContext context) {
+        return newAstarSeach(start, target, heuristic, processor, context, queueType);
+    }
+
+    /**
+     * Create an A* search from the start vertex to the target vertex, which can be run step by step via {@link Algorithm#update()}.
+     * The search holds its state in the given context, which can be reused once the search is no longer needed.
+     * @param start the starting vertex
+     * @param target the target vertex
+     * @param heuristic a heuristic to guide the search, or null to use Dijkstra's algorithm
+     * @param processor a consumer which is called immediately before processing each vertex. See {@link SearchStep}.
+     * @param context the context in which to hold the state of the search
+     * @param queueType the priority queue to order vertices with
+     * @return the search
+     */
+    public AStarSearch<V> newAstarSeach(V start, V target, Heuristic<V> heuristic, SearchProcessor<V> processor, SearchContext context, QueueType queueType) {
+        int startID = indexedGraph.getId(start);
+        int targetID = indexedGraph.getId(target);
+        if (startID == -1 || targetID == -1) Errors.throwVertexNotInGraphVertexException(true);
+        return createAStarSearch(context, startID, targetID, getIdHeuristic(heuristic), processor, queueType);
+    }
+
+    //--------------------
+    // Graph Searching
+    //--------------------
+
+    /**
+     * Perform a breadth first search starting from the specified vertex.
+     * @param v the vertex at which to start the search
+     * @param processor a consumer which is called immediately before processing each vertex. See {@link SearchStep}.
+     */
+    public void breadthFirstSearch(V v, SearchProcessor<V> processor) {
+        SearchContext context = contexts.obtain();
+        try {
+            BreadthFirstSearch<V> search = createBreadthFirstSearch(context, getId(v), processor);
+            search.finish();
+        } finally {
+            contexts.free(context);
+        }
+    }
+
+    /**
+     * Perform a depth first search starting from the specified vertex.
+     * @param v the vertex at which to start the search
+     * @param processor a consumer which is called immediately before processing each vertex. See {@link SearchStep}.
+     */
+    public void depthFirstSearch(V v, SearchProcessor<V> processor) {
+        SearchContext context = contexts.obtain();
+        try {
+            DepthFirstSearch<V> search = createDepthFirstSearch(context, getId(v), processor);
+            search.finish();
+        } finally {
+            contexts.free(context);
+        }
+    }
+
+    /**
+     * Perform a search using Dijkstra's algorithm starting from the specified vertex.
+     * @param v the vertex at which to start the search
+     * @param processor a consumer which is called immediately before processing each vertex. See {@link SearchStep}.
+     */
+    public void dijkstraSearch(V v, SearchProcessor<V> processor) {
+        SearchContext context = contexts.obtain();
+        try {
+            AStarSearch<V> search = createAStarSearch(context, getId(v), -1, null, processor, queueType);
+            search.finish();
+        } finally {
+            contexts.free(context);
+        }
+    }
+
+}
@@ -0,0 +1,42 @@
+/*
+MIT License
+
+Copyright (c) 2020 earlygrey
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package space.earlygrey.simplegraphs.utils;
+
+/**
+ * A {@link Heuristic} for graphs whose vertices are primitive ints.
+ * <br>A heuristic h should be admissible, that is, for any two vertices x and y, h(x,y) &#8804; d(x,y), where d(x,y)
+ * is the actual distance of a shortest path from x to y.
+ */
+public interface IntHeuristic {
+
+    /**
+     *
+     * @param u
+     * @param v
+     * @return an estimation of the distance from u to v.
+     * This value should always be at most the actual distance of a shortest path from x to y.
+     */
+    float getEstimate(int u, int v);
+
+}
@@ -0,0 +1,19 @@
+package space.earlygrey.simplegraphs.utils;
+
+import space.earlygrey.simplegraphs.algorithms.IntSearchStep;
+import space.earlygrey.simplegraphs.algorithms.SearchStep;
+
+/**
+ * A {@link SearchProcessor} for graphs whose vertices are primitive ints. The step passed to {@link #process(IntSearchStep)}
+ * gives access to the current vertex without boxing.
+ */
+public interface IntSearchProcessor extends SearchProcessor<Integer> {
+
+    void process(IntSearchStep step);
+
+    @Override
+    default void accept(SearchStep<Integer> step) {
+        process((IntSearchStep) step);
+    }
+
+}
@@ -0,0 +1,42 @@
+/*
+MIT License
+
+Copyright (c) 2020 earlygrey
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package space.earlygrey.simplegraphs.utils;
+
+/**
+ * Generates the outgoing edges of a vertex of an {@link space.earlygrey.simplegraphs.ImplicitGraph ImplicitGraph}.
+ * @param <V> the vertex type
+ */
+public interface NeighbourFunction<V> {
+
+    /**
+     * Pass each vertex which can be reached from the given vertex by a single edge, and the weight of that edge, to the consumer.
+     * This is called at most once for each vertex until the graph is cleared.
+     */
+    void getNeighbours(V v, Neighbours<V> neighbours);
+
+    interface Neighbours<V> {
+        void add(V neighbour, float weight);
+    }
+
+}
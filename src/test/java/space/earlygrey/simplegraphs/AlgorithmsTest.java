@@ -25,16 +25,47 @@ package space.earlygrey.simplegraphs;
 
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import space.earlygrey.simplegraphs.TestUtils.Vector2;
+import space.earlygrey.simplegraphs.algorithms.AStarSearch;
+import space.earlygrey.simplegraphs.algorithms.AlgorithmScheduler;
+import space.earlygrey.simplegraphs.algorithms.AnytimeAStarSearch;
+import space.earlygrey.simplegraphs.algorithms.ContractionHierarchy;
+import space.earlygrey.simplegraphs.algorithms.DStarLite;
+import space.earlygrey.simplegraphs.algorithms.FlowField;
+import space.earlygrey.simplegraphs.algorithms.LandmarkHeuristic;
+import space.earlygrey.simplegraphs.algorithms.PathCache;
+import space.earlygrey.simplegraphs.algorithms.QueueType;
+import space.earlygrey.simplegraphs.algorithms.SearchLimits;
+import space.earlygrey.simplegraphs.algorithms.SearchMode;
+import space.earlygrey.simplegraphs.algorithms.ShortestPathTree;
+import space.earlygrey.simplegraphs.algorithms.StronglyConnectedComponents;
 import space.earlygrey.simplegraphs.utils.Heuristic;
+import space.earlygrey.simplegraphs.utils.Pair;
 import space.earlygrey.simplegraphs.utils.SearchProcessor;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class AlgorithmsTest {
 
@@ -96,7 +127,177 @@ public class AlgorithmsTest {
     }
 
 
-    private static boolean pathIsConnected(Path<Vector2> path, Graph<Vector2> graph) {
+    @Test
+    public void bidirectionalSearchShouldMatchUnidirectionalSearch() {
+        int n = 20;
+        Heuristic<Vector2> h = Vector2::dst;
+        for (Graph<Vector2> graph : Arrays.asList(TestUtils.makeGridGraph(new UndirectedGraph<>(), n), TestUtils.makeGridGraph(new DirectedGraph<>(), n))) {
+            // make some edges more expensive so there are fewer ties
+            for (int i = 0; i < n - 1; i++) {
+                graph.getEdge(new Vector2(i, i), new Vector2(i + 1, i)).setWeight(3);
+            }
+            for (int i = 0; i < 50; i++) {
+                Vector2 start = new Vector2(i % n, (i * 3) % n), end = new Vector2((i * 7) % n, (i * 11) % n);
+                float expected = graph.algorithms().findMinimumDistance(start, end);
+                Path<Vector2> path = graph.algorithms().findShortestPath(start, end, SearchMode.BIDIRECTIONAL);
+                assertEquals(expected, path.getLength(), 0.0001f);
+                assertEquals(start, path.get(0));
+                assertEquals(end, path.get(path.size() - 1));
+                assertTrue("Shortest path is not connected", pathIsConnected(path, graph));
+                assertEquals(expected, graph.algorithms().findMinimumDistance(start, end, SearchMode.BIDIRECTIONAL, h), 0.0001f);
+                assertEquals(expected, graph.algorithms().findShortestPath(start, end, SearchMode.BIDIRECTIONAL, h).getLength(), 0.0001f);
+            }
+        }
+
+        // one way edges, so the backward search has to follow incoming edges
+        Random random = new Random(1);
+        Graph<Integer> diGraph = new DirectedGraph<>();
+        for (int i = 0; i < 40; i++) {
+            diGraph.addVertex(i);
+        }
+        for (int i = 0; i < 120; i++) {
+            int a = random.nextInt(40), b = random.nextInt(40);
+            if (a != b) diGraph.addEdge(a, b, 1 + random.nextInt(10));
+        }
+        for (int a = 0; a < 40; a++) {
+            for (int b = 0; b < 40; b++) {
+                float expected = diGraph.algorithms().findMinimumDistance(a, b);
+                Path<Integer> path = diGraph.algorithms().findShortestPath(a, b, SearchMode.BIDIRECTIONAL);
+                if (expected == Float.MAX_VALUE) {
+                    assertTrue(path.isEmpty());
+                } else {
+                    assertEquals(expected, path.getLength(), 0.0001f);
+                    assertTrue(pathIsConnected(path, diGraph));
+                }
+            }
+        }
+
+        Vector2 v = new Vector2(0, 0);
+        Graph<Vector2> graph = TestUtils.makeGridGraph(new UndirectedGraph<>(), n);
+        assertEquals(1, graph.algorithms().findShortestPath(v, v, SearchMode.BIDIRECTIONAL).size());
+        graph.disconnect(v);
+        assertTrue(graph.algorithms().findShortestPath(v, new Vector2(1, 1), SearchMode.BIDIRECTIONAL).isEmpty());
+        assertEquals(Float.MAX_VALUE, graph.algorithms().findMinimumDistance(new Vector2(1, 1), v, SearchMode.BIDIRECTIONAL, h), 0f);
+    }
+
+    @Test
+    public void contractionHierarchyShouldMatchDijkstra() throws IOException, ClassNotFoundException {
+        int n = 20;
+        Graph<Vector2> grid = TestUtils.makeGridGraph(new UndirectedGraph<>(), n);
+        for (int i = 0; i < n - 1; i++) {
+            grid.getEdge(new Vector2(i, i), new Vector2(i + 1, i)).setWeight(3);
+        }
+        ContractionHierarchy<Vector2> gridHierarchy = new ContractionHierarchy<>(grid);
+        for (int i = 0; i < 100; i++) {
+            Vector2 start = new Vector2(i % n, (i * 3) % n), end = new Vector2((i * 7) % n, (i * 11) % n);
+            float expected = grid.algorithms().findMinimumDistance(start, end);
+            Path<Vector2> path = gridHierarchy.findShortestPath(start, end);
+            assertEquals(expected, path.getLength(), 0.0001f);
+            assertEquals(expected, gridHierarchy.findMinimumDistance(start, end), 0.0001f);
+            assertEquals(start, path.get(0));
+            assertEquals(end, path.get(path.size() - 1));
+            assertTrue("Unpacked path is not connected", pathIsConnected(path, grid));
+            float length = 0;
+            for (int j = 0; j < path.size() - 1; j++) {
+                length += grid.getEdge(path.get(j), path.get(j + 1)).getWeight();
+            }
+            assertEquals(expected, length, 0.0001f);
+        }
+
+        Random random = new Random(2);
+        Graph<Integer> diGraph = new DirectedGraph<>();
+        for (int i = 0; i < 60; i++) {
+            diGraph.addVertex(i);
+        }
+        for (int i = 0; i < 200; i++) {
+            int a = random.nextInt(60), b = random.nextInt(60);
+            if (a != b) diGraph.addEdge(a, b, 1 + random.nextInt(10));
+        }
+        ContractionHierarchy<Integer> hierarchy = new ContractionHierarchy<>(diGraph);
+
+        // the hierarchy can be preprocessed once and stored
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(hierarchy);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            @SuppressWarnings("unchecked")
+            ContractionHierarchy<Integer> copy = (ContractionHierarchy<Integer>) in.readObject();
+            hierarchy = copy;
+        }
+
+        for (int a = 0; a < 60; a++) {
+            for (int b = 0; b < 60; b++) {
+                float expected = diGraph.algorithms().findMinimumDistance(a, b);
+                Path<Integer> path = hierarchy.findShortestPath(a, b);
+                assertEquals(expected, hierarchy.findMinimumDistance(a, b), 0.0001f);
+                if (expected == Float.MAX_VALUE) {
+                    assertTrue(path.isEmpty());
+                } else {
+                    assertEquals(expected, path.getLength(), 0.0001f);
+                    assertTrue("Unpacked path is not connected", pathIsConnected(path, diGraph));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void landmarkHeuristicShouldBeAdmissible() {
+        int n = 30;
+        Graph<Vector2> grid = TestUtils.makeGridGraph(new UndirectedGraph<>(), n);
+        LandmarkHeuristic<Vector2> heuristic = new LandmarkHeuristic<>(grid, 4);
+        assertEquals(4, heuristic.getLandmarks().size());
+        Vector2 start = new Vector2(0, 0), end = new Vector2(n - 1, n - 1);
+        // the first landmark is a corner, so the estimate between opposite corners is exact
+        assertEquals(2 * (n - 1), heuristic.getEstimate(start, end), 0.0001f);
+
+        AtomicInteger dijkstraCount = new AtomicInteger(), landmarkCount = new AtomicInteger();
+        Vector2 a = new Vector2(3, 5), b = new Vector2(20, 27);
+        Path<Vector2> expected = grid.algorithms().findShortestPath(a, b, null, step -> dijkstraCount.incrementAndGet());
+        Path<Vector2> path = grid.algorithms().findShortestPath(a, b, heuristic, step -> landmarkCount.incrementAndGet());
+        assertEquals(expected.getLength(), path.getLength(), 0.0001f);
+        assertTrue("Landmarks did not reduce the search", landmarkCount.get() < dijkstraCount.get());
+
+        Random random = new Random(3);
+        Graph<Integer> diGraph = new DirectedGraph<>();
+        for (int i = 0; i < 50; i++) {
+            diGraph.addVertex(i);
+        }
+        for (int i = 0; i < 150; i++) {
+            int u = random.nextInt(50), v = random.nextInt(50);
+            if (u != v) diGraph.addEdge(u, v, 1 + random.nextInt(10));
+        }
+        diGraph.removeVertex(7);
+        LandmarkHeuristic<Integer> diHeuristic = new LandmarkHeuristic<>(diGraph, 3);
+        for (int u : diGraph.getVertices()) {
+            for (int v : diGraph.getVertices()) {
+                float distance = diGraph.algorithms().findMinimumDistance(u, v);
+                assertTrue("Estimate is larger than the distance", diHeuristic.getEstimate(u, v) <= distance);
+                assertEquals(distance, diGraph.algorithms().findMinimumDistance(u, v, diHeuristic), 0.0001f);
+            }
+        }
+    }
+
+    @Test
+    public void landmarkHeuristicShouldNotOverestimateAfterModification() {
+        Graph<Integer> graph = new UndirectedGraph<>();
+        for (int i = 0; i <= 5; i++) {
+            graph.addVertex(i);
+            if (i > 0) graph.addEdge(i - 1, i);
+        }
+        LandmarkHeuristic<Integer> heuristic = new LandmarkHeuristic<>(graph, 2);
+        assertEquals(5, heuristic.getEstimate(0, 5), 0.0001f);
+
+        // the new vertex takes the id freed by the removed one
+        graph.removeVertex(5);
+        graph.addVertex(99);
+        graph.addEdge(0, 99, 1);
+        assertTrue("Estimate is larger than the distance", heuristic.getEstimate(0, 99) <= 1);
+        assertEquals(1, graph.algorithms().findMinimumDistance(0, 99, heuristic), 0.0001f);
+        assertEquals(4, graph.algorithms().findMinimumDistance(0, 4, heuristic), 0.0001f);
+    }
+
+    private static <V> boolean pathIsConnected(Path<V> path, Graph<V> graph) {
         for (int i = 0; i < path.size()-1; i++) {
             if (!graph.edgeExists(path.get(i), path.get(i+1))) return false;
         }
@@ -278,4 +479,614 @@ public class AlgorithmsTest {
         assertEquals("Tree is not minimum weight", n-1 - 0.5f, mwst.getEdges().stream().mapToDouble(e -> e.getWeight()).sum(), 0.0001f);
 
     }
+
+    @Test
+    public void concurrentSearchesShouldBeCorrect() throws InterruptedException {
+        int n = 30, threadCount = 8, queries = 50;
+        Graph<Vector2> graph = TestUtils.makeGridGraph(new UndirectedGraph<>(), n);
+        // removing and re-adding vertices leaves gaps in the ids, which are then reused
+        Vector2 removed = new Vector2(5, 5);
+        graph.removeVertex(removed);
+        graph.addVertex(removed);
+        graph.addEdge(removed, new Vector2(5, 6));
+
+        AtomicInteger failures = new AtomicInteger();
+        Thread[] threads = new Thread[threadCount];
+        for (int t = 0; t < threadCount; t++) {
+            int offset = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < queries; i++) {
+                    Vector2 start = new Vector2((i + offset) % n, 0), end = new Vector2(n - 1, (i * 7 + offset) % n);
+                    Path<Vector2> path = graph.algorithms().findShortestPath(start, end);
+                    float expected = Math.abs(end.x - start.x) + Math.abs(end.y - start.y);
+                    if (path.getLength() != expected || path.size() != (int) expected + 1 || !pathIsConnected(path, graph)) {
+                        failures.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals("Concurrent searches interfered with each other", 0, failures.get());
+    }
+
+    @Test
+    public void batchSearchesShouldMatchSingleSearches() {
+        int n = 20;
+        Graph<Vector2> graph = TestUtils.makeGridGraph(new DirectedGraph<>(), n);
+        graph.disconnect(new Vector2(n - 1, n - 1));
+
+        List<Pair<Vector2, Vector2>> queries = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            queries.add(Pair.of(new Vector2(i % n, (i / n) % n), new Vector2((i * 7) % n, (i * 13) % n)));
+        }
+
+        List<Path<Vector2>> paths = graph.algorithms().findShortestPaths(queries);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        float[] distances = graph.algorithms().findMinimumDistances(queries, Vector2::dst, executor);
+        executor.shutdown();
+        assertEquals(queries.size(), paths.size());
+        for (int i = 0; i < queries.size(); i++) {
+            Pair<Vector2, Vector2> query = queries.get(i);
+            float expected = graph.algorithms().findMinimumDistance(query.getFirst(), query.getSecond());
+            assertEquals(expected, distances[i], 0.0001f);
+            if (expected == Float.MAX_VALUE) {
+                assertTrue(paths.get(i).isEmpty());
+            } else {
+                assertEquals(expected, paths.get(i).getLength(), 0.0001f);
+                assertTrue(pathIsConnected(paths.get(i), graph));
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void batchSearchShouldRethrowExceptions() {
+        Graph<Integer> graph = new UndirectedGraph<>();
+        graph.addVertices(0, 1, 2);
+        graph.addEdge(0, 1);
+        graph.algorithms().findShortestPaths(Arrays.asList(Pair.of(0, 1), Pair.of(0, 3), Pair.of(1, 2)));
+    }
+
+    @Test
+    public void pathCacheShouldBeInvalidatedByModifications() {
+        int n = 10;
+        Graph<Vector2> graph = TestUtils.makeGridGraph(new UndirectedGraph<>(), n);
+        PathCache<Vector2> cache = new PathCache<>(2);
+        graph.algorithms().setPathCache(cache);
+        Vector2 start = new Vector2(0, 0), end = new Vector2(n - 1, n - 1);
+        Heuristic<Vector2> heuristic = Vector2::dst;
+
+        Path<Vector2> path = graph.algorithms().findShortestPath(start, end, heuristic);
+        assertSame(path, graph.algorithms().findShortestPath(start, end, heuristic));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        try {
+            path.add(start);
+            fail("Cached paths should not be modifiable");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+
+        // a different heuristic is a different query, and a processor bypasses the cache
+        graph.algorithms().findShortestPath(start, end);
+        graph.algorithms().findShortestPath(start, end, heuristic, step -> {});
+        assertEquals(2, cache.getMisses());
+        graph.algorithms().findShortestPath(end, start);
+        assertEquals(1, cache.getEvictions());
+        assertEquals(2, cache.size());
+
+        // each kind of modification invalidates the cache
+        List<Runnable> modifications = Arrays.asList(
+                () -> graph.getEdge(new Vector2(0, 0), new Vector2(1, 0)).setWeight(5),
+                () -> graph.addEdge(new Vector2(0, 0), new Vector2(1, 1)),
+                () -> graph.removeEdge(new Vector2(0, 0), new Vector2(1, 1)),
+                () -> graph.addVertex(new Vector2(-1, -1)),
+                () -> graph.removeVertex(new Vector2(-1, -1)));
+        for (Runnable modification : modifications) {
+            Path<Vector2> cached = graph.algorithms().findShortestPath(start, end, heuristic);
+            long misses = cache.getMisses();
+            modification.run();
+            Path<Vector2> recomputed = graph.algorithms().findShortestPath(start, end, heuristic);
+            assertNotSame(cached, recomputed);
+            assertEquals(misses + 1, cache.getMisses());
+        }
+        assertEquals(2 * (n - 1), graph.algorithms().findShortestPath(start, end, heuristic).getLength(), 0.0001f);
+
+        graph.algorithms().setPathCache(null);
+        assertNotSame(graph.algorithms().findShortestPath(start, end, heuristic), graph.algorithms().findShortestPath(start, end, heuristic));
+    }
+
+    @Test
+    public void dStarLiteShouldMatchDijkstraAfterChanges() {
+        int n = 20;
+        Random random = new Random(5);
+        for (Graph<Vector2> graph : Arrays.asList(TestUtils.makeGridGraph(new UndirectedGraph<>(), n), TestUtils.makeGridGraph(new DirectedGraph<>(), n))) {
+            Vector2 start = new Vector2(0, 0), goal = new Vector2(n - 1, n - 1);
+            DStarLite<Vector2> planner = new DStarLite<>(graph, start, goal, Vector2::dst);
+            Path<Vector2> path = planner.findPath();
+            assertEquals(graph.algorithms().findMinimumDistance(start, goal), path.getLength(), 0.0001f);
+            int initialExpansions = planner.getExpansionCount();
+
+            for (int step = 0; step < 30; step++) {
+                // change a few edges, some of them on the current path, then move along the path
+                for (int i = 0; i < 3; i++) {
+                    Vector2 u = path.size() > 2 && i == 0 ? path.get(1) : new Vector2(random.nextInt(n), random.nextInt(n));
+                    Vector2 v = path.size() > 2 && i == 0 ? path.get(2) : new Vector2(u.x + 1, u.y);
+                    if (!graph.contains(v)) continue;
+                    if (random.nextInt(4) == 0) {
+                        if (graph.edgeExists(u, v)) graph.removeEdge(u, v);
+                        else graph.addEdge(u, v);
+                    } else if (graph.edgeExists(u, v)) {
+                        graph.getEdge(u, v).setWeight(1 + random.nextInt(5));
+                    }
+                    planner.edgeChanged(u, v);
+                }
+                if (path.size() > 1 && step % 2 == 0) {
+                    start = path.get(1);
+                    planner.moveStart(start);
+                }
+
+                path = planner.findPath();
+                float expected = graph.algorithms().findMinimumDistance(start, goal);
+                assertEquals(expected, planner.findDistance(), 0.0001f);
+                if (expected == Float.MAX_VALUE) {
+                    assertTrue(path.isEmpty());
+                    break;
+                }
+                assertEquals(expected, path.getLength(), 0.0001f);
+                assertEquals(start, path.getFirst());
+                assertEquals(goal, path.getLast());
+                assertTrue(pathIsConnected(path, graph));
+            }
+            assertTrue("Replanning should expand fewer vertices than searching again",
+                    planner.getExpansionCount() - initialExpansions < 30 * initialExpansions);
+        }
+    }
+
+    @Test
+    public void shortestPathTreeShouldMatchSingleSearches() {
+        int n = 15;
+        Random random = new Random(9);
+        Graph<Vector2> graph = TestUtils.makeGridGraph(new DirectedGraph<>(), n);
+        for (Edge<Vector2> edge : graph.getEdges()) {
+            edge.setWeight(1 + random.nextInt(4));
+        }
+        graph.disconnect(new Vector2(n - 1, n - 1));
+        Vector2 source = new Vector2(3, 4);
+
+        ShortestPathTree<Vector2> tree = graph.algorithms().shortestPathTree(source);
+        assertEquals(source, tree.getSource());
+        assertEquals(null, tree.getPredecessor(source));
+        for (Vector2 v : graph.getVertices()) {
+            float expected = graph.algorithms().findMinimumDistance(source, v);
+            assertEquals(expected, tree.getDistance(v), 0.0001f);
+            assertEquals(expected, tree.getDistances()[graph.internals().getId(v)], 0.0001f);
+            Path<Vector2> path = tree.pathTo(v);
+            if (expected == Float.MAX_VALUE) {
+                assertTrue(path.isEmpty());
+                assertTrue(!tree.isReached(v));
+                continue;
+            }
+            assertEquals(expected, path.getLength(), 0.0001f);
+            assertEquals(source, path.getFirst());
+            assertEquals(v, path.getLast());
+            assertTrue(pathIsConnected(path, graph));
+        }
+
+        // stopping early still gives the exact distance to each target
+        List<Vector2> targets = Arrays.asList(new Vector2(4, 4), new Vector2(0, 0), new Vector2(3, 5));
+        ShortestPathTree<Vector2> partial = graph.algorithms().shortestPathTree(source, targets);
+        for (Vector2 target : targets) {
+            assertEquals(tree.getDistance(target), partial.getDistance(target), 0.0001f);
+        }
+        assertTrue(!partial.isReached(new Vector2(n - 1, 0)) || tree.getDistance(new Vector2(n - 1, 0)) <= partial.getDistance(new Vector2(0, 0)));
+
+        // with no targets only the source is settled
+        ShortestPathTree<Vector2> empty = graph.algorithms().shortestPathTree(source, Collections.emptyList());
+        assertEquals(0, empty.getDistance(source), 0.0001f);
+        assertTrue(empty.isReached(source));
+        assertEquals(Collections.singletonList(source), new ArrayList<>(empty.pathTo(source)));
+        assertTrue(!empty.isReached(new Vector2(4, 4)));
+    }
+
+    @Test
+    public void allQueueTypesShouldFindShortestPaths() {
+        int n = 20;
+        Random random = new Random(15);
+        Graph<Vector2> graph = TestUtils.makeGridGraph(new DirectedGraph<>(), n);
+        for (Edge<Vector2> edge : graph.getEdges()) {
+            edge.setWeight(1 + random.nextInt(10));
+        }
+        Heuristic<Vector2> dst = Vector2::dst;
+        Vector2 source = new Vector2(2, 3);
+        float[] expected = graph.algorithms().shortestPathTree(source).getDistances().clone();
+
+        for (QueueType queueType : QueueType.values()) {
+            graph.algorithms().setQueueType(queueType);
+            assertSame(queueType, graph.algorithms().getQueueType());
+            float[] distances = graph.algorithms().shortestPathTree(source).getDistances();
+            for (int i = 0; i < expected.length; i++) {
+                assertEquals(queueType.toString(), expected[i], distances[i], 0.0001f);
+            }
+            for (int i = 0; i < 20; i++) {
+                Vector2 start = new Vector2(random.nextInt(n), random.nextInt(n));
+                Vector2 target = new Vector2(random.nextInt(n), random.nextInt(n));
+                Path<Vector2> path = graph.algorithms().findShortestPath(start, target, dst);
+                assertEquals(queueType.toString(), graph.algorithms().findMinimumDistance(start, target), path.getLength(), 0.0001f);
+                assertTrue(pathIsConnected(path, graph));
+            }
+        }
+        graph.algorithms().setQueueType(QueueType.AUTO);
+
+        CompactGraph<Vector2> compact = graph.freeze();
+        assertEquals(10, compact.getIntegerWeightBound());
+        for (int i = 0; i < 20; i++) {
+            Vector2 target = new Vector2(random.nextInt(n), random.nextInt(n));
+            assertEquals(expected[graph.internals().getId(target)], compact.algorithms().findMinimumDistance(source, target), 0.0001f);
+        }
+    }
+
+    @Test
+    public void searchLimitsShouldBoundSearches() {
+        int n = 20;
+        Graph<Vector2> graph = TestUtils.makeGridGraph(new UndirectedGraph<>(), n);
+        Vector2 start = new Vector2(0, 0), end = new Vector2(n - 1, n - 1);
+
+        graph.algorithms().setSearchLimits(SearchLimits.NONE.withMaxDistance(5));
+        AtomicInteger count = new AtomicInteger();
+        graph.algorithms().breadthFirstSearch(start, step -> {
+            assertTrue(step.distance() <= 5);
+            count.incrementAndGet();
+        });
+        // the vertices (x, y) with x + y <= 5
+        assertEquals(21, count.get());
+        assertTrue(graph.algorithms().findShortestPath(start, end).isEmpty());
+        assertEquals(5, graph.algorithms().findMinimumDistance(start, new Vector2(2, 3)), 0.0001f);
+
+        graph.algorithms().setSearchLimits(SearchLimits.NONE.withMaxDepth(3));
+        count.set(0);
+        graph.algorithms().depthFirstSearch(start, step -> {
+            assertTrue(step.depth() <= 3);
+            count.incrementAndGet();
+        });
+        assertEquals(10, count.get());
+
+        graph.algorithms().setSearchLimits(SearchLimits.NONE.withMaxExpansions(10));
+        assertTrue(graph.algorithms().findShortestPath(start, end).isEmpty());
+        AStarSearch<Vector2> search = graph.algorithms().newAstarSeach(start, end, null, null);
+        search.finish();
+        assertTrue(search.isLimitReached());
+        assertEquals(10, search.getExpansionCount());
+        assertEquals(2, graph.algorithms().findShortestPath(start, new Vector2(0, 1)).size());
+
+        graph.algorithms().setSearchLimits(SearchLimits.NONE.withTimeBudget(1));
+        search = graph.algorithms().newAstarSeach(start, end, null, null);
+        search.finish();
+        assertTrue(search.isLimitReached());
+        assertTrue(search.getPath().isEmpty());
+
+        graph.algorithms().setSearchLimits(SearchLimits.NONE);
+        search = graph.algorithms().newAstarSeach(start, end, null, null);
+        search.finish();
+        assertTrue(!search.isLimitReached());
+        assertEquals(2 * n - 1, search.getPath().size());
+    }
+
+    @Test
+    public void schedulerShouldFinishAlgorithmsByPriority() {
+        int n = 20;
+        Graph<Vector2> graph = TestUtils.makeGridGraph(new UndirectedGraph<>(), n);
+        Vector2 start = new Vector2(0, 0), end = new Vector2(n - 1, n - 1);
+        AlgorithmScheduler scheduler = new AlgorithmScheduler(8);
+        List<AStarSearch<Vector2>> finished = new ArrayList<>();
+
+        AStarSearch<Vector2> low = graph.algorithms().newAstarSeach(start, end, null, null);
+        AStarSearch<Vector2> high = graph.algorithms().newAstarSeach(end, start, null, null);
+        scheduler.add(low, -1, finished::add);
+        scheduler.add(high, 1, finished::add);
+        for (int i = 0; i < 10; i++) {
+            AStarSearch<Vector2> search = graph.algorithms().newAstarSeach(start, new Vector2(i, n - 1 - i), null, null);
+            scheduler.add(search, finished::add);
+        }
+        AStarSearch<Vector2> removed = graph.algorithms().newAstarSeach(start, end, null, null);
+        scheduler.add(removed, finished::add);
+        assertTrue(scheduler.remove(removed));
+        assertEquals(12, scheduler.size());
+
+        // a budget of 0 runs a single slice per tick
+        int ticks = 0;
+        while (!scheduler.isEmpty()) {
+            scheduler.tick(0);
+            ticks++;
+        }
+        assertTrue(ticks > 12);
+        assertEquals(12, finished.size());
+        assertSame(high, finished.get(0));
+        assertSame(low, finished.get(11));
+        for (AStarSearch<Vector2> search : finished) {
+            Path<Vector2> path = search.getPath();
+            assertEquals(graph.algorithms().findMinimumDistance(path.getFirst(), path.getLast()), path.getLength(), 0.0001f);
+        }
+        assertEquals(2 * n - 1, high.getPath().size());
+        assertTrue(!removed.isFinished());
+
+        // an algorithm which throws is dropped
+        AStarSearch<Vector2> failing = graph.algorithms().newAstarSeach(start, end, null, step -> {
+            throw new IllegalStateException();
+        });
+        scheduler.add(failing, finished::add);
+        try {
+            scheduler.finishAll();
+            fail("The exception should be rethrown");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        assertEquals(0, scheduler.size());
+        assertTrue(scheduler.isEmpty());
+        assertEquals(12, finished.size());
+    }
+
+    @Test
+    public void asyncSearchesShouldCompleteAndCancel() throws InterruptedException, ExecutionException {
+        int n = 20;
+        Graph<Vector2> graph = TestUtils.makeGridGraph(new UndirectedGraph<>(), n);
+        Vector2 start = new Vector2(0, 0), end = new Vector2(n - 1, n - 1);
+        Heuristic<Vector2> h = Vector2::dst;
+
+        assertEquals(2 * n - 1, graph.algorithms().findShortestPathAsync(start, end, h).get().size());
+        assertEquals(2 * n - 2, graph.algorithms().findMinimumDistanceAsync(start, end).get(), 0.0001f);
+
+        List<Runnable> tasks = new ArrayList<>();
+        graph.algorithms().setAsyncExecutor(tasks::add);
+        CompletableFuture<Path<Vector2>> cancelled = graph.algorithms().findShortestPathAsync(start, end);
+        CompletableFuture<Path<Vector2>> completed = graph.algorithms().findShortestPathAsync(end, start);
+        CompletableFuture<Float> failed = graph.algorithms().findMinimumDistanceAsync(start, new Vector2(-1, -1));
+        assertEquals(3, tasks.size());
+        assertTrue(cancelled.cancel(true));
+        for (Runnable task : tasks) {
+            task.run();
+        }
+        assertTrue(cancelled.isCancelled());
+        assertEquals(2 * n - 1, completed.get().size());
+        assertTrue(failed.isCompletedExceptionally());
+        graph.algorithms().setAsyncExecutor(null);
+    }
+
+    @Test
+    public void weightedSearchesShouldBeBoundedSuboptimal() {
+        int n = 30;
+        Random random = new Random(21);
+        Graph<Vector2> graph = TestUtils.makeGridGraph(new UndirectedGraph<>(), n);
+        for (Edge<Vector2> edge : graph.getEdges()) {
+            edge.setWeight(1 + random.nextInt(3));
+        }
+        Heuristic<Vector2> h = Vector2::dst;
+
+        for (int i = 0; i < 20; i++) {
+            Vector2 start = new Vector2(random.nextInt(n), random.nextInt(n));
+            Vector2 target = new Vector2(random.nextInt(n), random.nextInt(n));
+            float optimal = graph.algorithms().findMinimumDistance(start, target);
+
+            graph.algorithms().setHeuristicWeight(1.5f);
+            Path<Vector2> path = graph.algorithms().findShortestPath(start, target, h);
+            assertTrue(path.getLength() <= 1.5f * optimal + 0.0001f);
+            assertTrue(pathIsConnected(path, graph));
+            graph.algorithms().setHeuristicWeight(1);
+
+            AnytimeAStarSearch<Vector2> search = graph.algorithms().newAnytimeSearch(start, target, h, 2.5f, 0.5f);
+            int pathCount = 0;
+            while (!search.update()) {
+                if (search.getPathCount() > pathCount) {
+                    pathCount = search.getPathCount();
+                    assertTrue(search.getPath().getLength() <= search.getPathWeight() * optimal + 0.0001f);
+                }
+            }
+            assertEquals(1, search.getPathWeight(), 0);
+            assertEquals(optimal, search.getPath().getLength(), 0.0001f);
+            assertTrue(pathIsConnected(search.getPath(), graph));
+            assertEquals(optimal, graph.algorithms().findAnytimePath(start, target, h, 1.5f, Long.MAX_VALUE / 2).getLength(), 0.0001f);
+        }
+    }
+
+    @Test
+    public void flowFieldShouldMatchDijkstraAfterChanges() {
+        int n = 15;
+        Random random = new Random(11);
+        for (Graph<Vector2> graph : Arrays.asList(TestUtils.makeGridGraph(new UndirectedGraph<>(), n), TestUtils.makeGridGraph(new DirectedGraph<>(), n))) {
+            Vector2 target = new Vector2(n / 2, n / 2);
+            FlowField<Vector2> field = graph.algorithms().buildFlowField(target);
+            assertEquals(target, field.getTarget());
+            for (int step = 0; step < 20; step++) {
+                for (Vector2 v : graph.getVertices()) {
+                    float expected = graph.algorithms().findMinimumDistance(v, target);
+                    assertEquals(expected, field.getDistance(v), 0.0001f);
+                    Vector2 next = field.getNext(v);
+                    if (expected == Float.MAX_VALUE || v.equals(target)) {
+                        assertEquals(null, next);
+                        continue;
+                    }
+                    assertEquals(expected, graph.getEdge(v, next).getWeight() + field.getDistance(next), 0.0001f);
+                    Path<Vector2> path = field.pathFrom(v);
+                    assertEquals(expected, path.getLength(), 0.0001f);
+                    assertEquals(target, path.getLast());
+                    assertTrue(pathIsConnected(path, graph));
+                }
+
+                for (int i = 0; i < 10; i++) {
+                    Vector2 u = new Vector2(random.nextInt(n), random.nextInt(n));
+                    Vector2 v = new Vector2(u.x + 1, u.y);
+                    if (!graph.contains(v)) continue;
+                    if (random.nextInt(5) == 0) {
+                        if (graph.edgeExists(u, v)) graph.removeEdge(u, v);
+                        else graph.addEdge(u, v);
+                        field.edgeChanged(u, v);
+                    } else if (graph.edgeExists(u, v)) {
+                        graph.getEdge(u, v).setWeight(1 + random.nextInt(5));
+                        if (i % 2 == 0) field.vertexChanged(u);
+                        else field.edgeChanged(u, v);
+                    }
+                }
+                field.refresh();
+            }
+        }
+    }
+
+    @Test
+    public void kShortestPathsShouldMatchEnumeration() {
+        int n = 4, k = 30;
+        Random random = new Random(13);
+        for (Graph<Vector2> graph : Arrays.asList(TestUtils.makeGridGraph(new UndirectedGraph<>(), n), TestUtils.makeGridGraph(new DirectedGraph<>(), n))) {
+            for (Edge<Vector2> edge : graph.getEdges()) {
+                edge.setWeight(1 + random.nextInt(4));
+            }
+            Vector2 start = new Vector2(0, 0), target = new Vector2(n - 1, n - 1);
+            List<Float> expected = new ArrayList<>();
+            enumerateSimplePaths(graph, start, target, new ArrayList<>(Arrays.asList(start)), 0, expected);
+            expected.sort(null);
+
+            List<Path<Vector2>> paths = graph.algorithms().findKShortestPaths(start, target, k);
+            assertEquals(Math.min(k, expected.size()), paths.size());
+            Set<List<Vector2>> distinct = new HashSet<>();
+            for (int i = 0; i < paths.size(); i++) {
+                Path<Vector2> path = paths.get(i);
+                assertEquals(expected.get(i), path.getLength(), 0.0001f);
+                assertEquals(start, path.getFirst());
+                assertEquals(target, path.getLast());
+                assertTrue(pathIsConnected(path, graph));
+                assertEquals(path.size(), new HashSet<>(path).size());
+                assertTrue(distinct.add(new ArrayList<>(path)));
+            }
+            assertEquals(expected.size(), graph.algorithms().findKShortestPaths(start, target, 1000).size());
+        }
+    }
+
+    private static void enumerateSimplePaths(Graph<Vector2> graph, Vector2 u, Vector2 target, List<Vector2> path, float length, List<Float> lengths) {
+        if (u.equals(target)) {
+            lengths.add(length);
+            return;
+        }
+        for (Edge<Vector2> edge : graph.getEdges(u)) {
+            Vector2 v = edge.getB();
+            if (path.contains(v)) continue;
+            path.add(v);
+            enumerateSimplePaths(graph, v, target, path, length + edge.getWeight(), lengths);
+            path.remove(path.size() - 1);
+        }
+    }
+
+    @Test
+    public void stronglyConnectedComponentsShouldMatchReachability() {
+        int n = 60;
+        Random random = new Random(17);
+        DirectedGraph<Integer> graph = new DirectedGraph<>();
+        for (int i = 0; i < n; i++) {
+            graph.addVertex(i);
+        }
+        for (int i = 0; i < 90; i++) {
+            int u = random.nextInt(n), v = random.nextInt(n);
+            if (u != v) graph.addEdge(u, v);
+        }
+        graph.removeVertex(n - 1);
+
+        StronglyConnectedComponents<Integer> components = graph.algorithms().findStronglyConnectedComponents();
+        List<List<Integer>> lists = components.getComponents();
+        assertEquals(components.getComponentCount(), lists.size());
+        int total = 0;
+        for (List<Integer> list : lists) {
+            assertTrue(!list.isEmpty());
+            total += list.size();
+        }
+        assertEquals(graph.size(), total);
+        for (Integer u : graph.getVertices()) {
+            assertTrue(lists.get(components.getComponent(u)).contains(u));
+            for (Integer v : graph.getVertices()) {
+                boolean expected = graph.algorithms().isConnected(u, v) && graph.algorithms().isConnected(v, u);
+                assertEquals(expected, components.isStronglyConnected(u, v));
+            }
+        }
+
+        IntDirectedGraph condensation = components.buildCondensation();
+        assertEquals(components.getComponentCount(), condensation.size());
+        for (Edge<Integer> edge : graph.getEdges()) {
+            int a = components.getComponent(edge.getA()), b = components.getComponent(edge.getB());
+            assertTrue(a <= b);
+            assertEquals(a != b, condensation.edgeExists(a, b));
+        }
+        assertTrue(!condensation.algorithms().containsCycle());
+
+        // a long cycle would overflow the call stack of a recursive search
+        int length = 200_000;
+        DirectedGraph<Integer> cycle = new DirectedGraph<>();
+        for (int i = 0; i < length; i++) {
+            cycle.addVertex(i);
+        }
+        for (int i = 0; i < length; i++) {
+            cycle.addEdge(i, (i + 1) % length);
+        }
+        assertEquals(1, cycle.algorithms().findStronglyConnectedComponents().getComponentCount());
+        cycle.removeEdge(length - 1, 0);
+        StronglyConnectedComponents<Integer> chain = cycle.algorithms().findStronglyConnectedComponents();
+        assertEquals(length, chain.getComponentCount());
+        assertEquals(0, chain.getComponent(0));
+        assertEquals(length - 1, chain.getComponent(length - 1));
+    }
+
+    @Test
+    public void topologicalOrderAndLayersShouldRespectEdges() {
+        DirectedGraph<Integer> graph = new DirectedGraph<>();
+        graph.addVertices(0, 1, 2, 3, 4, 5, 6);
+        graph.addEdge(4, 1);
+        graph.addEdge(4, 2);
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 0);
+        graph.addEdge(3, 5);
+        graph.addEdge(5, 0);
+        List<Integer> vertices = new ArrayList<>(graph.getVertices());
+
+        List<Integer> order = new ArrayList<>();
+        assertTrue(graph.algorithms().topologicalSort(order));
+        assertEquals(graph.size(), order.size());
+        for (Edge<Integer> edge : graph.getEdges()) {
+            assertTrue(order.indexOf(edge.getA()) < order.indexOf(edge.getB()));
+        }
+        assertEquals(vertices, new ArrayList<>(graph.getVertices()));
+
+        List<List<Integer>> layers = new ArrayList<>();
+        assertTrue(graph.algorithms().topologicalLayers(layers));
+        List<Set<Integer>> expectedLayers = Arrays.asList(new HashSet<>(Arrays.asList(3, 4, 6)), new HashSet<>(Arrays.asList(1, 5)),
+                new HashSet<>(Arrays.asList(2)), new HashSet<>(Arrays.asList(0)));
+        assertEquals(expectedLayers.size(), layers.size());
+        for (int i = 0; i < layers.size(); i++) {
+            assertEquals(expectedLayers.get(i), new HashSet<>(layers.get(i)));
+        }
+
+        // vertices on or after a cycle are left out
+        graph.addEdge(0, 6);
+        graph.addEdge(6, 5);
+        order.clear();
+        assertTrue(!graph.algorithms().topologicalSort(order));
+        assertEquals(Arrays.asList(3, 4, 1, 2), order);
+        assertTrue(!graph.algorithms().topologicalSort());
+        assertEquals(vertices, new ArrayList<>(graph.getVertices()));
+
+        // a long chain would overflow the call stack of a recursive sort
+        int length = 200_000;
+        DirectedGraph<Integer> chain = new DirectedGraph<>();
+        for (int i = 0; i < length; i++) {
+            chain.addVertex(i);
+        }
+        for (int i = 1; i < length; i++) {
+            chain.addEdge(i, i - 1);
+        }
+        assertTrue(chain.topologicalSort());
+        int expected = length - 1;
+        for (Integer vertex : chain.getVertices()) {
+            assertEquals(expected--, (int) vertex);
+        }
+        layers.clear();
+        assertTrue(chain.algorithms().topologicalLayers(layers));
+        assertEquals(length, layers.size());
+    }
 }
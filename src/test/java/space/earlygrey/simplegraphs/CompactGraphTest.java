@@ -0,0 +1,184 @@
+/*
+MIT License
+
+Copyright (c) 2020 earlygrey
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package space.earlygrey.simplegraphs;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import space.earlygrey.simplegraphs.TestUtils.Vector2;
+import space.earlygrey.simplegraphs.algorithms.SearchMode;
+import space.earlygrey.simplegraphs.utils.Heuristic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CompactGraphTest {
+
+    @Test
+    public void snapshotShouldMatchGraph() {
+        int n = 10;
+        Graph<Vector2> graph = TestUtils.makeGridGraph(new UndirectedGraph<>(), n);
+        CompactGraph<Vector2> compact = graph.freeze();
+
+        assertEquals(graph.size(), compact.size());
+        assertEquals(graph.getEdgeCount(), compact.getEdgeCount());
+        assertFalse(compact.isDirected());
+        assertEquals(new ArrayList<>(graph.getVertices()), compact.getVertices());
+
+        for (Vector2 v : graph.getVertices()) {
+            assertTrue(compact.contains(v));
+            assertEquals(v, compact.getVertex(compact.getId(v)));
+        }
+        assertFalse(compact.contains(new Vector2(-1, -1)));
+
+        Vector2 a = new Vector2(0, 0), b = new Vector2(0, 1), c = new Vector2(1, 1);
+        assertTrue(compact.edgeExists(a, b));
+        assertTrue(compact.edgeExists(b, a));
+        assertFalse(compact.edgeExists(a, c));
+        assertEquals(compact.getEdge(a, b), compact.getEdge(b, a));
+        assertNull(compact.getEdge(a, c));
+        assertEquals(1, compact.getEdge(a, b).getWeight(), 0.0001f);
+
+        // the snapshot is not affected by changes to the original graph
+        graph.removeEdge(a, b);
+        assertTrue(compact.edgeExists(a, b));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void snapshotShouldBeImmutable() {
+        Graph<Integer> graph = new DirectedGraph<>();
+        graph.addVertices(0, 1);
+        graph.addEdge(0, 1);
+        graph.freeze().getEdge(0, 1).setWeight(2);
+    }
+
+    @Test
+    public void shortestPathShouldMatchGraph() {
+        int n = 20;
+        List<Graph<Vector2>> graphs = Arrays.asList(
+                TestUtils.makeGridGraph(new UndirectedGraph<>(), n),
+                TestUtils.makeGridGraph(new DirectedGraph<>(), n));
+        Vector2 start = new Vector2(0, 0), end = new Vector2(n - 1, n - 1);
+        Heuristic<Vector2> h = Vector2::dst;
+
+        for (Graph<Vector2> graph : graphs) {
+            graph.getEdge(new Vector2(0, 0), new Vector2(1, 0)).setWeight(5);
+            CompactGraph<Vector2> compact = graph.freeze();
+            // integer weights, so searches without a heuristic use a bucket queue
+            assertEquals(5, compact.getIntegerWeightBound());
+
+            Path<Vector2> expected = graph.algorithms().findShortestPath(start, end);
+            Path<Vector2> path = compact.algorithms().findShortestPath(start, end);
+            assertEquals(expected.size(), path.size());
+            assertEquals(expected.getLength(), path.getLength(), 0.0001f);
+            assertEquals(start, path.getFirst());
+            assertEquals(end, path.getLast());
+            for (int i = 0; i < path.size() - 1; i++) {
+                assertTrue(graph.edgeExists(path.get(i), path.get(i + 1)));
+            }
+
+            path = compact.algorithms().findShortestPath(start, end, h);
+            assertEquals(expected.getLength(), path.getLength(), 0.0001f);
+            assertEquals(graph.algorithms().findMinimumDistance(start, end), compact.algorithms().findMinimumDistance(start, end), 0.0001f);
+            assertTrue(compact.algorithms().isConnected(start, end));
+
+            // the backward search follows the reversed edges, which are not symmetric in the directed graph
+            assertEquals(expected.getLength(), compact.algorithms().findShortestPath(start, end, SearchMode.BIDIRECTIONAL).getLength(), 0.0001f);
+            assertEquals(graph.algorithms().findMinimumDistance(end, start), compact.algorithms().findMinimumDistance(end, start, SearchMode.BIDIRECTIONAL, h), 0.0001f);
+            assertEquals(expected.getLength(), compact.algorithms().shortestPathTree(start).getDistance(end), 0.0001f);
+
+            graph.disconnect(end);
+            compact = graph.freeze();
+            assertEquals(0, compact.algorithms().findShortestPath(start, end).size());
+            assertFalse(compact.algorithms().isConnected(start, end));
+        }
+    }
+
+    @Test
+    public void searchesShouldWork() {
+        DirectedGraph<Integer> graph = new DirectedGraph<>();
+        graph.addVertices(0, 1, 2, 3, 4, 5, 6);
+        graph.addEdge(0, 1);
+        graph.addEdge(0, 2);
+        graph.addEdge(1, 3);
+        graph.addEdge(2, 4);
+        graph.addEdge(3, 5);
+        graph.addEdge(4, 5);
+        CompactGraph<Integer> compact = graph.freeze();
+
+        List<Integer> order = new ArrayList<>();
+        Graph<Integer> tree = graph.createNew();
+        tree.addVertex(0);
+        compact.algorithms().breadthFirstSearch(0, step -> {
+            order.add(step.vertex());
+            tree.addVertex(step.vertex());
+            if (step.count() > 0) {
+                assertEquals(step.previous(), step.edge().getA());
+                tree.addEdge(step.edge());
+            }
+        });
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5), order);
+        assertEquals(5, tree.getEdgeCount());
+
+        order.clear();
+        compact.algorithms().depthFirstSearch(0, step -> {
+            order.add(step.vertex());
+            assertEquals(step.depth(), step.createPath().size() - 1);
+        });
+        assertEquals(Arrays.asList(0, 2, 4, 5, 1, 3), order);
+
+        order.clear();
+        compact.algorithms().dijkstraSearch(0, step -> {
+            order.add(step.vertex());
+            if (step.vertex() == 3) step.terminate();
+        });
+        assertEquals(3, (int) order.get(order.size() - 1));
+    }
+
+    @Test
+    public void cyclesShouldBeDetected() {
+        DirectedGraph<Integer> graph = new DirectedGraph<>();
+        graph.addVertices(0, 1, 2, 3);
+        graph.addEdge(0, 1);
+        graph.addEdge(1, 2);
+        graph.addEdge(0, 2);
+        assertFalse(graph.freeze().algorithms().containsCycle());
+        graph.addEdge(2, 0);
+        assertTrue(graph.freeze().algorithms().containsCycle());
+
+        UndirectedGraph<Integer> undirectedGraph = new UndirectedGraph<>();
+        undirectedGraph.addVertices(0, 1, 2, 3);
+        undirectedGraph.addEdge(0, 1);
+        undirectedGraph.addEdge(1, 2);
+        undirectedGraph.addEdge(2, 3);
+        assertFalse(undirectedGraph.freeze().algorithms().containsCycle());
+        undirectedGraph.addEdge(0, 2);
+        assertTrue(undirectedGraph.freeze().algorithms().containsCycle());
+    }
+}
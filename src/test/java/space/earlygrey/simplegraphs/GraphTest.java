@@ -273,4 +273,42 @@ public class GraphTest {
             assertEquals(Integer.valueOf(i++), edge.getA());
         }
     }
+
+    @Test
+    public void edgeOrderCanBePreserved() {
+        for (boolean preserveOrder : new boolean[]{false, true}) {
+            for (Graph<Integer> graph : Arrays.<Graph<Integer>>asList(new DirectedGraph<>(), new UndirectedGraph<>())) {
+                graph.setPreserveEdgeOrder(preserveOrder);
+                int n = 50;
+                for (int i = 0; i <= n; i++) graph.addVertex(i);
+                for (int i = 1; i <= n; i++) graph.addEdge(0, i);
+                if (graph.isDirected()) for (int i = 1; i <= n; i++) graph.addEdge(i, 0);
+
+                Random random = new Random(0);
+                List<Integer> remaining = IntStream.rangeClosed(1, n).boxed().collect(Collectors.toList());
+                while (remaining.size() > n / 2) {
+                    Integer v = remaining.remove(random.nextInt(remaining.size()));
+                    assertTrue(graph.removeEdge(0, v));
+                    if (graph.isDirected()) assertTrue(graph.removeEdge(v, 0));
+                }
+
+                List<Integer> neighbours = graph.getEdges(0).stream().map(Edge::getB).collect(Collectors.toList());
+                if (preserveOrder) {
+                    assertEquals(remaining, neighbours);
+                } else {
+                    Collections.sort(neighbours);
+                    assertEquals(remaining, neighbours);
+                }
+                assertEquals(remaining.size(), graph.internals().getNode(0).getInDegree());
+
+                // the remaining edges can still be removed after being moved
+                for (Integer v : remaining) {
+                    assertTrue(graph.removeEdge(0, v));
+                }
+                assertEquals(graph.isDirected() ? remaining.size() : 0, graph.getEdgeCount());
+                graph.removeVertex(0);
+                assertEquals(0, graph.getEdgeCount());
+            }
+        }
+    }
 }
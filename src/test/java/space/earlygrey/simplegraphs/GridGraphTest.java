@@ -0,0 +1,307 @@
+/*
+MIT License
+
+Copyright (c) 2020 earlygrey
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package space.earlygrey.simplegraphs;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import space.earlygrey.simplegraphs.algorithms.HierarchicalPathfinder;
+import space.earlygrey.simplegraphs.algorithms.JumpPointSearch;
+import space.earlygrey.simplegraphs.algorithms.QueueType;
+import space.earlygrey.simplegraphs.algorithms.SearchContext;
+import space.earlygrey.simplegraphs.algorithms.SearchLimits;
+import space.earlygrey.simplegraphs.utils.IntHeuristic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class GridGraphTest {
+
+    private static boolean isAdjacent(GridGraph grid, int u, int v) {
+        int dx = Math.abs(grid.getX(u) - grid.getX(v)), dy = Math.abs(grid.getY(u) - grid.getY(v));
+        return grid.isDiagonal() ? Math.max(dx, dy) == 1 : dx + dy == 1;
+    }
+
+    @Test
+    public void neighboursShouldBeCorrect() {
+        GridGraph grid = new GridGraph(5, 4, false);
+        assertEquals(20, grid.size());
+        assertEquals(2, grid.getOutDegree(grid.getCell(0, 0)));
+        assertEquals(3, grid.getOutDegree(grid.getCell(2, 0)));
+        assertEquals(4, grid.getOutDegree(grid.getCell(2, 2)));
+
+        grid.setBlocked(2, 1, true);
+        assertEquals(19, grid.size());
+        assertFalse(grid.contains(grid.getCell(2, 1)));
+        assertEquals(3, grid.getOutDegree(grid.getCell(2, 2)));
+        assertEquals(0, grid.getOutDegree(grid.getCell(2, 1)));
+
+        GridGraph diagonal = new GridGraph(5, 4, true);
+        assertEquals(3, diagonal.getOutDegree(diagonal.getCell(0, 0)));
+        assertEquals(8, diagonal.getOutDegree(diagonal.getCell(2, 2)));
+        // blocking a cell also removes the diagonal moves which would cut its corner
+        diagonal.setBlocked(2, 1, true);
+        assertEquals(5, diagonal.getOutDegree(diagonal.getCell(2, 2)));
+        for (int cell = 0; cell < 20; cell++) {
+            for (int slot = 0; slot < diagonal.getOutDegree(cell); slot++) {
+                int target = diagonal.getOutTarget(cell, slot);
+                assertTrue(isAdjacent(diagonal, cell, target));
+                assertTrue(diagonal.contains(target));
+            }
+        }
+        diagonal.setBlocked(2, 1, false);
+        assertEquals(8, diagonal.getOutDegree(diagonal.getCell(2, 2)));
+    }
+
+    @Test
+    public void shortestPathShouldBeCorrect() {
+        int n = 20;
+        GridGraph grid = new GridGraph(n, n, false);
+        int start = grid.getCell(0, 0), end = grid.getCell(n - 1, n - 1);
+        IntPath path = grid.algorithms().findShortestPath(start, end, grid.getHeuristic());
+        assertEquals(2 * (n - 1) + 1, path.size());
+        assertEquals(2 * (n - 1), path.getLength(), 0.0001f);
+
+        // a wall with a gap at the top
+        for (int y = 0; y < n - 1; y++) {
+            grid.setBlocked(n / 2, y, true);
+        }
+        path = grid.algorithms().findShortestPath(start, end, grid.getHeuristic());
+        assertEquals(2 * (n - 1), path.getLength(), 0.0001f);
+        for (int i = 0; i < path.size() - 1; i++) {
+            assertTrue(isAdjacent(grid, path.get(i), path.get(i + 1)));
+            assertTrue(grid.contains(path.get(i)));
+        }
+        assertEquals(grid.algorithms().findMinimumDistance(start, end), path.getLength(), 0.0001f);
+
+        grid.setBlocked(n / 2, n - 1, true);
+        assertTrue(grid.algorithms().findShortestPath(start, end).isEmpty());
+        assertFalse(grid.algorithms().isConnected(start, end));
+
+        GridGraph diagonal = new GridGraph(n, n, true);
+        start = diagonal.getCell(0, 0);
+        end = diagonal.getCell(n - 1, 5);
+        IntHeuristic heuristic = diagonal.getHeuristic();
+        float expected = (n - 1 - 5) + 5 * GridGraph.SQRT2;
+        assertEquals(expected, diagonal.algorithms().findMinimumDistance(start, end), 0.0001f);
+        assertEquals(expected, diagonal.algorithms().findMinimumDistance(start, end, heuristic), 0.0001f);
+        assertEquals(expected, heuristic.getEstimate(start, end), 0.0001f);
+    }
+
+    @Test
+    public void costsShouldBeUsed() {
+        GridGraph grid = new GridGraph(3, 3, false);
+        int start = grid.getCell(0, 1), end = grid.getCell(2, 1);
+        assertEquals(2, grid.algorithms().findMinimumDistance(start, end), 0.0001f);
+        grid.setCost(1, 1, 10);
+        assertEquals(10, grid.getCost(1, 1), 0f);
+        IntPath path = grid.algorithms().findShortestPath(start, end, grid.getHeuristic());
+        assertEquals(4, path.getLength(), 0.0001f);
+        assertFalse(path.contains(grid.getCell(1, 1)));
+
+        grid.setCost(0, 0, 0.5f);
+        assertTrue(grid.getHeuristic().getEstimate(start, end) <= grid.algorithms().findMinimumDistance(start, end));
+    }
+
+    @Test
+    public void bucketQueueShouldFindShortestPathsWithFractionalWeights() {
+        int n = 30;
+        Random random = new Random(7);
+        GridGraph grid = new GridGraph(n, n, true);
+        for (int x = 0; x < n; x++) {
+            for (int y = 0; y < n; y++) {
+                grid.setCost(x, y, 1 + random.nextInt(8));
+            }
+        }
+        int[] starts = new int[20], ends = new int[20];
+        float[] expected = new float[20];
+        for (int i = 0; i < starts.length; i++) {
+            starts[i] = grid.getCell(random.nextInt(n), random.nextInt(n));
+            ends[i] = grid.getCell(random.nextInt(n), random.nextInt(n));
+            expected[i] = grid.algorithms().findMinimumDistance(starts[i], ends[i]);
+        }
+
+        // the weights are not integers, so the bucket queue should not be used even when it is chosen
+        grid.algorithms().setQueueType(QueueType.BUCKET_QUEUE);
+        for (int i = 0; i < starts.length; i++) {
+            assertEquals(expected[i], grid.algorithms().findMinimumDistance(starts[i], ends[i]), 0.0001f);
+            assertEquals(expected[i], grid.algorithms().findMinimumDistance(starts[i], ends[i], grid.getHeuristic()), 0.0001f);
+        }
+    }
+
+    @Test
+    public void searchesShouldVisitOpenCells() {
+        GridGraph grid = new GridGraph(10, 10, true);
+        grid.setBlocked(3, 3, true);
+        grid.setBlocked(7, 2, true);
+        int[] count = {0};
+        grid.algorithms().breadthFirstSearch(0, step -> {
+            count[0]++;
+            assertTrue(grid.contains(step.vertexAsInt()));
+            if (step.count() > 0) assertTrue(isAdjacent(grid, step.previousAsInt(), step.vertexAsInt()));
+        });
+        assertEquals(98, count[0]);
+        count[0] = 0;
+        grid.algorithms().depthFirstSearch(0, step -> count[0]++);
+        assertEquals(98, count[0]);
+        assertTrue(grid.algorithms().containsCycle());
+    }
+
+    @Test
+    public void jumpPointSearchShouldApplySearchLimits() {
+        int n = 30;
+        GridGraph uniform = new GridGraph(n, n, true);
+        GridGraph costs = new GridGraph(n, n, true);
+        costs.setCost(n - 1, 0, 2);
+        for (GridGraph grid : new GridGraph[] {uniform, costs}) {
+            int start = grid.getCell(0, 0), end = grid.getCell(n - 1, n - 1);
+            float expected = grid.algorithms().findJumpPointDistance(start, end);
+
+            // the heuristic weight does not apply, so the path is still a shortest one
+            grid.algorithms().setHeuristicWeight(1.5f);
+            assertEquals(expected, grid.algorithms().findJumpPointDistance(start, end), 0.001f);
+            grid.algorithms().setHeuristicWeight(1);
+
+            grid.algorithms().setSearchLimits(SearchLimits.NONE.withMaxDistance(expected - 1));
+            assertTrue(grid.algorithms().findJumpPointPath(start, end).isEmpty());
+            assertEquals(Float.MAX_VALUE, grid.algorithms().findJumpPointDistance(start, end), 0f);
+            grid.algorithms().setSearchLimits(SearchLimits.NONE.withMaxDepth(n - 2));
+            assertTrue(grid.algorithms().findJumpPointPath(start, end).isEmpty());
+            grid.algorithms().setSearchLimits(SearchLimits.NONE.withMaxDistance(expected));
+            assertEquals(n, grid.algorithms().findJumpPointPath(start, end).size());
+            grid.algorithms().setSearchLimits(SearchLimits.NONE);
+        }
+
+        uniform.algorithms().setSearchLimits(SearchLimits.NONE.withMaxExpansions(0));
+        JumpPointSearch search = uniform.algorithms().newJumpPointSearch(0, n * n - 1, new SearchContext());
+        search.finish();
+        assertTrue(search.isLimitReached());
+        assertTrue(search.getPath().isEmpty());
+        assertEquals(0, search.getExpansionCount());
+    }
+
+    private static boolean isEdge(GridGraph grid, int u, int v) {
+        for (int slot = 0; slot < grid.getOutDegree(u); slot++) {
+            if (grid.getOutTarget(u, slot) == v) return true;
+        }
+        return false;
+    }
+
+    @Test
+    public void jumpPointSearchShouldMatchAStar() {
+        int n = 40;
+        Random random = new Random(4);
+        GridGraph grid = new GridGraph(n, n, true);
+        for (int i = 0; i < n * n / 4; i++) {
+            grid.setBlocked(random.nextInt(n), random.nextInt(n), true);
+        }
+        for (int i = 0; i < 200; i++) {
+            int start = random.nextInt(n * n), end = random.nextInt(n * n);
+            if (!grid.contains(start) || !grid.contains(end)) continue;
+            float expected = grid.algorithms().findMinimumDistance(start, end, grid.getHeuristic());
+            IntPath path = grid.algorithms().findJumpPointPath(start, end);
+            assertEquals(expected, grid.algorithms().findJumpPointDistance(start, end), 0.001f);
+            if (expected == Float.MAX_VALUE) {
+                assertTrue(path.isEmpty());
+                continue;
+            }
+            assertEquals(expected, path.getLength(), 0.001f);
+            assertEquals(start, path.getFirst());
+            assertEquals(end, path.getLast());
+            for (int j = 0; j < path.size() - 1; j++) {
+                assertTrue("Path contains an illegal move", isEdge(grid, path.get(j), path.get(j + 1)));
+            }
+        }
+
+        // the search jumps over open areas instead of expanding every cell
+        GridGraph open = new GridGraph(100, 100, true);
+        int start = open.getCell(0, 0), end = open.getCell(99, 60);
+        JumpPointSearch search = open.algorithms().newJumpPointSearch(start, end, new SearchContext());
+        int steps = 0;
+        while (!search.update()) {
+            steps++;
+        }
+        assertTrue(steps < 10);
+        assertEquals(100, search.getPath().size());
+    }
+
+    private static void checkHierarchicalPaths(GridGraph grid, HierarchicalPathfinder<Integer> pathfinder, Random random) {
+        int n = grid.getWidth() * grid.getHeight();
+        for (int i = 0; i < 200; i++) {
+            int start = random.nextInt(n), end = random.nextInt(n);
+            if (!grid.contains(start) || !grid.contains(end)) continue;
+            float expected = grid.algorithms().findMinimumDistance(start, end, grid.getHeuristic());
+            Path<Integer> path = pathfinder.findShortestPath(start, end);
+            if (expected == Float.MAX_VALUE) {
+                assertTrue(path.isEmpty());
+                continue;
+            }
+            // paths only cross between chunks at entrances, so they can be longer than the shortest path
+            assertTrue(path.getLength() >= expected - 0.001f);
+            assertTrue(path.getLength() <= expected * 1.5f + 2);
+            assertEquals(path.getLength(), pathfinder.findDistance(start, end, null), 0.001f);
+            assertEquals(start, (int) path.getFirst());
+            assertEquals(end, (int) path.getLast());
+            float length = 0;
+            for (int j = 0; j < path.size() - 1; j++) {
+                int u = path.get(j), v = path.get(j + 1);
+                assertTrue("Path contains an illegal move", isEdge(grid, u, v));
+                length += isAdjacent(grid, u, v) && grid.getX(u) != grid.getX(v) && grid.getY(u) != grid.getY(v) ? GridGraph.SQRT2 : 1;
+            }
+            assertEquals(length, path.getLength(), 0.001f);
+        }
+    }
+
+    @Test
+    public void hierarchicalPathsShouldBeValid() {
+        int n = 48;
+        Random random = new Random(11);
+        for (boolean diagonal : new boolean[] {false, true}) {
+            GridGraph grid = new GridGraph(n, n, diagonal);
+            for (int i = 0; i < n * n / 5; i++) {
+                grid.setBlocked(random.nextInt(n), random.nextInt(n), true);
+            }
+            HierarchicalPathfinder<Integer> pathfinder = grid.algorithms().newHierarchicalPathfinder(8);
+            assertEquals(36, pathfinder.getClusterCount());
+            assertTrue(pathfinder.getEntranceCount() < n * n / 4);
+            checkHierarchicalPaths(grid, pathfinder, random);
+
+            // wall off a column of chunks, then open it again, updating only the chunks that changed
+            for (int y = 0; y < n; y++) {
+                grid.setBlocked(20, y, true);
+                pathfinder.updateCluster(pathfinder.getClusterOfId(grid.getCell(20, y)));
+            }
+            assertTrue(pathfinder.findShortestPath(grid.getCell(0, 0), grid.getCell(n - 1, 0)).isEmpty() || !grid.contains(grid.getCell(0, 0))
+                    || !grid.contains(grid.getCell(n - 1, 0)));
+            checkHierarchicalPaths(grid, pathfinder, random);
+            for (int y = 0; y < n; y += 2) {
+                grid.setBlocked(20, y, false);
+                pathfinder.updateCluster(pathfinder.getClusterOfId(grid.getCell(20, y)));
+            }
+            checkHierarchicalPaths(grid, pathfinder, random);
+        }
+    }
+}
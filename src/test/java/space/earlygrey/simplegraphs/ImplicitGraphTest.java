@@ -0,0 +1,143 @@
+/*
+MIT License
+
+Copyright (c) 2020 earlygrey
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package space.earlygrey.simplegraphs;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import space.earlygrey.simplegraphs.TestUtils.Vector2;
+import space.earlygrey.simplegraphs.algorithms.SearchLimits;
+import space.earlygrey.simplegraphs.utils.Heuristic;
+import space.earlygrey.simplegraphs.utils.NeighbourFunction;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ImplicitGraphTest {
+
+    // a grid with no bounds, where the weight of each edge depends on its endpoints
+    static final NeighbourFunction<Vector2> GRID = (v, neighbours) -> {
+        neighbours.add(new Vector2(v.x + 1, v.y), weight(v.x, v.y, 0));
+        neighbours.add(new Vector2(v.x - 1, v.y), weight(v.x, v.y, 1));
+        neighbours.add(new Vector2(v.x, v.y + 1), weight(v.x, v.y, 2));
+        neighbours.add(new Vector2(v.x, v.y - 1), weight(v.x, v.y, 3));
+    };
+
+    static float weight(float x, float y, int direction) {
+        return 1 + Math.floorMod((int) x * 7 + (int) y * 13 + direction * 5, 4);
+    }
+
+    static NeighbourFunction<Vector2> bounded(int n) {
+        return (v, neighbours) -> GRID.getNeighbours(v, (w, weight) -> {
+            if (w.x >= 0 && w.y >= 0 && w.x < n && w.y < n) neighbours.add(w, weight);
+        });
+    }
+
+    @Test
+    public void searchesShouldMatchMaterialisedGraph() {
+        int n = 12;
+        ImplicitGraph<Vector2> implicit = new ImplicitGraph<>(bounded(n));
+        Graph<Vector2> graph = new DirectedGraph<>();
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                graph.addVertex(new Vector2(i, j));
+            }
+        }
+        for (Vector2 v : graph.getVertices()) {
+            bounded(n).getNeighbours(v, (w, weight) -> graph.addEdge(v, w, weight));
+        }
+        Heuristic<Vector2> manhattan = (a, b) -> Math.abs(a.x - b.x) + Math.abs(a.y - b.y);
+
+        Random random = new Random(3);
+        for (int i = 0; i < 20; i++) {
+            Vector2 start = new Vector2(random.nextInt(n), random.nextInt(n)), target = new Vector2(random.nextInt(n), random.nextInt(n));
+            float expected = graph.algorithms().findMinimumDistance(start, target);
+            assertEquals(expected, implicit.algorithms().findMinimumDistance(start, target), 0.0001f);
+            Path<Vector2> path = implicit.algorithms().findShortestPath(start, target, manhattan);
+            assertEquals(expected, path.getLength(), 0.0001f);
+            assertEquals(start, path.getFirst());
+            assertEquals(target, path.getLast());
+            float length = 0;
+            for (int j = 0; j < path.size() - 1; j++) {
+                length += graph.getEdge(path.get(j), path.get(j + 1)).getWeight();
+            }
+            assertEquals(expected, length, 0.0001f);
+        }
+        assertEquals(n * n, implicit.size());
+        assertFalse(implicit.isCapacityReached());
+
+        List<Vector2> bfs = new ArrayList<>(), dfs = new ArrayList<>();
+        implicit.clear();
+        implicit.algorithms().breadthFirstSearch(new Vector2(0, 0), step -> bfs.add(step.vertex()));
+        implicit.algorithms().depthFirstSearch(new Vector2(0, 0), step -> dfs.add(step.vertex()));
+        assertEquals(n * n, bfs.size());
+        assertEquals(n * n, dfs.size());
+        for (int j = 1; j < bfs.size(); j++) {
+            assertTrue(manhattan.getEstimate(bfs.get(j - 1), new Vector2(0, 0)) <= manhattan.getEstimate(bfs.get(j), new Vector2(0, 0)));
+        }
+    }
+
+    @Test
+    public void searchesShouldOnlyDiscoverWhatTheyExplore() {
+        ImplicitGraph<Vector2> graph = new ImplicitGraph<>(GRID);
+        Vector2 start = new Vector2(0, 0), target = new Vector2(30, 0);
+        Heuristic<Vector2> manhattan = (a, b) -> Math.abs(a.x - b.x) + Math.abs(a.y - b.y);
+        Path<Vector2> path = graph.algorithms().findShortestPath(start, target, manhattan);
+        assertEquals(target, path.getLast());
+        assertTrue(graph.size() < 3000);
+        assertEquals(path.getLength(), graph.algorithms().findMinimumDistance(start, target, manhattan), 0.0001f);
+
+        graph.algorithms().setSearchLimits(SearchLimits.NONE.withMaxExpansions(100));
+        graph.clear();
+        assertTrue(graph.algorithms().findShortestPath(start, new Vector2(1000, 1000)).isEmpty());
+        assertTrue(graph.size() <= 1 + 100 * 4);
+    }
+
+    @Test
+    public void capacityShouldBoundDiscovery() {
+        ImplicitGraph<Vector2> graph = new ImplicitGraph<>(GRID, 50);
+        List<Vector2> visited = new ArrayList<>();
+        graph.algorithms().breadthFirstSearch(new Vector2(0, 0), step -> visited.add(step.vertex()));
+        assertEquals(50, graph.size());
+        assertEquals(50, visited.size());
+        assertTrue(graph.isCapacityReached());
+        assertTrue(graph.contains(new Vector2(1, 0)));
+
+        graph.clear();
+        assertEquals(0, graph.size());
+        assertFalse(graph.isCapacityReached());
+        assertFalse(graph.contains(new Vector2(1, 0)));
+        assertTrue(graph.algorithms().findShortestPath(new Vector2(0, 0), new Vector2(20, 20)).isEmpty());
+        assertEquals(2, graph.algorithms().findShortestPath(new Vector2(0, 0), new Vector2(1, 0)).size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void capacityShouldBePositive() {
+        new ImplicitGraph<>(GRID, 0);
+    }
+}
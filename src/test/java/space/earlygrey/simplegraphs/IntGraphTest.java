@@ -0,0 +1,173 @@
+/*
+MIT License
+
+Copyright (c) 2020 earlygrey
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+ */
+package space.earlygrey.simplegraphs;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class IntGraphTest {
+
+    static int index(int x, int y, int n) {
+        return x * n + y;
+    }
+
+    static <G extends IntGraph> G makeGridGraph(G graph, int n) {
+        for (int i = 0; i < n * n; i++) {
+            graph.addVertex(i);
+        }
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                if (i < n - 1) {
+                    graph.addEdge(index(i, j, n), index(i + 1, j, n));
+                    if (graph.isDirected()) graph.addEdge(index(i + 1, j, n), index(i, j, n));
+                }
+                if (j < n - 1) {
+                    graph.addEdge(index(i, j, n), index(i, j + 1, n));
+                    if (graph.isDirected()) graph.addEdge(index(i, j + 1, n), index(i, j, n));
+                }
+            }
+        }
+        return graph;
+    }
+
+    @Test
+    public void verticesAndEdgesCanBeAddedAndRemoved() {
+        IntDirectedGraph graph = new IntDirectedGraph(0, 1, 2, 3);
+        assertEquals(4, graph.size());
+        assertFalse(graph.addVertex(2));
+        assertTrue(graph.addEdge(0, 1));
+        assertTrue(graph.addEdge(0, 2, 3));
+        assertTrue(graph.addEdge(3, 0));
+        assertFalse(graph.addEdge(0, 1, 2));
+        assertEquals(3, graph.getEdgeCount());
+        assertTrue(graph.edgeExists(0, 1));
+        assertFalse(graph.edgeExists(1, 0));
+        assertEquals(2, graph.getEdgeWeight(0, 1), 0.0001f);
+        assertEquals(2, graph.getOutDegree(0));
+        assertEquals(1, graph.getInDegree(0));
+        assertArrayEquals(new int[]{3}, graph.getInNeighbours(0));
+
+        assertTrue(graph.removeEdge(0, 1));
+        assertFalse(graph.removeEdge(0, 1));
+        assertArrayEquals(new int[]{2}, graph.getNeighbours(0));
+
+        assertTrue(graph.removeVertex(0));
+        assertFalse(graph.contains(0));
+        assertEquals(0, graph.getEdgeCount());
+        assertEquals(0, graph.getOutDegree(3));
+
+        // the id of the removed vertex is reused
+        assertTrue(graph.addVertex(10));
+        assertTrue(graph.addEdge(10, 3, (a, b) -> a + b));
+        assertEquals(13, graph.getEdgeWeight(10, 3), 0.0001f);
+        assertEquals(4, graph.size());
+
+        IntUndirectedGraph undirectedGraph = new IntUndirectedGraph(graph);
+        assertTrue(undirectedGraph.edgeExists(3, 10));
+        assertEquals(1, undirectedGraph.getDegree(3));
+        assertTrue(undirectedGraph.removeEdge(3, 10));
+        assertEquals(0, undirectedGraph.getDegree(10));
+        assertEquals(0, undirectedGraph.getEdgeCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void missingEdgeWeightShouldThrow() {
+        IntUndirectedGraph graph = new IntUndirectedGraph(0, 1);
+        graph.getEdgeWeight(0, 1);
+    }
+
+    @Test
+    public void shortestPathShouldMatchGraph() {
+        int n = 20;
+        IntGraph[] intGraphs = {makeGridGraph(new IntUndirectedGraph(), n), makeGridGraph(new IntDirectedGraph(), n)};
+        Graph<?>[] graphs = {new UndirectedGraph<Integer>(), new DirectedGraph<Integer>()};
+        int start = index(0, 0, n), end = index(n - 1, n - 1, n);
+
+        for (int g = 0; g < 2; g++) {
+            IntGraph intGraph = intGraphs[g];
+            @SuppressWarnings("unchecked")
+            Graph<Integer> graph = (Graph<Integer>) graphs[g];
+            for (int v : intGraph.getVertices()) graph.addVertex(v);
+            for (int v : intGraph.getVertices()) {
+                for (int w : intGraph.getNeighbours(v)) graph.addEdge(v, w);
+            }
+
+            // remove some edges so that slots are reused
+            for (int i = 1; i < n - 1; i++) {
+                intGraph.removeEdge(index(i, i, n), index(i + 1, i, n));
+                graph.removeEdge(index(i, i, n), index(i + 1, i, n));
+            }
+            intGraph.setEdgeWeight(start, index(1, 0, n), 5);
+            graph.getEdge(start, index(1, 0, n)).setWeight(5);
+            assertEquals(graph.getEdgeCount(), intGraph.getEdgeCount());
+
+            IntPath path = intGraph.algorithms().findShortestPath(start, end);
+            Path<Integer> expected = graph.algorithms().findShortestPath(start, end);
+            assertEquals(expected.size(), path.size());
+            assertEquals(expected.getLength(), path.getLength(), 0.0001f);
+            assertEquals(start, path.getFirst());
+            assertEquals(end, path.getLast());
+            for (int i = 0; i < path.size() - 1; i++) {
+                assertTrue(intGraph.edgeExists(path.get(i), path.get(i + 1)));
+            }
+
+            path = intGraph.algorithms().findShortestPath(start, end, (u, v) -> Math.abs(u / n - v / n) + Math.abs(u % n - v % n));
+            assertEquals(expected.getLength(), path.getLength(), 0.0001f);
+
+            intGraph.disconnect(end);
+            assertTrue(intGraph.algorithms().findShortestPath(start, end).isEmpty());
+            assertFalse(intGraph.algorithms().isConnected(start, end));
+        }
+    }
+
+    @Test
+    public void searchesShouldWork() {
+        IntDirectedGraph graph = new IntDirectedGraph(0, 1, 2, 3, 4, 5, 6);
+        graph.addEdge(0, 1);
+        graph.addEdge(0, 2);
+        graph.addEdge(1, 3);
+        graph.addEdge(2, 4);
+        graph.addEdge(3, 5);
+        graph.addEdge(4, 5);
+
+        int[] order = new int[7];
+        int[] count = {0};
+        graph.algorithms().breadthFirstSearch(0, step -> {
+            order[count[0]++] = step.vertexAsInt();
+            if (step.count() > 0) assertEquals(step.previousAsInt(), (int) step.edge().getA());
+            assertEquals(step.depth(), step.createIntPath().size() - 1);
+        });
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4, 5}, Arrays.copyOf(order, count[0]));
+
+        assertFalse(graph.algorithms().containsCycle());
+        graph.addEdge(5, 0);
+        assertTrue(graph.algorithms().containsCycle());
+    }
+}